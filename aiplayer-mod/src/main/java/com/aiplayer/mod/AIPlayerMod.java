@@ -5,6 +5,7 @@ import com.aiplayer.mod.entity.AIBotEntities;
 import com.aiplayer.mod.entity.AIBotEntity;
 import com.aiplayer.mod.core.AIPlayerRuntime;
 import com.aiplayer.mod.core.ModuleManager;
+import com.aiplayer.mod.core.world.BlockCategoryTable;
 import com.aiplayer.mod.modules.AE2Module;
 import com.aiplayer.mod.modules.ComputerCraftModule;
 import com.aiplayer.mod.modules.CreateModule;
@@ -51,6 +52,10 @@ public class AIPlayerMod {
         modBus.addListener(this::onEntityAttributes);
 
         NeoForge.EVENT_BUS.register(this);
+        NeoForge.EVENT_BUS.register(this.runtime.getWorldModel());
+        NeoForge.EVENT_BUS.register(this.runtime.getBotEntityIndex());
+        NeoForge.EVENT_BUS.register(this.runtime.getWalkabilityGrid());
+        NeoForge.EVENT_BUS.register(BlockCategoryTable.class);
 
         LOGGER.info("{} bootstrap complete. phase={}, modules={}", ModMetadata.MOD_ID, this.runtime.getPhase(), this.moduleManager.size());
     }
@@ -75,16 +80,16 @@ public class AIPlayerMod {
             return;
         }
         serverTickCounter = 0;
-        var level = event.getServer().overworld();
-        if (level != null) {
-            this.runtime.tickOnce(level);
-        }
+        this.runtime.tickOnce(event.getServer());
     }
 
     @SubscribeEvent
     public void onServerStopping(ServerStoppingEvent event) {
+        this.runtime.cancelPendingPlans("server-stop");
         this.memoryRepository.flushActions();
-        LOGGER.info("Buffered bot actions flushed on server stop");
+        this.memoryRepository.close();
+        this.runtime.closeLlmClient();
+        LOGGER.info("Write-behind journal drained, SQLite connections closed and Ollama probe stopped on server stop");
     }
 
     private void registerDefaultModules() {
@@ -1,20 +1,34 @@
 package com.aiplayer.mod.commands;
 
 import com.aiplayer.mod.core.AIPlayerRuntime;
+import com.aiplayer.mod.core.BotEntityIndex;
+import com.aiplayer.mod.core.TickBudgetScheduler;
 import com.aiplayer.mod.core.ai.BotGoal;
+import com.aiplayer.mod.core.ai.BotPlanner;
+import com.aiplayer.mod.core.ai.PerceptionScanner;
+import com.aiplayer.mod.core.ai.PlanCache;
+import com.aiplayer.mod.core.path.PathCache;
+import com.aiplayer.mod.core.path.PathPlanner;
+import com.aiplayer.mod.core.path.WalkabilityGrid;
+import com.aiplayer.mod.core.world.BlockCategoryTable;
+import com.aiplayer.mod.core.world.WorldModel;
 import com.aiplayer.mod.integrations.AE2Bridge;
+import com.aiplayer.mod.integrations.LlmScheduler;
 import com.aiplayer.mod.integrations.MineColoniesBridge;
+import com.aiplayer.mod.integrations.OllamaClient;
 import com.aiplayer.mod.persistence.BotMemoryRepository;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.BoolArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.core.BlockPos;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 
 import java.time.Duration;
@@ -23,6 +37,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
 
 public final class AIPlayerCommands {
     private static final String DEFAULT_COLONY_NAME = "aiplayer";
@@ -44,6 +59,8 @@ public final class AIPlayerCommands {
     private static final int DEFAULT_BOT_TASK_PRUNE_LIMIT = 20;
     private static final int DEFAULT_BOT_INTERACTION_LIST_LIMIT = 5;
     private static final int DEFAULT_GOAL_LIST_LIMIT = 5;
+    private static final int DEFAULT_DB_BENCH_ITERATIONS = 200;
+    private static final int DEFAULT_PATH_BENCH_RUNS = 10;
 
     private static final List<String> BOT_TASK_STATUS_SUGGESTIONS = List.of("PENDING", "ACTIVE", "DONE", "CANCELED");
     private static final List<String> AE2_REQUEST_STATUS_SUGGESTIONS = List.of("PENDING", "DISPATCHED", "FAILED", "DONE", "CANCELED");
@@ -177,7 +194,13 @@ public final class AIPlayerCommands {
                     )))
                 .executes(context -> spawnBotNamed(context.getSource(), runtime, "AIPlayer Bot")))
             .then(Commands.literal("status")
-                .executes(context -> showStatus(context.getSource(), runtime)))
+                .then(botNameArgument(runtime)
+                    .executes(context -> showStatus(context.getSource(), runtime, StringArgumentType.getString(context, "bot"))))
+                .executes(context -> showStatus(context.getSource(), runtime, null)))
+            .then(Commands.literal("despawn")
+                .then(botNameArgument(runtime)
+                    .executes(context -> despawnBot(context.getSource(), runtime, StringArgumentType.getString(context, "bot"))))
+                .executes(context -> despawnBot(context.getSource(), runtime, null)))
             .then(Commands.literal("xp")
                 .executes(context -> botXpStatus(context.getSource(), runtime))
                 .then(Commands.literal("add")
@@ -460,12 +483,64 @@ public final class AIPlayerCommands {
                         IntegerArgumentType.getInteger(context, "limit")
                     ))));
 
+        var dbCommand = Commands.literal("db")
+            .then(Commands.literal("pool")
+                .executes(context -> dbPool(context.getSource(), runtime)))
+            .then(Commands.literal("journal")
+                .executes(context -> dbJournal(context.getSource(), runtime)))
+            .then(Commands.literal("plan")
+                .executes(context -> dbPlan(context.getSource(), runtime)))
+            .then(Commands.literal("retention")
+                .executes(context -> dbRetention(context.getSource(), runtime))
+                .then(Commands.literal("run")
+                    .executes(context -> dbRetentionRun(context.getSource(), runtime))))
+            .then(Commands.literal("vacuum")
+                .executes(context -> dbVacuum(context.getSource(), runtime)))
+            .then(Commands.literal("bench")
+                .executes(context -> dbBench(context.getSource(), runtime, DEFAULT_DB_BENCH_ITERATIONS))
+                .then(Commands.argument("iterations", IntegerArgumentType.integer(10, 1000))
+                    .executes(context -> dbBench(
+                        context.getSource(),
+                        runtime,
+                        IntegerArgumentType.getInteger(context, "iterations")
+                    ))));
+
+        var llmCommand = Commands.literal("llm")
+            .then(Commands.literal("endpoints")
+                .executes(context -> llmEndpoints(context.getSource(), runtime)))
+            .then(Commands.literal("queue")
+                .executes(context -> llmQueue(context.getSource(), runtime)))
+            .then(Commands.literal("planner")
+                .executes(context -> llmPlanner(context.getSource(), runtime)))
+            .then(Commands.literal("cache")
+                .executes(context -> llmCache(context.getSource(), runtime))
+                .then(Commands.literal("clear")
+                    .executes(context -> llmCacheClear(context.getSource(), runtime))));
+
         var aiPlayerCommand = Commands.literal("aiplayer")
             .requires(source -> source.hasPermission(2))
             .then(Commands.literal("status")
-                .executes(context -> showStatus(context.getSource(), runtime))
+                .executes(context -> showStatus(context.getSource(), runtime, null))
                 .then(Commands.literal("verbose")
-                    .executes(context -> showStatusVerbose(context.getSource(), runtime))))
+                    .then(botNameArgument(runtime)
+                        .executes(context -> showStatusVerbose(context.getSource(), runtime, StringArgumentType.getString(context, "bot"))))
+                    .executes(context -> showStatusVerbose(context.getSource(), runtime, null)))
+                .then(botNameArgument(runtime)
+                    .executes(context -> showStatus(context.getSource(), runtime, StringArgumentType.getString(context, "bot")))))
+            .then(Commands.literal("bots")
+                .executes(context -> listBots(context.getSource(), runtime)))
+            .then(Commands.literal("world")
+                .executes(context -> worldModelStats(context.getSource(), runtime)))
+            .then(Commands.literal("path")
+                .executes(context -> pathStats(context.getSource(), runtime))
+                .then(Commands.literal("bench")
+                    .executes(context -> pathBench(context.getSource(), runtime, DEFAULT_PATH_BENCH_RUNS))
+                    .then(Commands.argument("runs", IntegerArgumentType.integer(1, 200))
+                        .executes(context -> pathBench(
+                            context.getSource(),
+                            runtime,
+                            IntegerArgumentType.getInteger(context, "runs")
+                        )))))
             .then(Commands.literal("goal")
                 .then(Commands.literal("set")
                     .then(Commands.argument("name", StringArgumentType.word())
@@ -511,9 +586,13 @@ public final class AIPlayerCommands {
                     )))
                 .executes(context -> spawnBotNamed(context.getSource(), runtime, "AIPlayer Bot")))
             .then(Commands.literal("despawn")
-                .executes(context -> despawnBot(context.getSource(), runtime)))
+                .then(botNameArgument(runtime)
+                    .executes(context -> despawnBot(context.getSource(), runtime, StringArgumentType.getString(context, "bot"))))
+                .executes(context -> despawnBot(context.getSource(), runtime, null)))
             .then(Commands.literal("tick")
-                .executes(context -> tickOnce(context.getSource(), runtime)))
+                .executes(context -> tickOnce(context.getSource(), runtime))
+                .then(Commands.literal("budget")
+                    .executes(context -> tickBudget(context.getSource(), runtime))))
             .then(Commands.literal("phase")
                 .then(Commands.argument("value", StringArgumentType.word())
                     .executes(context -> setPhase(
@@ -616,14 +695,26 @@ public final class AIPlayerCommands {
                             runtime,
                             IntegerArgumentType.getInteger(context, "count")
                         )))))
-            .then(ae2Command);
+            .then(ae2Command)
+            .then(dbCommand)
+            .then(llmCommand);
 
         dispatcher.register(aiPlayerCommand);
     }
 
-    private static int showStatus(CommandSourceStack source, AIPlayerRuntime runtime) {
+    private static RequiredArgumentBuilder<CommandSourceStack, String> botNameArgument(AIPlayerRuntime runtime) {
+        return Commands.argument("bot", StringArgumentType.word())
+            .suggests((context, builder) -> SharedSuggestionProvider.suggest(runtime.getBotNames(), builder));
+    }
+
+    // botName null addresses the first registered bot, which keeps single-bot servers unchanged.
+    private static int showStatus(CommandSourceStack source, AIPlayerRuntime runtime, String botName) {
+        if (botName != null && !runtime.hasBot(botName)) {
+            source.sendFailure(Component.literal("Unknown bot: " + botName));
+            return 0;
+        }
         StringJoiner joiner = new StringJoiner(", ");
-        AIPlayerRuntime.DecisionStats stats = runtime.getDecisionStats();
+        AIPlayerRuntime.DecisionStats stats = runtime.getDecisionStats(botName);
         String lastDecision = stats.lastDecisionAt() == null
             ? "never"
             : Duration.between(stats.lastDecisionAt(), Instant.now()).toSeconds() + "s";
@@ -636,10 +727,14 @@ public final class AIPlayerCommands {
                     + " | xp=" + runtime.getBotXp() + " (" + runtime.getBotSkillTier() + ")"
                     + " | botTasks=" + runtime.countOpenBotTasks()
                     + " | decisions=" + stats.decisionsMade() + " skipped=" + stats.decisionSkips() + " last=" + lastDecision
-                    + " | bot=" + runtime.getBotVitals(source.getLevel())
+                    + (stats.streamedPlans() == 0
+                        ? ""
+                        : String.format(Locale.ROOT, " ttfs=%.0fms avg=%.0fms", stats.lastFirstStepMillis(), stats.avgFirstStepMillis()))
+                    + " | bot=" + runtime.getBotVitals(botName)
                         .map(v -> String.format("health=%.1f/%.1f hunger=%d", v.health(), v.maxHealth(), v.hunger()))
                         .orElse("none")
-                    + " | survivalMin=" + runtime.getSurvivalMinutes()
+                    + " | bots=" + runtime.getBotNames().size()
+                    + " | survivalMin=" + runtime.getSurvivalMinutes(botName)
                     + " | modules=" + joiner
             ),
             false
@@ -647,29 +742,55 @@ public final class AIPlayerCommands {
         return 1;
     }
 
-    private static int showStatusVerbose(CommandSourceStack source, AIPlayerRuntime runtime) {
-        BotGoal goal = runtime.getActiveGoal();
+    private static int showStatusVerbose(CommandSourceStack source, AIPlayerRuntime runtime, String botName) {
+        if (botName != null && !runtime.hasBot(botName)) {
+            source.sendFailure(Component.literal("Unknown bot: " + botName));
+            return 0;
+        }
+        BotGoal goal = runtime.getBotGoal(botName);
         String goalText = (goal == null)
             ? "none"
             : goal.name() + " (" + goal.source() + ")" + (goal.description().isBlank() ? "" : " " + goal.description());
-        boolean botTracked = runtime.isBotAlive(source.getLevel());
+        boolean botTracked = runtime.isBotAlive(botName);
 
         source.sendSuccess(
             () -> Component.literal("paused=" + runtime.isPaused() + " debug=" + runtime.isDebug() + " botTracked=" + botTracked + " goal=" + goalText),
             false
         );
         source.sendSuccess(
-            () -> Component.literal("plan=" + runtime.getCurrentPlanSummary()),
+            () -> Component.literal("plan=" + runtime.getCurrentPlanSummary(botName)),
             false
         );
         source.sendSuccess(
-            () -> Component.literal("step=" + runtime.getCurrentStepSummary()),
+            () -> Component.literal("step=" + runtime.getCurrentStepSummary(botName)),
             false
         );
         source.sendSuccess(
-            () -> Component.literal("perception=" + runtime.getLastPerceptionSummary()),
+            () -> Component.literal("perception=" + runtime.getLastPerceptionSummary(botName)),
             false
         );
+        AIPlayerRuntime.PerceptionStats perception = runtime.getPerceptionStats(botName);
+        if (perception != null) {
+            PerceptionScanner.Stats scan = perception.scan();
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "indexed=%d scan=%d/%d positions read=%d skippedSections=%d hits=%d slices=%d time=%.0fus scans=%d",
+                    perception.indexedLookups(),
+                    scan.lastPositions(),
+                    scan.volume(),
+                    scan.lastPositionsRead(),
+                    scan.lastSectionsSkipped(),
+                    scan.lastHits(),
+                    scan.lastSlices(),
+                    scan.lastScanMicros(),
+                    scan.scans()
+                )),
+                false
+            );
+        }
+        PathCache.Stats pathCache = runtime.getPathCacheStats();
+        source.sendSuccess(() -> Component.literal("pathCache " + formatPathCache(pathCache)), false);
         return 1;
     }
 
@@ -723,6 +844,10 @@ public final class AIPlayerCommands {
     }
 
     private static int spawnBotNamed(CommandSourceStack source, AIPlayerRuntime runtime, String botName) {
+        if (runtime.hasBot(botName)) {
+            source.sendFailure(Component.literal("A bot named " + botName + " already exists"));
+            return 0;
+        }
         boolean spawned = runtime.spawnBot(source.getLevel(), source.getPosition(), botName);
         if (!spawned) {
             source.sendFailure(Component.literal("Unable to spawn bot entity"));
@@ -732,23 +857,239 @@ public final class AIPlayerCommands {
         return 1;
     }
 
-    private static int despawnBot(CommandSourceStack source, AIPlayerRuntime runtime) {
-        boolean removed = runtime.despawnBot(source.getLevel());
+    private static int despawnBot(CommandSourceStack source, AIPlayerRuntime runtime, String botName) {
+        boolean removed = runtime.despawnBot(botName);
         if (!removed) {
-            source.sendFailure(Component.literal("No tracked bot to despawn"));
+            source.sendFailure(Component.literal(botName == null ? "No tracked bot to despawn" : "Unknown bot: " + botName));
             return 0;
         }
 
-        source.sendSuccess(() -> Component.literal("Bot despawned"), false);
+        source.sendSuccess(() -> Component.literal(botName == null ? "Bot despawned" : "Bot despawned: " + botName), false);
+        return 1;
+    }
+
+    private static int listBots(CommandSourceStack source, AIPlayerRuntime runtime) {
+        List<AIPlayerRuntime.BotSummary> bots = runtime.listBots();
+        AIPlayerRuntime.TickStats tick = runtime.getTickStats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "Bots=%d tick last=%.0fus avg=%.0fus perBot=%.0fus",
+                bots.size(),
+                tick.lastTickMicros(),
+                tick.avgTickMicros(),
+                tick.avgMicrosPerBot()
+            )),
+            false
+        );
+        if (!tick.botsPerDimension().isEmpty()) {
+            StringJoiner dimensions = new StringJoiner(" ");
+            tick.botsPerDimension().forEach((dimension, count) -> dimensions.add(dimension + "=" + count));
+            source.sendSuccess(() -> Component.literal("Dimensions: " + dimensions), false);
+        }
+        BotEntityIndex.Stats index = runtime.getBotEntityIndexStats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "Entity index loaded=%d markers=%d joins=%d leaves=%d lookups=%d misses=%d",
+                index.loadedBots(),
+                index.loadedMarkers(),
+                index.joins(),
+                index.leaves(),
+                index.lookups(),
+                index.misses()
+            )),
+            false
+        );
+        for (AIPlayerRuntime.BotSummary bot : bots) {
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "%s goal=%s steps=%d%s hunger=%d decisions=%d tick=%.0fus",
+                    bot.name(),
+                    bot.goal(),
+                    bot.planSteps(),
+                    bot.planPending() ? " planning" : "",
+                    bot.hunger(),
+                    bot.decisionsMade(),
+                    bot.avgTickMicros()
+                )),
+                false
+            );
+        }
+        return 1;
+    }
+
+    private static int worldModelStats(CommandSourceStack source, AIPlayerRuntime runtime) {
+        WorldModel.Stats stats = runtime.getWorldModelStats();
+        StringJoiner categories = new StringJoiner(" ");
+        stats.perCategory().forEach((category, count) -> categories.add(category.name().toLowerCase(Locale.ROOT) + "=" + count));
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "World model dims=%d chunks=%d entries=%d/%d ~%dKB pending=%d parked=%d indexed=%d evicted=%d updates=%d",
+                stats.dimensions(),
+                stats.chunks(),
+                stats.entries(),
+                stats.maxEntries(),
+                stats.approxBytes() / 1024L,
+                stats.pendingChunks(),
+                stats.parkedChunks(),
+                stats.chunksIndexed(),
+                stats.chunksEvicted(),
+                stats.blockUpdates()
+            )),
+            false
+        );
+        source.sendSuccess(() -> Component.literal("Categories: " + categories), false);
+        BlockCategoryTable.Stats table = BlockCategoryTable.stats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "Category table blocks=%d states=%d source=%s built=%s",
+                table.blocks(),
+                table.states(),
+                table.source(),
+                Instant.ofEpochMilli(table.builtAtMillis())
+            )),
+            false
+        );
+        return 1;
+    }
+
+    private static int pathStats(CommandSourceStack source, AIPlayerRuntime runtime) {
+        AIPlayerRuntime.PathfindingStats stats = runtime.getPathfindingStats();
+        PathPlanner.Stats planner = stats.planner();
+        WalkabilityGrid.Stats grid = stats.grid();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "Paths searches=%d found=%d partial=%d failed=%d corridor=%d avgNodes=%.0f budget=%d/tick max=%d exhaustedTicks=%d",
+                planner.searches(),
+                planner.found(),
+                planner.partial(),
+                planner.failed(),
+                planner.corridorSearches(),
+                planner.avgNodesPerSearch(),
+                planner.nodesPerTick(),
+                planner.maxNodesPerSearch(),
+                planner.budgetExhaustedTicks()
+            )),
+            false
+        );
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "Walkability sections=%d/%d hits=%d misses=%d updates=%d evicted=%d | bots searching=%d reused=%d replans=%d",
+                grid.sections(),
+                grid.maxSections(),
+                grid.sectionHits(),
+                grid.sectionMisses(),
+                grid.cellUpdates(),
+                grid.sectionsEvicted(),
+                stats.botsSearching(),
+                stats.routesReused(),
+                stats.replans()
+            )),
+            false
+        );
+        source.sendSuccess(() -> Component.literal("Path cache " + formatPathCache(stats.cache())), false);
+        return 1;
+    }
+
+    private static String formatPathCache(PathCache.Stats cache) {
+        return String.format(
+            Locale.ROOT,
+            "size=%d/%d ttl=%ds hits=%d misses=%d hitRate=%.0f%% expired=%d invalidated=%d evicted=%d",
+            cache.size(),
+            cache.maxEntries(),
+            cache.ttlSeconds(),
+            cache.hits(),
+            cache.misses(),
+            100.0D * cache.hitRate(),
+            cache.expired(),
+            cache.invalidated(),
+            cache.evictions()
+        );
+    }
+
+    private static int pathBench(CommandSourceStack source, AIPlayerRuntime runtime, int runs) {
+        MinecraftServer server = source.getServer();
+        CompletableFuture<PathPlanner.BenchmarkResult> bench = runtime.benchmarkPathfindingAsync(runs);
+        if (bench == null) {
+            source.sendFailure(Component.literal("Path bench deja en cours"));
+            return 0;
+        }
+        bench.whenComplete((result, error) -> server.execute(() -> {
+            if (error != null || result == null) {
+                source.sendFailure(Component.literal("Path bench failed (voir logs serveur)"));
+                return;
+            }
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "Path bench runs=%d | flat found=%d nodes=%.0f %.0fus cost/straight=%.3f | hierarchical found=%d nodes=%.0f %.0fus cost/straight=%.3f",
+                    result.runs(),
+                    result.flatFound(),
+                    result.flatAvgNodes(),
+                    result.flatAvgMicros(),
+                    result.flatCostRatio(),
+                    result.hierarchicalFound(),
+                    result.hierarchicalAvgNodes(),
+                    result.hierarchicalAvgMicros(),
+                    result.hierarchicalCostRatio()
+                )),
+                false
+            );
+        }));
+
+        source.sendSuccess(() -> Component.literal("Path bench started, resultat a venir..."), false);
         return 1;
     }
 
     private static int tickOnce(CommandSourceStack source, AIPlayerRuntime runtime) {
-        runtime.tickNow(source.getLevel());
+        runtime.tickNow(source.getServer());
         source.sendSuccess(() -> Component.literal("AIPlayer tick forced"), false);
         return 1;
     }
 
+    private static int tickBudget(CommandSourceStack source, AIPlayerRuntime runtime) {
+        TickBudgetScheduler.Stats stats = runtime.getTickSchedulerStats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "Tick budget=%dus ticks=%d over=%d pending=%d avg=%.0fus p95=%.0fus",
+                stats.budgetMicros(),
+                stats.ticks(),
+                stats.overBudgetTicks(),
+                stats.pending(),
+                stats.avgTickMicros(),
+                stats.p95TickMicros()
+            )),
+            false
+        );
+        for (TickBudgetScheduler.JobStats job : stats.jobs()) {
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "%s [%s] runs=%d deferred=%d forced=%d failed=%d avg=%.0fus p50=%.0fus p95=%.0fus max=%.0fus",
+                    job.name(),
+                    job.jobClass(),
+                    job.runs(),
+                    job.deferrals(),
+                    job.forced(),
+                    job.failures(),
+                    job.avgMicros(),
+                    job.p50Micros(),
+                    job.p95Micros(),
+                    job.maxMicros()
+                )),
+                false
+            );
+        }
+        return 1;
+    }
+
     private static int setPhase(CommandSourceStack source, AIPlayerRuntime runtime, String phase) {
         runtime.setPhase(phase);
         source.sendSuccess(() -> Component.literal("Phase set to " + phase), false);
@@ -861,7 +1202,7 @@ public final class AIPlayerCommands {
     private static int botTaskDelete(CommandSourceStack source, AIPlayerRuntime runtime, int taskId) {
         boolean deleted = runtime.deleteBotTask(taskId);
         if (!deleted) {
-            source.sendFailure(Component.literal("Bot task non supprimable: id=" + taskId + " (inconnue ou non fermee)"));
+            source.sendFailure(Component.literal("Bot task non supprimable: id=" + taskId + " (inconnue, non fermee ou ecritures en attente)"));
             return 0;
         }
 
@@ -945,16 +1286,23 @@ public final class AIPlayerCommands {
 
     private static int botAsk(CommandSourceStack source, AIPlayerRuntime runtime, String question) {
         String playerId = source.getTextName();
-        AIPlayerRuntime.BotAskResult result = runtime.askBot(playerId, question);
-        if (result.interactionId() <= 0) {
-            source.sendFailure(Component.literal("Impossible d'enregistrer l'interaction bot"));
-            return 0;
-        }
-
-        source.sendSuccess(
-            () -> Component.literal("Bot ask id=" + result.interactionId() + " -> " + result.response()),
-            false
-        );
+        MinecraftServer server = source.getServer();
+        runtime.askBotAsync(playerId, question).whenComplete((result, error) -> server.execute(() -> {
+            if (error != null || result == null) {
+                source.sendFailure(Component.literal("Bot ask en echec (voir logs serveur)"));
+                return;
+            }
+            if (result.interactionId() <= 0) {
+                source.sendFailure(Component.literal("Impossible d'enregistrer l'interaction bot"));
+                return;
+            }
+            source.sendSuccess(
+                () -> Component.literal("Bot ask id=" + result.interactionId() + " -> " + result.response()),
+                false
+            );
+        }));
+
+        source.sendSuccess(() -> Component.literal("Bot ask envoye, reponse a venir..."), false);
         return 1;
     }
 
@@ -1244,6 +1592,8 @@ public final class AIPlayerCommands {
         source.sendSuccess(
             () -> Component.literal(
                 "AE2 " + scan.summary() + " radius=" + scan.radius()
+                    + " sections=" + scan.sectionsScanned() + "/" + (scan.sectionsScanned() + scan.sectionsSkipped())
+                    + " tested=" + scan.scannedBlocks()
             ),
             false
         );
@@ -1597,6 +1947,322 @@ public final class AIPlayerCommands {
         return 1;
     }
 
+    private static int llmEndpoints(CommandSourceStack source, AIPlayerRuntime runtime) {
+        List<OllamaClient.EndpointStats> endpoints = runtime.getLlmEndpointStats();
+        source.sendSuccess(() -> Component.literal("Ollama endpoints (ordre de routage = latence EWMA):"), false);
+        for (OllamaClient.EndpointStats endpoint : endpoints) {
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "- %s %s ewma=%s probe=%s ok=%d ko=%d streak=%d%s%s",
+                    endpoint.endpoint(),
+                    endpoint.state(),
+                    endpoint.latencyEwmaMillis() < 0 ? "?" : String.format(Locale.ROOT, "%.0fms", endpoint.latencyEwmaMillis()),
+                    endpoint.probeMillis() < 0 ? "?" : String.format(Locale.ROOT, "%.0fms", endpoint.probeMillis()),
+                    endpoint.successes(),
+                    endpoint.failures(),
+                    endpoint.consecutiveFailures(),
+                    endpoint.retryInMillis() > 0 ? " retryIn=" + endpoint.retryInMillis() / 1000L + "s" : "",
+                    endpoint.lastError().isBlank() ? "" : " lastError=" + endpoint.lastError()
+                )),
+                false
+            );
+        }
+        return 1;
+    }
+
+    private static int llmQueue(CommandSourceStack source, AIPlayerRuntime runtime) {
+        LlmScheduler.Stats stats = runtime.getLlmSchedulerStats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(Locale.ROOT, "LLM scheduler running=%d/%d", stats.running(), stats.maxConcurrent())),
+            false
+        );
+        for (LlmScheduler.ClassStats priority : stats.classes()) {
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "- %s queued=%d submitted=%d coalesced=%d dropped=%d cancelled=%d aborted=%d started=%d wait avg=%.0fms max=%.0fms",
+                    priority.priority(),
+                    priority.queued(),
+                    priority.submitted(),
+                    priority.coalesced(),
+                    priority.dropped(),
+                    priority.withdrawn(),
+                    priority.aborted(),
+                    priority.started(),
+                    priority.avgWaitMillis(),
+                    priority.maxWaitMillis()
+                )),
+                false
+            );
+        }
+        return 1;
+    }
+
+    private static int llmPlanner(CommandSourceStack source, AIPlayerRuntime runtime) {
+        BotPlanner.Stats stats = runtime.getPlannerStats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "Planner requests=%d parsed=%d parseFailures=%d (%.1f%%) unavailable=%d steps=%d",
+                stats.requests(),
+                stats.parsedPlans(),
+                stats.parseFailures(),
+                stats.parseFailureRate() * 100.0D,
+                stats.unavailable(),
+                stats.parsedSteps()
+            )),
+            false
+        );
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "Tokens budget=%d truncated=%d calls=%d avgPrompt=%.0f avgEval=%.0f totalPrompt=%d totalEval=%d",
+                stats.promptBudgetTokens(),
+                stats.truncatedPrompts(),
+                stats.usageSamples(),
+                stats.avgPromptTokens(),
+                stats.avgEvalTokens(),
+                stats.totalPromptTokens(),
+                stats.totalEvalTokens()
+            )),
+            false
+        );
+        BotPlanner.CallUsage last = stats.lastCall();
+        if (last != null) {
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "Last call prompt=%d (estimate=%d) eval=%d promptMs=%.0f evalMs=%.0f dropped=%s",
+                    last.promptTokens(),
+                    last.estimatedPromptTokens(),
+                    last.evalTokens(),
+                    last.promptMillis(),
+                    last.evalMillis(),
+                    last.droppedSections().isEmpty() ? "-" : String.join(",", last.droppedSections())
+                )),
+                false
+            );
+        }
+        return 1;
+    }
+
+    private static int llmCache(CommandSourceStack source, AIPlayerRuntime runtime) {
+        PlanCache.Stats stats = runtime.getPlanCacheStats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "Plan cache enabled=%s size=%d/%d ttl=%ds hits=%d misses=%d (%.0f%%) stale=%d expired=%d evicted=%d",
+                stats.enabled(),
+                stats.size(),
+                stats.maxEntries(),
+                stats.ttlSeconds(),
+                stats.hits(),
+                stats.misses(),
+                stats.hitRate() * 100.0D,
+                stats.stale(),
+                stats.expired(),
+                stats.evictions()
+            )),
+            false
+        );
+        return 1;
+    }
+
+    private static int llmCacheClear(CommandSourceStack source, AIPlayerRuntime runtime) {
+        runtime.clearPlanCache();
+        source.sendSuccess(() -> Component.literal("Plan cache vide"), false);
+        return 1;
+    }
+
+    private static int dbPool(CommandSourceStack source, AIPlayerRuntime runtime) {
+        BotMemoryRepository.ConnectionPoolStats stats = runtime.getDatabasePoolStats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "DB pool readers=%d/%d idle=%d opened=%d reads=%d writes=%d stmtCache=%d/%d readWait=%.1fus writeWait=%.1fus",
+                stats.openReaders(),
+                stats.readPoolSize(),
+                stats.idleReaders(),
+                stats.connectionsOpened(),
+                stats.readLeases(),
+                stats.writeLeases(),
+                stats.statementCacheHits(),
+                stats.statementCacheHits() + stats.statementCacheMisses(),
+                stats.avgReadWaitMicros(),
+                stats.avgWriteWaitMicros()
+            )),
+            false
+        );
+        return 1;
+    }
+
+    private static int dbJournal(CommandSourceStack source, AIPlayerRuntime runtime) {
+        BotMemoryRepository.JournalStats stats = runtime.getDatabaseJournalStats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "DB journal depth=%d/%d (max=%d) policy=%s enqueued=%d written=%d dropped=%d failed=%d",
+                stats.depth(),
+                stats.capacity(),
+                stats.maxDepth(),
+                stats.overflowPolicy(),
+                stats.enqueued(),
+                stats.written(),
+                stats.dropped(),
+                stats.failed()
+            )),
+            false
+        );
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "DB journal flushes=%d last=%d writes in %.2fms blocked=%d avgBlocked=%.1fus taskWritesRetrying=%d",
+                stats.flushes(),
+                stats.lastFlushSize(),
+                stats.lastFlushMillis(),
+                stats.blockedWaits(),
+                stats.avgBlockedMicros(),
+                stats.requiredRetrying()
+            )),
+            false
+        );
+        return 1;
+    }
+
+    private static int dbPlan(CommandSourceStack source, AIPlayerRuntime runtime) {
+        List<BotMemoryRepository.QueryPlanResult> results = runtime.checkDatabaseQueryPlans();
+        if (results.isEmpty()) {
+            source.sendFailure(Component.literal("DB plan check failed (voir logs serveur)"));
+            return 0;
+        }
+
+        long scans = results.stream().filter(result -> !result.indexed()).count();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "DB schema v%d | hot queries=%d full scans=%d",
+                runtime.getDatabaseSchemaVersion(),
+                results.size(),
+                scans
+            )),
+            false
+        );
+        for (BotMemoryRepository.QueryPlanResult result : results) {
+            source.sendSuccess(
+                () -> Component.literal((result.indexed() ? "[ok] " : "[SCAN] ") + result.name() + ": " + result.plan()),
+                false
+            );
+        }
+        return scans == 0 ? 1 : 0;
+    }
+
+    private static int dbRetention(CommandSourceStack source, AIPlayerRuntime runtime) {
+        BotMemoryRepository.RetentionStats stats = runtime.getDatabaseRetentionStats();
+        source.sendSuccess(
+            () -> Component.literal(String.format(
+                Locale.ROOT,
+                "DB retention running=%s every=%dmin passes=%d last=%s (%.1fms, deleted=%d) rollups=%d checkpoints=%d vacuumedPages=%d",
+                stats.running(),
+                stats.intervalMinutes(),
+                stats.passes(),
+                stats.lastPassAt().isBlank() ? "never" : stats.lastPassAt(),
+                stats.lastPassMillis(),
+                stats.lastPassDeleted(),
+                stats.rollupUpserts(),
+                stats.checkpoints(),
+                stats.vacuumedPages()
+            )),
+            false
+        );
+        for (BotMemoryRepository.RetentionTableStats table : stats.tables()) {
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "- %s rows=%s/%d maxAge=%dh deleted=%d",
+                    table.table(),
+                    table.rows() < 0 ? "?" : Long.toString(table.rows()),
+                    table.maxRows(),
+                    table.maxAgeHours(),
+                    table.deleted()
+                )),
+                false
+            );
+        }
+        return 1;
+    }
+
+    private static int dbRetentionRun(CommandSourceStack source, AIPlayerRuntime runtime) {
+        if (!runtime.runDatabaseRetention()) {
+            source.sendFailure(Component.literal("DB retention deja en cours ou arretee"));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.literal("DB retention pass started (voir /aiplayer db retention)"), false);
+        return 1;
+    }
+
+    private static int dbVacuum(CommandSourceStack source, AIPlayerRuntime runtime) {
+        MinecraftServer server = source.getServer();
+        CompletableFuture<Optional<BotMemoryRepository.VacuumResult>> vacuum = runtime.vacuumDatabaseAsync();
+        if (vacuum == null) {
+            source.sendFailure(Component.literal("DB vacuum deja en cours"));
+            return 0;
+        }
+        vacuum.whenComplete((result, error) -> server.execute(() -> {
+            if (error != null || result == null || result.isEmpty()) {
+                source.sendFailure(Component.literal("DB vacuum failed (voir logs serveur)"));
+                return;
+            }
+            BotMemoryRepository.VacuumResult value = result.get();
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "DB vacuum pages=%d -> %d in %.0fms incrementalAutoVacuum=%s",
+                    value.pagesBefore(),
+                    value.pagesAfter(),
+                    value.millis(),
+                    value.incremental()
+                )),
+                false
+            );
+        }));
+
+        source.sendSuccess(() -> Component.literal("DB vacuum started (ecritures en pause pendant l'operation)"), false);
+        return 1;
+    }
+
+    private static int dbBench(CommandSourceStack source, AIPlayerRuntime runtime, int iterations) {
+        MinecraftServer server = source.getServer();
+        CompletableFuture<Optional<BotMemoryRepository.ConnectionBenchmarkResult>> bench = runtime.benchmarkDatabaseAsync(iterations);
+        if (bench == null) {
+            source.sendFailure(Component.literal("DB bench deja en cours"));
+            return 0;
+        }
+        bench.whenComplete((result, error) -> server.execute(() -> {
+            if (error != null || result == null || result.isEmpty()) {
+                source.sendFailure(Component.literal("DB bench failed (voir logs serveur)"));
+                return;
+            }
+            BotMemoryRepository.ConnectionBenchmarkResult value = result.get();
+            source.sendSuccess(
+                () -> Component.literal(String.format(
+                    Locale.ROOT,
+                    "DB bench iterations=%d | read open=%.1fus pooled=%.1fus | write open=%.1fus pooled=%.1fus",
+                    value.iterations(),
+                    value.openReadMicros(),
+                    value.pooledReadMicros(),
+                    value.openWriteMicros(),
+                    value.pooledWriteMicros()
+                )),
+                false
+            );
+        }));
+
+        source.sendSuccess(() -> Component.literal("DB bench started, resultat a venir..."), false);
+        return 1;
+    }
+
     private static ServerPlayer requirePlayer(CommandSourceStack source) throws CommandSyntaxException {
         return source.getPlayerOrException();
     }
@@ -3,6 +3,7 @@ package com.aiplayer.mod.core;
 import com.aiplayer.mod.entity.AIBotEntities;
 import com.aiplayer.mod.entity.AIBotEntity;
 import com.aiplayer.mod.integrations.AE2Bridge;
+import com.aiplayer.mod.integrations.LlmScheduler;
 import com.aiplayer.mod.integrations.MineColoniesBridge;
 import com.aiplayer.mod.integrations.OllamaClient;
 import com.aiplayer.mod.persistence.BotMemoryRepository;
@@ -15,46 +16,70 @@ import com.aiplayer.mod.core.ai.BotMemoryService;
 import com.aiplayer.mod.core.ai.BotPerception;
 import com.aiplayer.mod.core.ai.BotPlanner;
 import com.aiplayer.mod.core.ai.FakePlayerController;
+import com.aiplayer.mod.core.ai.PerceptionScanner;
+import com.aiplayer.mod.core.ai.PlanCache;
+import com.aiplayer.mod.core.path.PathCache;
+import com.aiplayer.mod.core.path.PathNavigator;
+import com.aiplayer.mod.core.path.PathPlanner;
+import com.aiplayer.mod.core.path.WalkabilityGrid;
+import com.aiplayer.mod.core.world.BlockCategory;
+import com.aiplayer.mod.core.world.IndexedBlock;
+import com.aiplayer.mod.core.world.WorldModel;
 import net.minecraft.core.Holder;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.tags.BlockTags;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.biome.Biome;
-import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.AABB;
 import net.neoforged.neoforge.common.util.FakePlayer;
 import net.minecraft.network.chat.Component;
 import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.decoration.ArmorStand;
 import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.Vec3;
 
 import java.time.Duration;
 import java.time.Instant;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 
 public final class AIPlayerRuntime {
     private static final String MARKER_TAG = "aiplayer_bot_marker";
     private static final int AE2_QUEUE_BATCH_SIZE = 1;
+    private static final int KNOWN_LOCATION_REACH = 64;
+    private static final int KNOWN_LOCATION_VERIFY_COUNT = 16;
+    private static final int PERCEPTION_BLOCK_RADIUS = 6;
+    private static final int PERCEPTION_BLOCK_HALF_HEIGHT = 2;
+    private static final int PERCEPTION_BLOCK_LIMIT = 10;
+    // A partial scan is restarted if the bot moved further than this (Manhattan) since it began.
+    private static final int PERCEPTION_RESCAN_DISTANCE = 2;
+    private static final double TICK_EWMA_ALPHA = 0.1D;
+    // 4 KB per cached section (all-air sections are shared), so at most 16 MB.
+    private static final int WALKABILITY_MAX_SECTIONS = 4096;
+    private static final int PATH_CACHE_MAX_ENTRIES = 512;
 
     private final ModuleManager moduleManager;
     private final BotMemoryRepository memoryRepository;
@@ -64,58 +89,49 @@ public final class AIPlayerRuntime {
     private final BotMemoryService memoryService;
     private final FakePlayerController fakePlayerController;
     private final BotPlanner botPlanner;
-    private final ActionExecutor actionExecutor;
+    private final BotRegistry botRegistry = new BotRegistry();
+    private final TickBudgetScheduler tickScheduler = new TickBudgetScheduler(resolveTickBudgetMicros());
+    private final WorldModel worldModel = new WorldModel(resolveWorldModelMaxEntries());
+    private final WalkabilityGrid walkabilityGrid = new WalkabilityGrid(WALKABILITY_MAX_SECTIONS);
+    private final PathPlanner pathPlanner = new PathPlanner(resolvePathNodesPerTick(), resolvePathMaxNodes());
+    private final PathCache pathCache = new PathCache(resolvePathCacheTtl(), PATH_CACHE_MAX_ENTRIES);
+    private final BotEntityIndex botEntities = new BotEntityIndex(MARKER_TAG, new BotEntityIndex.Listener() {
+        @Override
+        public void onBotLoaded(AIBotEntity bot) {
+            trackLoadedBot(bot);
+        }
+
+        @Override
+        public void onBotRemoved(UUID entityId, String reason) {
+            forgetBot(entityId, reason);
+        }
+    });
 
     private String phase;
     private UUID botMarkerEntityId;
-    private UUID botEntityId;
-    private String botName = "AIPlayer Bot";
-    private FakePlayer botFakePlayer;
-    private int botHunger = 20;
-    private Instant lastHungerAt;
-    private Instant lastHealAt;
-    private Instant lastHarvestAt;
-    private Instant lastMineAt;
-    private Instant lastCraftAt;
-    private Instant lastSleepAt;
-    private Instant lastLootCollectAt;
-    private Instant lastInventoryManageAt;
-    private Instant lastSurvivalAt;
-    private Instant lastDecisionStatsAt;
     private Instant lastTickLogAt;
+    private int lastTickAgents;
+    private Map<ResourceKey<Level>, Integer> lastTickDimensions = Map.of();
+    private long tickSamples;
+    private double lastTickMicros;
+    private double avgTickMicros;
     private final double maxMspt = resolveMaxMspt();
     private Instant lastMsptLogAt;
     private final Duration recipeCacheTtl = resolveRecipeCacheTtl();
     private final Map<String, CachedRecipeRequest> recipeCache = new HashMap<>();
-    private long survivalMinutes;
-    private boolean survivalDayLogged;
     private String currentObjective;
     private int botXp;
-    private BotActionPlan currentPlan;
-    private BotPerception lastPerception;
     private BotGoal activeGoal;
-    private Instant lastPerceptionAt;
-    private Instant lastDecisionAt;
-    private int decisionTickCounter;
-    private int decisionsMade;
-    private int decisionSkips;
     private boolean paused;
     private boolean debug = resolveDebug();
-    private final ExecutorService plannerExecutor = Executors.newSingleThreadExecutor(runnable -> {
-        Thread thread = new Thread(runnable, "aiplayer-ollama-planner");
-        thread.setDaemon(true);
-        return thread;
-    });
-    private CompletableFuture<BotActionPlan> pendingPlanFuture;
-    private BotGoal pendingPlanGoal;
-    private BotPerception pendingPlanPerception;
-    private Instant pendingPlanStartedAt;
-    private Instant lastBotLookupAt;
-    private final Duration botLookupCooldown = Duration.ofSeconds(5);
     private final int decisionIntervalTicks = resolveDecisionIntervalTicks();
     private final int actionTimeoutTicks = resolveActionTimeoutTicks();
     private final int maxPlanSteps = resolveMaxPlanSteps();
     private final Duration plannerMaxWait = resolvePlannerMaxWait();
+    private final PlanCache planCache = new PlanCache(resolvePlanCacheTtl(), resolvePlanCacheMaxEntries());
+    private final AtomicBoolean databaseBenchRunning = new AtomicBoolean();
+    private final AtomicBoolean databaseVacuumRunning = new AtomicBoolean();
+    private final AtomicBoolean pathBenchRunning = new AtomicBoolean();
     private static final Map<String, Integer> FOOD_POINTS = Map.ofEntries(
         Map.entry("minecraft:bread", 5),
         Map.entry("minecraft:cooked_beef", 8),
@@ -138,11 +154,18 @@ public final class AIPlayerRuntime {
         this.memoryService = new BotMemoryService(this.memoryRepository);
         this.fakePlayerController = new FakePlayerController();
         this.botPlanner = new BotPlanner(this.ollamaClient);
-        this.actionExecutor = new ActionExecutor(this.fakePlayerController, this.memoryService);
+        this.walkabilityGrid.addChangeListener(this.pathCache::blockChanged);
         this.phase = this.memoryRepository.loadCurrentPhase().orElse("bootstrap");
         this.currentObjective = this.memoryRepository.loadCurrentBotTask().map(BotMemoryRepository.BotTask::objective).orElse("none");
         this.botXp = this.memoryRepository.loadBotXp().orElse(0);
         this.activeGoal = this.memoryService.loadActiveGoal().orElse(null);
+        this.botMarkerEntityId = this.memoryRepository.loadMarkerEntityId().orElse(null);
+        // Bots spawned before a restart keep their name; their entities attach when their chunk loads.
+        for (BotMemoryRepository.TrackedBotRecord tracked : this.memoryRepository.loadTrackedBots()) {
+            if (botRegistry.findByName(tracked.name()).isEmpty()) {
+                registerAgent(tracked.entityId(), tracked.name());
+            }
+        }
     }
 
     public void initialize() {
@@ -204,121 +227,248 @@ public final class AIPlayerRuntime {
         this.memoryRepository.recordAction("set-phase", nextPhase);
     }
 
-    public void tickOnce(ServerLevel level) {
-        tickInternal(level, false);
+    public void tickOnce(MinecraftServer server) {
+        tickInternal(server, false);
     }
 
-    public void tickNow(ServerLevel level) {
-        tickInternal(level, true);
+    public void tickNow(MinecraftServer server) {
+        tickInternal(server, true);
     }
 
-    private void tickInternal(ServerLevel level, boolean forceDecision) {
+    // Everything runs as scheduler jobs under the per-tick budget: each bot's executor (always),
+    // then survival, then decisions (perception + planning), then shared housekeeping. A bot is
+    // ticked in the level its entity is loaded in; a bot whose chunk is unloaded gets no jobs, and
+    // dimensions without bots are neither ticked nor indexed by the world model.
+    private void tickInternal(MinecraftServer server, boolean forceDecision) {
         Instant now = Instant.now();
-        this.moduleManager.tickEnabled();
-        processBotTaskLifecycle();
-        processPendingAe2CraftRequests();
-        AIBotEntity bot = getTrackedBot(level);
+        long tickStart = System.nanoTime();
+        boolean throttled = !paused && shouldThrottleForMspt(server, now);
+        List<BotAgent> agents = botRegistry.all();
+        pathPlanner.beginTick();
+        Map<ResourceKey<Level>, Integer> perDimension = new LinkedHashMap<>();
+        for (BotAgent agent : agents) {
+            AIBotEntity bot = botEntities.bot(agent.entityId);
+            if (bot == null || !(bot.level() instanceof ServerLevel level)) {
+                cancelPendingPlan(agent, "bot-missing");
+                continue;
+            }
+            trackDimension(agent, bot, level);
+            perDimension.merge(level.dimension(), 1, Integer::sum);
+            String id = agent.entityId.toString();
+            tickScheduler.submit(TickBudgetScheduler.JobClass.EXECUTOR, "executor", id + ":executor",
+                deadline -> timed(agent, () -> tickExecutor(level, agent, Instant.now())));
+            tickScheduler.submit(TickBudgetScheduler.JobClass.SURVIVAL, "survival", id + ":survival",
+                deadline -> timed(agent, () -> tickSurvival(level, agent)));
+            if (isDecisionDue(agent, forceDecision, throttled, now)) {
+                tickScheduler.submit(TickBudgetScheduler.JobClass.PERCEPTION, "decide", id + ":decide",
+                    deadline -> timed(agent, () -> decide(level, agent, Instant.now(), deadline)));
+            }
+        }
+        tickScheduler.submit(TickBudgetScheduler.JobClass.HOUSEKEEPING, "modules", "modules", deadline -> {
+            this.moduleManager.tickEnabled();
+            return true;
+        });
+        tickScheduler.submit(TickBudgetScheduler.JobClass.HOUSEKEEPING, "tasks", "tasks", deadline -> {
+            processBotTaskLifecycle();
+            return true;
+        });
+        tickScheduler.submit(TickBudgetScheduler.JobClass.HOUSEKEEPING, "ae2", "ae2", deadline -> {
+            processPendingAe2CraftRequests();
+            return true;
+        });
+        worldModel.setActiveDimensions(perDimension.keySet());
+        tickScheduler.submit(TickBudgetScheduler.JobClass.HOUSEKEEPING, "world-index", "world-index", worldModel::indexPending);
+        tickScheduler.runTick();
+
+        for (BotAgent agent : agents) {
+            agent.recordTickCost();
+        }
+        lastTickDimensions = perDimension;
+        recordTickCost(agents.size(), System.nanoTime() - tickStart);
+        recordTickLog(now);
+    }
+
+    private static boolean timed(BotAgent agent, Runnable work) {
+        return timed(agent, () -> {
+            work.run();
+            return true;
+        });
+    }
+
+    private static boolean timed(BotAgent agent, BooleanSupplier work) {
+        long started = System.nanoTime();
+        try {
+            return work.getAsBoolean();
+        } finally {
+            agent.tickNanos += System.nanoTime() - started;
+        }
+    }
+
+    // The bot changed dimension since its last tick: the plan, partial scan and FakePlayer all
+    // belong to the previous level. The FakePlayer's inventory and health carry over.
+    private void trackDimension(BotAgent agent, AIBotEntity bot, ServerLevel level) {
+        ResourceKey<Level> dimension = level.dimension();
+        if (agent.dimension == null) {
+            agent.dimension = dimension;
+            return;
+        }
+        if (agent.dimension.equals(dimension)) {
+            return;
+        }
+        cancelPendingPlan(agent, "dimension-change");
+        agent.currentPlan = null;
+        agent.actionExecutor.clearPlan();
+        agent.blockScanner.begin(bot.blockPosition());
+        if (agent.fakePlayer != null) {
+            agent.fakePlayer = fakePlayerController.transfer(agent.fakePlayer, level);
+        }
+        this.memoryRepository.recordAction(
+            "bot-dimension-change",
+            "bot=" + agent.name + " from=" + agent.dimension.location() + " to=" + dimension.location()
+        );
+        agent.dimension = dimension;
+    }
+
+    // A job may run a few ticks after it was queued; if the bot changed level meanwhile it skips.
+    private void tickExecutor(ServerLevel level, BotAgent agent, Instant now) {
+        AIBotEntity bot = getTrackedBot(level, agent);
         if (bot == null) {
-            cancelPendingPlan("bot-missing");
-            recordTickLog(now);
             return;
         }
 
-        ensureFakePlayer(level, bot);
-        actionExecutor.tick(level, bot, botName);
-        if (currentPlan != null && actionExecutor.isIdle()) {
-            currentPlan = null;
-            actionExecutor.clearPlan();
+        ensureFakePlayer(level, agent, bot);
+        agent.actionExecutor.tick(level, bot, agent.name);
+        if (agent.currentPlan != null && agent.actionExecutor.isIdle()) {
+            agent.currentPlan = null;
+            agent.actionExecutor.clearPlan();
+        }
+        processPendingPlan(agent, now);
+    }
+
+    private void tickSurvival(ServerLevel level, BotAgent agent) {
+        AIBotEntity bot = getTrackedBot(level, agent);
+        if (bot != null) {
+            processSurvivalLoop(level, agent, bot);
         }
-        processSurvivalLoop(level);
-        processPendingPlan(now);
+    }
 
+    // Advances the bot's decision counter; true when a decision job should be queued this tick.
+    private boolean isDecisionDue(BotAgent agent, boolean forceDecision, boolean throttled, Instant now) {
         if (paused) {
-            recordDecisionStats(now);
-            recordTickLog(now);
-            return;
+            recordDecisionStats(agent, now);
+            return false;
         }
 
-        if (shouldThrottleForMspt(level, now)) {
-            decisionSkips++;
-            recordDecisionStats(now);
-            recordTickLog(now);
-            return;
+        if (throttled) {
+            agent.decisionSkips++;
+            recordDecisionStats(agent, now);
+            return false;
         }
 
         if (!forceDecision) {
-            decisionTickCounter++;
-            if (decisionTickCounter < decisionIntervalTicks) {
-                recordDecisionStats(now);
-                recordTickLog(now);
-                return;
+            agent.decisionTickCounter++;
+            if (agent.decisionTickCounter < decisionIntervalTicks) {
+                recordDecisionStats(agent, now);
+                return false;
             }
-            decisionTickCounter = 0;
-        } else {
-            decisionTickCounter = 0;
         }
+        agent.decisionTickCounter = 0;
+        return true;
+    }
 
-        if (!actionExecutor.isIdle()) {
-            decisionSkips++;
-            recordDecisionStats(now);
-            recordTickLog(now);
-            return;
+    // Returns false while the block scan still needs more ticks; the scheduler resumes the job.
+    private boolean decide(ServerLevel level, BotAgent agent, Instant now, long deadlineNanos) {
+        AIBotEntity bot = getTrackedBot(level, agent);
+        if (bot == null) {
+            return true;
+        }
+        // Re-checked here: the job may have waited a few ticks for budget.
+        if (!agent.actionExecutor.isIdle() || agent.pendingPlanFuture != null) {
+            agent.decisionSkips++;
+            recordDecisionStats(agent, now);
+            return true;
         }
 
-        if (pendingPlanFuture != null) {
-            decisionSkips++;
-            recordDecisionStats(now);
-            recordTickLog(now);
-            return;
+        // The world model answers directly once the chunks around the bot are indexed; until then
+        // the bot scans the world itself, spread over ticks if needed.
+        BlockPos botPos = bot.blockPosition();
+        List<IndexedBlock> nearbyBlocks;
+        if (worldModel.covers(level, botPos, PERCEPTION_BLOCK_RADIUS)) {
+            nearbyBlocks = worldModel.nearest(level, botPos, PERCEPTION_BLOCK_RADIUS, PERCEPTION_BLOCK_HALF_HEIGHT, null, PERCEPTION_BLOCK_LIMIT);
+            agent.indexedPerceptions++;
+        } else {
+            PerceptionScanner scanner = agent.blockScanner;
+            if (!scanner.isStarted() || scanner.isComplete() || scanner.origin().distManhattan(botPos) > PERCEPTION_RESCAN_DISTANCE) {
+                scanner.begin(botPos);
+            }
+            if (!scanner.scan(level, deadlineNanos)) {
+                return false;
+            }
+            nearbyBlocks = scanner.hits();
         }
 
-        lastPerception = collectPerception(level, bot);
-        lastPerceptionAt = now;
-        if (lastPerception != null) {
-            memoryService.recordInventorySnapshot(lastPerception.inventorySummary());
-            recordKnownLocations(level, lastPerception.nearbyBlocks());
+        BotPerception perception = collectPerception(level, agent, bot, nearbyBlocks);
+        agent.lastPerception = perception;
+        agent.lastPerceptionAt = now;
+        if (perception != null) {
+            memoryService.recordInventorySnapshot(perception.inventorySummary());
+            recordKnownLocations(level, nearbyBlocks);
+            verifyKnownLocations(level, perception.position());
         }
 
-        BotGoal goal = resolveGoal(lastPerception);
+        BotGoal goal = resolveGoal(perception);
         if (goal == null) {
-            decisionSkips++;
-            recordDecisionStats(now);
-            recordTickLog(now);
-            return;
+            agent.decisionSkips++;
+            recordDecisionStats(agent, now);
+            return true;
         }
 
-        activeGoal = goal;
-        String memorySummary = buildMemorySummary();
-        submitPlanAsync(lastPerception, goal, memorySummary, now);
-
-        recordDecisionStats(now);
-        recordTickLog(now);
+        agent.goal = goal;
+        Optional<BotActionPlan> cachedPlan = planCache.lookup(goal, perception, pos -> loadedBlockId(level, pos), now);
+        if (cachedPlan.isPresent()) {
+            applyResolvedPlan(agent, cachedPlan.get(), goal, perception, now, "plan-cache-invalid");
+            recordDecisionStats(agent, now);
+            return true;
+        }
+        submitPlanAsync(agent, perception, goal, buildMemorySections(perception), now);
+        recordDecisionStats(agent, now);
+        return true;
     }
 
-    private void processPendingPlan(Instant now) {
-        if (pendingPlanFuture == null) {
+    private void processPendingPlan(BotAgent agent, Instant now) {
+        if (agent.pendingPlanFuture == null) {
             return;
         }
 
-        if (pendingPlanStartedAt != null
-            && Duration.between(pendingPlanStartedAt, now).compareTo(plannerMaxWait) > 0) {
-            BotGoal timedOutGoal = pendingPlanGoal;
-            BotPerception timedOutPerception = pendingPlanPerception;
-            cancelPendingPlan("planner-timeout");
-            applyResolvedPlan(null, timedOutGoal, timedOutPerception, now, "planner-timeout");
+        if (agent.pendingPlanStartedAt != null
+            && Duration.between(agent.pendingPlanStartedAt, now).compareTo(plannerMaxWait) > 0) {
+            BotGoal timedOutGoal = agent.pendingPlanGoal;
+            BotPerception timedOutPerception = agent.pendingPlanPerception;
+            BotAgent.StreamedPlan timedOutStream = agent.pendingPlanStream;
+            drainStreamedSteps(agent);
+            cancelPendingPlan(agent, "planner-timeout");
+            if (timedOutStream != null && timedOutStream.applied > 0) {
+                // Keep executing what already streamed in rather than replacing it with a heuristic plan.
+                finishStreamedPlan(agent, null, timedOutGoal, timedOutStream, now);
+            } else {
+                applyResolvedPlan(agent, null, timedOutGoal, timedOutPerception, now, "planner-timeout");
+            }
             return;
         }
 
-        if (!pendingPlanFuture.isDone()) {
+        drainStreamedSteps(agent);
+        if (!agent.pendingPlanFuture.isDone()) {
             return;
         }
 
-        BotGoal resolvedGoal = pendingPlanGoal;
-        BotPerception resolvedPerception = pendingPlanPerception;
+        BotGoal resolvedGoal = agent.pendingPlanGoal;
+        BotAgent.StreamedPlan resolvedStream = agent.pendingPlanStream;
+        BotPerception resolvedPerception = agent.pendingPlanPerception;
         BotActionPlan plan = null;
         String failureReason = null;
         try {
-            plan = pendingPlanFuture.join();
+            plan = agent.pendingPlanFuture.join();
+            recordPlanTokens(agent, resolvedStream);
         } catch (CancellationException cancellation) {
             failureReason = "planner-cancelled";
         } catch (CompletionException completion) {
@@ -344,25 +494,121 @@ public final class AIPlayerRuntime {
             this.memoryRepository.recordAction("bot-plan-error", "reason=" + message);
         }
 
-        clearPendingPlan();
-        applyResolvedPlan(plan, resolvedGoal, resolvedPerception, now, failureReason);
+        clearPendingPlan(agent);
+        planCache.put(resolvedGoal, resolvedPerception, plan, now);
+        if (resolvedStream != null && resolvedStream.applied > 0) {
+            finishStreamedPlan(agent, plan, resolvedGoal, resolvedStream, now);
+            return;
+        }
+        applyResolvedPlan(agent, plan, resolvedGoal, resolvedPerception, now, failureReason);
+    }
+
+    // Moves steps the planner has streamed so far into the executor, so step 1 runs while the
+    // model is still generating the rest of the plan.
+    private void drainStreamedSteps(BotAgent agent) {
+        BotAgent.StreamedPlan stream = agent.pendingPlanStream;
+        if (stream == null || agent.pendingPlanGoal == null) {
+            return;
+        }
+        List<BotActionStep> steps = new java.util.ArrayList<>();
+        BotActionStep step;
+        while ((step = stream.steps.poll()) != null) {
+            steps.add(sanitizeStep(step));
+        }
+        if (steps.isEmpty()) {
+            return;
+        }
+        if (stream.applied == 0) {
+            recordFirstStep(agent, stream);
+        }
+        if (stream.applied == 0 || agent.actionExecutor.isIdle()) {
+            agent.actionExecutor.setPlan(new BotActionPlan(agent.pendingPlanGoal.name(), "streaming", steps));
+        } else {
+            agent.actionExecutor.appendSteps(steps);
+        }
+        agent.currentPlan = agent.actionExecutor.getCurrentPlan();
+        stream.applied += steps.size();
+    }
+
+    private void finishStreamedPlan(BotAgent agent, BotActionPlan plan, BotGoal goal, BotAgent.StreamedPlan stream, Instant now) {
+        int total = stream.applied;
+        if (plan != null && plan.steps().size() > stream.applied) {
+            List<BotActionStep> remaining = new java.util.ArrayList<>();
+            for (BotActionStep step : plan.steps().subList(stream.applied, plan.steps().size())) {
+                remaining.add(sanitizeStep(step));
+            }
+            if (agent.actionExecutor.isIdle()) {
+                agent.actionExecutor.setPlan(new BotActionPlan(plan.goal(), plan.rationale(), remaining));
+            } else {
+                agent.actionExecutor.appendSteps(remaining);
+            }
+            total += remaining.size();
+        }
+        agent.currentPlan = agent.actionExecutor.getCurrentPlan();
+        agent.decisionsMade++;
+        agent.lastDecisionAt = now;
+        String goalName = plan != null ? plan.goal() : goal == null ? "unknown" : goal.name();
+        String rationale = plan != null ? plan.rationale() : "planner-timeout";
+        this.memoryRepository.recordAction(
+            "bot-plan",
+            "bot=" + agent.name + " goal=" + goalName + " steps=" + total + " streamed=" + stream.applied + " rationale=" + rationale
+        );
+    }
+
+    private void recordFirstStep(BotAgent agent, BotAgent.StreamedPlan stream) {
+        double millis = (stream.firstStepNanos - stream.submittedNanos) / 1_000_000.0D;
+        agent.lastFirstStepMillis = millis;
+        agent.firstStepSamples++;
+        agent.avgFirstStepMillis += (millis - agent.avgFirstStepMillis) / agent.firstStepSamples;
+        this.memoryRepository.recordAction(
+            "bot-plan-first-step",
+            String.format(Locale.ROOT, "bot=%s ms=%.0f avgMs=%.0f goal=%s", agent.name, millis, agent.avgFirstStepMillis, agent.pendingPlanGoal.name())
+        );
+    }
+
+    private void recordPlanTokens(BotAgent agent, BotAgent.StreamedPlan stream) {
+        BotPlanner.CallUsage usage = stream == null ? null : stream.usage;
+        if (usage == null) {
+            return;
+        }
+        this.memoryRepository.recordAction(
+            "bot-plan-tokens",
+            String.format(
+                Locale.ROOT,
+                "bot=%s prompt=%d eval=%d estimate=%d budget=%d promptMs=%.0f evalMs=%.0f dropped=%s",
+                agent.name,
+                usage.promptTokens(),
+                usage.evalTokens(),
+                usage.estimatedPromptTokens(),
+                usage.budgetTokens(),
+                usage.promptMillis(),
+                usage.evalMillis(),
+                usage.droppedSections().isEmpty() ? "-" : String.join(",", usage.droppedSections())
+            )
+        );
     }
 
-    private void submitPlanAsync(BotPerception perception, BotGoal goal, String memorySummary, Instant now) {
+    private void submitPlanAsync(BotAgent agent, BotPerception perception, BotGoal goal, Map<String, List<String>> memory, Instant now) {
         if (perception == null || goal == null) {
             return;
         }
 
-        pendingPlanGoal = goal;
-        pendingPlanPerception = perception;
-        pendingPlanStartedAt = now;
+        agent.pendingPlanGoal = goal;
+        agent.pendingPlanPerception = perception;
+        agent.pendingPlanStartedAt = now;
+        BotAgent.StreamedPlan stream = new BotAgent.StreamedPlan(System.nanoTime());
+        agent.pendingPlanStream = stream;
         try {
-            pendingPlanFuture = CompletableFuture.supplyAsync(
-                () -> botPlanner.plan(perception, goal, memorySummary, maxPlanSteps),
-                plannerExecutor
+            agent.pendingPlanFuture = botPlanner.planAsync(
+                perception,
+                goal,
+                memory,
+                maxPlanSteps,
+                stream::offer,
+                usage -> stream.usage = usage
             );
         } catch (Exception exception) {
-            clearPendingPlan();
+            clearPendingPlan(agent);
             String message = exception.getMessage();
             if (message == null || message.isBlank()) {
                 message = exception.getClass().getSimpleName();
@@ -371,11 +617,12 @@ public final class AIPlayerRuntime {
                 message = message.substring(0, 180);
             }
             this.memoryRepository.recordAction("bot-plan-submit-error", "reason=" + message);
-            applyResolvedPlan(null, goal, perception, now, "planner-submit-error");
+            applyResolvedPlan(agent, null, goal, perception, now, "planner-submit-error");
         }
     }
 
     private void applyResolvedPlan(
+        BotAgent agent,
         BotActionPlan plan,
         BotGoal goal,
         BotPerception perception,
@@ -396,43 +643,59 @@ public final class AIPlayerRuntime {
             }
             BotActionPlan fallback = buildHeuristicPlan(goal, perception, fallbackReason);
             if (fallback == null || fallback.isEmpty()) {
-                decisionSkips++;
+                agent.decisionSkips++;
                 return;
             }
             sanitized = fallback;
         }
 
-        currentPlan = sanitized;
-        actionExecutor.setPlan(sanitized);
-        decisionsMade++;
-        lastDecisionAt = now;
+        agent.currentPlan = sanitized;
+        agent.actionExecutor.setPlan(sanitized);
+        agent.decisionsMade++;
+        agent.lastDecisionAt = now;
         this.memoryRepository.recordAction(
             "bot-plan",
-            "goal=" + sanitized.goal() + " steps=" + sanitized.steps().size() + " rationale=" + sanitized.rationale()
+            "bot=" + agent.name + " goal=" + sanitized.goal() + " steps=" + sanitized.steps().size() + " rationale=" + sanitized.rationale()
         );
     }
 
-    private void cancelPendingPlan(String reason) {
-        if (pendingPlanFuture == null) {
+    private void cancelPendingPlan(BotAgent agent, String reason) {
+        if (agent.pendingPlanFuture == null) {
             return;
         }
-        pendingPlanFuture.cancel(true);
-        clearPendingPlan();
-        this.memoryRepository.recordAction("bot-plan-cancel", "reason=" + reason);
+        if (agent.pendingPlanStream != null) {
+            agent.pendingPlanStream.closed = true;
+        }
+        // Propagates through BotPlanner and LlmScheduler down to the HTTP exchange, freeing its slot.
+        agent.pendingPlanFuture.cancel(true);
+        clearPendingPlan(agent);
+        this.memoryRepository.recordAction("bot-plan-cancel", "bot=" + agent.name + " reason=" + reason);
+    }
+
+    // Server stop: no bot keeps a request running against the LLM backend.
+    public void closeLlmClient() {
+        this.ollamaClient.close();
+    }
+
+    public void cancelPendingPlans(String reason) {
+        for (BotAgent agent : botRegistry.all()) {
+            cancelPendingPlan(agent, reason);
+        }
     }
 
-    private void clearPendingPlan() {
-        pendingPlanFuture = null;
-        pendingPlanGoal = null;
-        pendingPlanPerception = null;
-        pendingPlanStartedAt = null;
+    private void clearPendingPlan(BotAgent agent) {
+        agent.pendingPlanFuture = null;
+        agent.pendingPlanGoal = null;
+        agent.pendingPlanPerception = null;
+        agent.pendingPlanStartedAt = null;
+        agent.pendingPlanStream = null;
     }
 
-    private boolean shouldThrottleForMspt(ServerLevel level, Instant now) {
+    private boolean shouldThrottleForMspt(MinecraftServer server, Instant now) {
         if (maxMspt <= 0.0d) {
             return false;
         }
-        double mspt = resolveAverageTickTimeMs(level);
+        double mspt = resolveAverageTickTimeMs(server);
         if (mspt <= maxMspt) {
             return false;
         }
@@ -445,11 +708,10 @@ public final class AIPlayerRuntime {
     }
 
 
-    private double resolveAverageTickTimeMs(ServerLevel level) {
-        if (level == null || level.getServer() == null) {
+    private double resolveAverageTickTimeMs(MinecraftServer server) {
+        if (server == null) {
             return 0.0d;
         }
-        Object server = level.getServer();
         try {
             var method = server.getClass().getMethod("getAverageTickTime");
             Object value = method.invoke(server);
@@ -469,40 +731,54 @@ public final class AIPlayerRuntime {
         return 0.0d;
     }
 
-    private void recordDecisionStats(Instant now) {
-        if (lastDecisionStatsAt != null && Duration.between(lastDecisionStatsAt, now).compareTo(Duration.ofMinutes(5)) < 0) {
+    private void recordDecisionStats(BotAgent agent, Instant now) {
+        if (agent.lastDecisionStatsAt != null && Duration.between(agent.lastDecisionStatsAt, now).compareTo(Duration.ofMinutes(5)) < 0) {
             return;
         }
-        String lastDecision = (lastDecisionAt == null) ? "never" : Duration.between(lastDecisionAt, now).toSeconds() + "s";
+        String lastDecision = (agent.lastDecisionAt == null) ? "never" : Duration.between(agent.lastDecisionAt, now).toSeconds() + "s";
         this.memoryRepository.recordAction(
             "bot-planner-stats",
-            "decisions=" + decisionsMade + " skipped=" + decisionSkips + " last=" + lastDecision
+            "bot=" + agent.name + " decisions=" + agent.decisionsMade + " skipped=" + agent.decisionSkips + " last=" + lastDecision
+                + " streamed=" + agent.firstStepSamples
+                + String.format(Locale.ROOT, " ttfsAvgMs=%.0f", agent.avgFirstStepMillis)
         );
-        lastDecisionStatsAt = now;
+        agent.lastDecisionStatsAt = now;
     }
 
     private void recordTickLog(Instant now) {
         if (lastTickLogAt != null && Duration.between(lastTickLogAt, now).compareTo(Duration.ofMinutes(1)) < 0) {
             return;
         }
-        this.memoryRepository.recordAction("tick", "ok");
+        this.memoryRepository.recordAction(
+            "tick",
+            String.format(Locale.ROOT, "ok bots=%d avgUs=%.0f", lastTickAgents, avgTickMicros)
+        );
         lastTickLogAt = now;
     }
 
-    private void ensureFakePlayer(ServerLevel level, AIBotEntity bot) {
-        if (botFakePlayer == null || !botFakePlayer.getGameProfile().getName().equals(botName)) {
-            botFakePlayer = fakePlayerController.getOrCreate(level, botName);
+    private void recordTickCost(int agents, long nanos) {
+        lastTickAgents = agents;
+        lastTickMicros = nanos / 1_000.0D;
+        tickSamples++;
+        avgTickMicros = tickSamples == 1
+            ? lastTickMicros
+            : avgTickMicros + TICK_EWMA_ALPHA * (lastTickMicros - avgTickMicros);
+    }
+
+    private void ensureFakePlayer(ServerLevel level, BotAgent agent, AIBotEntity bot) {
+        if (agent.fakePlayer == null || !agent.fakePlayer.getGameProfile().getName().equals(agent.name)) {
+            agent.fakePlayer = fakePlayerController.getOrCreate(level, agent.name);
         }
-        if (botFakePlayer != null) {
-            fakePlayerController.syncPosition(botFakePlayer, bot.position());
+        if (agent.fakePlayer != null) {
+            fakePlayerController.syncPosition(agent.fakePlayer, bot.position());
         }
     }
 
-    private BotPerception collectPerception(ServerLevel level, AIBotEntity bot) {
-        FakePlayer player = botFakePlayer;
+    private BotPerception collectPerception(ServerLevel level, BotAgent agent, AIBotEntity bot, List<IndexedBlock> blocks) {
+        FakePlayer player = agent.fakePlayer;
         float health = player != null ? player.getHealth() : bot.getHealth();
         float maxHealth = player != null ? player.getMaxHealth() : bot.getMaxHealth();
-        int hunger = botHunger;
+        int hunger = agent.hunger;
         int xp = botXp;
         BlockPos pos = bot.blockPosition();
         String dimension = level.dimension().location().toString();
@@ -511,7 +787,10 @@ public final class AIPlayerRuntime {
         long day = dayTime / 24000L;
         long timeOfDay = dayTime % 24000L;
         List<String> nearbyEntities = scanNearbyEntities(level, pos, 12, 8);
-        List<String> nearbyBlocks = scanNearbyBlocks(level, pos, 6, 10);
+        List<String> nearbyBlocks = new ArrayList<>(blocks.size());
+        for (IndexedBlock block : blocks) {
+            nearbyBlocks.add(block.entry());
+        }
         List<String> inventorySummary = summarizeInventory(player);
         List<String> equipmentSummary = summarizeEquipment(player);
         return new BotPerception(
@@ -672,12 +951,12 @@ public final class AIPlayerRuntime {
             if (split <= 0) {
                 continue;
             }
-            String blockId = entry.substring(0, split);
-            if ("minecraft:crafting_table".equals(blockId)) {
+            BlockCategory category = BlockCategory.ofBlockId(entry.substring(0, split));
+            if (category == BlockCategory.WORKSTATION) {
                 hasTable = true;
-            } else if ("minecraft:furnace".equals(blockId) || "minecraft:blast_furnace".equals(blockId)) {
+            } else if (category == BlockCategory.FURNACE) {
                 hasFurnace = true;
-            } else if ("minecraft:chest".equals(blockId) || "minecraft:barrel".equals(blockId)) {
+            } else if (category == BlockCategory.STORAGE) {
                 hasStorage = true;
             }
         }
@@ -718,20 +997,11 @@ public final class AIPlayerRuntime {
         List<BotActionStep> steps = new java.util.ArrayList<>();
         boolean hasAction = false;
         for (BotActionStep step : plan.steps()) {
-            int timeout = step.timeoutTicks();
-            if (timeout <= 0 || timeout > actionTimeoutTicks) {
-                timeout = actionTimeoutTicks;
-            }
-            int count = step.count() <= 0 ? 1 : step.count();
-            BotActionType type = step.type();
-            if (type == BotActionType.WAIT && step.target() != null) {
-                // Defensive normalization: WAIT with a target is usually an intended MOVE.
-                type = BotActionType.MOVE;
-            }
-            if (type != BotActionType.WAIT) {
+            BotActionStep sanitized = sanitizeStep(step);
+            if (sanitized.type() != BotActionType.WAIT) {
                 hasAction = true;
             }
-            steps.add(new BotActionStep(type, step.target(), step.itemId(), count, timeout));
+            steps.add(sanitized);
         }
         if (!hasAction) {
             return null;
@@ -739,79 +1009,45 @@ public final class AIPlayerRuntime {
         return new BotActionPlan(plan.goal(), plan.rationale(), steps);
     }
 
-    private String buildMemorySummary() {
-        StringBuilder builder = new StringBuilder();
-        if (activeGoal != null) {
-            appendMemoryPart(builder, "goal=" + activeGoal.name());
-        }
-        memoryService.loadLatestInventorySummary()
-            .ifPresent(summary -> appendMemoryPart(builder, "inventory=" + summary));
-
-        List<BotMemoryRepository.KnownLocationRecord> locations = memoryService.loadKnownLocations(5);
-        if (!locations.isEmpty()) {
-            appendMemoryPart(builder, "locations=" + formatLocations(locations));
-        }
-
-        List<BotMemoryRepository.ActionHistoryRecord> actions = memoryService.loadRecentActionHistory(5);
-        if (!actions.isEmpty()) {
-            appendMemoryPart(builder, "recent=" + formatActions(actions));
-        }
-
-        String summary = builder.toString();
-        if (summary.length() > 1000) {
-            return summary.substring(0, 1000);
-        }
-        return summary;
-    }
-
-    private void appendMemoryPart(StringBuilder builder, String part) {
-        if (part == null || part.isBlank()) {
-            return;
+    private BotActionStep sanitizeStep(BotActionStep step) {
+        int timeout = step.timeoutTicks();
+        if (timeout <= 0 || timeout > actionTimeoutTicks) {
+            timeout = actionTimeoutTicks;
         }
-        if (builder.length() > 0) {
-            builder.append(" | ");
+        int count = step.count() <= 0 ? 1 : step.count();
+        BotActionType type = step.type();
+        if (type == BotActionType.WAIT && step.target() != null) {
+            // Defensive normalization: WAIT with a target is usually an intended MOVE.
+            type = BotActionType.MOVE;
         }
-        builder.append(part);
+        return new BotActionStep(type, step.target(), step.itemId(), count, timeout);
     }
 
-    private String formatLocations(List<BotMemoryRepository.KnownLocationRecord> locations) {
-        StringBuilder builder = new StringBuilder();
-        int count = 0;
-        for (BotMemoryRepository.KnownLocationRecord location : locations) {
-            if (count++ >= 5) {
-                break;
-            }
-            if (builder.length() > 0) {
-                builder.append(",");
+    // Goal and inventory are already in the prompt from the live perception, so memory only adds
+    // what the bot cannot see right now. PromptAssembler trims these lists to the token budget.
+    private Map<String, List<String>> buildMemorySections(BotPerception perception) {
+        Map<String, List<String>> sections = new LinkedHashMap<>();
+        List<BotMemoryRepository.KnownLocationRecord> locations = perception == null
+            ? List.of()
+            : memoryService.loadNearestKnownLocations(perception.dimension(), perception.position(), null, 5);
+        if (!locations.isEmpty()) {
+            List<String> items = new ArrayList<>();
+            for (BotMemoryRepository.KnownLocationRecord location : locations) {
+                items.add(location.label() + "@" + location.x() + "," + location.y() + "," + location.z());
             }
-            builder.append(location.label())
-                .append("@")
-                .append(location.x())
-                .append(",")
-                .append(location.y())
-                .append(",")
-                .append(location.z());
+            sections.put("locations", items);
         }
-        return builder.toString();
-    }
 
-    private String formatActions(List<BotMemoryRepository.ActionHistoryRecord> actions) {
-        StringBuilder builder = new StringBuilder();
-        int count = 0;
-        for (BotMemoryRepository.ActionHistoryRecord action : actions) {
-            if (count++ >= 5) {
-                break;
-            }
-            if (builder.length() > 0) {
-                builder.append(",");
-            }
-            builder.append(action.actionType());
-            if (action.itemId() != null && !action.itemId().isBlank()) {
-                builder.append(":").append(action.itemId());
+        List<BotMemoryRepository.ActionHistoryRecord> actions = memoryService.loadRecentActionHistory(5);
+        if (!actions.isEmpty()) {
+            List<String> items = new ArrayList<>();
+            for (BotMemoryRepository.ActionHistoryRecord action : actions) {
+                String item = action.itemId() == null || action.itemId().isBlank() ? "" : ":" + action.itemId();
+                items.add(action.actionType() + item + (action.success() ? ":ok" : ":fail"));
             }
-            builder.append(action.success() ? ":ok" : ":fail");
+            sections.put("recent", items);
         }
-        return builder.toString();
+        return sections;
     }
 
     private BotActionPlan buildHeuristicPlan(BotGoal goal, BotPerception perception, String reason) {
@@ -825,19 +1061,7 @@ public final class AIPlayerRuntime {
         switch (goalName) {
             case "starter_base" -> {
                 if (!hasAnyLogs(inventory)) {
-                    addMoveMineStep(
-                        steps,
-                        perception,
-                        List.of(
-                            "minecraft:oak_log",
-                            "minecraft:spruce_log",
-                            "minecraft:birch_log",
-                            "minecraft:jungle_log",
-                            "minecraft:acacia_log",
-                            "minecraft:dark_oak_log",
-                            "minecraft:mangrove_log"
-                        )
-                    );
+                    addMoveMineStep(steps, perception, EnumSet.of(BlockCategory.LOG));
                 }
                 addCraftIfMissing(steps, inventory, "minecraft:crafting_table");
                 addCraftIfMissing(steps, inventory, "minecraft:furnace");
@@ -887,7 +1111,7 @@ public final class AIPlayerRuntime {
                 }
             }
             case "mine_diamond" -> {
-                boolean added = addMoveMineStep(steps, perception, List.of("minecraft:diamond_ore", "minecraft:deepslate_diamond_ore"));
+                boolean added = addMoveMineStep(steps, perception, EnumSet.of(BlockCategory.ORE_DIAMOND));
                 if (!added) {
                     addExplorationStep(steps, perception);
                 }
@@ -896,19 +1120,7 @@ public final class AIPlayerRuntime {
                 boolean added = addMoveMineStep(
                     steps,
                     perception,
-                    List.of(
-                        "minecraft:iron_ore",
-                        "minecraft:deepslate_iron_ore",
-                        "minecraft:coal_ore",
-                        "minecraft:deepslate_coal_ore",
-                        "minecraft:oak_log",
-                        "minecraft:spruce_log",
-                        "minecraft:birch_log",
-                        "minecraft:jungle_log",
-                        "minecraft:acacia_log",
-                        "minecraft:dark_oak_log",
-                        "minecraft:mangrove_log"
-                    )
+                    EnumSet.of(BlockCategory.ORE_IRON, BlockCategory.ORE_COAL, BlockCategory.LOG)
                 );
                 if (!added) {
                     addExplorationStep(steps, perception);
@@ -989,8 +1201,8 @@ public final class AIPlayerRuntime {
         }
     }
 
-    private boolean addMoveMineStep(List<BotActionStep> steps, BotPerception perception, List<String> preferredIds) {
-        BlockPos target = findTargetBlock(perception, preferredIds);
+    private boolean addMoveMineStep(List<BotActionStep> steps, BotPerception perception, Set<BlockCategory> categories) {
+        BlockPos target = findTargetBlock(perception, categories);
         if (target == null) {
             return false;
         }
@@ -1064,38 +1276,60 @@ public final class AIPlayerRuntime {
         return false;
     }
 
-    private BlockPos findTargetBlock(BotPerception perception, List<String> preferredIds) {
-        if (perception == null || perception.nearbyBlocks() == null || perception.nearbyBlocks().isEmpty()) {
+    private BlockPos findTargetBlock(BotPerception perception, Set<BlockCategory> categories) {
+        if (perception == null || perception.position() == null) {
             return null;
         }
-        if (preferredIds != null && !preferredIds.isEmpty()) {
-            for (String entry : perception.nearbyBlocks()) {
-                int split = entry.indexOf('@');
-                if (split <= 0) {
-                    continue;
-                }
-                String blockId = entry.substring(0, split);
-                if (!preferredIds.contains(blockId)) {
-                    continue;
+        BlockPos origin = perception.position();
+        List<String> nearbyBlocks = perception.nearbyBlocks() == null ? List.of() : perception.nearbyBlocks();
+        if (categories != null && !categories.isEmpty()) {
+            BlockPos nearest = findNearestPerceived(nearbyBlocks, origin, categories);
+            if (nearest != null) {
+                return nearest;
+            }
+
+            // Nothing in the perception window: fall back to the closest remembered block of that kind.
+            Set<String> labels = new HashSet<>();
+            for (BlockCategory category : categories) {
+                if (category.knownLocationLabel() != null) {
+                    labels.add(category.knownLocationLabel());
                 }
-                BlockPos pos = parseBlockPos(entry.substring(split + 1));
-                if (pos != null) {
-                    return pos;
+            }
+            if (!labels.isEmpty()) {
+                for (BotMemoryRepository.KnownLocationRecord location : memoryService.loadNearestKnownLocations(perception.dimension(), origin, labels, 1)) {
+                    BlockPos pos = new BlockPos(location.x(), location.y(), location.z());
+                    if (pos.distSqr(origin) <= (double) KNOWN_LOCATION_REACH * KNOWN_LOCATION_REACH) {
+                        return pos;
+                    }
                 }
             }
         }
 
-        for (String entry : perception.nearbyBlocks()) {
+        return findNearestPerceived(nearbyBlocks, origin, null);
+    }
+
+    private BlockPos findNearestPerceived(List<String> nearbyBlocks, BlockPos origin, Set<BlockCategory> categories) {
+        BlockPos best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (String entry : nearbyBlocks) {
             int split = entry.indexOf('@');
             if (split <= 0) {
                 continue;
             }
+            if (categories != null && !categories.contains(BlockCategory.ofBlockId(entry.substring(0, split)))) {
+                continue;
+            }
             BlockPos pos = parseBlockPos(entry.substring(split + 1));
-            if (pos != null) {
-                return pos;
+            if (pos == null) {
+                continue;
+            }
+            double distance = pos.distSqr(origin);
+            if (distance < bestDistance) {
+                best = pos;
+                bestDistance = distance;
             }
         }
-        return null;
+        return best;
     }
 
     private List<String> scanNearbyEntities(ServerLevel level, BlockPos pos, int radius, int limit) {
@@ -1117,60 +1351,6 @@ public final class AIPlayerRuntime {
         return results;
     }
 
-    private List<String> scanNearbyBlocks(ServerLevel level, BlockPos pos, int radius, int limit) {
-        List<String> results = new java.util.ArrayList<>();
-        if (pos == null) {
-            return results;
-        }
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dz = -radius; dz <= radius; dz++) {
-                for (int dy = -2; dy <= 2; dy++) {
-                    BlockPos checkPos = pos.offset(dx, dy, dz);
-                    BlockState state = level.getBlockState(checkPos);
-                    if (state.isAir()) {
-                        continue;
-                    }
-                    if (!isInterestingBlock(state.getBlock())) {
-                        continue;
-                    }
-                    String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
-                    results.add(blockId + "@" + checkPos.getX() + "," + checkPos.getY() + "," + checkPos.getZ());
-                    if (results.size() >= limit) {
-                        return results;
-                    }
-                }
-            }
-        }
-        return results;
-    }
-
-    private boolean isInterestingBlock(Block block) {
-        if (block.defaultBlockState().is(BlockTags.LOGS)) {
-            return true;
-        }
-        if (block.defaultBlockState().is(BlockTags.BEDS)) {
-            return true;
-        }
-        return block == Blocks.CRAFTING_TABLE
-            || block == Blocks.FURNACE
-            || block == Blocks.BLAST_FURNACE
-            || block == Blocks.CHEST
-            || block == Blocks.BARREL
-            || block == Blocks.IRON_ORE
-            || block == Blocks.DEEPSLATE_IRON_ORE
-            || block == Blocks.COAL_ORE
-            || block == Blocks.DEEPSLATE_COAL_ORE
-            || block == Blocks.DIAMOND_ORE
-            || block == Blocks.DEEPSLATE_DIAMOND_ORE
-            || block == Blocks.GOLD_ORE
-            || block == Blocks.DEEPSLATE_GOLD_ORE
-            || block == Blocks.EMERALD_ORE
-            || block == Blocks.REDSTONE_ORE
-            || block == Blocks.DEEPSLATE_REDSTONE_ORE
-            || block == Blocks.LAPIS_ORE
-            || block == Blocks.DEEPSLATE_LAPIS_ORE;
-    }
-
     private List<String> summarizeInventory(FakePlayer player) {
         if (player == null) {
             return List.of();
@@ -1217,35 +1397,48 @@ public final class AIPlayerRuntime {
         return summary;
     }
 
-    private void recordKnownLocations(ServerLevel level, List<String> nearbyBlocks) {
+    private void recordKnownLocations(ServerLevel level, List<IndexedBlock> nearbyBlocks) {
         if (nearbyBlocks == null || nearbyBlocks.isEmpty()) {
             return;
         }
         String dimension = level.dimension().location().toString();
-        for (String entry : nearbyBlocks) {
-            int split = entry.indexOf('@');
-            if (split <= 0) {
-                continue;
+        for (IndexedBlock block : nearbyBlocks) {
+            String label = block.category().knownLocationLabel();
+            if (label != null) {
+                memoryService.recordKnownLocation(label, block.pos(), dimension);
             }
-            String blockId = entry.substring(0, split);
-            BlockPos pos = parseBlockPos(entry.substring(split + 1));
-            if (pos == null) {
+        }
+    }
+
+    // Drops remembered blocks near the bot that were mined or replaced since they were recorded.
+    private void verifyKnownLocations(ServerLevel level, BlockPos origin) {
+        if (origin == null) {
+            return;
+        }
+        String dimension = level.dimension().location().toString();
+        List<BotMemoryRepository.KnownLocationRecord> nearby = memoryService.loadNearestKnownLocations(dimension, origin, null, KNOWN_LOCATION_VERIFY_COUNT);
+        for (BotMemoryRepository.KnownLocationRecord location : nearby) {
+            BlockPos pos = new BlockPos(location.x(), location.y(), location.z());
+            if (pos.distSqr(origin) > (double) KNOWN_LOCATION_REACH * KNOWN_LOCATION_REACH) {
+                break;
+            }
+            if (!level.hasChunkAt(pos)) {
                 continue;
             }
-            String label = switch (blockId) {
-                case "minecraft:crafting_table" -> "crafting_table";
-                case "minecraft:furnace", "minecraft:blast_furnace" -> "furnace";
-                case "minecraft:chest", "minecraft:barrel" -> "storage";
-                case "minecraft:diamond_ore", "minecraft:deepslate_diamond_ore" -> "diamond_ore";
-                case "minecraft:iron_ore", "minecraft:deepslate_iron_ore" -> "iron_ore";
-                default -> null;
-            };
-            if (label != null) {
-                memoryService.recordKnownLocation(label, pos, dimension);
+            BlockCategory category = BlockCategory.of(level.getBlockState(pos));
+            if (category == null || !location.label().equals(category.knownLocationLabel())) {
+                memoryService.forgetKnownLocation(pos, dimension);
             }
         }
     }
 
+    private static String loadedBlockId(ServerLevel level, BlockPos pos) {
+        if (!level.hasChunkAt(pos)) {
+            return "";
+        }
+        return BuiltInRegistries.BLOCK.getKey(level.getBlockState(pos).getBlock()).toString();
+    }
+
     private BlockPos parseBlockPos(String raw) {
         if (raw == null || raw.isBlank()) {
             return null;
@@ -1467,22 +1660,247 @@ public final class AIPlayerRuntime {
         return updated;
     }
 
-    public BotAskResult askBot(String playerId, String question) {
-        String response = this.ollamaClient.ask(question, this.currentObjective)
-            .orElse("(fallback) Objectif=" + this.currentObjective + ". Recoit ta question: " + question);
-        long interactionId = this.memoryRepository.recordInteraction(playerId, question, response);
-        if (interactionId > 0) {
-            this.memoryRepository.recordAction("bot-ask", "id=" + interactionId + " player=" + playerId + " response=ok");
-        }
-        return new BotAskResult(interactionId, response);
+    // Completes off the server thread; interaction and action rows go through the write journal.
+    public CompletableFuture<BotAskResult> askBotAsync(String playerId, String question) {
+        String objective = this.currentObjective;
+        return this.ollamaClient.askAsync(question, objective).thenApply(answer -> {
+            String response = answer.orElse("(fallback) Objectif=" + objective + ". Recoit ta question: " + question);
+            long interactionId = this.memoryRepository.recordInteraction(playerId, question, response);
+            if (interactionId > 0) {
+                this.memoryRepository.recordAction("bot-ask", "id=" + interactionId + " player=" + playerId + " response=ok");
+            }
+            return new BotAskResult(interactionId, response);
+        });
     }
 
     public List<BotMemoryRepository.InteractionRecord> getRecentInteractions(int limit) {
         return this.memoryRepository.loadRecentInteractions(limit);
     }
 
-    public DecisionStats getDecisionStats() {
-        return new DecisionStats(decisionsMade, decisionSkips, lastDecisionAt);
+    public PlanCache.Stats getPlanCacheStats() {
+        return planCache.stats();
+    }
+
+    public void clearPlanCache() {
+        planCache.clear();
+        this.memoryRepository.recordAction("plan-cache-clear", "manual");
+    }
+
+    public BotPlanner.Stats getPlannerStats() {
+        return this.botPlanner.stats();
+    }
+
+    public LlmScheduler.Stats getLlmSchedulerStats() {
+        return this.ollamaClient.getSchedulerStats();
+    }
+
+    public List<OllamaClient.EndpointStats> getLlmEndpointStats() {
+        return this.ollamaClient.getEndpointStats();
+    }
+
+    public BotMemoryRepository.ConnectionPoolStats getDatabasePoolStats() {
+        return this.memoryRepository.getConnectionPoolStats();
+    }
+
+    public BotMemoryRepository.JournalStats getDatabaseJournalStats() {
+        return this.memoryRepository.getJournalStats();
+    }
+
+    public BotMemoryRepository.RetentionStats getDatabaseRetentionStats() {
+        return this.memoryRepository.getRetentionStats();
+    }
+
+    public boolean runDatabaseRetention() {
+        boolean started = this.memoryRepository.runRetentionNow();
+        if (started) {
+            this.memoryRepository.recordAction("db-retention-run", "manual");
+        }
+        return started;
+    }
+
+    public int getDatabaseSchemaVersion() {
+        return this.memoryRepository.getSchemaVersion();
+    }
+
+    public List<BotMemoryRepository.QueryPlanResult> checkDatabaseQueryPlans() {
+        return this.memoryRepository.checkQueryPlans();
+    }
+
+    // Runs on its own thread: up to 1000 open/close and pooled round trips would stall the tick.
+    // Null when a bench is already running (they share the scratch database).
+    public CompletableFuture<Optional<BotMemoryRepository.ConnectionBenchmarkResult>> benchmarkDatabaseAsync(int iterations) {
+        if (!databaseBenchRunning.compareAndSet(false, true)) {
+            return null;
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Optional<BotMemoryRepository.ConnectionBenchmarkResult> result = this.memoryRepository.benchmarkConnections(iterations);
+                result.ifPresent(value -> this.memoryRepository.recordAction(
+                    "db-bench",
+                    String.format(Locale.ROOT, "iterations=%d openRead=%.1fus pooledRead=%.1fus openWrite=%.1fus pooledWrite=%.1fus",
+                        value.iterations(), value.openReadMicros(), value.pooledReadMicros(), value.openWriteMicros(), value.pooledWriteMicros())
+                ));
+                return result;
+            } finally {
+                databaseBenchRunning.set(false);
+            }
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "aiplayer-db-bench");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    // Null when a VACUUM is already running.
+    public CompletableFuture<Optional<BotMemoryRepository.VacuumResult>> vacuumDatabaseAsync() {
+        if (!databaseVacuumRunning.compareAndSet(false, true)) {
+            return null;
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Optional<BotMemoryRepository.VacuumResult> result = this.memoryRepository.vacuum();
+                result.ifPresent(value -> this.memoryRepository.recordAction(
+                    "db-vacuum",
+                    String.format(Locale.ROOT, "pages=%d->%d ms=%.0f incremental=%s", value.pagesBefore(), value.pagesAfter(), value.millis(), value.incremental())
+                ));
+                return result;
+            } finally {
+                databaseVacuumRunning.set(false);
+            }
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "aiplayer-db-vacuum");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    public DecisionStats getDecisionStats(String botName) {
+        BotAgent agent = botRegistry.resolve(botName).orElse(null);
+        if (agent == null) {
+            return new DecisionStats(0, 0, null, 0, -1.0D, 0.0D);
+        }
+        return new DecisionStats(
+            agent.decisionsMade,
+            agent.decisionSkips,
+            agent.lastDecisionAt,
+            agent.firstStepSamples,
+            agent.lastFirstStepMillis,
+            agent.avgFirstStepMillis
+        );
+    }
+
+    public PerceptionStats getPerceptionStats(String botName) {
+        BotAgent agent = botRegistry.resolve(botName).orElse(null);
+        if (agent == null) {
+            return null;
+        }
+        return new PerceptionStats(agent.indexedPerceptions, agent.blockScanner.stats());
+    }
+
+    public WorldModel getWorldModel() {
+        return worldModel;
+    }
+
+    public WorldModel.Stats getWorldModelStats() {
+        return worldModel.stats();
+    }
+
+    public WalkabilityGrid getWalkabilityGrid() {
+        return walkabilityGrid;
+    }
+
+    public PathfindingStats getPathfindingStats() {
+        long routesReused = 0L;
+        long replans = 0L;
+        int searching = 0;
+        for (BotAgent agent : botRegistry.all()) {
+            PathNavigator.Stats navigation = agent.actionExecutor.getNavigationStats();
+            routesReused += navigation.routesReused();
+            replans += navigation.replans();
+            if (navigation.searching()) {
+                searching++;
+            }
+        }
+        return new PathfindingStats(pathPlanner.stats(), walkabilityGrid.stats(), pathCache.stats(), searching, routesReused, replans);
+    }
+
+    public PathCache.Stats getPathCacheStats() {
+        return pathCache.stats();
+    }
+
+    // Runs on its own thread: up to 200 flat searches of 500k nodes each would freeze the tick.
+    // Null when a bench is already running.
+    public CompletableFuture<PathPlanner.BenchmarkResult> benchmarkPathfindingAsync(int runs) {
+        if (!pathBenchRunning.compareAndSet(false, true)) {
+            return null;
+        }
+        int safeRuns = Math.max(1, Math.min(200, runs));
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                PathPlanner.BenchmarkResult result = PathPlanner.benchmark(System.nanoTime(), safeRuns);
+                this.memoryRepository.recordAction(
+                    "path-bench",
+                    String.format(Locale.ROOT, "runs=%d flatNodes=%.0f hierNodes=%.0f flatUs=%.0f hierUs=%.0f flatRatio=%.3f hierRatio=%.3f",
+                        result.runs(), result.flatAvgNodes(), result.hierarchicalAvgNodes(), result.flatAvgMicros(),
+                        result.hierarchicalAvgMicros(), result.flatCostRatio(), result.hierarchicalCostRatio())
+                );
+                return result;
+            } finally {
+                pathBenchRunning.set(false);
+            }
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "aiplayer-path-bench");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    public BotEntityIndex getBotEntityIndex() {
+        return botEntities;
+    }
+
+    public BotEntityIndex.Stats getBotEntityIndexStats() {
+        return botEntities.stats();
+    }
+
+    public TickBudgetScheduler.Stats getTickSchedulerStats() {
+        return tickScheduler.stats();
+    }
+
+    public TickStats getTickStats() {
+        Map<String, Integer> dimensions = new LinkedHashMap<>();
+        lastTickDimensions.forEach((dimension, bots) -> dimensions.put(dimension.location().toString(), bots));
+        return new TickStats(lastTickAgents, lastTickMicros, avgTickMicros, dimensions);
+    }
+
+    public List<BotSummary> listBots() {
+        List<BotSummary> summaries = new ArrayList<>();
+        for (BotAgent agent : botRegistry.all()) {
+            BotActionPlan plan = agent.actionExecutor.getCurrentPlan();
+            summaries.add(new BotSummary(
+                agent.name,
+                agent.entityId,
+                agent.goal == null ? "none" : agent.goal.name(),
+                plan == null ? 0 : plan.steps().size(),
+                agent.pendingPlanFuture != null,
+                agent.hunger,
+                agent.decisionsMade,
+                agent.avgTickMicros
+            ));
+        }
+        return summaries;
+    }
+
+    public List<String> getBotNames() {
+        List<String> names = new ArrayList<>();
+        for (BotAgent agent : botRegistry.all()) {
+            names.add(agent.name);
+        }
+        return names;
+    }
+
+    public boolean hasBot(String botName) {
+        return botRegistry.findByName(botName).isPresent();
     }
 
     public boolean isPaused() {
@@ -1520,6 +1938,12 @@ public final class AIPlayerRuntime {
         return activeGoal;
     }
 
+    // Goal the bot last planned for; falls back to the manual goal before its first decision.
+    public BotGoal getBotGoal(String botName) {
+        BotGoal goal = botRegistry.resolve(botName).map(agent -> agent.goal).orElse(null);
+        return goal != null ? goal : activeGoal;
+    }
+
     public BotGoal setActiveGoal(String name, String description, String source) {
         BotGoal goal = memoryService.setActiveGoal(name, description, source);
         this.activeGoal = goal;
@@ -1548,8 +1972,9 @@ public final class AIPlayerRuntime {
         return updated;
     }
 
-    public String getCurrentPlanSummary() {
-        BotActionPlan plan = actionExecutor.getCurrentPlan();
+    public String getCurrentPlanSummary(String botName) {
+        BotAgent agent = botRegistry.resolve(botName).orElse(null);
+        BotActionPlan plan = agent == null ? null : agent.actionExecutor.getCurrentPlan();
         if (plan == null || plan.isEmpty()) {
             return "none";
         }
@@ -1557,8 +1982,9 @@ public final class AIPlayerRuntime {
         return "goal=" + plan.goal() + " steps=" + plan.steps().size() + (rationale.isBlank() ? "" : " rationale=" + rationale);
     }
 
-    public String getCurrentStepSummary() {
-        BotActionStep step = actionExecutor.getCurrentStep();
+    public String getCurrentStepSummary(String botName) {
+        BotAgent agent = botRegistry.resolve(botName).orElse(null);
+        BotActionStep step = agent == null ? null : agent.actionExecutor.getCurrentStep();
         if (step == null) {
             return "none";
         }
@@ -1568,27 +1994,33 @@ public final class AIPlayerRuntime {
         return step.type().name() + " target=" + target + item + " count=" + step.count() + " timeout=" + step.timeoutTicks();
     }
 
-    public String getLastPerceptionSummary() {
-        return lastPerception == null ? "none" : lastPerception.summary();
+    public String getLastPerceptionSummary(String botName) {
+        return botRegistry.resolve(botName)
+            .map(agent -> agent.lastPerception == null ? "none" : agent.lastPerception.summary())
+            .orElse("none");
     }
 
-    public java.util.Optional<BotVitals> getBotVitals(ServerLevel level) {
-        if (botFakePlayer != null) {
+    public java.util.Optional<BotVitals> getBotVitals(String botName) {
+        BotAgent agent = botRegistry.resolve(botName).orElse(null);
+        if (agent == null) {
+            return java.util.Optional.empty();
+        }
+        if (agent.fakePlayer != null) {
             return java.util.Optional.of(new BotVitals(
-                botFakePlayer.getHealth(),
-                botFakePlayer.getMaxHealth(),
-                botFakePlayer.getFoodData().getFoodLevel()
+                agent.fakePlayer.getHealth(),
+                agent.fakePlayer.getMaxHealth(),
+                agent.fakePlayer.getFoodData().getFoodLevel()
             ));
         }
-        AIBotEntity bot = getTrackedBot(level);
+        AIBotEntity bot = botEntities.bot(agent.entityId);
         if (bot == null) {
             return java.util.Optional.empty();
         }
-        return java.util.Optional.of(new BotVitals(bot.getHealth(), bot.getMaxHealth(), botHunger));
+        return java.util.Optional.of(new BotVitals(bot.getHealth(), bot.getMaxHealth(), agent.hunger));
     }
 
-    public long getSurvivalMinutes() {
-        return survivalMinutes;
+    public long getSurvivalMinutes(String botName) {
+        return botRegistry.resolve(botName).map(agent -> agent.survivalMinutes).orElse(0L);
     }
 
     public boolean isMineColoniesAvailable() {
@@ -1828,13 +2260,18 @@ public final class AIPlayerRuntime {
         boolean added = level.addFreshEntity(marker);
         if (added) {
             this.botMarkerEntityId = marker.getUUID();
+            this.memoryRepository.saveMarkerEntityId(this.botMarkerEntityId);
             this.memoryRepository.recordAction("spawn-marker", this.botMarkerEntityId + " name=" + markerName);
         }
 
         return added;
     }
 
+    // Names are unique: a second bot with the same name would share its FakePlayer profile.
     public boolean spawnBot(ServerLevel level, Vec3 position, String botName) {
+        if (botRegistry.findByName(botName).isPresent()) {
+            return false;
+        }
         AIBotEntity bot = AIBotEntities.AI_BOT.get().create(level);
         if (bot == null) {
             return false;
@@ -1843,34 +2280,40 @@ public final class AIPlayerRuntime {
         bot.setCustomName(Component.literal(botName));
         bot.setCustomNameVisible(true);
         bot.setPersistenceRequired();
+        // Registered before joining the level so the join event does not treat it as recovered.
+        registerAgent(bot.getUUID(), botName);
         boolean added = level.addFreshEntity(bot);
         if (added) {
-            this.botEntityId = bot.getUUID();
-            this.botName = botName;
-            this.botFakePlayer = null;
-            this.currentPlan = null;
-            this.actionExecutor.clearPlan();
-            this.memoryRepository.recordAction("spawn-bot", this.botEntityId + " name=" + botName);
+            saveTrackedBots();
+            this.memoryRepository.recordAction("spawn-bot", bot.getUUID() + " name=" + botName);
+        } else {
+            botRegistry.remove(bot.getUUID());
         }
         return added;
     }
 
-    public boolean isBotAlive(ServerLevel level) {
-        return getTrackedBot(level) != null;
+    public boolean isBotAlive(String botName) {
+        BotAgent agent = botRegistry.resolve(botName).orElse(null);
+        return agent != null && botEntities.bot(agent.entityId) != null;
     }
 
-    public boolean despawnBot(ServerLevel level) {
-        AIBotEntity bot = getTrackedBot(level);
-        if (bot == null) {
+    public boolean despawnBot(String botName) {
+        BotAgent agent = botRegistry.resolve(botName).orElse(null);
+        if (agent == null) {
             return false;
         }
 
-        bot.discard();
-        this.memoryRepository.recordAction("despawn-bot", bot.getUUID().toString());
-        this.botEntityId = null;
-        this.botFakePlayer = null;
-        this.currentPlan = null;
-        this.actionExecutor.clearPlan();
+        // Unregister first so the leave event of the discarded entity finds nothing to forget.
+        cancelPendingPlan(agent, "despawn");
+        agent.actionExecutor.clearPlan();
+        botRegistry.remove(agent.entityId);
+        tickScheduler.cancel(agent.entityId + ":");
+        saveTrackedBots();
+        AIBotEntity bot = botEntities.bot(agent.entityId);
+        if (bot != null) {
+            bot.discard();
+        }
+        this.memoryRepository.recordAction("despawn-bot", agent.entityId + " name=" + agent.name);
         return true;
     }
 
@@ -1883,6 +2326,7 @@ public final class AIPlayerRuntime {
         marker.discard();
         this.memoryRepository.recordAction("despawn-marker", marker.getUUID().toString());
         this.botMarkerEntityId = null;
+        this.memoryRepository.saveMarkerEntityId(null);
         return true;
     }
 
@@ -1891,85 +2335,80 @@ public final class AIPlayerRuntime {
     }
 
 
-    private void processSurvivalLoop(ServerLevel level) {
-        AIBotEntity bot = getTrackedBot(level);
-        if (bot == null) {
-            return;
-        }
-
+    private void processSurvivalLoop(ServerLevel level, BotAgent agent, AIBotEntity bot) {
         Instant now = Instant.now();
-        if (lastHungerAt == null || Duration.between(lastHungerAt, now).toSeconds() >= 60) {
-            botHunger = Math.max(0, botHunger - 1);
-            lastHungerAt = now;
-            this.memoryRepository.recordAction("bot-hunger", "hunger=" + botHunger);
+        if (agent.lastHungerAt == null || Duration.between(agent.lastHungerAt, now).toSeconds() >= 60) {
+            agent.hunger = Math.max(0, agent.hunger - 1);
+            agent.lastHungerAt = now;
+            this.memoryRepository.recordAction("bot-hunger", "hunger=" + agent.hunger);
         }
 
-        if (botFakePlayer != null) {
-            collectNearbyDrops(level, bot, botFakePlayer);
-            if (lastInventoryManageAt == null || Duration.between(lastInventoryManageAt, now).toSeconds() >= 20) {
-                ensureInventorySpace(botFakePlayer);
-                lastInventoryManageAt = now;
+        if (agent.fakePlayer != null) {
+            collectNearbyDrops(level, agent, bot, agent.fakePlayer);
+            if (agent.lastInventoryManageAt == null || Duration.between(agent.lastInventoryManageAt, now).toSeconds() >= 20) {
+                ensureInventorySpace(agent.fakePlayer);
+                agent.lastInventoryManageAt = now;
             }
-            consumeFoodIfNeeded(botFakePlayer);
-            bot.setHealth(botFakePlayer.getHealth());
+            consumeFoodIfNeeded(agent, agent.fakePlayer);
+            bot.setHealth(agent.fakePlayer.getHealth());
         }
 
-        if (lastHarvestAt == null || Duration.between(lastHarvestAt, now).toSeconds() >= 120) {
+        if (agent.lastHarvestAt == null || Duration.between(agent.lastHarvestAt, now).toSeconds() >= 120) {
             this.memoryRepository.recordAction("bot-harvest", "status=ok");
-            lastHarvestAt = now;
-            if (botHunger <= 10) {
-                botHunger = 20;
-                this.memoryRepository.recordAction("bot-eat", "hunger=" + botHunger);
+            agent.lastHarvestAt = now;
+            if (agent.hunger <= 10) {
+                agent.hunger = 20;
+                this.memoryRepository.recordAction("bot-eat", "hunger=" + agent.hunger);
             }
         }
 
-        if (lastMineAt == null || Duration.between(lastMineAt, now).toSeconds() >= 180) {
+        if (agent.lastMineAt == null || Duration.between(agent.lastMineAt, now).toSeconds() >= 180) {
             this.memoryRepository.recordAction("bot-mine", "status=ok");
-            lastMineAt = now;
+            agent.lastMineAt = now;
         }
 
-        if (lastCraftAt == null || Duration.between(lastCraftAt, now).toSeconds() >= 240) {
+        if (agent.lastCraftAt == null || Duration.between(agent.lastCraftAt, now).toSeconds() >= 240) {
             this.memoryRepository.recordAction("bot-craft", "status=ok");
-            lastCraftAt = now;
+            agent.lastCraftAt = now;
         }
 
-        if (level.isNight() && (lastSleepAt == null || Duration.between(lastSleepAt, now).toSeconds() >= 300)) {
+        if (level.isNight() && (agent.lastSleepAt == null || Duration.between(agent.lastSleepAt, now).toSeconds() >= 300)) {
             this.memoryRepository.recordAction("bot-sleep", "status=ok");
-            lastSleepAt = now;
+            agent.lastSleepAt = now;
         }
 
-        advanceSurvivalClock(now);
+        advanceSurvivalClock(agent, now);
 
-        if (botHunger == 0 && (lastHealAt == null || Duration.between(lastHealAt, now).toSeconds() >= 10)) {
+        if (agent.hunger == 0 && (agent.lastHealAt == null || Duration.between(agent.lastHealAt, now).toSeconds() >= 10)) {
             float nextHealth = Math.max(0.0f, bot.getHealth() - 1.0f);
             bot.setHealth(nextHealth);
             this.memoryRepository.recordAction("bot-starve", "health=" + nextHealth);
-            lastHealAt = now;
+            agent.lastHealAt = now;
         }
 
-        if (bot.getHealth() < bot.getMaxHealth() && (lastHealAt == null || Duration.between(lastHealAt, now).toSeconds() >= 10)) {
+        if (bot.getHealth() < bot.getMaxHealth() && (agent.lastHealAt == null || Duration.between(agent.lastHealAt, now).toSeconds() >= 10)) {
             float nextHealth = Math.min(bot.getMaxHealth(), bot.getHealth() + 1.0f);
             bot.setHealth(nextHealth);
             this.memoryRepository.recordAction("bot-heal", "health=" + nextHealth);
-            lastHealAt = now;
+            agent.lastHealAt = now;
         }
     }
 
-    private void advanceSurvivalClock(Instant now) {
-        if (lastSurvivalAt == null) {
-            lastSurvivalAt = now;
+    private void advanceSurvivalClock(BotAgent agent, Instant now) {
+        if (agent.lastSurvivalAt == null) {
+            agent.lastSurvivalAt = now;
             return;
         }
-        long seconds = Duration.between(lastSurvivalAt, now).getSeconds();
+        long seconds = Duration.between(agent.lastSurvivalAt, now).getSeconds();
         if (seconds < 60) {
             return;
         }
         long minutes = seconds / 60;
-        survivalMinutes += minutes;
-        lastSurvivalAt = now;
-        if (survivalMinutes >= 1440 && !survivalDayLogged) {
-            survivalDayLogged = true;
-            this.memoryRepository.recordAction("bot-survival-day", "minutes=" + survivalMinutes);
+        agent.survivalMinutes += minutes;
+        agent.lastSurvivalAt = now;
+        if (agent.survivalMinutes >= 1440 && !agent.survivalDayLogged) {
+            agent.survivalDayLogged = true;
+            this.memoryRepository.recordAction("bot-survival-day", "minutes=" + agent.survivalMinutes);
         }
     }
 
@@ -2045,15 +2484,15 @@ public final class AIPlayerRuntime {
     public record BotAskResult(long interactionId, String response) {
     }
 
-    private void collectNearbyDrops(ServerLevel level, AIBotEntity bot, FakePlayer player) {
+    private void collectNearbyDrops(ServerLevel level, BotAgent agent, AIBotEntity bot, FakePlayer player) {
         if (level == null || bot == null || player == null) {
             return;
         }
         Instant now = Instant.now();
-        if (lastLootCollectAt != null && Duration.between(lastLootCollectAt, now).toMillis() < 500) {
+        if (agent.lastLootCollectAt != null && Duration.between(agent.lastLootCollectAt, now).toMillis() < 500) {
             return;
         }
-        lastLootCollectAt = now;
+        agent.lastLootCollectAt = now;
 
         AABB pickupBox = new AABB(bot.blockPosition()).inflate(2.5, 1.5, 2.5);
         List<ItemEntity> drops = level.getEntitiesOfClass(ItemEntity.class, pickupBox, entity -> entity != null && !entity.getItem().isEmpty());
@@ -2138,8 +2577,8 @@ public final class AIPlayerRuntime {
         return empty;
     }
 
-    private void consumeFoodIfNeeded(FakePlayer player) {
-        if (player == null || botHunger >= 12) {
+    private void consumeFoodIfNeeded(BotAgent agent, FakePlayer player) {
+        if (player == null || agent.hunger >= 12) {
             return;
         }
         for (ItemStack stack : player.getInventory().items) {
@@ -2152,8 +2591,8 @@ public final class AIPlayerRuntime {
                 continue;
             }
             stack.shrink(1);
-            botHunger = Math.min(20, botHunger + points);
-            this.memoryRepository.recordAction("bot-eat", "item=" + itemId + " hunger=" + botHunger);
+            agent.hunger = Math.min(20, agent.hunger + points);
+            this.memoryRepository.recordAction("bot-eat", "item=" + itemId + " hunger=" + agent.hunger);
             return;
         }
     }
@@ -2162,12 +2601,51 @@ public final class AIPlayerRuntime {
         return timeOfDay >= 13000L && timeOfDay <= 23000L;
     }
 
-    public record DecisionStats(int decisionsMade, int decisionSkips, Instant lastDecisionAt) {
+    public record DecisionStats(
+        int decisionsMade,
+        int decisionSkips,
+        Instant lastDecisionAt,
+        int streamedPlans,
+        double lastFirstStepMillis,
+        double avgFirstStepMillis
+    ) {
     }
 
     public record BotVitals(float health, float maxHealth, int hunger) {
     }
 
+    public record PathfindingStats(
+        PathPlanner.Stats planner,
+        WalkabilityGrid.Stats grid,
+        PathCache.Stats cache,
+        int botsSearching,
+        long routesReused,
+        long replans
+    ) {
+    }
+
+    public record PerceptionStats(int indexedLookups, PerceptionScanner.Stats scan) {
+    }
+
+    public record BotSummary(
+        String name,
+        UUID entityId,
+        String goal,
+        int planSteps,
+        boolean planPending,
+        int hunger,
+        int decisionsMade,
+        double avgTickMicros
+    ) {
+    }
+
+    // botsPerDimension only counts bots whose entity was loaded at the last tick.
+    public record TickStats(int bots, double lastTickMicros, double avgTickMicros, Map<String, Integer> botsPerDimension) {
+        public double avgMicrosPerBot() {
+            return bots == 0 ? 0.0D : avgTickMicros / bots;
+        }
+    }
+
     private record CachedRecipeRequest(long requestId, Instant cachedAt) {
     }
 
@@ -2266,6 +2744,42 @@ public final class AIPlayerRuntime {
         return Duration.ofSeconds(seconds);
     }
 
+    private Duration resolvePlanCacheTtl() {
+        String env = System.getenv("AIPLAYER_PLAN_CACHE_SECONDS");
+        long seconds = 300;
+        if (env != null && !env.isBlank()) {
+            try {
+                seconds = Long.parseLong(env.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (seconds < 0) {
+            seconds = 0;
+        }
+        if (seconds > 3600) {
+            seconds = 3600;
+        }
+        return Duration.ofSeconds(seconds);
+    }
+
+    private int resolvePlanCacheMaxEntries() {
+        String env = System.getenv("AIPLAYER_PLAN_CACHE_MAX");
+        int entries = 64;
+        if (env != null && !env.isBlank()) {
+            try {
+                entries = Integer.parseInt(env.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (entries < 1) {
+            entries = 1;
+        }
+        if (entries > 1024) {
+            entries = 1024;
+        }
+        return entries;
+    }
+
     private Duration resolvePlannerMaxWait() {
         String prop = System.getProperty("aiplayer.plannerMaxWaitSeconds");
         String env = System.getenv("AIPLAYER_PLANNER_MAX_WAIT_SECONDS");
@@ -2349,6 +2863,86 @@ public final class AIPlayerRuntime {
         return steps;
     }
 
+    private int resolveWorldModelMaxEntries() {
+        String prop = System.getProperty("aiplayer.worldModel.maxEntries");
+        String env = System.getenv("AIPLAYER_WORLD_MODEL_MAX_ENTRIES");
+        int entries = 250_000;
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        if (raw != null && !raw.isBlank()) {
+            try {
+                entries = Integer.parseInt(raw.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (entries < 1_000) {
+            entries = 1_000;
+        }
+        if (entries > 5_000_000) {
+            entries = 5_000_000;
+        }
+        return entries;
+    }
+
+    private int resolvePathNodesPerTick() {
+        String prop = System.getProperty("aiplayer.path.nodesPerTick");
+        String env = System.getenv("AIPLAYER_PATH_NODES_PER_TICK");
+        int nodes = 2_000;
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        if (raw != null && !raw.isBlank()) {
+            try {
+                nodes = Integer.parseInt(raw.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (nodes < 100) {
+            nodes = 100;
+        }
+        if (nodes > 100_000) {
+            nodes = 100_000;
+        }
+        return nodes;
+    }
+
+    private int resolvePathMaxNodes() {
+        String prop = System.getProperty("aiplayer.path.maxNodes");
+        String env = System.getenv("AIPLAYER_PATH_MAX_NODES");
+        int nodes = 20_000;
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        if (raw != null && !raw.isBlank()) {
+            try {
+                nodes = Integer.parseInt(raw.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (nodes < 1_000) {
+            nodes = 1_000;
+        }
+        if (nodes > 500_000) {
+            nodes = 500_000;
+        }
+        return nodes;
+    }
+
+    private long resolveTickBudgetMicros() {
+        String prop = System.getProperty("aiplayer.tickBudgetMicros");
+        String env = System.getenv("AIPLAYER_TICK_BUDGET_MICROS");
+        long micros = 2_000;
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        if (raw != null && !raw.isBlank()) {
+            try {
+                micros = Long.parseLong(raw.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (micros < 100) {
+            micros = 100;
+        }
+        if (micros > 50_000) {
+            micros = 50_000;
+        }
+        return micros;
+    }
+
     private boolean resolveDebug() {
         String prop = System.getProperty("aiplayer.debug");
         String env = System.getenv("AIPLAYER_DEBUG");
@@ -2374,81 +2968,66 @@ public final class AIPlayerRuntime {
     }
 
 
-    private AIBotEntity getTrackedBot(ServerLevel level) {
-        if (level == null) {
-            return null;
-        }
-
-        if (this.botEntityId != null) {
-            Entity entity = level.getEntity(this.botEntityId);
-            if (entity instanceof AIBotEntity bot) {
-                return bot;
-            }
-        }
+    private BotAgent registerAgent(UUID entityId, String name) {
+        // Offset each bot's decision counter so N bots spread their planning over the interval.
+        int offset = botRegistry.size() % Math.max(1, decisionIntervalTicks);
+        PerceptionScanner blockScanner = new PerceptionScanner(PERCEPTION_BLOCK_RADIUS, PERCEPTION_BLOCK_HALF_HEIGHT, PERCEPTION_BLOCK_LIMIT);
+        BotAgent agent = new BotAgent(entityId, name, new ActionExecutor(
+            this.fakePlayerController,
+            this.memoryService,
+            new PathNavigator(this.pathPlanner, this.walkabilityGrid, this.pathCache),
+            this.walkabilityGrid
+        ), blockScanner, offset);
+        botRegistry.register(agent);
+        return agent;
+    }
 
-        Instant now = Instant.now();
-        if (lastBotLookupAt != null && Duration.between(lastBotLookupAt, now).compareTo(botLookupCooldown) < 0) {
+    // The bot entity if it is loaded in this level; it may be loaded in another dimension.
+    private AIBotEntity getTrackedBot(ServerLevel level, BotAgent agent) {
+        if (level == null || agent == null) {
             return null;
         }
-        lastBotLookupAt = now;
+        AIBotEntity bot = botEntities.bot(agent.entityId);
+        return bot != null && bot.level() == level ? bot : null;
+    }
 
-        AABB fullWorld = new AABB(
-            -30_000_000.0,
-            level.getMinBuildHeight(),
-            -30_000_000.0,
-            30_000_000.0,
-            level.getMaxBuildHeight(),
-            30_000_000.0
-        );
-        List<AIBotEntity> bots = level.getEntitiesOfClass(AIBotEntity.class, fullWorld);
-        if (bots.isEmpty()) {
-            this.botEntityId = null;
-            return null;
+    // A bot entity joined a level: bots are re-attached by UUID, unknown ones (spawned by a
+    // summon command, or from a database that was reset) are registered under their name.
+    private void trackLoadedBot(AIBotEntity bot) {
+        if (botRegistry.get(bot.getUUID()).isPresent()) {
+            return;
         }
-
-        AIBotEntity recovered = bots.get(0);
-        this.botEntityId = recovered.getUUID();
-        if (this.botName == null || this.botName.isBlank()) {
-            this.botName = recovered.getName().getString();
+        String name = bot.getName().getString();
+        if (botRegistry.findByName(name).isPresent()) {
+            name = name + "-" + bot.getUUID().toString().substring(0, 8);
         }
-        this.memoryRepository.recordAction("bot-track-recovered", this.botEntityId.toString());
-        return recovered;
+        registerAgent(bot.getUUID(), name);
+        saveTrackedBots();
+        this.memoryRepository.recordAction("bot-track-recovered", bot.getUUID() + " name=" + name);
     }
 
-    private Entity getTrackedMarker(ServerLevel level) {
-        if (this.botMarkerEntityId == null) {
-            return null;
+    // The bot entity was killed or discarded outside despawnBot.
+    private void forgetBot(UUID entityId, String reason) {
+        BotAgent agent = botRegistry.remove(entityId).orElse(null);
+        if (agent == null) {
+            return;
         }
+        cancelPendingPlan(agent, "bot-missing");
+        tickScheduler.cancel(agent.entityId + ":");
+        saveTrackedBots();
+        this.memoryRepository.recordAction("bot-track-lost", agent.entityId + " name=" + agent.name + " reason=" + reason);
+    }
 
-        Entity entity = level.getEntity(this.botMarkerEntityId);
-        if (entity != null && entity.getTags().contains(MARKER_TAG)) {
-            return entity;
+    private void saveTrackedBots() {
+        List<BotMemoryRepository.TrackedBotRecord> tracked = new ArrayList<>();
+        for (BotAgent agent : botRegistry.all()) {
+            tracked.add(new BotMemoryRepository.TrackedBotRecord(agent.entityId, agent.name));
         }
+        this.memoryRepository.saveTrackedBots(tracked);
+    }
 
-        return null;
+    private Entity getTrackedMarker(ServerLevel level) {
+        Entity marker = botEntities.marker(this.botMarkerEntityId);
+        return marker != null && marker.level() == level ? marker : null;
     }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
@@ -0,0 +1,121 @@
+package com.aiplayer.mod.core;
+
+import com.aiplayer.mod.core.ai.ActionExecutor;
+import com.aiplayer.mod.core.ai.BotActionPlan;
+import com.aiplayer.mod.core.ai.BotActionStep;
+import com.aiplayer.mod.core.ai.BotGoal;
+import com.aiplayer.mod.core.ai.BotPerception;
+import com.aiplayer.mod.core.ai.BotPlanner;
+import com.aiplayer.mod.core.ai.PerceptionScanner;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.common.util.FakePlayer;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Everything one bot's tick mutates. Services shared by every bot (Ollama client, planner, memory
+// repository, plan cache) stay on AIPlayerRuntime; fields are only touched on the server thread.
+public final class BotAgent {
+    private static final double TICK_EWMA_ALPHA = 0.1D;
+
+    final UUID entityId;
+    final String name;
+    final ActionExecutor actionExecutor;
+    final PerceptionScanner blockScanner;
+
+    // Level the bot was last ticked in; null until its entity is first seen loaded.
+    ResourceKey<Level> dimension;
+    FakePlayer fakePlayer;
+    int hunger = 20;
+    Instant lastHungerAt;
+    Instant lastHealAt;
+    Instant lastHarvestAt;
+    Instant lastMineAt;
+    Instant lastCraftAt;
+    Instant lastSleepAt;
+    Instant lastLootCollectAt;
+    Instant lastInventoryManageAt;
+    Instant lastSurvivalAt;
+    Instant lastDecisionStatsAt;
+    long survivalMinutes;
+    boolean survivalDayLogged;
+
+    BotActionPlan currentPlan;
+    BotPerception lastPerception;
+    BotGoal goal;
+    Instant lastPerceptionAt;
+    Instant lastDecisionAt;
+    int decisionTickCounter;
+    int decisionsMade;
+    int decisionSkips;
+    int indexedPerceptions;
+
+    CompletableFuture<BotActionPlan> pendingPlanFuture;
+    BotGoal pendingPlanGoal;
+    BotPerception pendingPlanPerception;
+    Instant pendingPlanStartedAt;
+    StreamedPlan pendingPlanStream;
+    int firstStepSamples;
+    double lastFirstStepMillis = -1.0D;
+    double avgFirstStepMillis;
+
+    long tickNanos;
+    long tickSamples;
+    double lastTickMicros;
+    double avgTickMicros;
+
+    BotAgent(UUID entityId, String name, ActionExecutor actionExecutor, PerceptionScanner blockScanner, int decisionTickOffset) {
+        this.entityId = entityId;
+        this.name = name;
+        this.actionExecutor = actionExecutor;
+        this.blockScanner = blockScanner;
+        this.decisionTickCounter = decisionTickOffset;
+    }
+
+    public UUID entityId() {
+        return entityId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // Closes the tick: tickNanos holds the time this bot's scheduled jobs ran during it.
+    void recordTickCost() {
+        long nanos = tickNanos;
+        tickNanos = 0L;
+        lastTickMicros = nanos / 1_000.0D;
+        tickSamples++;
+        avgTickMicros = tickSamples == 1
+            ? lastTickMicros
+            : avgTickMicros + TICK_EWMA_ALPHA * (lastTickMicros - avgTickMicros);
+    }
+
+    // Steps handed over by the planner's streaming callback (HTTP client virtual thread), drained on the server tick.
+    static final class StreamedPlan {
+        final long submittedNanos;
+        final ConcurrentLinkedQueue<BotActionStep> steps = new ConcurrentLinkedQueue<>();
+        volatile long firstStepNanos;
+        volatile BotPlanner.CallUsage usage;
+        // Set when the decision is cancelled; chunks still arriving from the aborted request are dropped.
+        volatile boolean closed;
+        int applied;
+
+        StreamedPlan(long submittedNanos) {
+            this.submittedNanos = submittedNanos;
+        }
+
+        void offer(BotActionStep step) {
+            if (closed) {
+                return;
+            }
+            if (firstStepNanos == 0L) {
+                firstStepNanos = System.nanoTime();
+            }
+            steps.offer(step);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.aiplayer.mod.core;
 
+import com.aiplayer.mod.integrations.LlmScheduler;
 import com.aiplayer.mod.integrations.OllamaClient;
 
 import java.time.Duration;
@@ -123,7 +124,7 @@ public final class BotBrain {
             if (decisionBatchSize > 1) {
                 askQuestion = question + " Donne " + decisionBatchSize + " actions separees par des virgules.";
             }
-            Optional<String> response = ollamaClient.ask(askQuestion, context.objective());
+            Optional<String> response = ollamaClient.ask(askQuestion, context.objective(), LlmScheduler.Priority.BACKGROUND);
             String responseRaw = response.orElse(lastResponse != null ? lastResponse : "idle");
             if (decisionBatchSize > 1) {
                 var parts = responseRaw.split("[\n,;]+");
@@ -0,0 +1,100 @@
+package com.aiplayer.mod.core;
+
+import com.aiplayer.mod.entity.AIBotEntity;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+// UUID -> loaded entity for AIPlayer bots and markers in every server dimension, fed by entity
+// join/leave events so resolving a bot is one map lookup instead of a level-wide entity query.
+// A bot leaving because its chunk unloaded or it changed dimension is only dropped from the
+// index; the listener is told it is gone for good only when it was killed or discarded.
+public final class BotEntityIndex {
+    public interface Listener {
+        void onBotLoaded(AIBotEntity bot);
+
+        void onBotRemoved(UUID entityId, String reason);
+    }
+
+    private final String markerTag;
+    private final Listener listener;
+    private final Map<UUID, AIBotEntity> bots = new HashMap<>();
+    private final Map<UUID, Entity> markers = new HashMap<>();
+    private long joins;
+    private long leaves;
+    private long lookups;
+    private long misses;
+
+    BotEntityIndex(String markerTag, Listener listener) {
+        this.markerTag = markerTag;
+        this.listener = listener;
+    }
+
+    // Lowest priority so a join cancelled by another mod is never indexed.
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onEntityJoin(EntityJoinLevelEvent event) {
+        if (event.isCanceled() || !(event.getLevel() instanceof ServerLevel)) {
+            return;
+        }
+        Entity entity = event.getEntity();
+        if (entity instanceof AIBotEntity bot) {
+            joins++;
+            bots.put(bot.getUUID(), bot);
+            listener.onBotLoaded(bot);
+        } else if (entity.getTags().contains(markerTag)) {
+            markers.put(entity.getUUID(), entity);
+        }
+    }
+
+    @SubscribeEvent
+    public void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (!(event.getLevel() instanceof ServerLevel)) {
+            return;
+        }
+        Entity entity = event.getEntity();
+        if (entity instanceof AIBotEntity bot) {
+            leaves++;
+            // On a dimension change the copy may already have joined under the same UUID.
+            if (bots.get(bot.getUUID()) == bot) {
+                bots.remove(bot.getUUID());
+            }
+            Entity.RemovalReason reason = bot.getRemovalReason();
+            if (reason != null && reason.shouldDestroy() && !bots.containsKey(bot.getUUID())) {
+                listener.onBotRemoved(bot.getUUID(), reason.name().toLowerCase(Locale.ROOT));
+            }
+        } else if (markers.get(entity.getUUID()) == entity) {
+            markers.remove(entity.getUUID());
+        }
+    }
+
+    // Null when the bot is not loaded in any dimension.
+    public AIBotEntity bot(UUID entityId) {
+        lookups++;
+        AIBotEntity bot = entityId == null ? null : bots.get(entityId);
+        if (bot == null || bot.isRemoved()) {
+            misses++;
+            return null;
+        }
+        return bot;
+    }
+
+    public Entity marker(UUID entityId) {
+        Entity marker = entityId == null ? null : markers.get(entityId);
+        return marker == null || marker.isRemoved() ? null : marker;
+    }
+
+    public Stats stats() {
+        return new Stats(bots.size(), markers.size(), joins, leaves, lookups, misses);
+    }
+
+    public record Stats(int loadedBots, int loadedMarkers, long joins, long leaves, long lookups, long misses) {
+    }
+}
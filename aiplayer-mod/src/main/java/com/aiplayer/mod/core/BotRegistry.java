@@ -0,0 +1,56 @@
+package com.aiplayer.mod.core;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Bots driven by the runtime, keyed by entity UUID in registration order. Names are matched
+// case-insensitively so commands can address a bot by the name it was spawned with.
+final class BotRegistry {
+    private final Map<UUID, BotAgent> agents = new LinkedHashMap<>();
+
+    void register(BotAgent agent) {
+        agents.put(agent.entityId, agent);
+    }
+
+    Optional<BotAgent> get(UUID entityId) {
+        return Optional.ofNullable(agents.get(entityId));
+    }
+
+    Optional<BotAgent> findByName(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        String wanted = name.trim().toLowerCase(Locale.ROOT);
+        for (BotAgent agent : agents.values()) {
+            if (agent.name.toLowerCase(Locale.ROOT).equals(wanted)) {
+                return Optional.of(agent);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Blank name means "the default bot": the first one registered, as before multi-bot support.
+    Optional<BotAgent> resolve(String name) {
+        if (name == null || name.isBlank()) {
+            return agents.values().stream().findFirst();
+        }
+        return findByName(name);
+    }
+
+    Optional<BotAgent> remove(UUID entityId) {
+        return Optional.ofNullable(agents.remove(entityId));
+    }
+
+    // Snapshot, so callers may register or remove bots while iterating.
+    List<BotAgent> all() {
+        return List.copyOf(agents.values());
+    }
+
+    int size() {
+        return agents.size();
+    }
+}
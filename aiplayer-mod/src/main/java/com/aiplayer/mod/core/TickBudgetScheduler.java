@@ -0,0 +1,205 @@
+package com.aiplayer.mod.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cooperative per-tick scheduler. Jobs run class by class (executor, survival, perception,
+// housekeeping) until the microsecond budget is spent; whatever is left waits for the next tick.
+// EXECUTOR jobs always run, and a job deferred MAX_DEFERRED_TICKS times in a row runs regardless
+// of the budget so housekeeping cannot starve behind a crowd of bots.
+public final class TickBudgetScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TickBudgetScheduler.class);
+    private static final int MAX_DEFERRED_TICKS = 20;
+
+    public enum JobClass {
+        EXECUTOR,
+        SURVIVAL,
+        PERCEPTION,
+        HOUSEKEEPING
+    }
+
+    // Does a slice of work and returns true once finished. A job that returns false (typically
+    // because it reached deadlineNanos) stays queued and resumes on the next tick.
+    @FunctionalInterface
+    public interface Job {
+        boolean run(long deadlineNanos);
+    }
+
+    private final long budgetNanos;
+    private final Map<JobClass, ArrayDeque<Entry>> queues = new EnumMap<>(JobClass.class);
+    private final Map<String, Entry> pending = new HashMap<>();
+    private final Map<String, JobCounters> counters = new LinkedHashMap<>();
+    private final TimingHistogram tickHistogram = new TimingHistogram();
+    private long overBudgetTicks;
+
+    public TickBudgetScheduler(long budgetMicros) {
+        this.budgetNanos = budgetMicros * 1_000L;
+        for (JobClass jobClass : JobClass.values()) {
+            queues.put(jobClass, new ArrayDeque<>());
+        }
+    }
+
+    // name groups timings (e.g. "survival"), key identifies one unit of work (e.g. "<uuid>:survival").
+    // Returns false when the same key is still queued from an earlier tick.
+    public boolean submit(JobClass jobClass, String name, String key, Job job) {
+        if (pending.containsKey(key)) {
+            return false;
+        }
+        Entry entry = new Entry(key, job, counters.computeIfAbsent(name, ignored -> new JobCounters(name, jobClass)));
+        pending.put(key, entry);
+        queues.get(jobClass).addLast(entry);
+        return true;
+    }
+
+    public boolean isPending(String key) {
+        return pending.containsKey(key);
+    }
+
+    public void runTick() {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        for (JobClass jobClass : JobClass.values()) {
+            ArrayDeque<Entry> queue = queues.get(jobClass);
+            int queued = queue.size();
+            for (int i = 0; i < queued; i++) {
+                Entry entry = queue.pollFirst();
+                boolean forced = jobClass == JobClass.EXECUTOR || entry.deferredTicks >= MAX_DEFERRED_TICKS;
+                if (!forced && System.nanoTime() >= deadline) {
+                    entry.deferredTicks++;
+                    entry.counters.deferrals++;
+                    queue.addLast(entry);
+                    continue;
+                }
+                if (forced && jobClass != JobClass.EXECUTOR) {
+                    entry.counters.forced++;
+                }
+                if (runEntry(entry, deadline)) {
+                    pending.remove(entry.key);
+                } else {
+                    entry.deferredTicks = 0;
+                    queue.addLast(entry);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        tickHistogram.record(elapsed);
+        if (elapsed > budgetNanos) {
+            overBudgetTicks++;
+        }
+    }
+
+    // Drops queued work whose key starts with prefix, e.g. every job of a despawned bot.
+    public void cancel(String keyPrefix) {
+        for (ArrayDeque<Entry> queue : queues.values()) {
+            queue.removeIf(entry -> {
+                if (entry.key.startsWith(keyPrefix)) {
+                    pending.remove(entry.key);
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    public Stats stats() {
+        List<JobStats> jobs = new ArrayList<>();
+        for (JobCounters jobCounters : counters.values()) {
+            TimingHistogram histogram = jobCounters.histogram;
+            jobs.add(new JobStats(
+                jobCounters.name,
+                jobCounters.jobClass.name(),
+                histogram.samples(),
+                jobCounters.deferrals,
+                jobCounters.forced,
+                jobCounters.failures,
+                histogram.avgMicros(),
+                histogram.percentileMicros(0.50D),
+                histogram.percentileMicros(0.95D),
+                histogram.maxMicros()
+            ));
+        }
+        return new Stats(
+            budgetNanos / 1_000L,
+            tickHistogram.samples(),
+            overBudgetTicks,
+            pending.size(),
+            tickHistogram.avgMicros(),
+            tickHistogram.percentileMicros(0.95D),
+            jobs
+        );
+    }
+
+    private boolean runEntry(Entry entry, long deadline) {
+        long started = System.nanoTime();
+        boolean done;
+        try {
+            done = entry.job.run(deadline);
+        } catch (RuntimeException exception) {
+            entry.counters.failures++;
+            LOGGER.warn("Tick job {} failed", entry.key, exception);
+            done = true;
+        }
+        entry.counters.histogram.record(System.nanoTime() - started);
+        return done;
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final Job job;
+        private final JobCounters counters;
+        private int deferredTicks;
+
+        private Entry(String key, Job job, JobCounters counters) {
+            this.key = key;
+            this.job = job;
+            this.counters = counters;
+        }
+    }
+
+    private static final class JobCounters {
+        private final String name;
+        private final JobClass jobClass;
+        private final TimingHistogram histogram = new TimingHistogram();
+        private long deferrals;
+        private long forced;
+        private long failures;
+
+        private JobCounters(String name, JobClass jobClass) {
+            this.name = name;
+            this.jobClass = jobClass;
+        }
+    }
+
+    public record JobStats(
+        String name,
+        String jobClass,
+        long runs,
+        long deferrals,
+        long forced,
+        long failures,
+        double avgMicros,
+        double p50Micros,
+        double p95Micros,
+        double maxMicros
+    ) {
+    }
+
+    public record Stats(
+        long budgetMicros,
+        long ticks,
+        long overBudgetTicks,
+        int pending,
+        double avgTickMicros,
+        double p95TickMicros,
+        List<JobStats> jobs
+    ) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.aiplayer.mod.core;
+
+// Fixed-bucket latency histogram in microseconds. Percentiles report the upper bound of the bucket
+// they fall in, which is precise enough to tell a 50us job from a 5ms one without storing samples.
+final class TimingHistogram {
+    private static final long[] UPPER_BOUNDS_MICROS = {10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000};
+
+    private final long[] counts = new long[UPPER_BOUNDS_MICROS.length + 1];
+    private long samples;
+    private long totalNanos;
+    private long maxNanos;
+
+    void record(long nanos) {
+        long micros = nanos / 1_000L;
+        int bucket = 0;
+        while (bucket < UPPER_BOUNDS_MICROS.length && micros > UPPER_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        counts[bucket]++;
+        samples++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    long samples() {
+        return samples;
+    }
+
+    double avgMicros() {
+        return samples == 0 ? 0.0D : totalNanos / 1_000.0D / samples;
+    }
+
+    double maxMicros() {
+        return maxNanos / 1_000.0D;
+    }
+
+    double percentileMicros(double percentile) {
+        if (samples == 0) {
+            return 0.0D;
+        }
+        long rank = (long) Math.ceil(percentile * samples);
+        long seen = 0;
+        for (int bucket = 0; bucket < UPPER_BOUNDS_MICROS.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return UPPER_BOUNDS_MICROS[bucket];
+            }
+        }
+        return maxMicros();
+    }
+}
@@ -1,5 +1,8 @@
 package com.aiplayer.mod.core.ai;
 
+import com.aiplayer.mod.core.path.PathNavigator;
+import com.aiplayer.mod.core.path.PathTerrain;
+import com.aiplayer.mod.core.path.WalkabilityGrid;
 import com.aiplayer.mod.entity.AIBotEntity;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -24,17 +27,24 @@ import java.util.List;
 public final class ActionExecutor {
     private final FakePlayerController fakePlayerController;
     private final BotMemoryService memoryService;
+    private final PathNavigator navigator;
+    private final WalkabilityGrid walkabilityGrid;
 
     private BotActionPlan currentPlan;
     private int stepIndex;
     private int ticksOnStep;
     private ActionResult lastResult;
-    private double lastDistanceSqr = Double.NaN;
-    private int stagnantTicks;
 
-    public ActionExecutor(FakePlayerController fakePlayerController, BotMemoryService memoryService) {
+    public ActionExecutor(
+        FakePlayerController fakePlayerController,
+        BotMemoryService memoryService,
+        PathNavigator navigator,
+        WalkabilityGrid walkabilityGrid
+    ) {
         this.fakePlayerController = fakePlayerController;
         this.memoryService = memoryService;
+        this.navigator = navigator;
+        this.walkabilityGrid = walkabilityGrid;
     }
 
     public void setPlan(BotActionPlan plan) {
@@ -46,8 +56,21 @@ public final class ActionExecutor {
         this.stepIndex = 0;
         this.ticksOnStep = 0;
         this.lastResult = null;
-        this.lastDistanceSqr = Double.NaN;
-        this.stagnantTicks = 0;
+        this.navigator.stepChanged();
+    }
+
+    // Extends the running plan without resetting the current step (used while a plan is still streaming).
+    public void appendSteps(List<BotActionStep> steps) {
+        if (steps == null || steps.isEmpty()) {
+            return;
+        }
+        if (currentPlan == null) {
+            setPlan(new BotActionPlan(null, "", steps));
+            return;
+        }
+        List<BotActionStep> merged = new java.util.ArrayList<>(currentPlan.steps());
+        merged.addAll(steps);
+        this.currentPlan = new BotActionPlan(currentPlan.goal(), currentPlan.rationale(), merged);
     }
 
     public void clearPlan() {
@@ -55,8 +78,7 @@ public final class ActionExecutor {
         this.stepIndex = 0;
         this.ticksOnStep = 0;
         this.lastResult = null;
-        this.lastDistanceSqr = Double.NaN;
-        this.stagnantTicks = 0;
+        this.navigator.reset();
     }
 
     public BotActionPlan getCurrentPlan() {
@@ -78,6 +100,10 @@ public final class ActionExecutor {
         return lastResult;
     }
 
+    public PathNavigator.Stats getNavigationStats() {
+        return navigator.stats();
+    }
+
     public void tick(ServerLevel level, AIBotEntity bot, String botName) {
         if (isIdle()) {
             return;
@@ -113,8 +139,7 @@ public final class ActionExecutor {
         memoryService.recordActionHistory(currentPlan, step, result, stepIndex);
         stepIndex++;
         ticksOnStep = 0;
-        lastDistanceSqr = Double.NaN;
-        stagnantTicks = 0;
+        navigator.stepChanged();
     }
 
     private ActionResult executeStep(ServerLevel level, AIBotEntity bot, String botName, BotActionStep step) {
@@ -134,22 +159,38 @@ public final class ActionExecutor {
         if (bot == null || step.target() == null) {
             return ActionResult.failure("no target");
         }
-        Vec3 target = resolveApproachTarget(level, step.target());
-        double distance = bot.position().distanceToSqr(target);
-        trackMovementProgress(distance);
+        BlockPos approach = resolveApproachTarget(level, step.target());
+        Vec3 target = new Vec3(approach.getX() + 0.5, approach.getY(), approach.getZ() + 0.5);
         // Require near-center arrival so MOVE steps do not complete instantly when the bot is merely adjacent.
-        if (distance <= 0.81) {
+        if (bot.position().distanceToSqr(target) <= 0.81) {
             return ActionResult.success("arrived");
         }
 
-        // If the bot is stuck too long, force a small teleport-to-target fallback.
-        if (stagnantTicks >= 25) {
-            bot.setPos(target.x, target.y, target.z);
-            return ActionResult.success("unstuck-teleport");
+        PathNavigator.Status status = navigator.tick(level, bot, approach, 0, 1.1);
+        if (status == PathNavigator.Status.ARRIVED) {
+            // In the right block but off-centre: finish the last few tenths directly.
+            bot.getMoveControl().setWantedPosition(target.x, target.y, target.z, 1.1);
         }
+        return switch (status) {
+            case UNREACHABLE -> ActionResult.failure("no path");
+            case SEARCHING -> ActionResult.running("searching path");
+            case ARRIVED, MOVING -> ActionResult.running("moving");
+        };
+    }
 
-        moveBotToward(level, bot, target, 1.1);
-        return ActionResult.running("moving");
+    // Walks toward the approach point of a MINE/PLACE target; null once within reach.
+    private ActionResult approach(ServerLevel level, AIBotEntity bot, BlockPos target) {
+        BlockPos approach = resolveApproachTarget(level, target);
+        Vec3 point = new Vec3(approach.getX() + 0.5, approach.getY(), approach.getZ() + 0.5);
+        if (bot.position().distanceToSqr(point) <= 9.0) {
+            return null;
+        }
+        return switch (navigator.tick(level, bot, approach, 1, 1.1)) {
+            case UNREACHABLE -> ActionResult.failure("unreachable");
+            case SEARCHING -> ActionResult.running("searching path");
+            case MOVING -> ActionResult.running("moving to target");
+            case ARRIVED -> null;
+        };
     }
 
     private ActionResult doMine(ServerLevel level, String botName, AIBotEntity bot, BotActionStep step) {
@@ -157,11 +198,9 @@ public final class ActionExecutor {
             return ActionResult.failure("missing target");
         }
         if (bot != null) {
-            Vec3 target = resolveApproachTarget(level, step.target());
-            double distance = bot.position().distanceToSqr(target);
-            if (distance > 9.0) {
-                moveBotToward(level, bot, target, 1.1);
-                return ActionResult.running("moving to target");
+            ActionResult moving = approach(level, bot, step.target());
+            if (moving != null) {
+                return moving;
             }
         }
         BlockState state = level.getBlockState(step.target());
@@ -181,11 +220,9 @@ public final class ActionExecutor {
             return ActionResult.failure("missing target/item");
         }
         if (bot != null) {
-            Vec3 target = resolveApproachTarget(level, step.target());
-            double distance = bot.position().distanceToSqr(target);
-            if (distance > 9.0) {
-                moveBotToward(level, bot, target, 1.1);
-                return ActionResult.running("moving to target");
+            ActionResult moving = approach(level, bot, step.target());
+            if (moving != null) {
+                return moving;
             }
         }
         if (!level.getBlockState(step.target()).isAir()) {
@@ -267,10 +304,12 @@ public final class ActionExecutor {
         return ActionResult.failure("interact failed");
     }
 
-    private Vec3 resolveApproachTarget(ServerLevel level, BlockPos target) {
-        BlockState state = level.getBlockState(target);
-        if (!state.blocksMotion()) {
-            return new Vec3(target.getX() + 0.5, target.getY(), target.getZ() + 0.5);
+    // Feet position to walk to: the target itself when it can be stood in, else a standable
+    // neighbour (sides first, then above).
+    private BlockPos resolveApproachTarget(ServerLevel level, BlockPos target) {
+        PathTerrain terrain = walkabilityGrid.terrain(level);
+        if ((terrain.cell(target.getX(), target.getY(), target.getZ()) & PathTerrain.SOLID) == 0) {
+            return target;
         }
 
         BlockPos[] candidates = new BlockPos[] {
@@ -281,98 +320,13 @@ public final class ActionExecutor {
             target.above()
         };
         for (BlockPos candidate : candidates) {
-            if (isStandable(level, candidate)) {
-                return new Vec3(candidate.getX() + 0.5, candidate.getY(), candidate.getZ() + 0.5);
+            if (terrain.standable(candidate.getX(), candidate.getY(), candidate.getZ())) {
+                return candidate;
             }
         }
 
         // Fallback: keep a nearby point even if not ideal.
-        return new Vec3(target.getX() + 1.5, target.getY(), target.getZ() + 0.5);
-    }
-
-    private void moveBotToward(ServerLevel level, AIBotEntity bot, Vec3 target, double speed) {
-        if (tryStepUp(level, bot, target, speed)) {
-            return;
-        }
-
-        boolean started = bot.getNavigation().moveTo(target.x, target.y, target.z, speed);
-        bot.getMoveControl().setWantedPosition(target.x, target.y, target.z, speed);
-
-        if (started) {
-            return;
-        }
-
-        // Fallback when pathfinding fails (dense jungle, partial obstacles):
-        // nudge the entity toward target so it does not stay frozen on MOVE steps.
-        Vec3 current = bot.position();
-        Vec3 delta = target.subtract(current);
-        Vec3 horizontal = new Vec3(delta.x, 0.0, delta.z);
-        if (horizontal.lengthSqr() < 0.0001) {
-            return;
-        }
-
-        Vec3 step = horizontal.normalize().scale(0.35);
-        BlockPos nextFeetPos = BlockPos.containing(current.x + step.x, current.y, current.z + step.z);
-        double nextY = current.y;
-        if (!isStandable(level, nextFeetPos)) {
-            BlockPos above = nextFeetPos.above();
-            if (isStandable(level, above)) {
-                nextFeetPos = above;
-                nextY = above.getY();
-            } else {
-                return;
-            }
-        }
-
-        bot.setPos(nextFeetPos.getX() + 0.5, nextY, nextFeetPos.getZ() + 0.5);
-    }
-
-    private boolean tryStepUp(ServerLevel level, AIBotEntity bot, Vec3 target, double speed) {
-        Vec3 current = bot.position();
-        Vec3 toTarget = new Vec3(target.x - current.x, 0.0, target.z - current.z);
-        if (toTarget.lengthSqr() < 0.01) {
-            return false;
-        }
-
-        Vec3 dir = toTarget.normalize();
-        BlockPos frontFeet = BlockPos.containing(current.x + dir.x * 0.8, current.y, current.z + dir.z * 0.8);
-        BlockPos frontStep = frontFeet.above();
-        BlockPos frontStepHead = frontStep.above();
-
-        boolean blockedFront = level.getBlockState(frontFeet).blocksMotion();
-        boolean freeStep = !level.getBlockState(frontStep).blocksMotion() && !level.getBlockState(frontStepHead).blocksMotion();
-        if (blockedFront && freeStep) {
-            bot.setPos(current.x + dir.x * 0.4, frontStep.getY(), current.z + dir.z * 0.4);
-            bot.getMoveControl().setWantedPosition(target.x, target.y, target.z, speed);
-            return true;
-        }
-
-        // Last jump nudge before teleport fallback.
-        if (bot.onGround()) {
-            bot.setDeltaMovement(bot.getDeltaMovement().x, 0.42, bot.getDeltaMovement().z);
-        }
-        return false;
-    }
-
-    private boolean isStandable(ServerLevel level, BlockPos pos) {
-        BlockState feet = level.getBlockState(pos);
-        BlockState head = level.getBlockState(pos.above());
-        BlockState below = level.getBlockState(pos.below());
-        return !feet.blocksMotion() && !head.blocksMotion() && below.blocksMotion();
-    }
-
-    private void trackMovementProgress(double distanceSqr) {
-        if (Double.isNaN(lastDistanceSqr)) {
-            lastDistanceSqr = distanceSqr;
-            stagnantTicks = 0;
-            return;
-        }
-        if (distanceSqr + 0.04 < lastDistanceSqr) {
-            stagnantTicks = 0;
-        } else {
-            stagnantTicks++;
-        }
-        lastDistanceSqr = distanceSqr;
+        return target.east();
     }
 
     private Block resolveBlock(String itemId) {
@@ -5,6 +5,7 @@ import net.minecraft.core.BlockPos;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public final class BotMemoryService {
     private final BotMemoryRepository repository;
@@ -58,12 +59,22 @@ public final class BotMemoryService {
         repository.recordKnownLocation(label, pos.getX(), pos.getY(), pos.getZ(), dimension);
     }
 
+    public boolean forgetKnownLocation(BlockPos pos, String dimension) {
+        if (pos == null) {
+            return false;
+        }
+        return repository.forgetKnownLocation(dimension, pos.getX(), pos.getY(), pos.getZ());
+    }
+
     public Optional<String> loadLatestInventorySummary() {
         return repository.loadLatestInventorySnapshot().map(BotMemoryRepository.InventorySnapshotRecord::summary);
     }
 
-    public List<BotMemoryRepository.KnownLocationRecord> loadKnownLocations(int limit) {
-        return repository.loadKnownLocations(limit);
+    public List<BotMemoryRepository.KnownLocationRecord> loadNearestKnownLocations(String dimension, BlockPos origin, Set<String> labels, int limit) {
+        if (origin == null) {
+            return List.of();
+        }
+        return repository.loadNearestKnownLocations(dimension, origin.getX(), origin.getY(), origin.getZ(), labels, limit);
     }
 
     public List<BotMemoryRepository.ActionHistoryRecord> loadRecentActionHistory(int limit) {
@@ -1,50 +1,228 @@
 package com.aiplayer.mod.core.ai;
 
+import com.aiplayer.mod.integrations.LlmScheduler;
 import com.aiplayer.mod.integrations.OllamaClient;
+import com.aiplayer.mod.integrations.OllamaRequest;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public final class BotPlanner {
     private static final Logger LOGGER = LoggerFactory.getLogger(BotPlanner.class);
+    private static final int DEFAULT_PROMPT_TOKENS = 600;
 
     private final OllamaClient ollamaClient;
+    private final int promptBudgetTokens;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong parsedPlans = new AtomicLong();
+    private final AtomicLong parseFailures = new AtomicLong();
+    private final AtomicLong unavailable = new AtomicLong();
+    private final AtomicLong parsedSteps = new AtomicLong();
+    private final AtomicLong usageSamples = new AtomicLong();
+    private final AtomicLong totalPromptTokens = new AtomicLong();
+    private final AtomicLong totalEvalTokens = new AtomicLong();
+    private final AtomicLong truncatedPrompts = new AtomicLong();
+    private volatile CallUsage lastCall;
 
     public BotPlanner(OllamaClient ollamaClient) {
         this.ollamaClient = ollamaClient;
+        this.promptBudgetTokens = resolvePromptBudget();
     }
 
     public BotActionPlan plan(BotPerception perception, BotGoal goal, int maxSteps) {
-        return plan(perception, goal, "", maxSteps);
+        return plan(perception, goal, Map.of(), maxSteps);
     }
 
-    public BotActionPlan plan(BotPerception perception, BotGoal goal, String memorySummary, int maxSteps) {
-        String systemPrompt = "You are a Minecraft pro player AI. Respond ONLY with JSON matching the schema.";
-        String userPrompt = "Perception: " + perception.summary()
-            + "\nGoal: " + goal.name() + " - " + goal.description()
-            + (memorySummary == null || memorySummary.isBlank() ? "" : "\nMemory: " + memorySummary)
-            + "\nSchema: {\"goal\":string,\"rationale\":string,\"steps\":[{\"type\":\"MOVE|MINE|PLACE|CRAFT|INTERACT|ATTACK|EQUIP|WAIT\",\"target\":{\"x\":0,\"y\":0,\"z\":0},\"item\":string,\"count\":1,\"timeout\":200}]}";
+    public BotActionPlan plan(BotPerception perception, BotGoal goal, Map<String, List<String>> memory, int maxSteps) {
+        return planAsync(perception, goal, memory, maxSteps).join();
+    }
+
+    public CompletableFuture<BotActionPlan> planAsync(BotPerception perception, BotGoal goal, Map<String, List<String>> memory, int maxSteps) {
+        return planAsync(perception, goal, memory, maxSteps, null);
+    }
 
-        Optional<String> response = ollamaClient.askStructured(systemPrompt, userPrompt);
+    public CompletableFuture<BotActionPlan> planAsync(
+        BotPerception perception,
+        BotGoal goal,
+        Map<String, List<String>> memory,
+        int maxSteps,
+        Consumer<BotActionStep> onStep
+    ) {
+        return planAsync(perception, goal, memory, maxSteps, onStep, null);
+    }
+
+    // Cancelling the returned future cancels the underlying Ollama request. When onStep is set and
+    // streaming is enabled, each step is also handed to onStep (on an HTTP client thread) as soon as
+    // the model closes it; the completed plan still carries every step. onUsage receives this call's
+    // token counts before the plan completes.
+    public CompletableFuture<BotActionPlan> planAsync(
+        BotPerception perception,
+        BotGoal goal,
+        Map<String, List<String>> memory,
+        int maxSteps,
+        Consumer<BotActionStep> onStep,
+        Consumer<CallUsage> onUsage
+    ) {
+        PromptAssembler.Assembled prompt = PromptAssembler.assemble(perception, goal, memory, promptBudgetTokens);
+        if (!prompt.droppedSections().isEmpty()) {
+            truncatedPrompts.incrementAndGet();
+            LOGGER.debug("Planner prompt over budget={} tokens, trimmed {}", promptBudgetTokens, prompt.droppedSections());
+        }
+        OllamaRequest ollamaRequest = ollamaClient.requestBuilder(LlmScheduler.Priority.PLANNING)
+            .messages(PromptAssembler.SYSTEM_PROMPT, prompt.userPrompt())
+            .format(planSchema(maxSteps))
+            .build();
+        requests.incrementAndGet();
+        CompletableFuture<Optional<String>> request = ollamaClient.askAsync(
+            ollamaRequest,
+            LlmScheduler.Priority.PLANNING,
+            onStep == null ? null : streamSteps(maxSteps, onStep),
+            usage -> recordUsage(prompt, usage, onUsage)
+        );
+        CompletableFuture<BotActionPlan> plan = request.thenApply(response -> toPlan(response, goal, maxSteps));
+        plan.whenComplete((ignored, error) -> {
+            if (plan.isCancelled()) {
+                request.cancel(true);
+            }
+        });
+        return plan;
+    }
+
+    private Consumer<String> streamSteps(int maxSteps, Consumer<BotActionStep> onStep) {
+        IncrementalPlanParser parser = new IncrementalPlanParser();
+        AtomicInteger emitted = new AtomicInteger();
+        return chunk -> {
+            for (JsonObject object : parser.accept(chunk)) {
+                if (emitted.get() >= maxSteps) {
+                    return;
+                }
+                BotActionStep step = parseStep(object);
+                if (step != null) {
+                    emitted.incrementAndGet();
+                    onStep.accept(step);
+                }
+            }
+        };
+    }
+
+    private BotActionPlan toPlan(Optional<String> response, BotGoal goal, int maxSteps) {
         if (response.isEmpty()) {
+            unavailable.incrementAndGet();
             return fallbackPlan(goal, "ollama unavailable");
         }
 
         BotActionPlan parsed = parsePlan(response.get(), goal, maxSteps);
         if (parsed == null || parsed.isEmpty()) {
+            parseFailures.incrementAndGet();
             return fallbackPlan(goal, "invalid plan");
         }
 
+        parsedPlans.incrementAndGet();
+        parsedSteps.addAndGet(parsed.steps().size());
         return parsed;
     }
 
+    private void recordUsage(PromptAssembler.Assembled prompt, OllamaClient.TokenUsage usage, Consumer<CallUsage> onUsage) {
+        usageSamples.incrementAndGet();
+        totalPromptTokens.addAndGet(usage.promptTokens());
+        totalEvalTokens.addAndGet(usage.evalTokens());
+        CallUsage call = new CallUsage(
+            prompt.estimatedTokens(),
+            prompt.budgetTokens(),
+            usage.promptTokens(),
+            usage.evalTokens(),
+            usage.promptMillis(),
+            usage.evalMillis(),
+            prompt.droppedSections()
+        );
+        lastCall = call;
+        if (onUsage != null) {
+            onUsage.accept(call);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(
+            requests.get(),
+            parsedPlans.get(),
+            parseFailures.get(),
+            unavailable.get(),
+            parsedSteps.get(),
+            promptBudgetTokens,
+            truncatedPrompts.get(),
+            usageSamples.get(),
+            totalPromptTokens.get(),
+            totalEvalTokens.get(),
+            lastCall
+        );
+    }
+
+    // JSON schema passed as Ollama's "format" so the server constrains decoding to a parseable plan
+    // of at most maxSteps steps instead of free text that extractJson has to scrape.
+    private static JsonObject planSchema(int maxSteps) {
+        JsonObject coordinate = new JsonObject();
+        coordinate.addProperty("type", "integer");
+        JsonObject targetProperties = new JsonObject();
+        targetProperties.add("x", coordinate);
+        targetProperties.add("y", coordinate);
+        targetProperties.add("z", coordinate);
+        JsonObject target = objectSchema(targetProperties, "x", "y", "z");
+
+        JsonArray types = new JsonArray();
+        for (BotActionType type : BotActionType.values()) {
+            types.add(type.name());
+        }
+        JsonObject typeSchema = typeSchema("string");
+        typeSchema.add("enum", types);
+
+        JsonObject stepProperties = new JsonObject();
+        stepProperties.add("type", typeSchema);
+        stepProperties.add("target", target);
+        stepProperties.add("item", typeSchema("string"));
+        stepProperties.add("count", typeSchema("integer"));
+        stepProperties.add("timeout", typeSchema("integer"));
+
+        JsonObject steps = typeSchema("array");
+        steps.add("items", objectSchema(stepProperties, "type"));
+        steps.addProperty("maxItems", Math.max(1, maxSteps));
+
+        JsonObject properties = new JsonObject();
+        properties.add("goal", typeSchema("string"));
+        properties.add("rationale", typeSchema("string"));
+        properties.add("steps", steps);
+        return objectSchema(properties, "goal", "rationale", "steps");
+    }
+
+    private static JsonObject typeSchema(String type) {
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", type);
+        return schema;
+    }
+
+    private static JsonObject objectSchema(JsonObject properties, String... required) {
+        JsonObject schema = typeSchema("object");
+        schema.add("properties", properties);
+        JsonArray requiredArray = new JsonArray();
+        for (String name : required) {
+            requiredArray.add(new JsonPrimitive(name));
+        }
+        schema.add("required", requiredArray);
+        return schema;
+    }
+
     private BotActionPlan parsePlan(String raw, BotGoal goal, int maxSteps) {
         String json = extractJson(raw);
         if (json == null) {
@@ -158,4 +336,57 @@ public final class BotPlanner {
     private BotActionPlan fallbackPlan(BotGoal goal, String reason) {
         return new BotActionPlan(goal.name(), "fallback:" + reason, List.of());
     }
+
+    private static int resolvePromptBudget() {
+        String raw = System.getProperty("aiplayer.planner.promptTokens");
+        if (raw == null || raw.isBlank()) {
+            raw = System.getenv("AIPLAYER_PLANNER_PROMPT_TOKENS");
+        }
+        if (raw == null || raw.isBlank()) {
+            return DEFAULT_PROMPT_TOKENS;
+        }
+        try {
+            return Math.max(150, Math.min(4000, Integer.parseInt(raw.trim())));
+        } catch (NumberFormatException ignored) {
+            return DEFAULT_PROMPT_TOKENS;
+        }
+    }
+
+    public record CallUsage(
+        int estimatedPromptTokens,
+        int budgetTokens,
+        int promptTokens,
+        int evalTokens,
+        double promptMillis,
+        double evalMillis,
+        List<String> droppedSections
+    ) {
+    }
+
+    public record Stats(
+        long requests,
+        long parsedPlans,
+        long parseFailures,
+        long unavailable,
+        long parsedSteps,
+        int promptBudgetTokens,
+        long truncatedPrompts,
+        long usageSamples,
+        long totalPromptTokens,
+        long totalEvalTokens,
+        CallUsage lastCall
+    ) {
+        public double parseFailureRate() {
+            long answered = parsedPlans + parseFailures;
+            return answered == 0 ? 0.0D : (double) parseFailures / answered;
+        }
+
+        public double avgPromptTokens() {
+            return usageSamples == 0 ? 0.0D : (double) totalPromptTokens / usageSamples;
+        }
+
+        public double avgEvalTokens() {
+            return usageSamples == 0 ? 0.0D : (double) totalEvalTokens / usageSamples;
+        }
+    }
 }
@@ -20,6 +20,20 @@ public final class FakePlayerController {
         return player;
     }
 
+    // FakePlayerFactory keeps one player per level and profile: moving to another level means
+    // another FakePlayer, so the inventory, health and food are moved over to it.
+    public FakePlayer transfer(FakePlayer from, ServerLevel level) {
+        FakePlayer to = getOrCreate(level, from.getGameProfile().getName());
+        if (to == from) {
+            return to;
+        }
+        to.getInventory().replaceWith(from.getInventory());
+        from.getInventory().clearContent();
+        to.setHealth(from.getHealth());
+        to.getFoodData().setFoodLevel(from.getFoodData().getFoodLevel());
+        return to;
+    }
+
     public void syncPosition(FakePlayer player, Vec3 pos) {
         player.teleportTo(player.serverLevel(), pos.x, pos.y, pos.z, player.getYRot(), player.getXRot());
     }
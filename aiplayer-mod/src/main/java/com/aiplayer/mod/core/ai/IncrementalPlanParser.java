@@ -0,0 +1,114 @@
+package com.aiplayer.mod.core.ai;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Scans a plan as it streams in and returns each object of the top-level "steps" array as soon as
+// its closing brace arrives. Only tracks nesting and string state; the objects themselves are
+// handed to Gson once complete. A leading <think>...</think> block (qwen3) is skipped.
+final class IncrementalPlanParser {
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+
+    private final StringBuilder buffer = new StringBuilder();
+    private int position;
+    private boolean preambleChecked;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private int stringStart;
+    private String lastString;
+    private String currentKey;
+    private int stepsDepth = -1;
+    private boolean stepsClosed;
+    private int objectStart = -1;
+
+    synchronized List<JsonObject> accept(String chunk) {
+        buffer.append(chunk);
+        List<JsonObject> completed = new ArrayList<>();
+        if (!skipPreamble()) {
+            return completed;
+        }
+
+        for (; position < buffer.length() && !stepsClosed; position++) {
+            char c = buffer.charAt(position);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    lastString = buffer.substring(stringStart + 1, position);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    stringStart = position;
+                }
+                case ':' -> {
+                    if (depth == 1) {
+                        currentKey = lastString;
+                    }
+                }
+                case '{', '[' -> {
+                    depth++;
+                    if (c == '[' && depth == 2 && stepsDepth < 0 && "steps".equals(currentKey)) {
+                        stepsDepth = depth;
+                    } else if (c == '{' && stepsDepth > 0 && depth == stepsDepth + 1) {
+                        objectStart = position;
+                    }
+                }
+                case '}', ']' -> {
+                    if (c == '}' && objectStart >= 0 && depth == stepsDepth + 1) {
+                        JsonObject step = parseObject(buffer.substring(objectStart, position + 1));
+                        if (step != null) {
+                            completed.add(step);
+                        }
+                        objectStart = -1;
+                    } else if (c == ']' && depth == stepsDepth) {
+                        stepsClosed = true;
+                    }
+                    depth--;
+                }
+                default -> {
+                }
+            }
+        }
+        return completed;
+    }
+
+    private boolean skipPreamble() {
+        if (preambleChecked) {
+            return true;
+        }
+        String text = buffer.toString().stripLeading();
+        if (text.length() < THINK_OPEN.length() && THINK_OPEN.startsWith(text)) {
+            return false;
+        }
+        if (text.startsWith(THINK_OPEN)) {
+            int close = buffer.indexOf(THINK_CLOSE);
+            if (close < 0) {
+                return false;
+            }
+            position = close + THINK_CLOSE.length();
+        }
+        preambleChecked = true;
+        return true;
+    }
+
+    private static JsonObject parseObject(String json) {
+        try {
+            JsonElement element = JsonParser.parseString(json);
+            return element.isJsonObject() ? element.getAsJsonObject() : null;
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.aiplayer.mod.core.ai;
+
+import com.aiplayer.mod.core.world.BlockCategory;
+import com.aiplayer.mod.core.world.BlockStateMask;
+import com.aiplayer.mod.core.world.IndexedBlock;
+import com.aiplayer.mod.core.world.SectionScanner;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Resumable block scan around a bot. Positions are visited in expanding shells (nearest first), so
+// stopping at the result limit keeps the closest hits instead of whatever corner the loop started
+// in. One scan can be spread over several ticks: scan() stops at the deadline and the next call
+// picks up at the saved cursor. Positions in a section whose palette holds no interesting state
+// (or that is not loaded) are skipped without reading the block. Hits are kept as packed positions
+// plus block references until the scan is complete. Used where the WorldModel does not cover the
+// bot's surroundings yet.
+public final class PerceptionScanner {
+    // Positions visited between two deadline checks; also the minimum progress made per call.
+    private static final int BATCH = 64;
+
+    private final int[] offsets;
+    private final int limit;
+    private final BlockPos.MutableBlockPos cursorPos = new BlockPos.MutableBlockPos();
+    private final long[] hitPositions;
+    private final Block[] hitBlocks;
+    private final BlockCategory[] hitCategories;
+    // Per scan: section key -> palette-filtered section, null when the whole section is skipped.
+    private final Map<Long, LevelChunkSection> sections = new HashMap<>();
+
+    private BlockPos origin;
+    private int cursor;
+    private int hits;
+    private boolean complete;
+    private int slices;
+    private long scanNanos;
+    private int positionsRead;
+
+    private int lastPositions;
+    private int lastSlices;
+    private int lastHits;
+    private int lastPositionsRead;
+    private int lastSectionsSkipped;
+    private double lastScanMicros;
+    private long scansCompleted;
+
+    public PerceptionScanner(int radius, int halfHeight, int limit) {
+        this.offsets = shellOffsets(radius, halfHeight);
+        this.limit = limit;
+        this.hitPositions = new long[limit];
+        this.hitBlocks = new Block[limit];
+        this.hitCategories = new BlockCategory[limit];
+    }
+
+    // Starts a new scan centred on origin, dropping any partial one.
+    public void begin(BlockPos origin) {
+        this.origin = origin.immutable();
+        this.cursor = 0;
+        this.hits = 0;
+        this.complete = false;
+        this.slices = 0;
+        this.scanNanos = 0L;
+        this.positionsRead = 0;
+        this.sections.clear();
+    }
+
+    public boolean isStarted() {
+        return origin != null;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public BlockPos origin() {
+        return origin;
+    }
+
+    // Returns true once the scan is complete. Unloaded positions are skipped rather than loaded.
+    public boolean scan(ServerLevel level, long deadlineNanos) {
+        if (origin == null || complete) {
+            return complete;
+        }
+        long started = System.nanoTime();
+        BlockStateMask mask = BlockCategory.mask();
+        long sectionKey = Long.MIN_VALUE;
+        LevelChunkSection section = null;
+        int ox = origin.getX();
+        int oy = origin.getY();
+        int oz = origin.getZ();
+        int total = offsets.length / 3;
+        int visited = 0;
+        while (cursor < total && hits < limit) {
+            int base = cursor * 3;
+            cursorPos.set(ox + offsets[base], oy + offsets[base + 1], oz + offsets[base + 2]);
+            cursor++;
+            long key = SectionPos.asLong(
+                SectionPos.blockToSectionCoord(cursorPos.getX()),
+                SectionPos.blockToSectionCoord(cursorPos.getY()),
+                SectionPos.blockToSectionCoord(cursorPos.getZ())
+            );
+            if (key != sectionKey) {
+                sectionKey = key;
+                section = sectionAt(level, key, mask);
+            }
+            if (section != null) {
+                positionsRead++;
+                BlockState state = section.getBlockState(cursorPos.getX() & 15, cursorPos.getY() & 15, cursorPos.getZ() & 15);
+                if (mask.contains(state)) {
+                    hitPositions[hits] = cursorPos.asLong();
+                    hitBlocks[hits] = state.getBlock();
+                    hitCategories[hits] = BlockCategory.of(state);
+                    hits++;
+                }
+            }
+            if (++visited % BATCH == 0 && System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+        }
+        slices++;
+        scanNanos += System.nanoTime() - started;
+        if (cursor >= total || hits >= limit) {
+            complete = true;
+            lastPositions = cursor;
+            lastSlices = slices;
+            lastHits = hits;
+            lastPositionsRead = positionsRead;
+            lastSectionsSkipped = (int) sections.values().stream().filter(skipped -> skipped == null).count();
+            lastScanMicros = scanNanos / 1_000.0D;
+            scansCompleted++;
+        }
+        return complete;
+    }
+
+    // Hits of the last complete scan, nearest first.
+    public List<IndexedBlock> hits() {
+        List<IndexedBlock> result = new ArrayList<>(hits);
+        for (int i = 0; i < hits; i++) {
+            result.add(new IndexedBlock(BlockPos.of(hitPositions[i]), hitBlocks[i], hitCategories[i]));
+        }
+        return result;
+    }
+
+    public Stats stats() {
+        return new Stats(offsets.length / 3, scansCompleted, lastPositions, lastPositionsRead, lastSectionsSkipped, lastSlices, lastHits, lastScanMicros);
+    }
+
+    private LevelChunkSection sectionAt(ServerLevel level, long key, BlockStateMask mask) {
+        if (sections.containsKey(key)) {
+            return sections.get(key);
+        }
+        LevelChunkSection section = SectionScanner.filteredSection(level, SectionPos.x(key), SectionPos.y(key), SectionPos.z(key), mask);
+        sections.put(key, section);
+        return section;
+    }
+
+    // Offsets of the (2r+1) x (2h+1) x (2r+1) box sorted by squared distance, flattened as dx,dy,dz.
+    private static int[] shellOffsets(int radius, int halfHeight) {
+        List<int[]> cells = new ArrayList<>();
+        for (int dy = -halfHeight; dy <= halfHeight; dy++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    cells.add(new int[] {dx, dy, dz});
+                }
+            }
+        }
+        cells.sort(Comparator
+            .comparingInt((int[] cell) -> cell[0] * cell[0] + cell[1] * cell[1] + cell[2] * cell[2])
+            .thenComparingInt(cell -> Math.abs(cell[1])));
+        int[] flat = new int[cells.size() * 3];
+        for (int i = 0; i < cells.size(); i++) {
+            System.arraycopy(cells.get(i), 0, flat, i * 3, 3);
+        }
+        return flat;
+    }
+
+    public record Stats(
+        int volume,
+        long scans,
+        int lastPositions,
+        int lastPositionsRead,
+        int lastSectionsSkipped,
+        int lastSlices,
+        int lastHits,
+        double lastScanMicros
+    ) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.aiplayer.mod.core.ai;
+
+import net.minecraft.core.BlockPos;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+// LLM plans keyed on a coarse perception fingerprint: goal, health/hunger buckets, the set of
+// inventory items and the interesting blocks around the bot at 4-block-quantized offsets. Step
+// targets are stored relative to the bot, re-targeted onto the current position on a hit and
+// checked against the world before the plan is reused.
+public final class PlanCache {
+    private static final int OFFSET_CELL = 4;
+    private static final String AIR = "minecraft:air";
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Map<String, CachedPlan> entries;
+    private long hits;
+    private long misses;
+    private long stale;
+    private long expired;
+    private long evictions;
+
+    public PlanCache(Duration ttl, int maxEntries) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(maxEntries + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPlan> eldest) {
+                if (size() > PlanCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return !ttl.isZero();
+    }
+
+    // blockIdAt returns the registry id at a position, or "" when the position is not loaded.
+    public synchronized Optional<BotActionPlan> lookup(
+        BotGoal goal,
+        BotPerception perception,
+        Function<BlockPos, String> blockIdAt,
+        Instant now
+    ) {
+        if (!isEnabled() || goal == null || perception == null || perception.position() == null) {
+            return Optional.empty();
+        }
+        String key = fingerprint(goal, perception);
+        CachedPlan cached = entries.get(key);
+        if (cached == null) {
+            misses++;
+            return Optional.empty();
+        }
+        if (Duration.between(cached.cachedAt(), now).compareTo(ttl) > 0) {
+            entries.remove(key);
+            expired++;
+            misses++;
+            return Optional.empty();
+        }
+
+        BlockPos origin = perception.position();
+        List<BotActionStep> steps = new ArrayList<>();
+        for (CachedStep cachedStep : cached.steps()) {
+            BotActionStep step = cachedStep.step();
+            BlockPos target = step.target() == null ? null : origin.offset(step.target());
+            if (target != null && !stillValid(step.type(), target, cachedStep.expectedBlock(), blockIdAt)) {
+                entries.remove(key);
+                stale++;
+                misses++;
+                return Optional.empty();
+            }
+            steps.add(new BotActionStep(step.type(), target, step.itemId(), step.count(), step.timeoutTicks()));
+        }
+        hits++;
+        return Optional.of(new BotActionPlan(cached.goal(), "cache:" + cached.rationale(), steps));
+    }
+
+    // Keeps LLM plans only; fallback and empty plans are not worth replaying.
+    public synchronized void put(BotGoal goal, BotPerception perception, BotActionPlan plan, Instant now) {
+        if (!isEnabled() || goal == null || perception == null || perception.position() == null
+            || plan == null || plan.isEmpty() || plan.rationale().startsWith("fallback:") || plan.rationale().startsWith("cache:")) {
+            return;
+        }
+        Map<BlockPos, String> perceived = perceivedBlocks(perception);
+        BlockPos origin = perception.position();
+        List<CachedStep> steps = new ArrayList<>();
+        for (BotActionStep step : plan.steps()) {
+            BlockPos relative = step.target() == null ? null : step.target().subtract(origin);
+            String expected = step.target() == null ? "" : perceived.getOrDefault(step.target(), "");
+            steps.add(new CachedStep(
+                new BotActionStep(step.type(), relative, step.itemId(), step.count(), step.timeoutTicks()),
+                expected
+            ));
+        }
+        entries.put(fingerprint(goal, perception), new CachedPlan(plan.goal(), plan.rationale(), List.copyOf(steps), now));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(isEnabled(), entries.size(), maxEntries, ttl.toSeconds(), hits, misses, stale, expired, evictions);
+    }
+
+    static String fingerprint(BotGoal goal, BotPerception perception) {
+        StringBuilder builder = new StringBuilder(goal.name().toLowerCase(Locale.ROOT));
+        float maxHealth = perception.maxHealth() <= 0.0F ? 20.0F : perception.maxHealth();
+        builder.append("|h").append(Math.round(4.0F * Math.max(0.0F, perception.health()) / maxHealth));
+        builder.append("|f").append(Math.max(0, Math.min(20, perception.hunger())) / 5);
+        builder.append('|').append(perception.dimension());
+
+        TreeSet<String> items = new TreeSet<>();
+        for (String entry : perception.inventorySummary()) {
+            int countAt = entry.lastIndexOf('x');
+            items.add(countAt > 0 && entry.substring(countAt + 1).chars().allMatch(Character::isDigit) ? entry.substring(0, countAt) : entry);
+        }
+        builder.append("|i").append(String.join(",", items));
+
+        TreeSet<String> blocks = new TreeSet<>();
+        BlockPos origin = perception.position();
+        for (Map.Entry<BlockPos, String> block : perceivedBlocks(perception).entrySet()) {
+            BlockPos offset = block.getKey().subtract(origin);
+            blocks.add(block.getValue() + "@"
+                + Math.floorDiv(offset.getX(), OFFSET_CELL) + ","
+                + Math.floorDiv(offset.getY(), OFFSET_CELL) + ","
+                + Math.floorDiv(offset.getZ(), OFFSET_CELL));
+        }
+        builder.append("|b").append(String.join(",", blocks));
+        return builder.toString();
+    }
+
+    private static boolean stillValid(BotActionType type, BlockPos target, String expectedBlock, Function<BlockPos, String> blockIdAt) {
+        String actual = blockIdAt.apply(target);
+        if (actual == null || actual.isEmpty()) {
+            return false;
+        }
+        return switch (type) {
+            case MINE -> expectedBlock.isEmpty() ? !AIR.equals(actual) : expectedBlock.equals(actual);
+            case PLACE -> AIR.equals(actual);
+            case INTERACT -> expectedBlock.isEmpty() || expectedBlock.equals(actual);
+            default -> true;
+        };
+    }
+
+    // nearbyBlocks entries look like "minecraft:oak_log@12,64,-3".
+    private static Map<BlockPos, String> perceivedBlocks(BotPerception perception) {
+        Map<BlockPos, String> blocks = new HashMap<>();
+        for (String entry : perception.nearbyBlocks()) {
+            int at = entry.indexOf('@');
+            if (at <= 0) {
+                continue;
+            }
+            String[] parts = entry.substring(at + 1).split(",");
+            if (parts.length != 3) {
+                continue;
+            }
+            try {
+                BlockPos pos = new BlockPos(
+                    Integer.parseInt(parts[0].trim()),
+                    Integer.parseInt(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim())
+                );
+                blocks.put(pos, entry.substring(0, at));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return blocks;
+    }
+
+    private record CachedStep(BotActionStep step, String expectedBlock) {
+    }
+
+    private record CachedPlan(String goal, String rationale, List<CachedStep> steps, Instant cachedAt) {
+    }
+
+    public record Stats(
+        boolean enabled,
+        int size,
+        int maxEntries,
+        long ttlSeconds,
+        long hits,
+        long misses,
+        long stale,
+        long expired,
+        long evictions
+    ) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0D : (double) hits / lookups;
+        }
+    }
+}
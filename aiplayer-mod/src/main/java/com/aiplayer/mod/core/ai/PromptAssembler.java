@@ -0,0 +1,165 @@
+package com.aiplayer.mod.core.ai;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Builds planner prompts. The system prompt (role + schema) never changes, so the server can keep
+// its evaluated prefix cached; everything per-call goes in the user prompt, packed section by
+// section in priority order until the token budget is spent. List sections are trimmed item by
+// item, never mid-item, and ids drop the "minecraft:" namespace.
+final class PromptAssembler {
+    static final String SYSTEM_PROMPT = "You are a Minecraft pro player AI. Respond ONLY with JSON matching the schema."
+        + "\nSchema: {\"goal\":string,\"rationale\":string,\"steps\":[{\"type\":\"MOVE|MINE|PLACE|CRAFT|INTERACT|ATTACK|EQUIP|WAIT\","
+        + "\"target\":{\"x\":0,\"y\":0,\"z\":0},\"item\":string,\"count\":1,\"timeout\":200}]}"
+        + "\nInput format: one section per line. Ids omit the minecraft: namespace."
+        + " Positions are absolute x,y,z; several positions of the same block are separated by ';'.";
+    private static final double CHARS_PER_TOKEN = 4.0D;
+
+    record Assembled(String userPrompt, int estimatedTokens, int budgetTokens, List<String> droppedSections) {
+    }
+
+    private PromptAssembler() {
+    }
+
+    static Assembled assemble(BotPerception perception, BotGoal goal, Map<String, List<String>> memory, int budgetTokens) {
+        int budgetChars = (int) (budgetTokens * CHARS_PER_TOKEN);
+        StringBuilder prompt = new StringBuilder();
+        List<String> dropped = new ArrayList<>();
+
+        // Goal and vitals always go in, whatever the budget.
+        prompt.append("goal=").append(goal.name());
+        if (!goal.description().isBlank()) {
+            prompt.append(": ").append(goal.description());
+        }
+        prompt.append('\n').append(state(perception));
+
+        appendList(prompt, "inv", compactCounts(perception.inventorySummary()), budgetChars, dropped);
+        appendList(prompt, "blocks", groupPositions(perception.nearbyBlocks()), budgetChars, dropped);
+        appendList(prompt, "eq", strip(perception.equipmentSummary()), budgetChars, dropped);
+        if (memory != null) {
+            for (Map.Entry<String, List<String>> section : memory.entrySet()) {
+                List<String> items = section.getKey().equals("locations")
+                    ? groupPositions(section.getValue())
+                    : strip(section.getValue());
+                appendList(prompt, section.getKey(), items, budgetChars, dropped);
+            }
+        }
+        appendList(prompt, "mobs", countDistinct(perception.nearbyEntities()), budgetChars, dropped);
+        appendList(prompt, "env", List.of(
+            "biome=" + stripNamespace(perception.biome()),
+            "time=" + perception.timeOfDay(),
+            "day=" + perception.day()
+        ), budgetChars, dropped);
+
+        String userPrompt = prompt.toString();
+        return new Assembled(userPrompt, estimateTokens(userPrompt), budgetTokens, dropped);
+    }
+
+    static int estimateTokens(String text) {
+        return (int) Math.ceil(text.length() / CHARS_PER_TOKEN);
+    }
+
+    private static String state(BotPerception perception) {
+        StringBuilder builder = new StringBuilder();
+        BlockPos pos = perception.position();
+        if (pos != null) {
+            builder.append("pos=").append(pos.getX()).append(',').append(pos.getY()).append(',').append(pos.getZ()).append(' ');
+        }
+        builder.append("dim=").append(stripNamespace(perception.dimension()));
+        builder.append(String.format(Locale.ROOT, " hp=%.0f/%.0f food=%d xp=%d", perception.health(), perception.maxHealth(), perception.hunger(), perception.xp()));
+        return builder.toString();
+    }
+
+    // Adds "name=a,b,c" with as many items as fit; a section that cannot fit one item is dropped.
+    private static void appendList(StringBuilder prompt, String name, List<String> items, int budgetChars, List<String> dropped) {
+        if (items.isEmpty()) {
+            return;
+        }
+        int start = prompt.length();
+        prompt.append('\n').append(name).append('=');
+        int added = 0;
+        for (String item : items) {
+            int needed = item.length() + (added == 0 ? 0 : 1);
+            if (prompt.length() + needed > budgetChars) {
+                break;
+            }
+            if (added > 0) {
+                prompt.append(',');
+            }
+            prompt.append(item);
+            added++;
+        }
+        if (added == 0) {
+            prompt.setLength(start);
+            dropped.add(name);
+        } else if (added < items.size()) {
+            dropped.add(name + ":" + (items.size() - added));
+        }
+    }
+
+    // "minecraft:oak_logx12" -> "oak_log:12".
+    private static List<String> compactCounts(List<String> inventory) {
+        List<String> compact = new ArrayList<>();
+        for (String entry : inventory) {
+            int countAt = entry.lastIndexOf('x');
+            if (countAt > 0 && countAt < entry.length() - 1 && entry.substring(countAt + 1).chars().allMatch(Character::isDigit)) {
+                compact.add(stripNamespace(entry.substring(0, countAt)) + ":" + entry.substring(countAt + 1));
+            } else {
+                compact.add(stripNamespace(entry));
+            }
+        }
+        return compact;
+    }
+
+    // "minecraft:oak_log@1,64,2", "minecraft:oak_log@1,65,2" -> "oak_log@1,64,2;1,65,2".
+    private static List<String> groupPositions(List<String> entries) {
+        Map<String, StringBuilder> grouped = new LinkedHashMap<>();
+        for (String entry : entries) {
+            int at = entry.indexOf('@');
+            if (at <= 0) {
+                grouped.computeIfAbsent(stripNamespace(entry), ignored -> new StringBuilder());
+                continue;
+            }
+            StringBuilder positions = grouped.computeIfAbsent(stripNamespace(entry.substring(0, at)), ignored -> new StringBuilder());
+            if (positions.length() > 0) {
+                positions.append(';');
+            }
+            positions.append(entry.substring(at + 1));
+        }
+        List<String> compact = new ArrayList<>();
+        for (Map.Entry<String, StringBuilder> group : grouped.entrySet()) {
+            compact.add(group.getValue().length() == 0 ? group.getKey() : group.getKey() + "@" + group.getValue());
+        }
+        return compact;
+    }
+
+    // "minecraft:zombie" x3 -> "zombie*3".
+    private static List<String> countDistinct(List<String> entries) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String entry : entries) {
+            counts.merge(stripNamespace(entry), 1, Integer::sum);
+        }
+        List<String> compact = new ArrayList<>();
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            compact.add(count.getValue() == 1 ? count.getKey() : count.getKey() + "*" + count.getValue());
+        }
+        return compact;
+    }
+
+    private static List<String> strip(List<String> entries) {
+        List<String> compact = new ArrayList<>();
+        for (String entry : entries) {
+            compact.add(entry.replace("minecraft:", ""));
+        }
+        return compact;
+    }
+
+    private static String stripNamespace(String id) {
+        return id != null && id.startsWith("minecraft:") ? id.substring("minecraft:".length()) : id;
+    }
+}
@@ -0,0 +1,328 @@
+package com.aiplayer.mod.core.path;
+
+import java.util.Arrays;
+import java.util.Set;
+
+// Block level of the hierarchical search: A* over feet positions, resumable so a long search can
+// be spread over several ticks. Moves are walking to the 8 neighbours (diagonals only when both
+// sides are free), a one block jump up, a drop of up to three blocks and swimming. Node data lives
+// in parallel arrays indexed through an open-addressing position map, and the open set is a
+// binary heap of node indices with lazy deletion, so expanding a node allocates nothing.
+final class BlockPathSearch {
+    enum Status {
+        RUNNING,
+        FOUND,
+        FAILED
+    }
+
+    private static final int MAX_DROP = 3;
+    private static final double DIAGONAL = Math.sqrt(2.0D);
+    // Slightly greedy: expands far fewer nodes for paths at most 10% longer than optimal.
+    private static final double HEURISTIC_WEIGHT = 1.1D;
+    private static final int[] DIRECTIONS_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DIRECTIONS_Z = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final PathTerrain terrain;
+    private final int goalX;
+    private final int goalY;
+    private final int goalZ;
+    private final int reach;
+    private final Set<Long> corridor;
+    private final int maxNodes;
+    private final double startHeuristic;
+
+    private final NodeIndex index = new NodeIndex();
+    private long[] positions = new long[256];
+    private double[] costs = new double[256];
+    private int[] parents = new int[256];
+    private boolean[] closed = new boolean[256];
+    private int nodes;
+    private int[] heapNodes = new int[256];
+    private double[] heapKeys = new double[256];
+    private int heapSize;
+
+    private int expanded;
+    private int best;
+    private double bestHeuristic;
+    private Status status = Status.RUNNING;
+    private Path result;
+
+    // reach: how close (per axis, in blocks) counts as arrived; corridor: allowed chunk keys
+    // (ChunkPathSearch.key) or null for no restriction.
+    BlockPathSearch(PathTerrain terrain, long start, long goal, int reach, Set<Long> corridor, int maxNodes) {
+        this.terrain = terrain;
+        this.goalX = PathTerrain.x(goal);
+        this.goalY = PathTerrain.y(goal);
+        this.goalZ = PathTerrain.z(goal);
+        this.reach = reach;
+        this.corridor = corridor;
+        this.maxNodes = maxNodes;
+        this.startHeuristic = heuristic(PathTerrain.x(start), PathTerrain.y(start), PathTerrain.z(start));
+        this.best = addNode(start, 0.0D, -1);
+        this.bestHeuristic = startHeuristic;
+        push(best, startHeuristic * HEURISTIC_WEIGHT);
+    }
+
+    // Expands at most budget nodes; returns the status after this slice.
+    Status step(int budget) {
+        int slice = 0;
+        while (status == Status.RUNNING && slice < budget) {
+            if (heapSize == 0 || expanded >= maxNodes) {
+                finishPartial();
+                break;
+            }
+            int node = pop();
+            if (closed[node]) {
+                continue;
+            }
+            closed[node] = true;
+            expanded++;
+            slice++;
+            long position = positions[node];
+            int x = PathTerrain.x(position);
+            int y = PathTerrain.y(position);
+            int z = PathTerrain.z(position);
+            if (isGoal(x, y, z)) {
+                finish(node, false);
+                break;
+            }
+            double h = heuristic(x, y, z);
+            if (h < bestHeuristic) {
+                bestHeuristic = h;
+                best = node;
+            }
+            expand(node, x, y, z);
+        }
+        return status;
+    }
+
+    Status status() {
+        return status;
+    }
+
+    Path result() {
+        return result;
+    }
+
+    int expanded() {
+        return expanded;
+    }
+
+    boolean hasCorridor() {
+        return corridor != null;
+    }
+
+    private void expand(int node, int x, int y, int z) {
+        double base = costs[node];
+        boolean inWater = (terrain.cell(x, y, z) & PathTerrain.WATER) != 0;
+        for (int direction = 0; direction < DIRECTIONS_X.length; direction++) {
+            int nx = x + DIRECTIONS_X[direction];
+            int nz = z + DIRECTIONS_Z[direction];
+            if (corridor != null && !corridor.contains(ChunkPathSearch.key(nx >> 4, nz >> 4))) {
+                continue;
+            }
+            if (direction >= 4) {
+                // Diagonal: no corner cutting, and only on flat ground.
+                if (!terrain.passable(nx, y, z) || !terrain.passable(nx, y + 1, z)
+                    || !terrain.passable(x, y, nz) || !terrain.passable(x, y + 1, nz)) {
+                    continue;
+                }
+                if (terrain.standable(nx, y, nz)) {
+                    relax(node, nx, y, nz, base + DIAGONAL + waterPenalty(nx, y, nz));
+                }
+                continue;
+            }
+            if (terrain.standable(nx, y, nz)) {
+                relax(node, nx, y, nz, base + 1.0D + waterPenalty(nx, y, nz));
+                continue;
+            }
+            // Jump up one block: needs room above the current head.
+            if ((inWater || terrain.passable(x, y + 2, z)) && terrain.standable(nx, y + 1, nz)) {
+                relax(node, nx, y + 1, nz, base + 2.0D + waterPenalty(nx, y + 1, nz));
+                continue;
+            }
+            // Drop: walk off the edge and fall at most MAX_DROP blocks onto something standable.
+            if (!terrain.passable(nx, y, nz) || !terrain.passable(nx, y + 1, nz)) {
+                continue;
+            }
+            for (int drop = 1; drop <= MAX_DROP; drop++) {
+                if (terrain.standable(nx, y - drop, nz)) {
+                    relax(node, nx, y - drop, nz, base + 1.0D + 0.5D * drop + waterPenalty(nx, y - drop, nz));
+                    break;
+                }
+                if (!terrain.passable(nx, y - drop, nz)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private double waterPenalty(int x, int y, int z) {
+        return (terrain.cell(x, y, z) & PathTerrain.WATER) != 0 ? 1.0D : 0.0D;
+    }
+
+    private void relax(int parent, int x, int y, int z, double cost) {
+        long position = PathTerrain.pack(x, y, z);
+        int node = index.get(position);
+        if (node < 0) {
+            node = addNode(position, cost, parent);
+        } else {
+            if (closed[node] || cost >= costs[node]) {
+                return;
+            }
+            costs[node] = cost;
+            parents[node] = parent;
+        }
+        push(node, cost + heuristic(x, y, z) * HEURISTIC_WEIGHT);
+    }
+
+    private boolean isGoal(int x, int y, int z) {
+        return Math.abs(x - goalX) <= reach && Math.abs(z - goalZ) <= reach && Math.abs(y - goalY) <= Math.max(1, reach);
+    }
+
+    // Octile distance outside the reach box, plus the cheapest vertical cost.
+    private double heuristic(int x, int y, int z) {
+        int dx = Math.max(0, Math.abs(goalX - x) - reach);
+        int dz = Math.max(0, Math.abs(goalZ - z) - reach);
+        int dy = Math.max(0, Math.abs(goalY - y) - Math.max(1, reach));
+        return Math.max(dx, dz) + (DIAGONAL - 1.0D) * Math.min(dx, dz) + 0.5D * dy;
+    }
+
+    // No complete route within the limits: keep the best node if it got meaningfully closer.
+    private void finishPartial() {
+        if (best != 0 && bestHeuristic <= startHeuristic - 4.0D) {
+            finish(best, true);
+        } else {
+            status = Status.FAILED;
+        }
+    }
+
+    private void finish(int node, boolean partial) {
+        int length = 0;
+        for (int current = node; current >= 0; current = parents[current]) {
+            length++;
+        }
+        long[] path = new long[length];
+        for (int current = node, i = length - 1; current >= 0; current = parents[current], i--) {
+            path[i] = positions[current];
+        }
+        result = new Path(path, costs[node], partial, expanded);
+        status = Status.FOUND;
+    }
+
+    private int addNode(long position, double cost, int parent) {
+        if (nodes == positions.length) {
+            int capacity = nodes * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            costs = Arrays.copyOf(costs, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            closed = Arrays.copyOf(closed, capacity);
+        }
+        positions[nodes] = position;
+        costs[nodes] = cost;
+        parents[nodes] = parent;
+        index.put(position, nodes);
+        return nodes++;
+    }
+
+    private void push(int node, double key) {
+        if (heapSize == heapNodes.length) {
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKeys[up] <= key) {
+                break;
+            }
+            heapNodes[i] = heapNodes[up];
+            heapKeys[i] = heapKeys[up];
+            i = up;
+        }
+        heapNodes[i] = node;
+        heapKeys[i] = key;
+    }
+
+    private int pop() {
+        int top = heapNodes[0];
+        heapSize--;
+        int lastNode = heapNodes[heapSize];
+        double lastKey = heapKeys[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (heapKeys[child] >= lastKey) {
+                break;
+            }
+            heapNodes[i] = heapNodes[child];
+            heapKeys[i] = heapKeys[child];
+            i = child;
+        }
+        heapNodes[i] = lastNode;
+        heapKeys[i] = lastKey;
+        return top;
+    }
+
+    // Packed position -> node index, linear probing over a power-of-two table.
+    private static final class NodeIndex {
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        private NodeIndex() {
+            Arrays.fill(values, -1);
+        }
+
+        private int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; values[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        private void put(long key, int value) {
+            if (size * 2 >= keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (values[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] < 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            Arrays.fill(values, -1);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] >= 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.aiplayer.mod.core.path;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Coarse level of the hierarchical search: 8-connected A* over chunk columns weighted by
+// PathTerrain.chunkCost, inside a window around start and goal. The chunks of the result, with
+// their neighbours, form the corridor the block-level search is confined to.
+final class ChunkPathSearch {
+    private static final int WINDOW_MARGIN = 6;
+    private static final int MAX_EXPANSIONS = 4096;
+    private static final double DIAGONAL = Math.sqrt(2.0D);
+
+    private ChunkPathSearch() {
+    }
+
+    // Null when no chunk route exists (unloaded gap, only impassable chunks in the window).
+    static Result corridor(PathTerrain terrain, int startChunkX, int startChunkZ, int goalChunkX, int goalChunkZ) {
+        int minX = Math.min(startChunkX, goalChunkX) - WINDOW_MARGIN;
+        int maxX = Math.max(startChunkX, goalChunkX) + WINDOW_MARGIN;
+        int minZ = Math.min(startChunkZ, goalChunkZ) - WINDOW_MARGIN;
+        int maxZ = Math.max(startChunkZ, goalChunkZ) + WINDOW_MARGIN;
+
+        Map<Long, Double> costs = new HashMap<>();
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, Integer> chunkCosts = new HashMap<>();
+        Set<Long> closed = new HashSet<>();
+        PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        long start = key(startChunkX, startChunkZ);
+        long goal = key(goalChunkX, goalChunkZ);
+        costs.put(start, 0.0D);
+        open.add(new double[] {heuristic(startChunkX, startChunkZ, goalChunkX, goalChunkZ), start});
+        int expanded = 0;
+        while (!open.isEmpty() && expanded < MAX_EXPANSIONS) {
+            long current = (long) open.poll()[1];
+            if (!closed.add(current)) {
+                continue;
+            }
+            expanded++;
+            if (current == goal) {
+                return new Result(widen(current, parents), expanded);
+            }
+            int cx = chunkX(current);
+            int cz = chunkZ(current);
+            double base = costs.get(current);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    int nx = cx + dx;
+                    int nz = cz + dz;
+                    if ((dx == 0 && dz == 0) || nx < minX || nx > maxX || nz < minZ || nz > maxZ) {
+                        continue;
+                    }
+                    long next = key(nx, nz);
+                    if (closed.contains(next)) {
+                        continue;
+                    }
+                    int chunkCost = chunkCosts.computeIfAbsent(next, ignored -> terrain.chunkCost(nx, nz));
+                    if (chunkCost < 0) {
+                        continue;
+                    }
+                    double cost = base + chunkCost * (dx != 0 && dz != 0 ? DIAGONAL : 1.0D);
+                    Double known = costs.get(next);
+                    if (known == null || cost < known) {
+                        costs.put(next, cost);
+                        parents.put(next, current);
+                        open.add(new double[] {cost + heuristic(nx, nz, goalChunkX, goalChunkZ), next});
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    static long key(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int chunkZ(long key) {
+        return (int) key;
+    }
+
+    // Octile distance at the minimum chunk cost, so the heuristic never overestimates.
+    private static double heuristic(int x, int z, int goalX, int goalZ) {
+        int dx = Math.abs(goalX - x);
+        int dz = Math.abs(goalZ - z);
+        return 16.0D * (Math.max(dx, dz) + (DIAGONAL - 1.0D) * Math.min(dx, dz));
+    }
+
+    private static Set<Long> widen(long end, Map<Long, Long> parents) {
+        Set<Long> corridor = new HashSet<>();
+        Long current = end;
+        while (current != null) {
+            int cx = chunkX(current);
+            int cz = chunkZ(current);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    corridor.add(key(cx + dx, cz + dz));
+                }
+            }
+            current = parents.get(current);
+        }
+        return corridor;
+    }
+
+    record Result(Set<Long> chunks, int expanded) {
+    }
+}
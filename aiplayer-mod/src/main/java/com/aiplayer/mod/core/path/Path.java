@@ -0,0 +1,42 @@
+package com.aiplayer.mod.core.path;
+
+// Feet positions from start to end (packed, see PathTerrain). A partial path stops at the node
+// closest to the goal that the search reached within its node limit; the follower walks it and
+// plans again from there.
+public final class Path {
+    private final long[] nodes;
+    private final double cost;
+    private final boolean partial;
+    private final int nodesExpanded;
+
+    Path(long[] nodes, double cost, boolean partial, int nodesExpanded) {
+        this.nodes = nodes;
+        this.cost = cost;
+        this.partial = partial;
+        this.nodesExpanded = nodesExpanded;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public long node(int index) {
+        return nodes[index];
+    }
+
+    public long end() {
+        return nodes[nodes.length - 1];
+    }
+
+    public double cost() {
+        return cost;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public int nodesExpanded() {
+        return nodesExpanded;
+    }
+}
@@ -0,0 +1,211 @@
+package com.aiplayer.mod.core.path;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Complete routes keyed on (dimension, chunk section of the start, goal block, reach), so a bot
+// going back and forth between the same places walks a stored route instead of searching again.
+// A hit is joined at the route node nearest the bot. Every stored route is indexed by the
+// sections its nodes lie in; a block change on a node's floor, feet or head drops the route.
+// Server thread only, like WalkabilityGrid that reports the changes.
+public final class PathCache {
+    private static final int JOIN_DISTANCE = 2;
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Map<Key, CachedPath> entries;
+    private final Map<ResourceKey<Level>, Map<Long, Set<Key>>> bySection = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long expired;
+    private long invalidated;
+    private long evictions;
+
+    public PathCache(Duration ttl, int maxEntries) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(maxEntries + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedPath> eldest) {
+                if (size() > PathCache.this.maxEntries) {
+                    unindex(eldest.getKey(), eldest.getValue());
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // start is the bot's packed feet position; null when nothing usable is stored.
+    public Path lookup(ResourceKey<Level> dimension, long start, long goal, int reach, Instant now) {
+        Key key = new Key(dimension, section(start), goal, reach);
+        CachedPath cached = entries.get(key);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        if (Duration.between(cached.cachedAt(), now).compareTo(ttl) > 0) {
+            remove(key);
+            expired++;
+            misses++;
+            return null;
+        }
+        int join = joinIndex(cached.path(), start);
+        if (join < 0) {
+            misses++;
+            return null;
+        }
+        hits++;
+        Path path = cached.path();
+        long[] nodes = new long[path.size() - join];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = path.node(join + i);
+        }
+        return new Path(nodes, path.cost(), false, 0);
+    }
+
+    // Partial paths only lead towards the goal, they are not worth replaying.
+    public void store(ResourceKey<Level> dimension, Path path, long goal, int reach, Instant now) {
+        if (path == null || path.isPartial() || path.size() < 2) {
+            return;
+        }
+        Key key = new Key(dimension, section(path.node(0)), goal, reach);
+        remove(key);
+        CachedPath cached = new CachedPath(path, now);
+        entries.put(key, cached);
+        Map<Long, Set<Key>> sections = bySection.computeIfAbsent(dimension, ignored -> new HashMap<>());
+        for (long section : sections(path)) {
+            sections.computeIfAbsent(section, ignored -> new HashSet<>()).add(key);
+        }
+    }
+
+    // WalkabilityGrid change listener: a node at (x, y - 1..y + 1, z) stood on, in or under the block.
+    public void blockChanged(ResourceKey<Level> dimension, int x, int y, int z) {
+        Map<Long, Set<Key>> sections = bySection.get(dimension);
+        if (sections == null || sections.isEmpty()) {
+            return;
+        }
+        Set<Key> candidates = null;
+        for (int dy = -1; dy <= 1; dy++) {
+            Set<Key> keys = sections.get(SectionPos.asLong(x >> 4, (y + dy) >> 4, z >> 4));
+            if (keys != null) {
+                if (candidates == null) {
+                    candidates = new HashSet<>();
+                }
+                candidates.addAll(keys);
+            }
+        }
+        if (candidates == null) {
+            return;
+        }
+        for (Key key : candidates) {
+            CachedPath cached = entries.get(key);
+            if (cached != null && crosses(cached.path(), x, y, z)) {
+                remove(key);
+                invalidated++;
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        bySection.clear();
+    }
+
+    public Stats stats() {
+        return new Stats(entries.size(), maxEntries, ttl.toSeconds(), hits, misses, expired, invalidated, evictions);
+    }
+
+    // The node closest to start within JOIN_DISTANCE blocks (one up or down); later nodes win ties.
+    private static int joinIndex(Path path, long start) {
+        int sx = PathTerrain.x(start);
+        int sy = PathTerrain.y(start);
+        int sz = PathTerrain.z(start);
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < path.size() - 1; i++) {
+            long node = path.node(i);
+            int distance = Math.max(Math.abs(PathTerrain.x(node) - sx), Math.abs(PathTerrain.z(node) - sz));
+            if (distance <= JOIN_DISTANCE && Math.abs(PathTerrain.y(node) - sy) <= 1 && distance <= bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private static boolean crosses(Path path, int x, int y, int z) {
+        for (int i = 0; i < path.size(); i++) {
+            long node = path.node(i);
+            if (PathTerrain.x(node) == x && PathTerrain.z(node) == z && Math.abs(PathTerrain.y(node) - y) <= 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] sections(Path path) {
+        long[] sections = new long[path.size()];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = section(path.node(i));
+        }
+        return Arrays.stream(sections).distinct().toArray();
+    }
+
+    private static long section(long node) {
+        return SectionPos.asLong(PathTerrain.x(node) >> 4, PathTerrain.y(node) >> 4, PathTerrain.z(node) >> 4);
+    }
+
+    private void remove(Key key) {
+        CachedPath cached = entries.remove(key);
+        if (cached != null) {
+            unindex(key, cached);
+        }
+    }
+
+    private void unindex(Key key, CachedPath cached) {
+        Map<Long, Set<Key>> sections = bySection.get(key.dimension());
+        if (sections == null) {
+            return;
+        }
+        for (long section : sections(cached.path())) {
+            Set<Key> keys = sections.get(section);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                sections.remove(section);
+            }
+        }
+    }
+
+    private record Key(ResourceKey<Level> dimension, long startSection, long goal, int reach) {
+    }
+
+    private record CachedPath(Path path, Instant cachedAt) {
+    }
+
+    public record Stats(
+        int size,
+        int maxEntries,
+        long ttlSeconds,
+        long hits,
+        long misses,
+        long expired,
+        long invalidated,
+        long evictions
+    ) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0D : hits / (double) lookups;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.aiplayer.mod.core.path;
+
+import com.aiplayer.mod.entity.AIBotEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.time.Instant;
+
+// One bot's route to its current destination: planned by the shared PathPlanner (over a few ticks
+// if needed), then walked node by node through the bot's move control. The route is kept while
+// consecutive steps (MOVE then MINE, PLACE...) share the destination. It is planned again when a
+// block ahead changes, when the bot is stuck on a node, and at the end of a partial path; after
+// too many failed attempts the destination is reported unreachable instead of teleporting.
+// Complete routes go to the shared PathCache and are taken from it before searching, except
+// after a replan, when the stored route is the one that just failed.
+public final class PathNavigator {
+    public enum Status {
+        ARRIVED,
+        MOVING,
+        SEARCHING,
+        UNREACHABLE
+    }
+
+    private static final int VALIDATE_AHEAD = 6;
+    private static final int STUCK_TICKS = 40;
+    private static final int MAX_REPLANS = 5;
+    private static final double NODE_REACHED_SQR = 0.2D;
+
+    private final PathPlanner planner;
+    private final WalkabilityGrid grid;
+    private final PathCache cache;
+
+    private ResourceKey<Level> dimension;
+    private BlockPos goal;
+    private PathPlanner.Search search;
+    private Path path;
+    private int cursor;
+    private int ticksOnNode;
+    private int replans;
+    private boolean stepChanged;
+    private long routesReused;
+    private long totalReplans;
+
+    public PathNavigator(PathPlanner planner, WalkabilityGrid grid, PathCache cache) {
+        this.planner = planner;
+        this.grid = grid;
+        this.cache = cache;
+    }
+
+    // reach: per-axis distance to goal that counts as arrived (0 for MOVE, more for MINE/PLACE).
+    public Status tick(ServerLevel level, AIBotEntity bot, BlockPos goal, int reach, double speed) {
+        if (!goal.equals(this.goal) || !level.dimension().equals(dimension)) {
+            reset();
+            this.goal = goal.immutable();
+            this.dimension = level.dimension();
+        } else if (stepChanged && path != null) {
+            routesReused++;
+        }
+        stepChanged = false;
+
+        BlockPos feet = BlockPos.containing(bot.getX(), bot.getY() + 0.2D, bot.getZ());
+        if (Math.abs(feet.getX() - goal.getX()) <= reach
+            && Math.abs(feet.getZ() - goal.getZ()) <= reach
+            && Math.abs(feet.getY() - goal.getY()) <= Math.max(1, reach)) {
+            return Status.ARRIVED;
+        }
+
+        PathTerrain terrain = grid.terrain(level);
+        if (path == null) {
+            if (replans > MAX_REPLANS) {
+                return Status.UNREACHABLE;
+            }
+            long packedGoal = PathTerrain.pack(goal.getX(), goal.getY(), goal.getZ());
+            if (search == null) {
+                long start = PathTerrain.pack(feet.getX(), feet.getY(), feet.getZ());
+                path = replans == 0 ? cache.lookup(dimension, start, packedGoal, reach, Instant.now()) : null;
+                if (path == null) {
+                    search = planner.start(terrain, start, packedGoal, reach);
+                }
+            }
+            if (path == null) {
+                planner.step(search);
+                if (!search.isDone()) {
+                    return Status.SEARCHING;
+                }
+                path = search.path();
+                search = null;
+                if (path == null) {
+                    return Status.UNREACHABLE;
+                }
+                cache.store(dimension, path, packedGoal, reach, Instant.now());
+            }
+            cursor = Math.min(1, path.size() - 1);
+            ticksOnNode = 0;
+            bot.getNavigation().stop();
+        }
+
+        if (!validAhead(terrain)) {
+            replan();
+            return Status.SEARCHING;
+        }
+
+        long node = path.node(cursor);
+        double targetX = PathTerrain.x(node) + 0.5D;
+        double targetY = PathTerrain.y(node);
+        double targetZ = PathTerrain.z(node) + 0.5D;
+        double dx = targetX - bot.getX();
+        double dz = targetZ - bot.getZ();
+        if (dx * dx + dz * dz < NODE_REACHED_SQR && Math.abs(bot.getY() - targetY) < 1.0D) {
+            cursor++;
+            ticksOnNode = 0;
+            if (cursor >= path.size()) {
+                // End of a partial path: plan the next leg from here. A full path ends in reach.
+                path = null;
+                return Status.MOVING;
+            }
+            node = path.node(cursor);
+            targetX = PathTerrain.x(node) + 0.5D;
+            targetY = PathTerrain.y(node);
+            targetZ = PathTerrain.z(node) + 0.5D;
+        }
+
+        bot.getMoveControl().setWantedPosition(targetX, targetY, targetZ, speed);
+        if (targetY > bot.getY() + 0.5D && (bot.onGround() || bot.isInWater())) {
+            bot.getJumpControl().jump();
+        }
+        if (++ticksOnNode > STUCK_TICKS) {
+            replan();
+        }
+        return Status.MOVING;
+    }
+
+    // The executor moved on to another step; a route kept for it counts as reused.
+    public void stepChanged() {
+        stepChanged = true;
+    }
+
+    public void reset() {
+        goal = null;
+        dimension = null;
+        search = null;
+        path = null;
+        cursor = 0;
+        ticksOnNode = 0;
+        replans = 0;
+        stepChanged = false;
+    }
+
+    public Stats stats() {
+        return new Stats(path != null ? path.size() - cursor : 0, search != null, routesReused, totalReplans);
+    }
+
+    // A block placed or broken on the next few nodes invalidates the route.
+    private boolean validAhead(PathTerrain terrain) {
+        int end = Math.min(path.size(), cursor + VALIDATE_AHEAD);
+        for (int i = cursor; i < end; i++) {
+            long node = path.node(i);
+            if (!terrain.standable(PathTerrain.x(node), PathTerrain.y(node), PathTerrain.z(node))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void replan() {
+        replans++;
+        totalReplans++;
+        path = null;
+        search = null;
+        ticksOnNode = 0;
+    }
+
+    public record Stats(int nodesLeft, boolean searching, long routesReused, long replans) {
+    }
+}
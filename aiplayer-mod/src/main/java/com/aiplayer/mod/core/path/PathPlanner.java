@@ -0,0 +1,160 @@
+package com.aiplayer.mod.core.path;
+
+import java.util.Set;
+
+// Long-range path planner shared by every bot. Beyond HIERARCHY_DISTANCE blocks a chunk-level
+// route is found first and the block-level A* is confined to that corridor; closer goals are
+// searched directly. Searches are resumable and all of them together expand at most nodesPerTick
+// nodes per server tick; a search over maxNodesPerSearch returns the best partial path.
+public final class PathPlanner {
+    private static final int HIERARCHY_DISTANCE = 48;
+
+    private final int nodesPerTick;
+    private final int maxNodesPerSearch;
+    private int tickNodesLeft;
+    private boolean tickBudgetHit;
+    private long searches;
+    private long found;
+    private long partial;
+    private long failed;
+    private long corridorSearches;
+    private long nodesExpanded;
+    private long budgetExhaustedTicks;
+
+    public PathPlanner(int nodesPerTick, int maxNodesPerSearch) {
+        this.nodesPerTick = nodesPerTick;
+        this.maxNodesPerSearch = maxNodesPerSearch;
+        this.tickNodesLeft = nodesPerTick;
+    }
+
+    public void beginTick() {
+        if (tickBudgetHit) {
+            budgetExhaustedTicks++;
+        }
+        tickBudgetHit = false;
+        tickNodesLeft = nodesPerTick;
+    }
+
+    // Feet positions are packed (PathTerrain.pack); reach is the per-axis arrival tolerance.
+    public Search start(PathTerrain terrain, long start, long goal, int reach) {
+        searches++;
+        BlockPathSearch block = prepare(terrain, start, goal, reach, maxNodesPerSearch, true);
+        if (block == null) {
+            failed++;
+        } else if (block.hasCorridor()) {
+            corridorSearches++;
+        }
+        return new Search(block);
+    }
+
+    // Advances the search within what is left of this tick's node budget.
+    public void step(Search search) {
+        if (search.done || search.block == null) {
+            return;
+        }
+        if (tickNodesLeft <= 0) {
+            tickBudgetHit = true;
+            return;
+        }
+        int before = search.block.expanded();
+        BlockPathSearch.Status status = search.block.step(tickNodesLeft);
+        int used = search.block.expanded() - before;
+        tickNodesLeft -= used;
+        nodesExpanded += used;
+        if (status == BlockPathSearch.Status.RUNNING) {
+            return;
+        }
+        search.done = true;
+        if (status == BlockPathSearch.Status.FAILED) {
+            failed++;
+        } else if (search.block.result().isPartial()) {
+            partial++;
+        } else {
+            found++;
+        }
+    }
+
+    public Stats stats() {
+        long completed = found + partial + failed;
+        return new Stats(
+            searches,
+            found,
+            partial,
+            failed,
+            corridorSearches,
+            nodesExpanded,
+            completed == 0 ? 0.0D : nodesExpanded / (double) completed,
+            budgetExhaustedTicks,
+            nodesPerTick,
+            maxNodesPerSearch
+        );
+    }
+
+    // Runs the generated-terrain benchmark (flat A* vs hierarchical), see PathfindingBenchmark.
+    public static BenchmarkResult benchmark(long seed, int runs) {
+        return PathfindingBenchmark.run(seed, runs);
+    }
+
+    // Null when the chunk level already shows the goal cannot be reached.
+    static BlockPathSearch prepare(PathTerrain terrain, long start, long goal, int reach, int maxNodes, boolean hierarchical) {
+        int sx = PathTerrain.x(start);
+        int sz = PathTerrain.z(start);
+        int gx = PathTerrain.x(goal);
+        int gz = PathTerrain.z(goal);
+        Set<Long> corridor = null;
+        if (hierarchical && Math.max(Math.abs(gx - sx), Math.abs(gz - sz)) > HIERARCHY_DISTANCE) {
+            ChunkPathSearch.Result chunks = ChunkPathSearch.corridor(terrain, sx >> 4, sz >> 4, gx >> 4, gz >> 4);
+            if (chunks == null) {
+                return null;
+            }
+            corridor = chunks.chunks();
+        }
+        return new BlockPathSearch(terrain, start, goal, reach, corridor, maxNodes);
+    }
+
+    public static final class Search {
+        private final BlockPathSearch block;
+        private boolean done;
+
+        private Search(BlockPathSearch block) {
+            this.block = block;
+            this.done = block == null;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        // Null while running, or when no path was found.
+        public Path path() {
+            return done && block != null ? block.result() : null;
+        }
+    }
+
+    public record Stats(
+        long searches,
+        long found,
+        long partial,
+        long failed,
+        long corridorSearches,
+        long nodesExpanded,
+        double avgNodesPerSearch,
+        long budgetExhaustedTicks,
+        int nodesPerTick,
+        int maxNodesPerSearch
+    ) {
+    }
+
+    public record BenchmarkResult(
+        int runs,
+        int flatFound,
+        int hierarchicalFound,
+        double flatAvgNodes,
+        double hierarchicalAvgNodes,
+        double flatAvgMicros,
+        double hierarchicalAvgMicros,
+        double flatCostRatio,
+        double hierarchicalCostRatio
+    ) {
+    }
+}
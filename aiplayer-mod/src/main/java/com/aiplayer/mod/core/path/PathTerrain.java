@@ -0,0 +1,77 @@
+package com.aiplayer.mod.core.path;
+
+// What the path search needs to know about the world: one flag byte per block and a traversal
+// cost per chunk column. Positions are packed like BlockPos.asLong (x and z on 26 bits, y on 12)
+// so the search never allocates a position object.
+public interface PathTerrain {
+    byte OPEN = 0;
+    byte SOLID = 1;
+    byte WATER = 2;
+    byte DANGER = 4;
+    // Blocks motion but cannot be stood on (fences, walls: 1.5 blocks high).
+    byte NO_FLOOR = 8;
+    // The chunk is not loaded: never walked through.
+    byte UNLOADED = 16;
+
+    byte cell(int x, int y, int z);
+
+    // Cost of crossing the chunk (at least 16, one per block), or < 0 when it cannot be crossed.
+    int chunkCost(int chunkX, int chunkZ);
+
+    default boolean passable(int x, int y, int z) {
+        return (cell(x, y, z) & (SOLID | DANGER | UNLOADED)) == 0;
+    }
+
+    // Feet and head free, and either a floor below or water to swim in.
+    default boolean standable(int x, int y, int z) {
+        byte feet = cell(x, y, z);
+        if ((feet & (SOLID | DANGER | UNLOADED)) != 0 || !passable(x, y + 1, z)) {
+            return false;
+        }
+        if ((feet & WATER) != 0) {
+            return true;
+        }
+        byte below = cell(x, y - 1, z);
+        return (below & SOLID) != 0 && (below & (NO_FLOOR | DANGER)) == 0;
+    }
+
+    static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | ((long) y & 0xFFFL);
+    }
+
+    static int x(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    static int y(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    static int z(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    // Shared by the world grid and the benchmark terrain: 16 per block crossed, plus penalties for
+    // height variation between the sampled columns and for water or danger at their surface.
+    static int chunkCost(int[] sampleHeights, byte[] sampleTops, int samplesPerSide) {
+        int roughness = 0;
+        int water = 0;
+        int danger = 0;
+        for (int i = 0; i < sampleHeights.length; i++) {
+            if (i % samplesPerSide > 0) {
+                roughness += Math.abs(sampleHeights[i] - sampleHeights[i - 1]);
+            }
+            if (i >= samplesPerSide) {
+                roughness += Math.abs(sampleHeights[i] - sampleHeights[i - samplesPerSide]);
+            }
+            if ((sampleTops[i] & WATER) != 0) {
+                water++;
+            }
+            if ((sampleTops[i] & DANGER) != 0) {
+                danger++;
+            }
+        }
+        int samples = sampleHeights.length;
+        return 16 + Math.min(32, roughness / 2) + (8 * water + 48 * danger) / samples;
+    }
+}
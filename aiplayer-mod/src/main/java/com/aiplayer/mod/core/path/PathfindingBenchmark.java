@@ -0,0 +1,204 @@
+package com.aiplayer.mod.core.path;
+
+import java.util.Random;
+
+// Plans routes between random points of a generated terrain (value-noise hills, a sea, lava pools,
+// tree trunks) twice: flat A* over the whole area, and the hierarchical planner the bots use,
+// chained over partial paths like PathNavigator does. Reports nodes expanded, time, and path
+// cost relative to the straight-line lower bound.
+final class PathfindingBenchmark {
+    private static final int SIZE = 384;
+    private static final int MIN_DISTANCE = 96;
+    private static final int FLAT_MAX_NODES = 500_000;
+    private static final int HIERARCHICAL_MAX_NODES = 30_000;
+    private static final int MAX_SEGMENTS = 16;
+    private static final double DIAGONAL = Math.sqrt(2.0D);
+
+    private PathfindingBenchmark() {
+    }
+
+    static PathPlanner.BenchmarkResult run(long seed, int runs) {
+        GeneratedTerrain terrain = new GeneratedTerrain(seed);
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        int flatFound = 0;
+        int hierarchicalFound = 0;
+        long flatNodes = 0L;
+        long hierarchicalNodes = 0L;
+        long flatNanos = 0L;
+        long hierarchicalNanos = 0L;
+        double flatRatio = 0.0D;
+        double hierarchicalRatio = 0.0D;
+        for (int run = 0; run < runs; run++) {
+            long start = terrain.randomLandPosition(random);
+            long goal = terrain.randomLandPosition(random);
+            while (horizontalDistance(start, goal) < MIN_DISTANCE) {
+                goal = terrain.randomLandPosition(random);
+            }
+            double lowerBound = octile(start, goal);
+
+            long startedAt = System.nanoTime();
+            BlockPathSearch flat = PathPlanner.prepare(terrain, start, goal, 0, FLAT_MAX_NODES, false);
+            flat.step(Integer.MAX_VALUE);
+            flatNanos += System.nanoTime() - startedAt;
+            flatNodes += flat.expanded();
+            if (flat.status() == BlockPathSearch.Status.FOUND && !flat.result().isPartial()) {
+                flatFound++;
+                flatRatio += flat.result().cost() / lowerBound;
+            }
+
+            startedAt = System.nanoTime();
+            long from = start;
+            double cost = 0.0D;
+            boolean reached = false;
+            for (int segment = 0; segment < MAX_SEGMENTS; segment++) {
+                BlockPathSearch search = PathPlanner.prepare(terrain, from, goal, 0, HIERARCHICAL_MAX_NODES, true);
+                if (search == null) {
+                    break;
+                }
+                search.step(Integer.MAX_VALUE);
+                hierarchicalNodes += search.expanded();
+                if (search.status() != BlockPathSearch.Status.FOUND) {
+                    break;
+                }
+                cost += search.result().cost();
+                if (!search.result().isPartial()) {
+                    reached = true;
+                    break;
+                }
+                from = search.result().end();
+            }
+            hierarchicalNanos += System.nanoTime() - startedAt;
+            if (reached) {
+                hierarchicalFound++;
+                hierarchicalRatio += cost / lowerBound;
+            }
+        }
+        int safeRuns = Math.max(1, runs);
+        return new PathPlanner.BenchmarkResult(
+            runs,
+            flatFound,
+            hierarchicalFound,
+            flatNodes / (double) safeRuns,
+            hierarchicalNodes / (double) safeRuns,
+            flatNanos / 1_000.0D / safeRuns,
+            hierarchicalNanos / 1_000.0D / safeRuns,
+            flatFound == 0 ? 0.0D : flatRatio / flatFound,
+            hierarchicalFound == 0 ? 0.0D : hierarchicalRatio / hierarchicalFound
+        );
+    }
+
+    private static int horizontalDistance(long a, long b) {
+        return Math.max(Math.abs(PathTerrain.x(a) - PathTerrain.x(b)), Math.abs(PathTerrain.z(a) - PathTerrain.z(b)));
+    }
+
+    private static double octile(long a, long b) {
+        int dx = Math.abs(PathTerrain.x(a) - PathTerrain.x(b));
+        int dz = Math.abs(PathTerrain.z(a) - PathTerrain.z(b));
+        return Math.max(1.0D, Math.max(dx, dz) + (DIAGONAL - 1.0D) * Math.min(dx, dz));
+    }
+
+    // SIZE x SIZE blocks from (0, 0); everything outside is unloaded.
+    private static final class GeneratedTerrain implements PathTerrain {
+        private static final int SEA_LEVEL = 60;
+        private static final int TREE_HEIGHT = 5;
+
+        private final int[] heights = new int[SIZE * SIZE];
+        private final boolean[] trees = new boolean[SIZE * SIZE];
+        private final boolean[] lava = new boolean[SIZE * SIZE];
+
+        private GeneratedTerrain(long seed) {
+            Random random = new Random(seed);
+            double[] coarse = noiseGrid(random, SIZE / 32 + 2);
+            double[] fine = noiseGrid(random, SIZE / 8 + 2);
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    double height = 62.0D + 16.0D * sample(coarse, SIZE / 32 + 2, x / 32.0D, z / 32.0D)
+                        + 4.0D * sample(fine, SIZE / 8 + 2, x / 8.0D, z / 8.0D);
+                    heights[x * SIZE + z] = (int) Math.round(height);
+                }
+            }
+            for (int pool = 0; pool < SIZE / 16; pool++) {
+                int px = random.nextInt(SIZE - 6);
+                int pz = random.nextInt(SIZE - 6);
+                for (int x = px; x < px + 5; x++) {
+                    for (int z = pz; z < pz + 5; z++) {
+                        lava[x * SIZE + z] = heights[x * SIZE + z] >= SEA_LEVEL;
+                    }
+                }
+            }
+            for (int i = 0; i < heights.length; i++) {
+                trees[i] = !lava[i] && heights[i] >= SEA_LEVEL && random.nextInt(40) == 0;
+            }
+        }
+
+        @Override
+        public byte cell(int x, int y, int z) {
+            if (x < 0 || z < 0 || x >= SIZE || z >= SIZE) {
+                return UNLOADED;
+            }
+            int column = x * SIZE + z;
+            int height = heights[column];
+            if (y < height) {
+                return SOLID;
+            }
+            if (y == height && lava[column]) {
+                return DANGER;
+            }
+            if (trees[column] && y < height + TREE_HEIGHT) {
+                return SOLID;
+            }
+            return y < SEA_LEVEL ? WATER : OPEN;
+        }
+
+        @Override
+        public int chunkCost(int chunkX, int chunkZ) {
+            if (chunkX < 0 || chunkZ < 0 || chunkX >= SIZE / 16 || chunkZ >= SIZE / 16) {
+                return -1;
+            }
+            int[] sampleHeights = new int[16];
+            byte[] sampleTops = new byte[16];
+            for (int i = 0; i < 4; i++) {
+                for (int j = 0; j < 4; j++) {
+                    int column = (chunkX * 16 + 2 + 4 * i) * SIZE + chunkZ * 16 + 2 + 4 * j;
+                    sampleHeights[i * 4 + j] = Math.max(heights[column], SEA_LEVEL);
+                    sampleTops[i * 4 + j] = lava[column] ? DANGER : heights[column] < SEA_LEVEL ? WATER : OPEN;
+                }
+            }
+            return PathTerrain.chunkCost(sampleHeights, sampleTops, 4);
+        }
+
+        private long randomLandPosition(Random random) {
+            while (true) {
+                int x = 8 + random.nextInt(SIZE - 16);
+                int z = 8 + random.nextInt(SIZE - 16);
+                int y = heights[x * SIZE + z];
+                if (y >= SEA_LEVEL && standable(x, y, z)) {
+                    return PathTerrain.pack(x, y, z);
+                }
+            }
+        }
+
+        private static double[] noiseGrid(Random random, int side) {
+            double[] grid = new double[side * side];
+            for (int i = 0; i < grid.length; i++) {
+                grid[i] = random.nextDouble() * 2.0D - 1.0D;
+            }
+            return grid;
+        }
+
+        // Smoothstep-interpolated value noise in [-1, 1].
+        private static double sample(double[] grid, int side, double x, double z) {
+            int x0 = (int) x;
+            int z0 = (int) z;
+            double tx = smooth(x - x0);
+            double tz = smooth(z - z0);
+            double a = grid[x0 * side + z0] + (grid[(x0 + 1) * side + z0] - grid[x0 * side + z0]) * tx;
+            double b = grid[x0 * side + z0 + 1] + (grid[(x0 + 1) * side + z0 + 1] - grid[x0 * side + z0 + 1]) * tx;
+            return a + (b - a) * tz;
+        }
+
+        private static double smooth(double t) {
+            return t * t * (3.0D - 2.0D * t);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.aiplayer.mod.core.path;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.FluidTags;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// PathTerrain over the live world: one flag byte per block, filled a chunk section at a time from
+// a state id -> flags table, so the path search never calls getBlockState or allocates a BlockPos.
+// Block events update single cells (a break drops the section to be re-read); unloading a chunk
+// or level drops its sections. Sections of every dimension share one LRU order, so the cap evicts
+// the least recently used section wherever it is rather than the working set being filled.
+// Change listeners hear about every placed, broken or updated block.
+public final class WalkabilityGrid {
+    public interface ChangeListener {
+        void blockChanged(ResourceKey<Level> dimension, int x, int y, int z);
+    }
+
+    private static final int SECTION_CELLS = 4096;
+    // Shared by every all-air section; copied before its first update.
+    private static final byte[] ALL_OPEN = new byte[SECTION_CELLS];
+    private static final byte UNKNOWN_STATE = -1;
+
+    private final int maxSections;
+    private final LinkedHashMap<SectionKey, byte[]> sections = new LinkedHashMap<>(1024, 0.75F, true);
+    private final Map<ResourceKey<Level>, Map<Long, Integer>> chunkCosts = new HashMap<>();
+    private final List<ChangeListener> listeners = new ArrayList<>();
+    private byte[] stateFlags = new byte[0];
+    // Bumped whenever a cached section array is dropped, so terrain views forget their last section.
+    private long generation;
+    private long sectionHits;
+    private long sectionMisses;
+    private long cellUpdates;
+    private long sectionsEvicted;
+
+    public WalkabilityGrid(int maxSections) {
+        this.maxSections = maxSections;
+    }
+
+    // A view bound to one level; cheap, create one per search or per tick.
+    public PathTerrain terrain(ServerLevel level) {
+        return new LevelTerrain(level);
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    // Break and place can be cancelled by other handlers (claims, spawn protection): listen last and
+    // skip cancelled ones, as WorldModel does.
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onBlockBreak(BlockEvent.BreakEvent event) {
+        // Fired before the block is removed: drop the section, it is re-read on next use.
+        if (!event.isCanceled() && event.getLevel() instanceof ServerLevel level) {
+            BlockPos pos = event.getPos();
+            if (sections.remove(new SectionKey(level.dimension(), SectionPos.asLong(pos))) != null) {
+                generation++;
+            }
+            dropChunkCost(level, pos);
+            notifyChanged(level, pos);
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onBlockPlace(BlockEvent.EntityPlaceEvent event) {
+        if (!event.isCanceled() && event.getLevel() instanceof ServerLevel level) {
+            update(level, event.getPos(), event.getPlacedBlock());
+        }
+    }
+
+    @SubscribeEvent
+    public void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            update(level, event.getPos(), event.getState());
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) {
+            return;
+        }
+        ChunkPos chunk = event.getChunk().getPos();
+        Map<Long, Integer> costs = chunkCosts.get(level.dimension());
+        if (costs != null) {
+            costs.remove(chunk.toLong());
+        }
+        boolean removed = false;
+        for (int sectionY = level.getMinSection(); sectionY < level.getMaxSection(); sectionY++) {
+            removed |= sections.remove(new SectionKey(level.dimension(), SectionPos.asLong(chunk.x, sectionY, chunk.z))) != null;
+        }
+        if (removed) {
+            generation++;
+        }
+    }
+
+    @SubscribeEvent
+    public void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            ResourceKey<Level> dimension = level.dimension();
+            sections.keySet().removeIf(key -> key.dimension() == dimension);
+            chunkCosts.remove(dimension);
+            generation++;
+        }
+    }
+
+    // Block tags decide fences and hazards: recompute everything after a reload.
+    @SubscribeEvent
+    public void onTagsUpdated(TagsUpdatedEvent event) {
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) {
+            sections.clear();
+            chunkCosts.clear();
+            stateFlags = new byte[0];
+            generation++;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(sections.size(), maxSections, sectionHits, sectionMisses, cellUpdates, sectionsEvicted);
+    }
+
+    private void update(ServerLevel level, BlockPos pos, BlockState state) {
+        dropChunkCost(level, pos);
+        notifyChanged(level, pos);
+        SectionKey key = new SectionKey(level.dimension(), SectionPos.asLong(pos));
+        byte[] cells = sections.get(key);
+        if (cells == null) {
+            return;
+        }
+        if (cells == ALL_OPEN) {
+            cells = ALL_OPEN.clone();
+            sections.put(key, cells);
+            generation++;
+        }
+        cells[cellIndex(pos.getX(), pos.getY(), pos.getZ())] = flags(state);
+        cellUpdates++;
+    }
+
+    private void notifyChanged(ServerLevel level, BlockPos pos) {
+        for (ChangeListener listener : listeners) {
+            listener.blockChanged(level.dimension(), pos.getX(), pos.getY(), pos.getZ());
+        }
+    }
+
+    private void dropChunkCost(ServerLevel level, BlockPos pos) {
+        Map<Long, Integer> costs = chunkCosts.get(level.dimension());
+        if (costs != null) {
+            costs.remove(ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())));
+        }
+    }
+
+    // Null when the chunk is not loaded; such sections are not cached.
+    private byte[] section(ServerLevel level, int sectionX, int sectionY, int sectionZ) {
+        SectionKey key = new SectionKey(level.dimension(), SectionPos.asLong(sectionX, sectionY, sectionZ));
+        byte[] cells = sections.get(key);
+        if (cells != null) {
+            sectionHits++;
+            return cells;
+        }
+        LevelChunk chunk = level.getChunkSource().getChunkNow(sectionX, sectionZ);
+        if (chunk == null) {
+            return null;
+        }
+        sectionMisses++;
+        LevelChunkSection section = chunk.getSection(level.getSectionIndexFromSectionY(sectionY));
+        if (section.hasOnlyAir()) {
+            cells = ALL_OPEN;
+        } else {
+            cells = new byte[SECTION_CELLS];
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        cells[(y << 8) | (z << 4) | x] = flags(section.getBlockState(x, y, z));
+                    }
+                }
+            }
+        }
+        sections.put(key, cells);
+        evictOverCap(key);
+        return cells;
+    }
+
+    private int chunkCost(ServerLevel level, int chunkX, int chunkZ) {
+        Map<Long, Integer> costs = chunkCosts.computeIfAbsent(level.dimension(), ignored -> new HashMap<>());
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        Integer cached = costs.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (chunk == null) {
+            return -1;
+        }
+        int[] heights = new int[16];
+        byte[] tops = new byte[16];
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                int x = 2 + 4 * i;
+                int z = 2 + 4 * j;
+                int top = chunk.getHeight(Heightmap.Types.MOTION_BLOCKING, x, z);
+                heights[i * 4 + j] = top;
+                tops[i * 4 + j] = flags(chunk.getBlockState(cursor.set(chunk.getPos().getMinBlockX() + x, top, chunk.getPos().getMinBlockZ() + z)));
+            }
+        }
+        int cost = PathTerrain.chunkCost(heights, tops, 4);
+        costs.put(key, cost);
+        return cost;
+    }
+
+    private void evictOverCap(SectionKey keep) {
+        Iterator<SectionKey> eldest = sections.keySet().iterator();
+        while (sections.size() > maxSections && eldest.hasNext()) {
+            if (eldest.next().equals(keep)) {
+                continue;
+            }
+            eldest.remove();
+            sectionsEvicted++;
+            generation++;
+        }
+    }
+
+    private byte flags(BlockState state) {
+        if (state == null) {
+            return PathTerrain.OPEN;
+        }
+        int id = Block.getId(state);
+        if (id >= stateFlags.length) {
+            int size = Math.max(id + 1, Block.BLOCK_STATE_REGISTRY.size());
+            int from = stateFlags.length;
+            stateFlags = Arrays.copyOf(stateFlags, size);
+            Arrays.fill(stateFlags, from, size, UNKNOWN_STATE);
+        }
+        byte flags = stateFlags[id];
+        if (flags == UNKNOWN_STATE) {
+            flags = classify(state);
+            stateFlags[id] = flags;
+        }
+        return flags;
+    }
+
+    private static byte classify(BlockState state) {
+        int flags = PathTerrain.OPEN;
+        if (state.blocksMotion()) {
+            flags |= PathTerrain.SOLID;
+            if (state.is(BlockTags.FENCES) || state.is(BlockTags.WALLS) || state.is(BlockTags.FENCE_GATES)) {
+                flags |= PathTerrain.NO_FLOOR;
+            }
+        }
+        if (state.getFluidState().is(FluidTags.LAVA)
+            || state.is(BlockTags.FIRE)
+            || state.is(BlockTags.CAMPFIRES)
+            || state.is(Blocks.MAGMA_BLOCK)
+            || state.is(Blocks.CACTUS)
+            || state.is(Blocks.SWEET_BERRY_BUSH)
+            || state.is(Blocks.POWDER_SNOW)
+            || state.is(Blocks.WITHER_ROSE)) {
+            flags |= PathTerrain.DANGER;
+        } else if (state.getFluidState().is(FluidTags.WATER)) {
+            flags |= PathTerrain.WATER;
+        }
+        return (byte) flags;
+    }
+
+    private static int cellIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    private final class LevelTerrain implements PathTerrain {
+        private final ServerLevel level;
+        private final int minSection;
+        private final int maxSection;
+        private long lastKey;
+        private byte[] lastCells;
+        private long lastGeneration = -1L;
+
+        private LevelTerrain(ServerLevel level) {
+            this.level = level;
+            this.minSection = level.getMinSection();
+            this.maxSection = level.getMaxSection();
+        }
+
+        @Override
+        public byte cell(int x, int y, int z) {
+            int sectionY = y >> 4;
+            if (sectionY < minSection) {
+                return UNLOADED;
+            }
+            if (sectionY >= maxSection) {
+                return OPEN;
+            }
+            int sectionX = x >> 4;
+            int sectionZ = z >> 4;
+            long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+            if (key != lastKey || lastGeneration != generation || lastCells == null) {
+                byte[] cells = section(level, sectionX, sectionY, sectionZ);
+                if (cells == null) {
+                    return UNLOADED;
+                }
+                lastKey = key;
+                lastCells = cells;
+                lastGeneration = generation;
+            }
+            return lastCells[cellIndex(x, y, z)];
+        }
+
+        @Override
+        public int chunkCost(int chunkX, int chunkZ) {
+            return WalkabilityGrid.this.chunkCost(level, chunkX, chunkZ);
+        }
+    }
+
+    private record SectionKey(ResourceKey<Level> dimension, long section) {
+    }
+
+    public record Stats(int sections, int maxSections, long sectionHits, long sectionMisses, long cellUpdates, long sectionsEvicted) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.aiplayer.mod.core.world;
+
+import net.minecraft.world.level.block.state.BlockState;
+
+// Kinds of blocks the bots care about. Anything else is neither perceived nor indexed. Which blocks
+// fall in which category comes from BlockCategoryTable (tags + aiplayer/block-categories.json).
+public enum BlockCategory {
+    LOG(null),
+    BED(null),
+    WORKSTATION("crafting_table"),
+    FURNACE("furnace"),
+    STORAGE("storage"),
+    ORE_COAL(null),
+    ORE_IRON("iron_ore"),
+    ORE_GOLD(null),
+    ORE_DIAMOND("diamond_ore"),
+    ORE_EMERALD(null),
+    ORE_REDSTONE(null),
+    ORE_LAPIS(null);
+
+    private static final BlockCategory[] VALUES = values();
+
+    private final String knownLocationLabel;
+
+    BlockCategory(String knownLocationLabel) {
+        this.knownLocationLabel = knownLocationLabel;
+    }
+
+    // Label under which blocks of this category are remembered as known locations, or null.
+    public String knownLocationLabel() {
+        return knownLocationLabel;
+    }
+
+    public static BlockCategory byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    // Null when the block is not interesting.
+    public static BlockCategory of(BlockState state) {
+        return BlockCategoryTable.of(state);
+    }
+
+    // Null when the id is unknown or not interesting.
+    public static BlockCategory ofBlockId(String blockId) {
+        return BlockCategoryTable.ofBlockId(blockId);
+    }
+
+    public static boolean isInteresting(BlockState state) {
+        return of(state) != null;
+    }
+
+    // Every interesting state; replaced whenever the table is rebuilt.
+    public static BlockStateMask mask() {
+        return BlockCategoryTable.mask();
+    }
+}
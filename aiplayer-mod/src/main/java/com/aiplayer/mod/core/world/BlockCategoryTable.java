@@ -0,0 +1,247 @@
+package com.aiplayer.mod.core.world;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Block state id -> BlockCategory, built once from the block registry instead of evaluating tags
+// and == chains per scanned block. Each category is a list of block ids and "#namespace:path" block
+// tags read from aiplayer/block-categories.json (written with the defaults on first run), so a
+// server can add modded ores or workstations. The table is rebuilt on every tag reload.
+public final class BlockCategoryTable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlockCategoryTable.class);
+    private static final Map<BlockCategory, List<String>> DEFAULTS = defaults();
+    private static final List<Runnable> REBUILD_LISTENERS = new CopyOnWriteArrayList<>();
+    private static volatile Table table;
+
+    private BlockCategoryTable() {
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) {
+            rebuild();
+        }
+    }
+
+    // Called after each rebuild, e.g. so the world model re-indexes with the new categories.
+    public static void addRebuildListener(Runnable listener) {
+        REBUILD_LISTENERS.add(listener);
+    }
+
+    public static void rebuild() {
+        load();
+        for (Runnable listener : REBUILD_LISTENERS) {
+            listener.run();
+        }
+    }
+
+    static BlockCategory of(BlockState state) {
+        BlockCategory[] byStateId = current().byStateId();
+        int id = Block.getId(state);
+        return id >= 0 && id < byStateId.length ? byStateId[id] : null;
+    }
+
+    static BlockCategory ofBlockId(String blockId) {
+        return blockId == null ? null : current().byBlockId().get(blockId);
+    }
+
+    static BlockStateMask mask() {
+        return current().mask();
+    }
+
+    public static Stats stats() {
+        Table current = current();
+        return new Stats(current.blocks(), current.mask().size(), current.source().toString(), current.builtAt());
+    }
+
+    private static Table current() {
+        Table current = table;
+        return current != null ? current : load();
+    }
+
+    private static synchronized Table load() {
+        Path file = resolveFile();
+        Table built = build(loadSpec(file), file);
+        table = built;
+        LOGGER.info("Block category table built: blocks={} states={} source={}", built.blocks(), built.mask().size(), file);
+        return built;
+    }
+
+    private static Table build(Map<BlockCategory, List<String>> spec, Path source) {
+        Map<BlockCategory, Set<ResourceLocation>> ids = new EnumMap<>(BlockCategory.class);
+        Map<BlockCategory, List<TagKey<Block>>> tags = new EnumMap<>(BlockCategory.class);
+        for (BlockCategory category : BlockCategory.values()) {
+            Set<ResourceLocation> categoryIds = new HashSet<>();
+            List<TagKey<Block>> categoryTags = new ArrayList<>();
+            for (String entry : spec.getOrDefault(category, List.of())) {
+                boolean isTag = entry.startsWith("#");
+                ResourceLocation location = ResourceLocation.tryParse(isTag ? entry.substring(1) : entry);
+                if (location == null) {
+                    LOGGER.warn("Ignoring invalid block category entry '{}' for {}", entry, category);
+                } else if (isTag) {
+                    categoryTags.add(TagKey.create(Registries.BLOCK, location));
+                } else {
+                    categoryIds.add(location);
+                }
+            }
+            ids.put(category, categoryIds);
+            tags.put(category, categoryTags);
+        }
+
+        BlockCategory[] byStateId = new BlockCategory[Block.BLOCK_STATE_REGISTRY.size()];
+        Map<String, BlockCategory> byBlockId = new HashMap<>();
+        for (Block block : BuiltInRegistries.BLOCK) {
+            ResourceLocation key = BuiltInRegistries.BLOCK.getKey(block);
+            BlockCategory category = classify(block, key, ids, tags);
+            if (category == null) {
+                continue;
+            }
+            byBlockId.put(key.toString(), category);
+            for (BlockState state : block.getStateDefinition().getPossibleStates()) {
+                int id = Block.getId(state);
+                if (id >= 0 && id < byStateId.length) {
+                    byStateId[id] = category;
+                }
+            }
+        }
+        BlockStateMask mask = BlockStateMask.of(state -> {
+            int id = Block.getId(state);
+            return id >= 0 && id < byStateId.length && byStateId[id] != null;
+        });
+        return new Table(byStateId, byBlockId, mask, byBlockId.size(), source, System.currentTimeMillis());
+    }
+
+    // First category (in enum order) listing the block's id or one of its tags.
+    private static BlockCategory classify(
+        Block block,
+        ResourceLocation key,
+        Map<BlockCategory, Set<ResourceLocation>> ids,
+        Map<BlockCategory, List<TagKey<Block>>> tags
+    ) {
+        for (BlockCategory category : BlockCategory.values()) {
+            if (ids.get(category).contains(key)) {
+                return category;
+            }
+            for (TagKey<Block> tag : tags.get(category)) {
+                if (block.builtInRegistryHolder().is(tag)) {
+                    return category;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Categories present in the file replace the default list; missing ones keep the default.
+    private static Map<BlockCategory, List<String>> loadSpec(Path file) {
+        Map<BlockCategory, List<String>> spec = new EnumMap<>(DEFAULTS);
+        if (!Files.exists(file)) {
+            writeDefaults(file);
+            return spec;
+        }
+        try {
+            JsonObject root = JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8)).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> entry : root.entrySet()) {
+                BlockCategory category;
+                try {
+                    category = BlockCategory.valueOf(entry.getKey().trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException unknown) {
+                    LOGGER.warn("Unknown block category '{}' in {}", entry.getKey(), file);
+                    continue;
+                }
+                List<String> values = new ArrayList<>();
+                for (JsonElement value : entry.getValue().getAsJsonArray()) {
+                    values.add(value.getAsString().trim());
+                }
+                spec.put(category, values);
+            }
+        } catch (IOException | RuntimeException exception) {
+            LOGGER.warn("Failed to read block categories from {}, using defaults", file, exception);
+            return new EnumMap<>(DEFAULTS);
+        }
+        return spec;
+    }
+
+    private static void writeDefaults(Path file) {
+        JsonObject root = new JsonObject();
+        for (Map.Entry<BlockCategory, List<String>> entry : DEFAULTS.entrySet()) {
+            JsonArray values = new JsonArray();
+            entry.getValue().forEach(values::add);
+            root.add(entry.getKey().name().toLowerCase(Locale.ROOT), values);
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, new GsonBuilder().setPrettyPrinting().create().toJson(root), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            LOGGER.warn("Failed to write default block categories to {}", file, exception);
+        }
+    }
+
+    private static Path resolveFile() {
+        String prop = System.getProperty("aiplayer.blockCategoriesFile");
+        String env = System.getenv("AIPLAYER_BLOCK_CATEGORIES_FILE");
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        if (raw == null || raw.isBlank()) {
+            return Path.of("aiplayer", "block-categories.json");
+        }
+        return Path.of(raw.trim());
+    }
+
+    private static Map<BlockCategory, List<String>> defaults() {
+        Map<BlockCategory, List<String>> defaults = new EnumMap<>(BlockCategory.class);
+        defaults.put(BlockCategory.LOG, List.of("#minecraft:logs"));
+        defaults.put(BlockCategory.BED, List.of("#minecraft:beds"));
+        defaults.put(BlockCategory.WORKSTATION, List.of("minecraft:crafting_table", "#c:player_workstations/crafting_tables"));
+        defaults.put(BlockCategory.FURNACE, List.of("minecraft:furnace", "minecraft:blast_furnace", "#c:player_workstations/furnaces"));
+        defaults.put(BlockCategory.STORAGE, List.of("minecraft:chest", "minecraft:barrel", "#c:chests/wooden", "#c:barrels/wooden"));
+        defaults.put(BlockCategory.ORE_COAL, List.of("#minecraft:coal_ores", "#c:ores/coal"));
+        defaults.put(BlockCategory.ORE_IRON, List.of("#minecraft:iron_ores", "#c:ores/iron"));
+        defaults.put(BlockCategory.ORE_GOLD, List.of("#minecraft:gold_ores", "#c:ores/gold"));
+        defaults.put(BlockCategory.ORE_DIAMOND, List.of("#minecraft:diamond_ores", "#c:ores/diamond"));
+        defaults.put(BlockCategory.ORE_EMERALD, List.of("#minecraft:emerald_ores", "#c:ores/emerald"));
+        defaults.put(BlockCategory.ORE_REDSTONE, List.of("#minecraft:redstone_ores", "#c:ores/redstone"));
+        defaults.put(BlockCategory.ORE_LAPIS, List.of("#minecraft:lapis_ores", "#c:ores/lapis"));
+        return defaults;
+    }
+
+    private record Table(
+        BlockCategory[] byStateId,
+        Map<String, BlockCategory> byBlockId,
+        BlockStateMask mask,
+        int blocks,
+        Path source,
+        long builtAt
+    ) {
+    }
+
+    public record Stats(int blocks, int states, String source, long builtAtMillis) {
+    }
+}
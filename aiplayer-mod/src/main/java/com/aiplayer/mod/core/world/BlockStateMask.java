@@ -0,0 +1,42 @@
+package com.aiplayer.mod.core.world;
+
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+// Set of block states as a bitset over the global state id registry, so a hot-loop membership test
+// is one id lookup and one bit read instead of tag checks or registry name lookups.
+public final class BlockStateMask {
+    private final BitSet states;
+    private final int size;
+
+    private BlockStateMask(BitSet states) {
+        this.states = states;
+        this.size = states.cardinality();
+    }
+
+    // Evaluates predicate once per registered state; build after registries and tags are loaded.
+    public static BlockStateMask of(Predicate<BlockState> predicate) {
+        BitSet states = new BitSet(Block.BLOCK_STATE_REGISTRY.size());
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            if (predicate.test(state)) {
+                states.set(Block.getId(state));
+            }
+        }
+        return new BlockStateMask(states);
+    }
+
+    public boolean contains(BlockState state) {
+        return states.get(Block.getId(state));
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,28 @@
+package com.aiplayer.mod.core.world;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.level.block.Block;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// One interesting block found by the world model or a perception scan.
+public record IndexedBlock(BlockPos pos, Block block, BlockCategory category) {
+    private static final Map<Block, String> BLOCK_IDS = new IdentityHashMap<>();
+
+    public String blockId() {
+        return idOf(block);
+    }
+
+    // "minecraft:oak_log@x,y,z", the form BotPerception carries.
+    public String entry() {
+        return blockId() + "@" + pos.getX() + "," + pos.getY() + "," + pos.getZ();
+    }
+
+    public static String idOf(Block block) {
+        synchronized (BLOCK_IDS) {
+            return BLOCK_IDS.computeIfAbsent(block, key -> BuiltInRegistries.BLOCK.getKey(key).toString());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.aiplayer.mod.core.world;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+// Box scans that look at each 16x16x16 chunk section's palette before touching its blocks: a
+// section whose palette holds no state of the mask is skipped whole, which is most of them for
+// ores, workstations or a mod's blocks. Only loaded chunks are read; nothing is loaded.
+public final class SectionScanner {
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(int x, int y, int z, BlockState state);
+    }
+
+    private SectionScanner() {
+    }
+
+    // Visits every state of mask inside the inclusive box, section by section.
+    public static Result scanBox(ServerLevel level, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, BlockStateMask mask, Visitor visitor) {
+        int sectionsVisited = 0;
+        int sectionsSkipped = 0;
+        int positionsTested = 0;
+        int matches = 0;
+        for (int sx = SectionPos.blockToSectionCoord(minX); sx <= SectionPos.blockToSectionCoord(maxX); sx++) {
+            for (int sz = SectionPos.blockToSectionCoord(minZ); sz <= SectionPos.blockToSectionCoord(maxZ); sz++) {
+                for (int sy = SectionPos.blockToSectionCoord(minY); sy <= SectionPos.blockToSectionCoord(maxY); sy++) {
+                    LevelChunkSection section = filteredSection(level, sx, sy, sz, mask);
+                    if (section == null) {
+                        sectionsSkipped++;
+                        continue;
+                    }
+                    sectionsVisited++;
+                    int baseX = SectionPos.sectionToBlockCoord(sx);
+                    int baseY = SectionPos.sectionToBlockCoord(sy);
+                    int baseZ = SectionPos.sectionToBlockCoord(sz);
+                    int fromX = Math.max(minX, baseX) - baseX;
+                    int toX = Math.min(maxX, baseX + 15) - baseX;
+                    int fromY = Math.max(minY, baseY) - baseY;
+                    int toY = Math.min(maxY, baseY + 15) - baseY;
+                    int fromZ = Math.max(minZ, baseZ) - baseZ;
+                    int toZ = Math.min(maxZ, baseZ + 15) - baseZ;
+                    for (int y = fromY; y <= toY; y++) {
+                        for (int z = fromZ; z <= toZ; z++) {
+                            for (int x = fromX; x <= toX; x++) {
+                                positionsTested++;
+                                BlockState state = section.getBlockState(x, y, z);
+                                if (mask.contains(state)) {
+                                    matches++;
+                                    visitor.accept(baseX + x, baseY + y, baseZ + z, state);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new Result(sectionsVisited, sectionsSkipped, positionsTested, matches);
+    }
+
+    // The section at the given section coordinates, or null when it is unloaded, outside the build
+    // height, all air, or its palette cannot contain any state of mask.
+    public static LevelChunkSection filteredSection(ServerLevel level, int sectionX, int sectionY, int sectionZ, BlockStateMask mask) {
+        int index = level.getSectionIndexFromSectionY(sectionY);
+        if (index < 0 || index >= level.getSectionsCount()) {
+            return null;
+        }
+        LevelChunk chunk = level.getChunkSource().getChunkNow(sectionX, sectionZ);
+        if (chunk == null) {
+            return null;
+        }
+        return filtered(chunk.getSection(index), mask);
+    }
+
+    public static LevelChunkSection filtered(LevelChunkSection section, BlockStateMask mask) {
+        if (section == null || section.hasOnlyAir() || !section.maybeHas(mask::contains)) {
+            return null;
+        }
+        return section;
+    }
+
+    public record Result(int sectionsVisited, int sectionsSkipped, int positionsTested, int matches) {
+    }
+}
@@ -0,0 +1,417 @@
+package com.aiplayer.mod.core.world;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Per-dimension index of interesting blocks (see BlockCategory), kept as packed positions per
+// chunk. A loaded chunk is queued and indexed once from its section palettes under the tick
+// budget; afterwards block break/place/update events keep it current and unloading drops it.
+// A chunk absent from the index is simply not covered: callers fall back to scanning the world.
+// When the entry cap is exceeded the least recently used chunks are evicted. Only dimensions that
+// hold a bot are indexed; chunks loaded elsewhere are just remembered until a bot arrives.
+public final class WorldModel {
+    // Rough heap cost of one entry (packed pos, block reference, category) and of one chunk bucket.
+    private static final int ENTRY_BYTES = 17;
+    private static final int CHUNK_BYTES = 96;
+
+    private final int maxEntries;
+    private final Map<ResourceKey<Level>, Map<Long, ChunkBlocks>> dimensions = new HashMap<>();
+    private final Map<ResourceKey<Level>, ServerLevel> levels = new HashMap<>();
+    private final ConcurrentLinkedQueue<PendingChunk> pendingChunks = new ConcurrentLinkedQueue<>();
+    private final Map<ResourceKey<Level>, Set<Long>> parkedChunks = new HashMap<>();
+    private Set<ResourceKey<Level>> activeDimensions = Set.of();
+    private final int[] categoryCounts = new int[BlockCategory.values().length];
+    private int entries;
+    private long chunksIndexed;
+    private long chunksEvicted;
+    private long blockUpdates;
+
+    public WorldModel(int maxEntries) {
+        this.maxEntries = maxEntries;
+        BlockCategoryTable.addRebuildListener(this::reindexAll);
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel() instanceof ServerLevel level && event.getChunk() instanceof LevelChunk chunk) {
+            pendingChunks.add(new PendingChunk(level, chunk.getPos().toLong()));
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            long key = event.getChunk().getPos().toLong();
+            Set<Long> parked = parkedChunks.get(level.dimension());
+            if (parked != null) {
+                parked.remove(key);
+            }
+            Map<Long, ChunkBlocks> chunks = dimensions.get(level.dimension());
+            if (chunks != null) {
+                ChunkBlocks removed = chunks.remove(key);
+                if (removed != null) {
+                    forget(removed);
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            levels.remove(level.dimension());
+            parkedChunks.remove(level.dimension());
+            Map<Long, ChunkBlocks> chunks = dimensions.remove(level.dimension());
+            if (chunks != null) {
+                chunks.values().forEach(this::forget);
+            }
+        }
+    }
+
+    // Break and place fire before the change and can be cancelled by other handlers: listen last
+    // and skip cancelled ones.
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onBlockBreak(BlockEvent.BreakEvent event) {
+        if (!event.isCanceled() && event.getLevel() instanceof ServerLevel level) {
+            update(level, event.getPos(), null);
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onBlockPlace(BlockEvent.EntityPlaceEvent event) {
+        if (!event.isCanceled() && event.getLevel() instanceof ServerLevel level) {
+            update(level, event.getPos(), event.getPlacedBlock());
+        }
+    }
+
+    // Fired after most block changes (bots mining, explosions, trees growing), not only player ones.
+    @SubscribeEvent
+    public void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            update(level, event.getPos(), event.getState());
+        }
+    }
+
+    // Called every tick with the dimensions that currently hold a bot. A dimension becoming active
+    // queues its parked chunks; one becoming inactive drops its index back to parked chunks.
+    public void setActiveDimensions(Set<ResourceKey<Level>> active) {
+        if (active.equals(activeDimensions)) {
+            return;
+        }
+        for (ResourceKey<Level> dimension : active) {
+            Set<Long> parked = activeDimensions.contains(dimension) ? null : parkedChunks.remove(dimension);
+            ServerLevel level = levels.get(dimension);
+            if (parked != null && level != null) {
+                for (Long chunkPos : parked) {
+                    pendingChunks.add(new PendingChunk(level, chunkPos));
+                }
+            }
+        }
+        for (ResourceKey<Level> dimension : activeDimensions) {
+            if (active.contains(dimension)) {
+                continue;
+            }
+            Map<Long, ChunkBlocks> chunks = dimensions.remove(dimension);
+            if (chunks != null) {
+                chunks.values().forEach(this::forget);
+                parkedChunks.computeIfAbsent(dimension, ignored -> new HashSet<>()).addAll(chunks.keySet());
+            }
+        }
+        activeDimensions = Set.copyOf(active);
+    }
+
+    // Indexes queued chunks until the deadline (at least one per call); true once the queue is empty.
+    // Chunks of dimensions without bots are parked instead, which costs a set insert.
+    public boolean indexPending(long deadlineNanos) {
+        PendingChunk pending;
+        do {
+            pending = pendingChunks.poll();
+            if (pending == null) {
+                return true;
+            }
+            ResourceKey<Level> dimension = pending.level().dimension();
+            levels.put(dimension, pending.level());
+            if (!activeDimensions.contains(dimension)) {
+                parkedChunks.computeIfAbsent(dimension, ignored -> new HashSet<>()).add(pending.chunkPos());
+                continue;
+            }
+            LevelChunk chunk = pending.level().getChunkSource().getChunkNow(
+                ChunkPos.getX(pending.chunkPos()),
+                ChunkPos.getZ(pending.chunkPos())
+            );
+            if (chunk != null) {
+                index(pending.level(), chunk);
+            }
+        } while (System.nanoTime() < deadlineNanos);
+        return pendingChunks.isEmpty();
+    }
+
+    // True when every chunk overlapping the horizontal radius around origin is indexed.
+    public boolean covers(ServerLevel level, BlockPos origin, int radius) {
+        Map<Long, ChunkBlocks> chunks = dimensions.get(level.dimension());
+        if (chunks == null) {
+            return false;
+        }
+        for (int cx = SectionPos.blockToSectionCoord(origin.getX() - radius); cx <= SectionPos.blockToSectionCoord(origin.getX() + radius); cx++) {
+            for (int cz = SectionPos.blockToSectionCoord(origin.getZ() - radius); cz <= SectionPos.blockToSectionCoord(origin.getZ() + radius); cz++) {
+                if (!chunks.containsKey(ChunkPos.asLong(cx, cz))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Indexed blocks in the box around origin, nearest first. categories == null means any category.
+    public List<IndexedBlock> nearest(ServerLevel level, BlockPos origin, int radius, int halfHeight, Set<BlockCategory> categories, int limit) {
+        Map<Long, ChunkBlocks> chunks = dimensions.get(level.dimension());
+        if (chunks == null || limit <= 0) {
+            return List.of();
+        }
+        int ox = origin.getX();
+        int oy = origin.getY();
+        int oz = origin.getZ();
+        List<long[]> candidates = new ArrayList<>();
+        for (int cx = SectionPos.blockToSectionCoord(ox - radius); cx <= SectionPos.blockToSectionCoord(ox + radius); cx++) {
+            for (int cz = SectionPos.blockToSectionCoord(oz - radius); cz <= SectionPos.blockToSectionCoord(oz + radius); cz++) {
+                ChunkBlocks blocks = chunks.get(ChunkPos.asLong(cx, cz));
+                if (blocks == null) {
+                    continue;
+                }
+                for (int i = 0; i < blocks.size; i++) {
+                    if (categories != null && !categories.contains(BlockCategory.byOrdinal(blocks.categories[i]))) {
+                        continue;
+                    }
+                    long packed = blocks.positions[i];
+                    int dx = BlockPos.getX(packed) - ox;
+                    int dy = BlockPos.getY(packed) - oy;
+                    int dz = BlockPos.getZ(packed) - oz;
+                    if (Math.abs(dx) > radius || Math.abs(dy) > halfHeight || Math.abs(dz) > radius) {
+                        continue;
+                    }
+                    candidates.add(new long[] {(long) dx * dx + (long) dy * dy + (long) dz * dz, cx, cz, i});
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingLong(candidate -> candidate[0]));
+        List<IndexedBlock> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (long[] candidate : candidates) {
+            if (result.size() >= limit) {
+                break;
+            }
+            ChunkBlocks blocks = chunks.get(ChunkPos.asLong((int) candidate[1], (int) candidate[2]));
+            int i = (int) candidate[3];
+            result.add(new IndexedBlock(
+                BlockPos.of(blocks.positions[i]),
+                blocks.blocks[i],
+                BlockCategory.byOrdinal(blocks.categories[i])
+            ));
+        }
+        return result;
+    }
+
+    public Stats stats() {
+        int chunks = 0;
+        for (Map<Long, ChunkBlocks> dimension : dimensions.values()) {
+            chunks += dimension.size();
+        }
+        Map<BlockCategory, Integer> perCategory = new LinkedHashMap<>();
+        for (BlockCategory category : BlockCategory.values()) {
+            perCategory.put(category, categoryCounts[category.ordinal()]);
+        }
+        return new Stats(
+            dimensions.size(),
+            chunks,
+            entries,
+            maxEntries,
+            (long) entries * ENTRY_BYTES + (long) chunks * CHUNK_BYTES,
+            pendingChunks.size(),
+            parkedChunks.values().stream().mapToInt(Set::size).sum(),
+            chunksIndexed,
+            chunksEvicted,
+            blockUpdates,
+            perCategory
+        );
+    }
+
+    // Categories changed (tag reload): queue every indexed chunk again; the old entries stay usable
+    // until each chunk is re-read.
+    private void reindexAll() {
+        for (Map.Entry<ResourceKey<Level>, Map<Long, ChunkBlocks>> dimension : dimensions.entrySet()) {
+            ServerLevel level = levels.get(dimension.getKey());
+            if (level == null) {
+                continue;
+            }
+            for (Long chunkPos : dimension.getValue().keySet()) {
+                pendingChunks.add(new PendingChunk(level, chunkPos));
+            }
+        }
+    }
+
+    private void index(ServerLevel level, LevelChunk chunk) {
+        levels.put(level.dimension(), level);
+        Map<Long, ChunkBlocks> chunks = dimensions.computeIfAbsent(level.dimension(), ignored -> new LinkedHashMap<>(256, 0.75F, true));
+        long key = chunk.getPos().toLong();
+        ChunkBlocks previous = chunks.remove(key);
+        if (previous != null) {
+            forget(previous);
+        }
+        ChunkBlocks blocks = new ChunkBlocks();
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        BlockStateMask mask = BlockCategory.mask();
+        LevelChunkSection[] sections = chunk.getSections();
+        for (int index = 0; index < sections.length; index++) {
+            // The palette check skips the (usual) sections that contain no interesting state at all.
+            LevelChunkSection section = SectionScanner.filtered(sections[index], mask);
+            if (section == null) {
+                continue;
+            }
+            int baseY = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(index));
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = section.getBlockState(x, y, z);
+                        if (!mask.contains(state)) {
+                            continue;
+                        }
+                        BlockCategory category = BlockCategory.of(state);
+                        blocks.add(BlockPos.asLong(baseX + x, baseY + y, baseZ + z), state.getBlock(), category);
+                        categoryCounts[category.ordinal()]++;
+                    }
+                }
+            }
+        }
+        chunks.put(key, blocks);
+        entries += blocks.size;
+        chunksIndexed++;
+        evictOverCap(chunks, key);
+    }
+
+    private void update(ServerLevel level, BlockPos pos, BlockState state) {
+        Map<Long, ChunkBlocks> chunks = dimensions.get(level.dimension());
+        if (chunks == null) {
+            return;
+        }
+        // Chunks not indexed yet will be read in full when their queued index job runs.
+        ChunkBlocks blocks = chunks.get(ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())));
+        if (blocks == null) {
+            return;
+        }
+        blockUpdates++;
+        long packed = pos.asLong();
+        int existing = blocks.indexOf(packed);
+        if (existing >= 0) {
+            categoryCounts[blocks.categories[existing]]--;
+            blocks.removeAt(existing);
+            entries--;
+        }
+        BlockCategory category = state == null || !BlockCategory.mask().contains(state) ? null : BlockCategory.of(state);
+        if (category != null) {
+            blocks.add(packed, state.getBlock(), category);
+            categoryCounts[category.ordinal()]++;
+            entries++;
+        }
+    }
+
+    private void evictOverCap(Map<Long, ChunkBlocks> chunks, long keep) {
+        Iterator<Map.Entry<Long, ChunkBlocks>> eldest = chunks.entrySet().iterator();
+        while (entries > maxEntries && eldest.hasNext()) {
+            Map.Entry<Long, ChunkBlocks> entry = eldest.next();
+            if (entry.getKey() == keep) {
+                continue;
+            }
+            eldest.remove();
+            forget(entry.getValue());
+            chunksEvicted++;
+        }
+    }
+
+    private void forget(ChunkBlocks blocks) {
+        for (int i = 0; i < blocks.size; i++) {
+            categoryCounts[blocks.categories[i]]--;
+        }
+        entries -= blocks.size;
+    }
+
+    private record PendingChunk(ServerLevel level, long chunkPos) {
+    }
+
+    // Interesting blocks of one chunk as parallel arrays; removal swaps in the last entry.
+    private static final class ChunkBlocks {
+        private long[] positions = new long[8];
+        private Block[] blocks = new Block[8];
+        private byte[] categories = new byte[8];
+        private int size;
+
+        private void add(long packedPos, Block block, BlockCategory category) {
+            if (size == positions.length) {
+                int capacity = size * 2;
+                positions = Arrays.copyOf(positions, capacity);
+                blocks = Arrays.copyOf(blocks, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+            }
+            positions[size] = packedPos;
+            blocks[size] = block;
+            categories[size] = (byte) category.ordinal();
+            size++;
+        }
+
+        private int indexOf(long packedPos) {
+            for (int i = 0; i < size; i++) {
+                if (positions[i] == packedPos) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void removeAt(int index) {
+            size--;
+            positions[index] = positions[size];
+            blocks[index] = blocks[size];
+            categories[index] = categories[size];
+            blocks[size] = null;
+        }
+    }
+
+    public record Stats(
+        int dimensions,
+        int chunks,
+        int entries,
+        int maxEntries,
+        long approxBytes,
+        int pendingChunks,
+        int parkedChunks,
+        long chunksIndexed,
+        long chunksEvicted,
+        long blockUpdates,
+        Map<BlockCategory, Integer> perCategory
+    ) {
+    }
+}
@@ -1,19 +1,30 @@
 package com.aiplayer.mod.integrations;
 
+import com.aiplayer.mod.core.world.BlockStateMask;
+import com.aiplayer.mod.core.world.SectionScanner;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.Block;
 import net.neoforged.fml.ModList;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class AE2Bridge {
     private static final int MIN_RADIUS = 2;
     private static final int MAX_RADIUS = 32;
     private static final int VERTICAL_SCAN = 6;
+    private static final String AE2_NAMESPACE = "ae2";
+    private static final int ROLE_CONTROLLER = 0;
+    private static final int ROLE_DRIVE = 1;
+    private static final int ROLE_TERMINAL = 2;
+    private static final int ROLE_INTERFACE = 3;
+    private static final int ROLE_CRAFTER = 4;
+    private static final int ROLE_ENERGY = 5;
+    private static final int ROLE_COUNT = 6;
 
     private static final String[] AE2_API_PROBES = {
         "appeng.api.networking.IGrid",
@@ -22,8 +33,11 @@ public final class AE2Bridge {
         "appeng.api.networking.storage.IStorageService"
     };
 
+    private final Map<Block, Integer> blockRoles = new IdentityHashMap<>();
+    private volatile BlockStateMask ae2Mask;
+
     public boolean isAvailable() {
-        return ModList.get().isLoaded("ae2");
+        return ModList.get().isLoaded(AE2_NAMESPACE);
     }
 
     public AE2ApiProbeResult probeApi() {
@@ -47,72 +61,83 @@ public final class AE2Bridge {
         return new AE2ApiProbeResult(apiAccessible, found.size(), AE2_API_PROBES.length, found, missing);
     }
 
+    // Only sections whose palette holds an ae2 state are read (see SectionScanner); each ae2
+    // block's roles are derived from its id once and cached.
     public AE2ScanResult scan(ServerLevel level, BlockPos center, int radius) {
         int safeRadius = Math.max(MIN_RADIUS, Math.min(MAX_RADIUS, radius));
-        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
-
-        int scannedBlocks = 0;
-        int ae2Blocks = 0;
-        int controllers = 0;
-        int drives = 0;
-        int terminals = 0;
-        int interfaces = 0;
-        int crafters = 0;
-        int energyCells = 0;
-
         int minY = Math.max(level.getMinBuildHeight(), center.getY() - VERTICAL_SCAN);
         int maxY = Math.min(level.getMaxBuildHeight() - 1, center.getY() + VERTICAL_SCAN);
 
-        for (int x = center.getX() - safeRadius; x <= center.getX() + safeRadius; x++) {
-            for (int y = minY; y <= maxY; y++) {
-                for (int z = center.getZ() - safeRadius; z <= center.getZ() + safeRadius; z++) {
-                    scannedBlocks++;
-                    cursor.set(x, y, z);
-
-                    BlockState blockState = level.getBlockState(cursor);
-                    ResourceLocation blockId = BuiltInRegistries.BLOCK.getKey(blockState.getBlock());
-                    if (blockId == null || !"ae2".equals(blockId.getNamespace())) {
-                        continue;
-                    }
-
-                    ae2Blocks++;
-                    String path = blockId.getPath();
-
-                    if (path.contains("controller")) {
-                        controllers++;
-                    }
-                    if (path.contains("drive")) {
-                        drives++;
-                    }
-                    if (path.contains("terminal")) {
-                        terminals++;
-                    }
-                    if (path.contains("interface")) {
-                        interfaces++;
-                    }
-                    if (path.contains("craft") || path.contains("molecular_assembler")) {
-                        crafters++;
-                    }
-                    if (path.contains("energy") || path.contains("dense_cell") || path.contains("cell")) {
-                        energyCells++;
+        int[] counts = new int[ROLE_COUNT];
+        SectionScanner.Result result = SectionScanner.scanBox(
+            level,
+            center.getX() - safeRadius,
+            minY,
+            center.getZ() - safeRadius,
+            center.getX() + safeRadius,
+            maxY,
+            center.getZ() + safeRadius,
+            ae2Mask(),
+            (x, y, z, state) -> {
+                int roles = roles(state.getBlock());
+                for (int role = 0; role < ROLE_COUNT; role++) {
+                    if ((roles & (1 << role)) != 0) {
+                        counts[role]++;
                     }
                 }
             }
-        }
+        );
 
         return new AE2ScanResult(
             safeRadius,
-            scannedBlocks,
-            ae2Blocks,
-            controllers,
-            drives,
-            terminals,
-            interfaces,
-            crafters,
-            energyCells
+            result.positionsTested(),
+            result.matches(),
+            counts[ROLE_CONTROLLER],
+            counts[ROLE_DRIVE],
+            counts[ROLE_TERMINAL],
+            counts[ROLE_INTERFACE],
+            counts[ROLE_CRAFTER],
+            counts[ROLE_ENERGY],
+            result.sectionsVisited(),
+            result.sectionsSkipped()
         );
     }
 
+    private BlockStateMask ae2Mask() {
+        BlockStateMask mask = ae2Mask;
+        if (mask == null) {
+            mask = BlockStateMask.of(state -> AE2_NAMESPACE.equals(BuiltInRegistries.BLOCK.getKey(state.getBlock()).getNamespace()));
+            ae2Mask = mask;
+        }
+        return mask;
+    }
+
+    private int roles(Block block) {
+        return blockRoles.computeIfAbsent(block, key -> {
+            String path = BuiltInRegistries.BLOCK.getKey(key).getPath();
+            int roles = 0;
+            if (path.contains("controller")) {
+                roles |= 1 << ROLE_CONTROLLER;
+            }
+            if (path.contains("drive")) {
+                roles |= 1 << ROLE_DRIVE;
+            }
+            if (path.contains("terminal")) {
+                roles |= 1 << ROLE_TERMINAL;
+            }
+            if (path.contains("interface")) {
+                roles |= 1 << ROLE_INTERFACE;
+            }
+            if (path.contains("craft") || path.contains("molecular_assembler")) {
+                roles |= 1 << ROLE_CRAFTER;
+            }
+            if (path.contains("energy") || path.contains("dense_cell") || path.contains("cell")) {
+                roles |= 1 << ROLE_ENERGY;
+            }
+            return roles;
+        });
+    }
+
     public record AE2ApiProbeResult(
         boolean accessible,
         int foundCount,
@@ -137,7 +162,9 @@ public final class AE2Bridge {
         int terminals,
         int interfaces,
         int crafters,
-        int energyCells
+        int energyCells,
+        int sectionsScanned,
+        int sectionsSkipped
     ) {
         public String stage() {
             if (ae2Blocks == 0) {
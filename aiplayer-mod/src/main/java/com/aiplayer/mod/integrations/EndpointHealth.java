@@ -0,0 +1,144 @@
+package com.aiplayer.mod.integrations;
+
+// Circuit breaker and latency EWMA for one Ollama endpoint. CLOSED routes normally; after
+// FAILURE_THRESHOLD consecutive failures the endpoint goes OPEN and is skipped until its cooldown
+// expires, then HALF_OPEN lets a single trial request through. The cooldown doubles on each
+// failed trial. A successful probe or request closes the breaker again.
+final class EndpointHealth {
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long BASE_COOLDOWN_MILLIS = 5_000L;
+    private static final long MAX_COOLDOWN_MILLIS = 120_000L;
+    private static final double EWMA_ALPHA = 0.3D;
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String endpoint;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long cooldownMillis = BASE_COOLDOWN_MILLIS;
+    private long openedAtMillis;
+    private boolean trialInFlight;
+    private double latencyEwmaMillis = -1.0D;
+    private double probeMillis = -1.0D;
+    private long successes;
+    private long failures;
+    private long lastSuccessAtMillis;
+    private String lastError = "";
+
+    EndpointHealth(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    synchronized boolean isRoutable(long nowMillis) {
+        refresh(nowMillis);
+        return state == State.CLOSED || (state == State.HALF_OPEN && !trialInFlight);
+    }
+
+    // Lower is better. Unmeasured endpoints sort after measured ones, half-open trials go last.
+    synchronized double routingScore() {
+        if (state != State.CLOSED) {
+            return Double.MAX_VALUE;
+        }
+        return latencyEwmaMillis < 0 ? Double.MAX_VALUE / 2 : latencyEwmaMillis;
+    }
+
+    synchronized boolean tryAcquire(long nowMillis) {
+        refresh(nowMillis);
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    // The request was abandoned (cancelled or lost a hedge), so it says nothing about the endpoint.
+    synchronized void release() {
+        trialInFlight = false;
+    }
+
+    synchronized void recordSuccess(double latencyMillis, long nowMillis) {
+        latencyEwmaMillis = latencyEwmaMillis < 0
+            ? latencyMillis
+            : latencyEwmaMillis + EWMA_ALPHA * (latencyMillis - latencyEwmaMillis);
+        successes++;
+        lastSuccessAtMillis = nowMillis;
+        close();
+    }
+
+    synchronized void recordFailure(String reason, long nowMillis) {
+        failures++;
+        consecutiveFailures++;
+        lastError = reason == null ? "" : reason;
+        if (state == State.HALF_OPEN) {
+            cooldownMillis = Math.min(MAX_COOLDOWN_MILLIS, cooldownMillis * 2);
+            open(nowMillis);
+        } else if (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD) {
+            open(nowMillis);
+        }
+        trialInFlight = false;
+    }
+
+    synchronized void recordProbe(boolean healthy, double latencyMillis, String reason, long nowMillis) {
+        if (healthy) {
+            probeMillis = latencyMillis;
+            lastSuccessAtMillis = nowMillis;
+            if (state != State.CLOSED) {
+                close();
+            }
+            return;
+        }
+        probeMillis = -1.0D;
+        recordFailure(reason, nowMillis);
+    }
+
+    synchronized boolean needsProbe(long nowMillis, long idleMillis) {
+        refresh(nowMillis);
+        return state != State.CLOSED || nowMillis - lastSuccessAtMillis >= idleMillis;
+    }
+
+    synchronized OllamaClient.EndpointStats stats(long nowMillis) {
+        refresh(nowMillis);
+        long retryIn = state == State.OPEN ? Math.max(0L, openedAtMillis + cooldownMillis - nowMillis) : 0L;
+        return new OllamaClient.EndpointStats(
+            endpoint,
+            state.name(),
+            latencyEwmaMillis,
+            probeMillis,
+            successes,
+            failures,
+            consecutiveFailures,
+            retryIn,
+            lastError
+        );
+    }
+
+    private void refresh(long nowMillis) {
+        if (state == State.OPEN && nowMillis - openedAtMillis >= cooldownMillis) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+    }
+
+    private void open(long nowMillis) {
+        state = State.OPEN;
+        openedAtMillis = nowMillis;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        cooldownMillis = BASE_COOLDOWN_MILLIS;
+        trialInFlight = false;
+    }
+}
@@ -0,0 +1,296 @@
+package com.aiplayer.mod.integrations;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Admission control for every Ollama call: at most maxConcurrent exchanges run at once, queued
+// work is served by priority class with aging (a job gains one class per AGING_STEP of waiting, so
+// a chat burst cannot starve planning forever), identical prompts already queued or running share
+// one exchange, and jobs still queued past their deadline are dropped with an empty answer. The
+// deadline is checked on every submit and completion, even while all slots are busy.
+// A job whose last caller cancels leaves the queue, or has its exchange cancelled (aborting the
+// HTTP request) and gives its slot back at once.
+public final class LlmScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmScheduler.class);
+    private static final long AGING_STEP_NANOS = Duration.ofSeconds(5).toNanos();
+
+    public enum Priority {
+        INTERACTIVE(Duration.ofSeconds(30)),
+        PLANNING(Duration.ofSeconds(20)),
+        BACKGROUND(Duration.ofSeconds(60));
+
+        private final Duration maxQueueWait;
+
+        Priority(Duration maxQueueWait) {
+            this.maxQueueWait = maxQueueWait;
+        }
+    }
+
+    private final int maxConcurrent;
+    private final Map<Priority, ArrayDeque<Job>> queues = new EnumMap<>(Priority.class);
+    private final Map<String, Job> active = new HashMap<>();
+    private final Map<Priority, ClassCounters> counters = new EnumMap<>(Priority.class);
+    private int running;
+
+    public LlmScheduler(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            counters.put(priority, new ClassCounters());
+        }
+    }
+
+    // call starts the exchange once a slot is free. Cancelling the returned future withdraws this
+    // caller; the shared exchange is cancelled when no caller is left.
+    public CompletableFuture<Optional<String>> submit(Priority priority, String key, Supplier<CompletableFuture<Optional<String>>> call) {
+        CompletableFuture<Optional<String>> caller = new CompletableFuture<>();
+        List<Job> expired = new ArrayList<>();
+        Job job;
+        synchronized (this) {
+            // Before the coalescing lookup, so a caller never joins a job that is already stale.
+            expireQueued(System.nanoTime(), expired);
+            ClassCounters classCounters = counters.get(priority);
+            classCounters.submitted++;
+            job = active.get(key);
+            if (job != null) {
+                classCounters.coalesced++;
+                job.waiters++;
+                if (job.queued && priority.ordinal() < job.priority.ordinal()) {
+                    queues.get(job.priority).remove(job);
+                    job.priority = priority;
+                    queues.get(priority).addLast(job);
+                }
+            } else {
+                job = new Job(key, priority, call, System.nanoTime());
+                active.put(key, job);
+                queues.get(priority).addLast(job);
+            }
+        }
+        completeExpired(expired);
+
+        Job joined = job;
+        joined.shared.whenComplete((result, error) -> {
+            if (error != null) {
+                caller.completeExceptionally(error);
+            } else {
+                caller.complete(result);
+            }
+        });
+        caller.whenComplete((ignored, error) -> {
+            if (caller.isCancelled()) {
+                withdraw(joined);
+            }
+        });
+        dispatch();
+        return caller;
+    }
+
+    public synchronized Stats stats() {
+        List<ClassStats> classes = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            ClassCounters classCounters = counters.get(priority);
+            classes.add(new ClassStats(
+                priority.name(),
+                queues.get(priority).size(),
+                classCounters.submitted,
+                classCounters.coalesced,
+                classCounters.dropped,
+                classCounters.withdrawn,
+                classCounters.aborted,
+                classCounters.started,
+                classCounters.started == 0 ? 0.0D : classCounters.totalWaitNanos / 1_000_000.0D / classCounters.started,
+                classCounters.maxWaitNanos / 1_000_000.0D
+            ));
+        }
+        return new Stats(maxConcurrent, running, classes);
+    }
+
+    private void dispatch() {
+        while (true) {
+            Job job;
+            List<Job> expired = new ArrayList<>();
+            synchronized (this) {
+                long now = System.nanoTime();
+                expireQueued(now, expired);
+                job = running < maxConcurrent ? pollNext(now) : null;
+                if (job != null) {
+                    running++;
+                    job.queued = false;
+                    ClassCounters classCounters = counters.get(job.priority);
+                    long waited = System.nanoTime() - job.enqueuedNanos;
+                    classCounters.started++;
+                    classCounters.totalWaitNanos += waited;
+                    classCounters.maxWaitNanos = Math.max(classCounters.maxWaitNanos, waited);
+                }
+            }
+            completeExpired(expired);
+            if (job == null) {
+                return;
+            }
+            start(job);
+        }
+    }
+
+    private void start(Job job) {
+        CompletableFuture<Optional<String>> exchange;
+        try {
+            exchange = job.call.get();
+        } catch (RuntimeException exception) {
+            exchange = CompletableFuture.failedFuture(exception);
+        }
+        boolean abandoned;
+        synchronized (this) {
+            job.exchange = exchange;
+            // Checked under the lock: withdraw either sees this exchange or left waiters at zero.
+            abandoned = job.waiters <= 0;
+        }
+        if (abandoned) {
+            exchange.cancel(true);
+        }
+        exchange.whenComplete((result, error) -> {
+            synchronized (this) {
+                running--;
+                active.remove(job.key, job);
+            }
+            if (error != null) {
+                job.shared.completeExceptionally(error);
+            } else {
+                job.shared.complete(result);
+            }
+            dispatch();
+        });
+    }
+
+    // Scans whole queues: a job promoted by a coalesced submit sits behind younger ones.
+    private void expireQueued(long now, List<Job> expired) {
+        for (Priority priority : Priority.values()) {
+            Iterator<Job> iterator = queues.get(priority).iterator();
+            while (iterator.hasNext()) {
+                Job job = iterator.next();
+                if (now - job.enqueuedNanos <= priority.maxQueueWait.toNanos()) {
+                    continue;
+                }
+                iterator.remove();
+                job.queued = false;
+                active.remove(job.key, job);
+                counters.get(priority).dropped++;
+                expired.add(job);
+            }
+        }
+    }
+
+    private static void completeExpired(List<Job> expired) {
+        for (Job stale : expired) {
+            LOGGER.debug("Dropping stale {} LLM request after {}ms in queue", stale.priority, stale.priority.maxQueueWait.toMillis());
+            stale.shared.complete(Optional.empty());
+        }
+        expired.clear();
+    }
+
+    // Lowest effective class wins; each AGING_STEP spent waiting promotes a job by one class.
+    private Job pollNext(long now) {
+        Job best = null;
+        long bestScore = Long.MAX_VALUE;
+        for (Priority priority : Priority.values()) {
+            Job head = queues.get(priority).peekFirst();
+            if (head == null) {
+                continue;
+            }
+            long score = priority.ordinal() - (now - head.enqueuedNanos) / AGING_STEP_NANOS;
+            if (score < bestScore) {
+                best = head;
+                bestScore = score;
+            }
+        }
+        if (best != null) {
+            queues.get(best.priority).remove(best);
+        }
+        return best;
+    }
+
+    private void withdraw(Job job) {
+        CompletableFuture<Optional<String>> exchange = null;
+        boolean abandon;
+        synchronized (this) {
+            job.waiters--;
+            abandon = job.waiters <= 0;
+            if (abandon) {
+                ClassCounters classCounters = counters.get(job.priority);
+                if (job.queued) {
+                    queues.get(job.priority).remove(job);
+                    job.queued = false;
+                    classCounters.withdrawn++;
+                } else {
+                    classCounters.aborted++;
+                }
+                active.remove(job.key, job);
+                exchange = job.exchange;
+            }
+        }
+        if (!abandon) {
+            return;
+        }
+        job.shared.cancel(true);
+        if (exchange != null) {
+            exchange.cancel(true);
+        }
+    }
+
+    private static final class Job {
+        private final String key;
+        private final Supplier<CompletableFuture<Optional<String>>> call;
+        private final long enqueuedNanos;
+        private final CompletableFuture<Optional<String>> shared = new CompletableFuture<>();
+        private Priority priority;
+        private CompletableFuture<Optional<String>> exchange;
+        private boolean queued = true;
+        private int waiters = 1;
+
+        private Job(String key, Priority priority, Supplier<CompletableFuture<Optional<String>>> call, long enqueuedNanos) {
+            this.key = key;
+            this.priority = priority;
+            this.call = call;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private static final class ClassCounters {
+        private long submitted;
+        private long coalesced;
+        private long dropped;
+        private long withdrawn;
+        private long aborted;
+        private long started;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+    }
+
+    public record ClassStats(
+        String priority,
+        int queued,
+        long submitted,
+        long coalesced,
+        long dropped,
+        long withdrawn,
+        long aborted,
+        long started,
+        double avgWaitMillis,
+        double maxWaitMillis
+    ) {
+    }
+
+    public record Stats(int maxConcurrent, int running, List<ClassStats> classes) {
+    }
+}
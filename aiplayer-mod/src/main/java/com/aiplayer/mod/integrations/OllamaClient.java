@@ -1,5 +1,6 @@
 package com.aiplayer.mod.integrations;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.slf4j.Logger;
@@ -11,110 +12,601 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public final class OllamaClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(OllamaClient.class);
     private static final Pattern CONTENT_PATTERN = Pattern.compile("\\\"content\\\"\\s*:\\s*\\\"(.*?)\\\"", Pattern.DOTALL);
+    private static final int CHAT_NUM_PREDICT = 160;
+    private static final double CHAT_TEMPERATURE = 0.7D;
+    private static final double PLANNING_TEMPERATURE = 0.2D;
 
     private final HttpClient httpClient;
-    private final String baseUrl;
     private final String model;
     private final Duration structuredTimeout;
     private final Duration chatTimeout;
-    private Instant lastFailureAt;
-    private int failureStreak;
+    private final Duration hedgeDelay;
+    private final boolean streaming;
+    private final Duration probeInterval;
+    private final Map<String, EndpointHealth> endpointHealth;
+    private ScheduledExecutorService probeExecutor;
+    private final LlmScheduler scheduler;
+    private final String keepAlive;
+    private final int numCtx;
+    private final int planningNumPredict;
 
     public OllamaClient(String baseUrl, String model) {
+        this(endpointCandidates(baseUrl), model);
+    }
+
+    // Endpoints in configuration order; tests point this at local stub servers.
+    OllamaClient(List<String> endpoints, String model) {
+        // Response handling, stream parsing and the planner's completion stages run on virtual
+        // threads: one per exchange task instead of a shared pool of platform threads.
         this.httpClient = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(3))
+            .executor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("aiplayer-llm-", 0L).factory()))
             .build();
-        this.baseUrl = baseUrl;
         this.model = model;
         this.structuredTimeout = resolveDuration("aiplayer.ollama.structuredTimeoutSeconds", "AIPLAYER_OLLAMA_STRUCTURED_TIMEOUT_SECONDS", 45, 10, 180);
         this.chatTimeout = resolveDuration("aiplayer.ollama.chatTimeoutSeconds", "AIPLAYER_OLLAMA_CHAT_TIMEOUT_SECONDS", 20, 5, 120);
+        this.hedgeDelay = resolveHedgeDelay();
+        this.streaming = resolveStreaming();
+        this.probeInterval = resolveProbeInterval();
+        this.scheduler = new LlmScheduler(resolveMaxConcurrency());
+        this.keepAlive = resolveKeepAlive();
+        this.numCtx = resolveInt("aiplayer.ollama.numCtx", "AIPLAYER_OLLAMA_NUM_CTX", 4096, 512, 32768);
+        this.planningNumPredict = resolveInt("aiplayer.ollama.planNumPredict", "AIPLAYER_OLLAMA_PLAN_NUM_PREDICT", 512, 64, 4096);
+
+        Map<String, EndpointHealth> health = new LinkedHashMap<>();
+        for (String endpoint : endpoints) {
+            health.put(endpoint, new EndpointHealth(endpoint));
+        }
+        this.endpointHealth = Collections.unmodifiableMap(health);
+    }
+
+    // Stops the health probe. A later request starts it again, so the client survives an
+    // integrated server being stopped and started within the same game session.
+    public synchronized void close() {
+        if (probeExecutor != null) {
+            probeExecutor.shutdownNow();
+            probeExecutor = null;
+        }
+    }
+
+    public List<EndpointStats> getEndpointStats() {
+        long now = System.currentTimeMillis();
+        List<EndpointStats> stats = new ArrayList<>();
+        for (EndpointHealth health : endpointHealth.values()) {
+            stats.add(health.stats(now));
+        }
+        return stats;
+    }
+
+    public boolean isStreamingEnabled() {
+        return streaming;
+    }
+
+    public LlmScheduler.Stats getSchedulerStats() {
+        return scheduler.stats();
     }
 
     public Optional<String> ask(String question, String objective) {
+        return askAsync(question, objective).join();
+    }
+
+    public Optional<String> ask(String question, String objective, LlmScheduler.Priority priority) {
+        return askAsync(question, objective, priority).join();
+    }
+
+    public Optional<String> askStructured(String systemPrompt, String userPrompt) {
+        return askStructuredAsync(systemPrompt, userPrompt).join();
+    }
+
+    public CompletableFuture<Optional<String>> askAsync(String question, String objective) {
+        return askAsync(question, objective, LlmScheduler.Priority.INTERACTIVE);
+    }
+
+    public CompletableFuture<Optional<String>> askAsync(String question, String objective, LlmScheduler.Priority priority) {
         String system = "Tu es un bot Minecraft utile et concis. Reponds en une phrase actionnable.";
         String user = "Objectif courant: " + objective + " | Question: " + question;
-        return askWithPrompts(system, user, chatTimeout);
+        return askAsync(requestBuilder(priority).messages(system, user).build(), priority, null);
     }
 
-    public Optional<String> askStructured(String systemPrompt, String userPrompt) {
-        return askWithPrompts(systemPrompt, userPrompt, structuredTimeout);
+    // Cancelling the returned future aborts every in-flight HTTP exchange for this request.
+    public CompletableFuture<Optional<String>> askStructuredAsync(String systemPrompt, String userPrompt) {
+        return askStructuredAsync(systemPrompt, userPrompt, null);
     }
 
-    private Optional<String> askWithPrompts(String systemPrompt, String userPrompt, Duration timeout) {
-        if (shouldBackoff()) {
-            LOGGER.warn("Ollama backoff active, skip request");
-            return Optional.empty();
+    // format is a JSON schema (or "json") the server constrains the answer to; null for free text.
+    public CompletableFuture<Optional<String>> askStructuredAsync(String systemPrompt, String userPrompt, JsonElement format) {
+        OllamaRequest request = requestBuilder(LlmScheduler.Priority.PLANNING)
+            .messages(systemPrompt, userPrompt)
+            .format(format)
+            .build();
+        return askAsync(request, LlmScheduler.Priority.PLANNING, null);
+    }
+
+    // Preset per call class: chat answers are short and warmer, planning is cooler with a larger
+    // generation cap. Every class pins keep_alive so infrequent planning calls do not pay a reload.
+    public OllamaRequest.Builder requestBuilder(LlmScheduler.Priority priority) {
+        OllamaRequest.Builder builder = OllamaRequest.builder(model)
+            .keepAlive(keepAlive)
+            .numCtx(numCtx);
+        if (priority == LlmScheduler.Priority.INTERACTIVE) {
+            return builder.numPredict(CHAT_NUM_PREDICT).temperature(CHAT_TEMPERATURE);
         }
+        return builder.numPredict(planningNumPredict).temperature(PLANNING_TEMPERATURE);
+    }
 
-        List<String> endpoints = endpointCandidates();
-        String payload = buildPayload(systemPrompt, userPrompt);
-        String lastError = "unknown";
+    public CompletableFuture<Optional<String>> askAsync(OllamaRequest request, LlmScheduler.Priority priority, Consumer<String> onChunk) {
+        return askAsync(request, priority, onChunk, null);
+    }
 
-        for (String endpoint : endpoints) {
-            Optional<String> response = requestEndpoint(endpoint, payload, timeout);
-            if (response.isPresent()) {
-                resetFailures();
-                return response;
+    // With onChunk set and AIPLAYER_OLLAMA_STREAM on, the request is streamed and each content delta
+    // is handed to onChunk as it arrives (on an HTTP client thread); the future still completes with
+    // the full text. onUsage receives the token counts of the winning exchange. A call coalesced onto
+    // an identical request already in flight gets neither chunks nor usage, only the final text.
+    public CompletableFuture<Optional<String>> askAsync(
+        OllamaRequest request,
+        LlmScheduler.Priority priority,
+        Consumer<String> onChunk,
+        Consumer<TokenUsage> onUsage
+    ) {
+        Consumer<String> listener = streaming ? onChunk : null;
+        OllamaRequest effective = request.stream() == (listener != null) ? request : request.toBuilder().stream(listener != null).build();
+        Duration timeout = priority == LlmScheduler.Priority.INTERACTIVE ? chatTimeout : structuredTimeout;
+        String payload = effective.toJson();
+        ensureProbing();
+        return scheduler.submit(priority, payload, () -> send(payload, timeout, listener, onUsage));
+    }
+
+    private CompletableFuture<Optional<String>> send(String payload, Duration timeout, Consumer<String> onChunk, Consumer<TokenUsage> onUsage) {
+        List<EndpointHealth> route = routeEndpoints();
+        if (route.isEmpty()) {
+            LOGGER.warn("Ollama circuit open on every endpoint, skip request");
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        Attempt attempt = new Attempt(route, payload, timeout, onChunk, onUsage);
+        attempt.result.whenComplete((ignored, error) -> {
+            if (attempt.result.isCancelled()) {
+                attempt.cancelInFlight();
             }
-            lastError = "endpoint=" + endpoint;
+        });
+        if (onChunk != null) {
+            // The request timeout only covers the response headers, which a stream sends right away.
+            CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS).execute(attempt::expire);
         }
+        attempt.launchNext();
+        return attempt.result;
+    }
 
-        LOGGER.warn("All Ollama endpoints failed ({})", lastError);
-        registerFailure();
-        return Optional.empty();
+    // Healthiest first: closed breakers by latency EWMA (config order breaks ties), then half-open trials.
+    private List<EndpointHealth> routeEndpoints() {
+        long now = System.currentTimeMillis();
+        List<EndpointHealth> route = new ArrayList<>();
+        for (EndpointHealth health : endpointHealth.values()) {
+            if (health.isRoutable(now)) {
+                route.add(health);
+            }
+        }
+        route.sort(Comparator.comparingDouble(EndpointHealth::routingScore));
+        return route;
     }
 
-    private Optional<String> requestEndpoint(String endpoint, String payload, Duration timeout) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(endpoint + "/api/chat"))
-                .timeout(timeout)
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
-                .build();
+    // Walks the endpoint list: the next endpoint starts when the previous one fails, or earlier when
+    // hedging is enabled and the previous one is slower than hedgeDelay. First usable answer wins.
+    // When streaming, the first endpoint to deliver a chunk owns the request and the others are dropped,
+    // so the chunk listener never sees two interleaved answers.
+    private final class Attempt {
+        private final List<EndpointHealth> endpoints;
+        private final String payload;
+        private final Duration timeout;
+        private final Consumer<String> chunkListener;
+        private final Consumer<TokenUsage> usageListener;
+        private final AtomicBoolean usageReported = new AtomicBoolean();
+        private final CompletableFuture<Optional<String>> result = new CompletableFuture<>();
+        private final Map<String, CompletableFuture<HttpResponse<String>>> inFlight = new LinkedHashMap<>();
+        private final Map<String, ChunkSubscriber> streams = new LinkedHashMap<>();
+        private final Map<String, Long> startedAt = new HashMap<>();
+        private String owner;
+        private int nextIndex;
+        private int running;
 
-            HttpResponse<String> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-            if (response.statusCode() < 200 || response.statusCode() >= 300) {
-                LOGGER.warn("Ollama non-success endpoint={} status={} body={}", endpoint, response.statusCode(), response.body());
-                return Optional.empty();
+        private Attempt(
+            List<EndpointHealth> endpoints,
+            String payload,
+            Duration timeout,
+            Consumer<String> chunkListener,
+            Consumer<TokenUsage> usageListener
+        ) {
+            this.endpoints = endpoints;
+            this.payload = payload;
+            this.timeout = timeout;
+            this.chunkListener = chunkListener;
+            this.usageListener = usageListener;
+        }
+
+        private void launchNext() {
+            String endpoint;
+            CompletableFuture<HttpResponse<String>> exchange;
+            synchronized (this) {
+                if (result.isDone() || owner != null) {
+                    return;
+                }
+                EndpointHealth next = null;
+                long now = System.currentTimeMillis();
+                while (next == null && nextIndex < endpoints.size()) {
+                    EndpointHealth candidate = endpoints.get(nextIndex++);
+                    if (candidate.tryAcquire(now)) {
+                        next = candidate;
+                    }
+                }
+                if (next == null) {
+                    return;
+                }
+                endpoint = next.endpoint();
+                startedAt.put(endpoint, System.nanoTime());
+                HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(endpoint + "/api/chat"))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
+                    .build();
+                exchange = httpClient.sendAsync(request, bodyHandler(endpoint));
+                inFlight.put(endpoint, exchange);
+                running++;
             }
 
-            String content = extractContent(response.body());
-            if (content == null || content.isBlank()) {
-                LOGGER.warn("Ollama endpoint={} did not contain message content", endpoint);
-                return Optional.empty();
+            exchange.whenComplete((response, error) -> onResponse(endpoint, response, error));
+            if (!hedgeDelay.isZero()) {
+                CompletableFuture.delayedExecutor(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                    if (!exchange.isDone() && !result.isDone()) {
+                        LOGGER.debug("Ollama endpoint={} slower than {}ms, hedging to next endpoint", endpoint, hedgeDelay.toMillis());
+                        launchNext();
+                    }
+                });
             }
+        }
 
-            return Optional.of(content.trim());
-        } catch (Exception exception) {
-            LOGGER.warn("Failed to query Ollama endpoint={}", endpoint, exception);
+        private HttpResponse.BodyHandler<String> bodyHandler(String endpoint) {
+            if (chunkListener == null) {
+                return HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8);
+            }
+            return responseInfo -> {
+                if (responseInfo.statusCode() < 200 || responseInfo.statusCode() >= 300) {
+                    return HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+                }
+                ChunkSubscriber subscriber = new ChunkSubscriber(this, endpoint);
+                synchronized (this) {
+                    streams.put(endpoint, subscriber);
+                }
+                return HttpResponse.BodySubscribers.fromLineSubscriber(subscriber, ChunkSubscriber::content, StandardCharsets.UTF_8, null);
+            };
+        }
+
+        private void onResponse(String endpoint, HttpResponse<String> response, Throwable error) {
+            Optional<String> content = Optional.empty();
+            String currentOwner;
+            synchronized (this) {
+                currentOwner = owner;
+            }
+            EndpointHealth health = endpointHealth.get(endpoint);
+            if (currentOwner != null && !currentOwner.equals(endpoint)) {
+                health.release();
+                return;
+            }
+            if (error != null) {
+                if (result.isDone() || isCancellation(error)) {
+                    // Lost a hedge or the caller gave up: no verdict on the endpoint.
+                    health.release();
+                } else {
+                    LOGGER.warn("Failed to query Ollama endpoint={}", endpoint, error);
+                    health.recordFailure(describe(error), System.currentTimeMillis());
+                }
+                if (currentOwner != null) {
+                    // Chunks were already handed out, so another endpoint cannot take over; keep what arrived.
+                    result.complete(partialContent(endpoint));
+                    return;
+                }
+            } else {
+                content = readContent(endpoint, response, chunkListener != null);
+                if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                    health.recordFailure("http " + response.statusCode(), System.currentTimeMillis());
+                } else if (currentOwner == null) {
+                    health.recordSuccess(elapsedMillis(endpoint), System.currentTimeMillis());
+                }
+            }
+
+            if (currentOwner != null) {
+                if (content.isPresent() && !result.isDone()) {
+                    reportUsage(endpoint, response);
+                }
+                result.complete(content);
+                cancelInFlight();
+                return;
+            }
+            if (content.isPresent()) {
+                // Usage goes out before the result so callers chained on the future already see it.
+                if (!result.isDone()) {
+                    reportUsage(endpoint, response);
+                }
+                if (result.complete(content)) {
+                    cancelInFlight();
+                }
+                return;
+            }
+
+            boolean exhausted;
+            synchronized (this) {
+                running--;
+                exhausted = running == 0 && nextIndex >= endpoints.size();
+            }
+            if (exhausted) {
+                if (result.complete(Optional.empty())) {
+                    LOGGER.warn("All Ollama endpoints failed (last endpoint={})", endpoint);
+                }
+                return;
+            }
+            launchNext();
+        }
+
+        private boolean claim(String endpoint) {
+            List<CompletableFuture<HttpResponse<String>>> losers = new ArrayList<>();
+            synchronized (this) {
+                if (owner == null) {
+                    owner = endpoint;
+                    // For streams the first chunk is the latency that matters to callers.
+                    endpointHealth.get(endpoint).recordSuccess(elapsedMillis(endpoint), System.currentTimeMillis());
+                    for (Map.Entry<String, CompletableFuture<HttpResponse<String>>> entry : inFlight.entrySet()) {
+                        if (!entry.getKey().equals(endpoint)) {
+                            losers.add(entry.getValue());
+                        }
+                    }
+                }
+                if (!owner.equals(endpoint)) {
+                    return false;
+                }
+            }
+            for (CompletableFuture<HttpResponse<String>> exchange : losers) {
+                exchange.cancel(true);
+            }
+            return !result.isDone();
+        }
+
+        private Optional<String> partialContent(String endpoint) {
+            ChunkSubscriber subscriber;
+            synchronized (this) {
+                subscriber = streams.get(endpoint);
+            }
+            String partial = subscriber == null ? "" : subscriber.content();
+            return partial.isBlank() ? Optional.empty() : Optional.of(partial.trim());
+        }
+
+        private void expire() {
+            if (result.isDone()) {
+                return;
+            }
+            String currentOwner;
+            List<String> pending;
+            synchronized (this) {
+                currentOwner = owner;
+                pending = new ArrayList<>(inFlight.keySet());
+            }
+            Optional<String> partial = currentOwner == null ? Optional.empty() : partialContent(currentOwner);
+            if (result.complete(partial)) {
+                LOGGER.warn("Ollama stream exceeded {}s (endpoint={})", timeout.toSeconds(), currentOwner);
+                if (currentOwner == null) {
+                    long now = System.currentTimeMillis();
+                    for (String endpoint : pending) {
+                        endpointHealth.get(endpoint).recordFailure("stream timeout", now);
+                    }
+                }
+                cancelInFlight();
+            }
+        }
+
+        private void reportUsage(String endpoint, HttpResponse<String> response) {
+            if (usageListener == null || !usageReported.compareAndSet(false, true)) {
+                return;
+            }
+            TokenUsage usage;
+            if (chunkListener != null) {
+                ChunkSubscriber subscriber;
+                synchronized (this) {
+                    subscriber = streams.get(endpoint);
+                }
+                usage = subscriber == null ? null : subscriber.usage;
+            } else {
+                usage = readUsage(parseObject(response.body()));
+            }
+            if (usage == null) {
+                return;
+            }
+            try {
+                usageListener.accept(usage);
+            } catch (RuntimeException exception) {
+                LOGGER.warn("Ollama usage listener failed endpoint={}", endpoint, exception);
+            }
+        }
+
+        private synchronized double elapsedMillis(String endpoint) {
+            Long started = startedAt.get(endpoint);
+            return started == null ? 0.0D : (System.nanoTime() - started) / 1_000_000.0D;
+        }
+
+        private void cancelInFlight() {
+            List<CompletableFuture<HttpResponse<String>>> snapshot;
+            List<ChunkSubscriber> subscribers;
+            synchronized (this) {
+                snapshot = new ArrayList<>(inFlight.values());
+                subscribers = new ArrayList<>(streams.values());
+                inFlight.clear();
+            }
+            for (CompletableFuture<HttpResponse<String>> exchange : snapshot) {
+                exchange.cancel(true);
+            }
+            for (ChunkSubscriber subscriber : subscribers) {
+                subscriber.cancel();
+            }
+        }
+    }
+
+    // Reads one NDJSON chunk per line ({"message":{"content":"..."},"done":false}) and forwards
+    // the content delta to the attempt's chunk listener while keeping the full text for the finisher.
+    private final class ChunkSubscriber implements Flow.Subscriber<String> {
+        private final Attempt attempt;
+        private final String endpoint;
+        private final StringBuilder content = new StringBuilder();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private volatile TokenUsage usage;
+
+        private ChunkSubscriber(Attempt attempt, String endpoint) {
+            this.attempt = attempt;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (cancelled || line == null || line.isBlank()) {
+                return;
+            }
+            JsonObject chunk = parseObject(line);
+            if (chunk == null) {
+                LOGGER.debug("Ignoring malformed Ollama stream line endpoint={}", endpoint);
+                return;
+            }
+            if (chunk.has("done") && chunk.get("done").isJsonPrimitive() && chunk.get("done").getAsBoolean()) {
+                usage = readUsage(chunk);
+            }
+            String delta = extractChunk(endpoint, chunk);
+            if (delta == null || delta.isEmpty()) {
+                return;
+            }
+            synchronized (content) {
+                content.append(delta);
+            }
+            if (!attempt.claim(endpoint)) {
+                cancel();
+                return;
+            }
+            try {
+                attempt.chunkListener.accept(delta);
+            } catch (RuntimeException exception) {
+                LOGGER.warn("Ollama chunk listener failed endpoint={}", endpoint, exception);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        private String content() {
+            synchronized (content) {
+                return content.toString();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    private Optional<String> readContent(String endpoint, HttpResponse<String> response, boolean streamed) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            LOGGER.warn("Ollama non-success endpoint={} status={} body={}", endpoint, response.statusCode(), response.body());
+            return Optional.empty();
+        }
+
+        String content = streamed ? response.body() : extractContent(response.body());
+        if (content == null || content.isBlank()) {
+            LOGGER.warn("Ollama endpoint={} did not contain message content", endpoint);
             return Optional.empty();
         }
+
+        return Optional.of(content.trim());
+    }
+
+    private String extractChunk(String endpoint, JsonObject chunk) {
+        if (chunk.has("error") && chunk.get("error").isJsonPrimitive()) {
+            LOGGER.warn("Ollama stream error endpoint={} error={}", endpoint, chunk.get("error").getAsString());
+            return null;
+        }
+        if (chunk.has("message") && chunk.get("message").isJsonObject()) {
+            JsonObject message = chunk.getAsJsonObject("message");
+            if (message.has("content") && message.get("content").isJsonPrimitive()) {
+                return message.get("content").getAsString();
+            }
+        }
+        if (chunk.has("response") && chunk.get("response").isJsonPrimitive()) {
+            return chunk.get("response").getAsString();
+        }
+        return null;
     }
 
-    private String buildPayload(String systemPrompt, String userPrompt) {
-        String system = escapeJson(systemPrompt);
-        String user = escapeJson(userPrompt);
+    private static JsonObject parseObject(String json) {
+        try {
+            JsonElement element = JsonParser.parseString(json);
+            return element.isJsonObject() ? element.getAsJsonObject() : null;
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
 
-        return "{" +
-            "\"model\":\"" + escapeJson(this.model) + "\"," +
-            "\"stream\":false," +
-            "\"messages\":[" +
-            "{\"role\":\"system\",\"content\":\"" + system + "\"}," +
-            "{\"role\":\"user\",\"content\":\"" + user + "\"}" +
-            "]" +
-            "}";
+    // Final response (or final stream chunk) fields; durations are reported in nanoseconds.
+    private static TokenUsage readUsage(JsonObject root) {
+        if (root == null || (!root.has("prompt_eval_count") && !root.has("eval_count"))) {
+            return null;
+        }
+        try {
+            return new TokenUsage(
+                root.has("prompt_eval_count") ? root.get("prompt_eval_count").getAsInt() : 0,
+                root.has("eval_count") ? root.get("eval_count").getAsInt() : 0,
+                root.has("prompt_eval_duration") ? root.get("prompt_eval_duration").getAsLong() / 1_000_000.0D : 0.0D,
+                root.has("eval_duration") ? root.get("eval_duration").getAsLong() / 1_000_000.0D : 0.0D
+            );
+        } catch (RuntimeException exception) {
+            return null;
+        }
     }
 
     private String extractContent(String body) {
@@ -147,16 +639,16 @@ public final class OllamaClient {
             .replace("\\\\\\\\", "\\");
     }
 
-    private List<String> endpointCandidates() {
+    private static List<String> endpointCandidates(String baseUrl) {
         LinkedHashSet<String> ordered = new LinkedHashSet<>();
-        ordered.add(normalizeBaseUrl(this.baseUrl));
+        ordered.add(normalizeBaseUrl(baseUrl));
         ordered.add("http://ollama:11434");
         ordered.add("http://aiplayer-ollama:11434");
         ordered.add("http://localhost:11434");
         return new ArrayList<>(ordered);
     }
 
-    private String normalizeBaseUrl(String raw) {
+    private static String normalizeBaseUrl(String raw) {
         if (raw == null || raw.isBlank()) {
             return "http://ollama:11434";
         }
@@ -167,15 +659,6 @@ public final class OllamaClient {
         return trimmed;
     }
 
-    private String escapeJson(String value) {
-        return value
-            .replace("\\", "\\\\")
-            .replace("\"", "\\\"")
-            .replace("\n", "\\n")
-            .replace("\r", "\\r")
-            .replace("\t", "\\t");
-    }
-
     private Duration resolveDuration(String propertyKey, String envKey, int defaultSeconds, int minSeconds, int maxSeconds) {
         String prop = System.getProperty(propertyKey);
         String env = System.getenv(envKey);
@@ -196,28 +679,171 @@ public final class OllamaClient {
         return Duration.ofSeconds(seconds);
     }
 
-    private boolean shouldBackoff() {
-        if (failureStreak == 0 || lastFailureAt == null) {
-            return false;
+    private Duration resolveHedgeDelay() {
+        String prop = System.getProperty("aiplayer.ollama.hedgeMillis");
+        String env = System.getenv("AIPLAYER_OLLAMA_HEDGE_MILLIS");
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        long millis = 0;
+        if (raw != null && !raw.isBlank()) {
+            try {
+                millis = Long.parseLong(raw.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (millis < 0) {
+            millis = 0;
+        }
+        if (millis > 60000) {
+            millis = 60000;
+        }
+        return Duration.ofMillis(millis);
+    }
+
+    private boolean resolveStreaming() {
+        String prop = System.getProperty("aiplayer.ollama.stream");
+        String env = System.getenv("AIPLAYER_OLLAMA_STREAM");
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        if (raw == null || raw.isBlank()) {
+            return true;
+        }
+        return !"false".equalsIgnoreCase(raw.trim()) && !"0".equals(raw.trim());
+    }
+
+    // Started by the first request rather than at construction, so no thread runs for a client
+    // that is never used.
+    private synchronized void ensureProbing() {
+        if (probeExecutor != null) {
+            return;
+        }
+        probeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aiplayer-ollama-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        probeExecutor.scheduleWithFixedDelay(this::probeEndpoints, 1L, probeInterval.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    // Background check against /api/tags: catches dead hostnames before a planner request pays the
+    // DNS and connect timeout, and closes open breakers as soon as an endpoint answers again.
+    private void probeEndpoints() {
+        long idleMillis = probeInterval.toMillis();
+        for (EndpointHealth health : endpointHealth.values()) {
+            if (!health.needsProbe(System.currentTimeMillis(), idleMillis)) {
+                continue;
+            }
+            long startedAt = System.nanoTime();
+            try {
+                HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(health.endpoint() + "/api/tags"))
+                    .timeout(Duration.ofSeconds(3))
+                    .GET()
+                    .build();
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                double millis = (System.nanoTime() - startedAt) / 1_000_000.0D;
+                boolean healthy = response.statusCode() >= 200 && response.statusCode() < 300;
+                health.recordProbe(healthy, millis, "probe http " + response.statusCode(), System.currentTimeMillis());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception exception) {
+                health.recordProbe(false, 0.0D, "probe " + describe(exception), System.currentTimeMillis());
+                LOGGER.debug("Ollama probe failed endpoint={}", health.endpoint(), exception);
+            }
+        }
+    }
+
+    private static boolean isCancellation(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof CancellationException;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause.getMessage();
+        String text = cause.getClass().getSimpleName() + (message == null || message.isBlank() ? "" : ": " + message);
+        return text.length() > 120 ? text.substring(0, 120) : text;
+    }
+
+    private String resolveKeepAlive() {
+        String prop = System.getProperty("aiplayer.ollama.keepAlive");
+        String env = System.getenv("AIPLAYER_OLLAMA_KEEP_ALIVE");
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        return raw == null || raw.isBlank() ? "30m" : raw.trim();
+    }
+
+    private int resolveInt(String propertyKey, String envKey, int defaultValue, int min, int max) {
+        String prop = System.getProperty(propertyKey);
+        String env = System.getenv(envKey);
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        int value = defaultValue;
+        if (raw != null && !raw.isBlank()) {
+            try {
+                value = Integer.parseInt(raw.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (value < min) {
+            value = min;
+        }
+        if (value > max) {
+            value = max;
+        }
+        return value;
+    }
+
+    private int resolveMaxConcurrency() {
+        String prop = System.getProperty("aiplayer.llm.maxConcurrency");
+        String env = System.getenv("AIPLAYER_LLM_MAX_CONCURRENCY");
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        int concurrency = 2;
+        if (raw != null && !raw.isBlank()) {
+            try {
+                concurrency = Integer.parseInt(raw.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (concurrency < 1) {
+            concurrency = 1;
+        }
+        if (concurrency > 16) {
+            concurrency = 16;
         }
-        Duration backoff = computeBackoff();
-        return Duration.between(lastFailureAt, Instant.now()).compareTo(backoff) < 0;
+        return concurrency;
     }
 
-    private Duration computeBackoff() {
-        int capped = Math.min(5, failureStreak);
-        long seconds = (long) Math.pow(2, capped) * 2L;
-        long bounded = Math.min(30L, seconds);
-        return Duration.ofSeconds(bounded);
+    private Duration resolveProbeInterval() {
+        String prop = System.getProperty("aiplayer.ollama.probeSeconds");
+        String env = System.getenv("AIPLAYER_OLLAMA_PROBE_SECONDS");
+        String raw = (prop != null && !prop.isBlank()) ? prop : env;
+        long seconds = 30;
+        if (raw != null && !raw.isBlank()) {
+            try {
+                seconds = Long.parseLong(raw.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (seconds < 5) {
+            seconds = 5;
+        }
+        if (seconds > 600) {
+            seconds = 600;
+        }
+        return Duration.ofSeconds(seconds);
     }
 
-    private void registerFailure() {
-        failureStreak = Math.min(6, failureStreak + 1);
-        lastFailureAt = Instant.now();
+    public record TokenUsage(int promptTokens, int evalTokens, double promptMillis, double evalMillis) {
     }
 
-    private void resetFailures() {
-        failureStreak = 0;
-        lastFailureAt = null;
+    public record EndpointStats(
+        String endpoint,
+        String state,
+        double latencyEwmaMillis,
+        double probeMillis,
+        long successes,
+        long failures,
+        int consecutiveFailures,
+        long retryInMillis,
+        String lastError
+    ) {
     }
 }
@@ -0,0 +1,145 @@
+package com.aiplayer.mod.integrations;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+// Typed /api/chat request body. Unset options are left out so the server-side model defaults apply.
+public final class OllamaRequest {
+    private final String model;
+    private final String systemPrompt;
+    private final String userPrompt;
+    private final boolean stream;
+    private final String keepAlive;
+    private final Integer numCtx;
+    private final Integer numPredict;
+    private final Double temperature;
+    private final JsonElement format;
+
+    private OllamaRequest(Builder builder) {
+        this.model = builder.model;
+        this.systemPrompt = builder.systemPrompt;
+        this.userPrompt = builder.userPrompt;
+        this.stream = builder.stream;
+        this.keepAlive = builder.keepAlive;
+        this.numCtx = builder.numCtx;
+        this.numPredict = builder.numPredict;
+        this.temperature = builder.temperature;
+        this.format = builder.format;
+    }
+
+    public static Builder builder(String model) {
+        return new Builder(model);
+    }
+
+    public boolean stream() {
+        return stream;
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder(model)
+            .messages(systemPrompt, userPrompt)
+            .stream(stream)
+            .keepAlive(keepAlive)
+            .format(format);
+        builder.numCtx = numCtx;
+        builder.numPredict = numPredict;
+        builder.temperature = temperature;
+        return builder;
+    }
+
+    public String toJson() {
+        JsonObject root = new JsonObject();
+        root.addProperty("model", model);
+        root.addProperty("stream", stream);
+        if (keepAlive != null && !keepAlive.isBlank()) {
+            root.addProperty("keep_alive", keepAlive);
+        }
+        if (format != null) {
+            root.add("format", format);
+        }
+        JsonObject options = new JsonObject();
+        if (numCtx != null) {
+            options.addProperty("num_ctx", numCtx);
+        }
+        if (numPredict != null) {
+            options.addProperty("num_predict", numPredict);
+        }
+        if (temperature != null) {
+            options.addProperty("temperature", temperature);
+        }
+        if (options.size() > 0) {
+            root.add("options", options);
+        }
+        JsonArray messages = new JsonArray();
+        messages.add(message("system", systemPrompt));
+        messages.add(message("user", userPrompt));
+        root.add("messages", messages);
+        return root.toString();
+    }
+
+    private static JsonObject message(String role, String content) {
+        JsonObject message = new JsonObject();
+        message.addProperty("role", role);
+        message.addProperty("content", content == null ? "" : content);
+        return message;
+    }
+
+    public static final class Builder {
+        private final String model;
+        private String systemPrompt = "";
+        private String userPrompt = "";
+        private boolean stream;
+        private String keepAlive;
+        private Integer numCtx;
+        private Integer numPredict;
+        private Double temperature;
+        private JsonElement format;
+
+        private Builder(String model) {
+            this.model = model;
+        }
+
+        public Builder messages(String systemPrompt, String userPrompt) {
+            this.systemPrompt = systemPrompt;
+            this.userPrompt = userPrompt;
+            return this;
+        }
+
+        public Builder stream(boolean stream) {
+            this.stream = stream;
+            return this;
+        }
+
+        // Duration string ("30m", "-1" keeps the model loaded forever).
+        public Builder keepAlive(String keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        public Builder numCtx(int numCtx) {
+            this.numCtx = numCtx > 0 ? numCtx : null;
+            return this;
+        }
+
+        public Builder numPredict(int numPredict) {
+            this.numPredict = numPredict > 0 ? numPredict : null;
+            return this;
+        }
+
+        public Builder temperature(double temperature) {
+            this.temperature = temperature >= 0 ? temperature : null;
+            return this;
+        }
+
+        // "json" or a JSON schema object; null means free text.
+        public Builder format(JsonElement format) {
+            this.format = format;
+            return this;
+        }
+
+        public OllamaRequest build() {
+            return new OllamaRequest(this);
+        }
+    }
+}
@@ -5,8 +5,6 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -16,29 +14,110 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class BotMemoryRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(BotMemoryRepository.class);
+    // How long a task command waits for queued task writes before reading closed tasks from SQLite.
+    private static final long TASK_WRITE_WAIT_MILLIS = 250L;
+
+    private static final String SQL_LOAD_ACTIVE_GOAL = "SELECT id, goal, description, status, source, created_at FROM bot_goals WHERE status = "
+        + RecordStatus.ACTIVE.code() + " ORDER BY id DESC LIMIT 1";
+    private static final String SQL_RESUME_LAST_PAUSED_GOAL = "UPDATE bot_goals SET status = " + RecordStatus.ACTIVE.code()
+        + ", updated_at = ? WHERE id = (SELECT id FROM bot_goals WHERE status = " + RecordStatus.PAUSED.code() + " ORDER BY id DESC LIMIT 1)";
+    private static final String SQL_PAUSE_ACTIVE_GOAL = "UPDATE bot_goals SET status = " + RecordStatus.PAUSED.code()
+        + ", updated_at = ? WHERE status = " + RecordStatus.ACTIVE.code();
+    private static final String SQL_LOAD_PENDING_AE2 = """
+        SELECT id, item_id, quantity, status, requested_by, created_at, updated_at, result_message
+        FROM ae2_craft_requests
+        WHERE status = %d
+        ORDER BY id ASC
+        LIMIT ?
+        """.formatted(RecordStatus.PENDING.code());
+    private static final String SQL_LOAD_AE2_HISTORY_BY_STATUS = """
+        SELECT id, item_id, quantity, status, requested_by, created_at, updated_at, result_message
+        FROM ae2_craft_requests
+        WHERE status = ?
+        ORDER BY id DESC
+        LIMIT ?
+        """;
+    private static final String SQL_COUNT_AE2_BY_STATUS = "SELECT COUNT(*) AS count FROM ae2_craft_requests WHERE status = ?";
+    private static final String SQL_COUNT_PENDING_AE2 = "SELECT COUNT(*) AS count FROM ae2_craft_requests WHERE status = " + RecordStatus.PENDING.code();
+    private static final String OPEN_TASK_STATUSES = "(" + RecordStatus.PENDING.code() + ", " + RecordStatus.ACTIVE.code() + ")";
+    private static final String SQL_LOAD_OPEN_TASKS = "SELECT id, objective, status, requested_by, created_at, updated_at FROM bot_tasks WHERE status IN "
+        + OPEN_TASK_STATUSES + " ORDER BY id ASC";
+    private static final String SQL_LOAD_CLOSED_TASK_HISTORY = "SELECT id, objective, status, requested_by, created_at, updated_at FROM bot_tasks "
+        + "WHERE status NOT IN " + OPEN_TASK_STATUSES + " ORDER BY id DESC LIMIT ?";
+    private static final String SQL_LOAD_TASK_HISTORY_BY_STATUS = "SELECT id, objective, status, requested_by, created_at, updated_at FROM bot_tasks "
+        + "WHERE status = ? ORDER BY id DESC LIMIT ?";
+    private static final String SQL_LOAD_TASK_BY_ID = "SELECT id, objective, status, requested_by, created_at, updated_at FROM bot_tasks WHERE id = ?";
+    private static final String SQL_COUNT_CLOSED_TASKS = "SELECT COUNT(*) AS count FROM bot_tasks WHERE status NOT IN " + OPEN_TASK_STATUSES;
+    private static final String SQL_COUNT_TASKS_BY_STATUS = "SELECT COUNT(*) AS count FROM bot_tasks WHERE status = ?";
+    private static final String SQL_DELETE_CLOSED_TASK = "DELETE FROM bot_tasks WHERE id = ? AND status NOT IN " + OPEN_TASK_STATUSES;
+    private static final String SQL_DELETE_OLDEST_CLOSED_TASKS = "DELETE FROM bot_tasks WHERE id IN (SELECT id FROM bot_tasks WHERE status NOT IN "
+        + OPEN_TASK_STATUSES + " ORDER BY id ASC LIMIT ?)";
+
+    // Queries that run on the tick path or per command and must stay on an index (see HotQueryPlanTest).
+    static final List<HotQuery> HOT_QUERIES = List.of(
+        new HotQuery("goal-active", SQL_LOAD_ACTIVE_GOAL, List.of()),
+        new HotQuery("goal-resume", SQL_RESUME_LAST_PAUSED_GOAL, List.of(0L)),
+        new HotQuery("ae2-pending", SQL_LOAD_PENDING_AE2, List.of(1)),
+        new HotQuery("ae2-history-status", SQL_LOAD_AE2_HISTORY_BY_STATUS, List.of(RecordStatus.FAILED.code(), 10)),
+        new HotQuery("ae2-count-status", SQL_COUNT_AE2_BY_STATUS, List.of(RecordStatus.DONE.code())),
+        new HotQuery("ae2-count-pending", SQL_COUNT_PENDING_AE2, List.of()),
+        new HotQuery("task-open", SQL_LOAD_OPEN_TASKS, List.of()),
+        new HotQuery("task-history-status", SQL_LOAD_TASK_HISTORY_BY_STATUS, List.of(RecordStatus.DONE.code(), 10)),
+        new HotQuery("task-count-status", SQL_COUNT_TASKS_BY_STATUS, List.of(RecordStatus.DONE.code()))
+    );
 
     private final Path databasePath;
-    private final Duration actionFlushInterval;
-    private final int actionBatchSize;
+    private final SqliteConnectionPool connectionPool;
+    private final WriteBehindJournal journal;
+    private final RetentionEngine retention;
     private final int actionBufferWarnThreshold;
-    private final List<ActionRecord> actionBuffer = new ArrayList<>();
-    private Instant lastActionFlushAt;
+    private final BotTaskQueue taskQueue = new BotTaskQueue();
+    private final KnownLocationIndex knownLocations = new KnownLocationIndex();
+    private final AtomicLong nextKnownLocationId = new AtomicLong();
+    private volatile int schemaVersion;
+    private final AtomicLong nextInteractionId = new AtomicLong();
+    private final AtomicLong nextInventorySnapshotId = new AtomicLong();
+    private final AtomicReference<InventorySnapshotRecord> latestInventorySnapshot = new AtomicReference<>();
 
     public BotMemoryRepository(Path databasePath) {
         this.databasePath = databasePath;
-        this.actionFlushInterval = resolveActionFlushInterval();
-        this.actionBatchSize = resolveActionBatchSize();
+        this.connectionPool = new SqliteConnectionPool(databasePath, resolveReadPoolSize());
         this.actionBufferWarnThreshold = resolveActionBufferWarnThreshold();
+        this.journal = new WriteBehindJournal(
+            this.connectionPool,
+            resolveJournalCapacity(),
+            resolveActionBatchSize(),
+            resolveJournalFlushMillis(),
+            resolveJournalOverflowPolicy(),
+            resolveJournalBlockMillis()
+        );
+        this.retention = new RetentionEngine(this.connectionPool, buildRetentionPolicies(), resolveRetentionIntervalMinutes());
     }
 
     public void initializeSchema() {
         try {
             ensureParentDirectory();
             createSchema();
+            nextInteractionId.set(loadMaxId("interactions"));
+            nextInventorySnapshotId.set(loadMaxId("bot_inventory_snapshots"));
+            taskQueue.load(loadOpenBotTasksFromDisk(), loadMaxId("bot_tasks"));
+            nextKnownLocationId.set(loadMaxId("bot_known_locations"));
+            knownLocations.load(loadAllKnownLocations());
+            for (QueryPlanResult result : checkQueryPlans()) {
+                if (!result.indexed()) {
+                    LOGGER.warn("Hot query {} is not using an index: {}", result.name(), result.plan());
+                }
+            }
+            retention.start();
         } catch (SQLException exception) {
             throw new IllegalStateException("Unable to initialize SQLite schema", exception);
         }
@@ -47,9 +126,8 @@ public final class BotMemoryRepository {
     public Optional<String> loadCurrentPhase() {
         String sql = "SELECT phase FROM bot_state WHERE id = 1";
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
 
             if (resultSet.next()) {
                 return Optional.ofNullable(resultSet.getString("phase"));
@@ -64,9 +142,8 @@ public final class BotMemoryRepository {
     public Optional<Integer> loadBotXp() {
         String sql = "SELECT config_value FROM bot_config WHERE config_key = 'bot_xp'";
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
 
             if (resultSet.next()) {
                 String raw = resultSet.getString("config_value");
@@ -96,10 +173,10 @@ public final class BotMemoryRepository {
               updated_at = excluded.updated_at
             """;
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setString(1, Integer.toString(xp));
-            statement.setString(2, Instant.now().toString());
+            statement.setLong(2, System.currentTimeMillis());
             statement.executeUpdate();
         } catch (SQLException exception) {
             LOGGER.warn("Failed to persist bot xp", exception);
@@ -107,27 +184,27 @@ public final class BotMemoryRepository {
     }
     
     public BotGoalRecord setActiveGoal(String goal, String description, String source) {
-        String now = Instant.now().toString();
-        String pauseSql = "UPDATE bot_goals SET status = 'PAUSED', updated_at = ? WHERE status = 'ACTIVE'";
-        String insertSql = "INSERT INTO bot_goals(goal, description, status, source, created_at, updated_at) VALUES (?, ?, 'ACTIVE', ?, ?, ?)";
-
-        try (Connection connection = openConnection()) {
-            try (PreparedStatement pause = connection.prepareStatement(pauseSql)) {
-                pause.setString(1, now);
-                pause.executeUpdate();
-            }
-            try (PreparedStatement insert = connection.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
-                insert.setString(1, goal);
-                insert.setString(2, description == null ? "" : description);
-                insert.setString(3, source == null ? "system" : source);
-                insert.setString(4, now);
-                insert.setString(5, now);
-                insert.executeUpdate();
-                try (ResultSet keys = insert.getGeneratedKeys()) {
-                    if (keys.next()) {
-                        long id = keys.getLong(1);
-                        return new BotGoalRecord(id, goal, description, "ACTIVE", source, Instant.now());
-                    }
+        Instant now = Instant.now();
+        String pauseSql = SQL_PAUSE_ACTIVE_GOAL;
+        String insertSql = "INSERT INTO bot_goals(goal, description, status, source, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement pause = lease.prepare(pauseSql);
+            pause.setLong(1, now.toEpochMilli());
+            pause.executeUpdate();
+
+            PreparedStatement insert = lease.prepareReturningKeys(insertSql);
+            insert.setString(1, goal);
+            insert.setString(2, description == null ? "" : description);
+            insert.setInt(3, RecordStatus.ACTIVE.code());
+            insert.setString(4, source == null ? "system" : source);
+            insert.setLong(5, now.toEpochMilli());
+            insert.setLong(6, now.toEpochMilli());
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                if (keys.next()) {
+                    long id = keys.getLong(1);
+                    return new BotGoalRecord(id, goal, description, "ACTIVE", source, now);
                 }
             }
         } catch (SQLException exception) {
@@ -138,19 +215,11 @@ public final class BotMemoryRepository {
     }
 
     public Optional<BotGoalRecord> loadActiveGoal() {
-        String sql = "SELECT id, goal, description, status, source, created_at FROM bot_goals WHERE status = 'ACTIVE' ORDER BY id DESC LIMIT 1";
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
+        String sql = SQL_LOAD_ACTIVE_GOAL;
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
             if (resultSet.next()) {
-                return Optional.of(new BotGoalRecord(
-                    resultSet.getLong("id"),
-                    resultSet.getString("goal"),
-                    resultSet.getString("description"),
-                    resultSet.getString("status"),
-                    resultSet.getString("source"),
-                    Instant.parse(resultSet.getString("created_at"))
-                ));
+                return Optional.of(readGoal(resultSet));
             }
         } catch (SQLException exception) {
             LOGGER.warn("Failed to load active goal", exception);
@@ -162,19 +231,12 @@ public final class BotMemoryRepository {
         int safeLimit = Math.max(1, Math.min(50, limit));
         String sql = "SELECT id, goal, description, status, source, created_at FROM bot_goals ORDER BY id DESC LIMIT ?";
         List<BotGoalRecord> goals = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setInt(1, safeLimit);
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    goals.add(new BotGoalRecord(
-                        resultSet.getLong("id"),
-                        resultSet.getString("goal"),
-                        resultSet.getString("description"),
-                        resultSet.getString("status"),
-                        resultSet.getString("source"),
-                        Instant.parse(resultSet.getString("created_at"))
-                    ));
+                    goals.add(readGoal(resultSet));
                 }
             }
         } catch (SQLException exception) {
@@ -184,10 +246,10 @@ public final class BotMemoryRepository {
     }
 
     public boolean pauseActiveGoal() {
-        String sql = "UPDATE bot_goals SET status = 'PAUSED', updated_at = ? WHERE status = 'ACTIVE'";
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, Instant.now().toString());
+        String sql = SQL_PAUSE_ACTIVE_GOAL;
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
+            statement.setLong(1, System.currentTimeMillis());
             return statement.executeUpdate() > 0;
         } catch (SQLException exception) {
             LOGGER.warn("Failed to pause active goal", exception);
@@ -196,10 +258,10 @@ public final class BotMemoryRepository {
     }
 
     public boolean resumeLastPausedGoal() {
-        String sql = "UPDATE bot_goals SET status = 'ACTIVE', updated_at = ? WHERE id = (SELECT id FROM bot_goals WHERE status = 'PAUSED' ORDER BY id DESC LIMIT 1)";
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, Instant.now().toString());
+        String sql = SQL_RESUME_LAST_PAUSED_GOAL;
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
+            statement.setLong(1, System.currentTimeMillis());
             return statement.executeUpdate() > 0;
         } catch (SQLException exception) {
             LOGGER.warn("Failed to resume paused goal", exception);
@@ -210,9 +272,8 @@ public final class BotMemoryRepository {
     public Optional<List<String>> loadEnabledModules() {
         String sql = "SELECT config_value FROM bot_config WHERE config_key = 'enabled_modules'";
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
             if (resultSet.next()) {
                 String raw = resultSet.getString("config_value");
                 if (raw == null || raw.isBlank()) {
@@ -237,8 +298,8 @@ public final class BotMemoryRepository {
     public boolean clearEnabledModules() {
         String sql = "DELETE FROM bot_config WHERE config_key = 'enabled_modules'";
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             return statement.executeUpdate() > 0;
         } catch (SQLException exception) {
             LOGGER.warn("Failed to clear enabled modules", exception);
@@ -256,15 +317,99 @@ public final class BotMemoryRepository {
             """;
 
         String payload = String.join(",", moduleNames);
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setString(1, payload);
-            statement.setString(2, Instant.now().toString());
+            statement.setLong(2, System.currentTimeMillis());
             statement.executeUpdate();
         } catch (SQLException exception) {
             LOGGER.warn("Failed to persist enabled modules", exception);
         }
     }
+    // One "uuid name" line per bot spawned by AIPlayer, so bots keep their name across restarts.
+    public List<TrackedBotRecord> loadTrackedBots() {
+        String sql = "SELECT config_value FROM bot_config WHERE config_key = 'tracked_bots'";
+        List<TrackedBotRecord> bots = new ArrayList<>();
+
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
+            if (resultSet.next()) {
+                String raw = resultSet.getString("config_value");
+                if (raw == null || raw.isBlank()) {
+                    return bots;
+                }
+                for (String line : raw.split("\n")) {
+                    int split = line.indexOf(' ');
+                    if (split <= 0 || split == line.length() - 1) {
+                        continue;
+                    }
+                    try {
+                        bots.add(new TrackedBotRecord(UUID.fromString(line.substring(0, split)), line.substring(split + 1)));
+                    } catch (IllegalArgumentException exception) {
+                        LOGGER.warn("Invalid tracked bot entry {}", line, exception);
+                    }
+                }
+            }
+        } catch (SQLException exception) {
+            LOGGER.warn("Failed to load tracked bots", exception);
+        }
+
+        return bots;
+    }
+
+    public void saveTrackedBots(List<TrackedBotRecord> bots) {
+        StringBuilder payload = new StringBuilder();
+        for (TrackedBotRecord bot : bots) {
+            if (payload.length() > 0) {
+                payload.append('\n');
+            }
+            payload.append(bot.entityId()).append(' ').append(bot.name());
+        }
+        saveConfigValue("tracked_bots", payload.toString(), "tracked bots");
+    }
+
+    public Optional<UUID> loadMarkerEntityId() {
+        String sql = "SELECT config_value FROM bot_config WHERE config_key = 'marker_entity'";
+
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
+            if (resultSet.next()) {
+                String raw = resultSet.getString("config_value");
+                if (raw != null && !raw.isBlank()) {
+                    return Optional.of(UUID.fromString(raw.trim()));
+                }
+            }
+        } catch (SQLException | IllegalArgumentException exception) {
+            LOGGER.warn("Failed to load marker entity id", exception);
+        }
+
+        return Optional.empty();
+    }
+
+    public void saveMarkerEntityId(UUID entityId) {
+        saveConfigValue("marker_entity", entityId == null ? "" : entityId.toString(), "marker entity id");
+    }
+
+    private void saveConfigValue(String key, String value, String description) {
+        String sql = """
+            INSERT INTO bot_config (config_key, config_value, updated_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT(config_key) DO UPDATE SET
+              config_value = excluded.config_value,
+              updated_at = excluded.updated_at
+            """;
+
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
+            statement.setString(1, key);
+            statement.setString(2, value);
+            statement.setLong(3, System.currentTimeMillis());
+            statement.executeUpdate();
+        } catch (SQLException exception) {
+            LOGGER.warn("Failed to persist {}", description, exception);
+        }
+    }
+
     public void saveCurrentPhase(String phase) {
         String sql = """
             INSERT INTO bot_state (id, phase, updated_at)
@@ -274,10 +419,10 @@ public final class BotMemoryRepository {
               updated_at = excluded.updated_at
             """;
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setString(1, phase);
-            statement.setString(2, Instant.now().toString());
+            statement.setLong(2, System.currentTimeMillis());
             statement.executeUpdate();
         } catch (SQLException exception) {
             LOGGER.warn("Failed to persist bot phase", exception);
@@ -285,74 +430,112 @@ public final class BotMemoryRepository {
     }
 
     public void recordAction(String action, String result) {
-        Instant now = Instant.now();
-        ActionRecord record = new ActionRecord(action, result, now.toString());
-        synchronized (actionBuffer) {
-            actionBuffer.add(record);
-            if (shouldFlushActions(now)) {
-                flushActionBuffer(now, false);
-            }
-        }
+        journal.submit(
+            "INSERT INTO bot_actions(action, result, created_at) VALUES (?, ?, ?)",
+            action,
+            result,
+            System.currentTimeMillis()
+        );
     }
 
-    
     public void recordActionHistory(String goal, int stepIndex, String actionType, String target, String itemId, int count, boolean success, String message) {
-        String sql = "INSERT INTO bot_action_history(goal, step_index, action_type, target, item_id, count, success, message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, goal == null ? "" : goal);
-            statement.setInt(2, stepIndex);
-            statement.setString(3, actionType == null ? "" : actionType);
-            statement.setString(4, target == null ? "" : target);
-            statement.setString(5, itemId == null ? "" : itemId);
-            statement.setInt(6, count);
-            statement.setInt(7, success ? 1 : 0);
-            statement.setString(8, message == null ? "" : message);
-            statement.setString(9, Instant.now().toString());
-            statement.executeUpdate();
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to record action history", exception);
-        }
+        journal.submit(
+            "INSERT INTO bot_action_history(goal, step_index, action_type, target, item_id, count, success, message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            goal == null ? "" : goal,
+            stepIndex,
+            actionType == null ? "" : actionType,
+            target == null ? "" : target,
+            itemId == null ? "" : itemId,
+            count,
+            success ? 1 : 0,
+            message == null ? "" : message,
+            System.currentTimeMillis()
+        );
     }
 
     public void recordInventorySnapshot(String summary) {
-        String sql = "INSERT INTO bot_inventory_snapshots(summary, created_at) VALUES (?, ?)";
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, summary == null ? "" : summary);
-            statement.setString(2, Instant.now().toString());
-            statement.executeUpdate();
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to record inventory snapshot", exception);
-        }
+        Instant now = Instant.now();
+        long id = nextInventorySnapshotId.incrementAndGet();
+        String safeSummary = summary == null ? "" : summary;
+        latestInventorySnapshot.set(new InventorySnapshotRecord(id, safeSummary, now));
+        journal.submit(
+            "INSERT INTO bot_inventory_snapshots(id, summary, created_at) VALUES (?, ?, ?)",
+            id,
+            safeSummary,
+            now.toEpochMilli()
+        );
+    }
+
+    // Only new positions and label changes reach SQLite; re-seeing a known block is free.
+    public boolean recordKnownLocation(String label, int x, int y, int z, String dimension) {
+        String safeLabel = label == null ? "" : label;
+        String safeDimension = dimension == null ? "" : dimension;
+        KnownLocationRecord existing = knownLocations.get(safeDimension, x, y, z);
+        Instant now = Instant.now();
+        KnownLocationRecord location = new KnownLocationRecord(
+            existing == null ? nextKnownLocationId.incrementAndGet() : existing.id(),
+            safeLabel,
+            x,
+            y,
+            z,
+            safeDimension,
+            now
+        );
+        if (knownLocations.upsert(location) == KnownLocationIndex.Change.UNCHANGED) {
+            return false;
+        }
+        journal.submit(
+            "INSERT INTO bot_known_locations(id, label, x, y, z, dimension, created_at) VALUES (?, ?, ?, ?, ?, ?, ?) "
+                + "ON CONFLICT(dimension, x, y, z) DO UPDATE SET label = excluded.label, created_at = excluded.created_at",
+            location.id(),
+            safeLabel,
+            x,
+            y,
+            z,
+            safeDimension,
+            now.toEpochMilli()
+        );
+        return true;
+    }
+
+    public boolean forgetKnownLocation(String dimension, int x, int y, int z) {
+        String safeDimension = dimension == null ? "" : dimension;
+        if (!knownLocations.remove(safeDimension, x, y, z)) {
+            return false;
+        }
+        journal.submit(
+            "DELETE FROM bot_known_locations WHERE dimension = ? AND x = ? AND y = ? AND z = ?",
+            safeDimension,
+            x,
+            y,
+            z
+        );
+        return true;
+    }
+
+    public List<KnownLocationRecord> loadNearestKnownLocations(String dimension, int x, int y, int z, Set<String> labels, int limit) {
+        int safeLimit = Math.max(1, Math.min(50, limit));
+        return knownLocations.nearest(dimension == null ? "" : dimension, x, y, z, labels, safeLimit);
     }
 
-    public void recordKnownLocation(String label, int x, int y, int z, String dimension) {
-        String sql = "INSERT INTO bot_known_locations(label, x, y, z, dimension, created_at) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, label == null ? "" : label);
-            statement.setInt(2, x);
-            statement.setInt(3, y);
-            statement.setInt(4, z);
-            statement.setString(5, dimension == null ? "" : dimension);
-            statement.setString(6, Instant.now().toString());
-            statement.executeUpdate();
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to record known location", exception);
-        }
+    public int countKnownLocations() {
+        return knownLocations.size();
     }
 
     public Optional<InventorySnapshotRecord> loadLatestInventorySnapshot() {
+        InventorySnapshotRecord latest = latestInventorySnapshot.get();
+        if (latest != null) {
+            return Optional.of(latest);
+        }
+
         String sql = "SELECT id, summary, created_at FROM bot_inventory_snapshots ORDER BY id DESC LIMIT 1";
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
             if (resultSet.next()) {
                 return Optional.of(new InventorySnapshotRecord(
                     resultSet.getLong("id"),
                     resultSet.getString("summary"),
-                    Instant.parse(resultSet.getString("created_at"))
+                    Instant.ofEpochMilli(resultSet.getLong("created_at"))
                 ));
             }
         } catch (SQLException exception) {
@@ -361,32 +544,6 @@ public final class BotMemoryRepository {
         return Optional.empty();
     }
 
-    public List<KnownLocationRecord> loadKnownLocations(int limit) {
-        int safeLimit = Math.max(1, Math.min(20, limit));
-        String sql = "SELECT id, label, x, y, z, dimension, created_at FROM bot_known_locations ORDER BY id DESC LIMIT ?";
-        List<KnownLocationRecord> locations = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, safeLimit);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    locations.add(new KnownLocationRecord(
-                        resultSet.getLong("id"),
-                        resultSet.getString("label"),
-                        resultSet.getInt("x"),
-                        resultSet.getInt("y"),
-                        resultSet.getInt("z"),
-                        resultSet.getString("dimension"),
-                        Instant.parse(resultSet.getString("created_at"))
-                    ));
-                }
-            }
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to load known locations", exception);
-        }
-        return locations;
-    }
-
     public List<ActionHistoryRecord> loadRecentActionHistory(int limit) {
         int safeLimit = Math.max(1, Math.min(25, limit));
         String sql = """
@@ -396,8 +553,8 @@ public final class BotMemoryRepository {
             LIMIT ?
             """;
         List<ActionHistoryRecord> actions = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setInt(1, safeLimit);
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
@@ -411,7 +568,7 @@ public final class BotMemoryRepository {
                         resultSet.getInt("count"),
                         resultSet.getInt("success") == 1,
                         resultSet.getString("message"),
-                        Instant.parse(resultSet.getString("created_at"))
+                        Instant.ofEpochMilli(resultSet.getLong("created_at"))
                     ));
                 }
             }
@@ -422,16 +579,11 @@ public final class BotMemoryRepository {
     }
 
     public void flushActions() {
-        Instant now = Instant.now();
-        synchronized (actionBuffer) {
-            flushActionBuffer(now, true);
-        }
+        journal.drain();
     }
 
     public int getActionBufferSize() {
-        synchronized (actionBuffer) {
-            return actionBuffer.size();
-        }
+        return journal.depth();
     }
 
     public int getActionBufferWarnThreshold() {
@@ -439,345 +591,267 @@ public final class BotMemoryRepository {
     }
 
     public boolean isActionBufferHot() {
-        synchronized (actionBuffer) {
-            return actionBuffer.size() >= actionBufferWarnThreshold;
-        }
+        return journal.depth() >= actionBufferWarnThreshold;
     }
 
-    public long enqueueBotTask(String objective, String requestedBy) {
-        String sql = "INSERT INTO bot_tasks(objective, status, requested_by, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
-        String now = Instant.now().toString();
-
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, objective);
-            statement.setString(2, "PENDING");
-            statement.setString(3, requestedBy);
-            statement.setString(4, now);
-            statement.setString(5, now);
-            statement.executeUpdate();
+    public JournalStats getJournalStats() {
+        return journal.stats();
+    }
 
-            try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (keys.next()) {
-                    return keys.getLong(1);
-                }
-            }
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return connectionPool.stats();
+    }
+
+    public Optional<ConnectionBenchmarkResult> benchmarkConnections(int iterations) {
+        int safeIterations = Math.max(10, Math.min(1000, iterations));
+        Path scratchPath = databasePath.toAbsolutePath().resolveSibling("bot-memory-bench.db");
+        try {
+            return Optional.of(SqliteConnectionBenchmark.run(scratchPath, safeIterations));
         } catch (SQLException exception) {
-            LOGGER.warn("Failed to enqueue bot task objective={}", objective, exception);
+            LOGGER.warn("Failed to benchmark SQLite connections iterations={}", safeIterations, exception);
         }
-
-        return -1L;
+        return Optional.empty();
     }
 
-    public List<BotTask> loadOpenBotTasks(int limit) {
-        int safeLimit = Math.max(1, Math.min(100, limit));
-        String sql = """
-            SELECT id, objective, status, requested_by, created_at, updated_at
-            FROM bot_tasks
-            WHERE status IN ('PENDING','ACTIVE')
-            ORDER BY id ASC
-            LIMIT ?
-            """;
-
-        List<BotTask> tasks = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, safeLimit);
+    public int getSchemaVersion() {
+        return schemaVersion;
+    }
 
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    tasks.add(new BotTask(
-                        resultSet.getLong("id"),
-                        resultSet.getString("objective"),
-                        resultSet.getString("status"),
-                        resultSet.getString("requested_by"),
-                        resultSet.getString("created_at"),
-                        resultSet.getString("updated_at")
-                    ));
+    public List<QueryPlanResult> checkQueryPlans() {
+        List<QueryPlanResult> results = new ArrayList<>();
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            for (HotQuery query : HOT_QUERIES) {
+                PreparedStatement statement = lease.prepare("EXPLAIN QUERY PLAN " + query.sql());
+                for (int i = 0; i < query.sampleArgs().size(); i++) {
+                    statement.setObject(i + 1, query.sampleArgs().get(i));
+                }
+                List<String> details = new ArrayList<>();
+                boolean indexed = true;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        String detail = resultSet.getString("detail");
+                        details.add(detail);
+                        if (detail != null && detail.startsWith("SCAN ")) {
+                            indexed = false;
+                        }
+                    }
                 }
+                results.add(new QueryPlanResult(query.name(), indexed, String.join("; ", details)));
             }
         } catch (SQLException exception) {
-            LOGGER.warn("Failed to load open bot tasks", exception);
+            LOGGER.warn("Failed to check query plans", exception);
+        }
+        return results;
+    }
+
+    // Full VACUUM on the writer connection: switches an existing file to incremental auto-vacuum
+    // (see migration v4) and rewrites it. Blocks journal flushes while it runs and briefly needs
+    // about twice the file size on disk; admin command only, never on startup.
+    public Optional<VacuumResult> vacuum() {
+        long startedAt = System.nanoTime();
+        try (SqliteConnectionPool.Lease lease = connectionPool.write();
+             Statement statement = lease.connection().createStatement()) {
+            long pagesBefore = pragmaLong(statement, "page_count");
+            LOGGER.info("bot-memory VACUUM started pages={}", pagesBefore);
+            statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            statement.execute("VACUUM");
+            long pagesAfter = pragmaLong(statement, "page_count");
+            boolean incremental = pragmaLong(statement, "auto_vacuum") == 2L;
+            double millis = (System.nanoTime() - startedAt) / 1_000_000.0D;
+            LOGGER.info("bot-memory VACUUM done pages={} -> {} in {}ms incremental={}", pagesBefore, pagesAfter, Math.round(millis), incremental);
+            return Optional.of(new VacuumResult(pagesBefore, pagesAfter, millis, incremental));
+        } catch (SQLException exception) {
+            LOGGER.warn("bot-memory VACUUM failed", exception);
         }
+        return Optional.empty();
+    }
 
-        return tasks;
+    private static long pragmaLong(Statement statement, String pragma) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("PRAGMA " + pragma)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0L;
+        }
     }
 
-    
-    public List<BotTask> loadBotTasks(int limit) {
-        int safeLimit = Math.max(1, Math.min(100, limit));
-        String sql = """
-            SELECT id, objective, status, requested_by, created_at, updated_at
-            FROM bot_tasks
-            ORDER BY id DESC
-            LIMIT ?
-            """;
+    public RetentionStats getRetentionStats() {
+        return retention.stats();
+    }
 
-        List<BotTask> tasks = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, safeLimit);
+    public boolean runRetentionNow() {
+        return retention.requestPass();
+    }
 
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    tasks.add(new BotTask(
-                        resultSet.getLong("id"),
-                        resultSet.getString("objective"),
-                        resultSet.getString("status"),
-                        resultSet.getString("requested_by"),
-                        resultSet.getString("created_at"),
-                        resultSet.getString("updated_at")
-                    ));
-                }
-            }
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to load bot tasks", exception);
-        }
+    public void close() {
+        retention.close();
+        journal.close();
+        connectionPool.close();
+    }
 
-        return tasks;
+    public long enqueueBotTask(String objective, String requestedBy) {
+        Instant now = Instant.now();
+        BotTask task = taskQueue.add(objective, requestedBy, now.toString());
+        journal.submitRequired(
+            "INSERT INTO bot_tasks(id, objective, status, requested_by, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+            task.id(),
+            task.objective(),
+            RecordStatus.PENDING.code(),
+            task.requestedBy(),
+            now.toEpochMilli(),
+            now.toEpochMilli()
+        );
+        return task.id();
     }
 
-    public List<BotTask> loadBotTasksByStatus(String status, int limit) {
+    public List<BotTask> loadOpenBotTasks(int limit) {
         int safeLimit = Math.max(1, Math.min(100, limit));
-        String sql = """
-            SELECT id, objective, status, requested_by, created_at, updated_at
-            FROM bot_tasks
-            WHERE status = ?
-            ORDER BY id DESC
-            LIMIT ?
-            """;
-
-        List<BotTask> tasks = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, status);
-            statement.setInt(2, safeLimit);
+        return taskQueue.open(safeLimit);
+    }
 
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    tasks.add(new BotTask(
-                        resultSet.getLong("id"),
-                        resultSet.getString("objective"),
-                        resultSet.getString("status"),
-                        resultSet.getString("requested_by"),
-                        resultSet.getString("created_at"),
-                        resultSet.getString("updated_at")
-                    ));
-                }
+    // Open tasks come from the queue, closed ones from SQLite once queued task writes had up to
+    // TASK_WRITE_WAIT_MILLIS to land; a task closed within that window may be missing for now.
+    public List<BotTask> loadBotTasks(int limit) {
+        int safeLimit = Math.max(1, Math.min(100, limit));
+        List<BotTask> open = taskQueue.newest(safeLimit);
+        awaitTaskWrites();
+        List<BotTask> closed = new ArrayList<>();
+        for (BotTask task : queryBotTasks(SQL_LOAD_CLOSED_TASK_HISTORY, safeLimit)) {
+            if (taskQueue.byId(task.id()).isEmpty()) {
+                closed.add(task);
             }
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to load bot tasks by status={}", status, exception);
         }
 
+        List<BotTask> tasks = new ArrayList<>(safeLimit);
+        int o = 0;
+        int c = 0;
+        while (tasks.size() < safeLimit && (o < open.size() || c < closed.size())) {
+            if (c >= closed.size() || (o < open.size() && open.get(o).id() > closed.get(c).id())) {
+                tasks.add(open.get(o++));
+            } else {
+                tasks.add(closed.get(c++));
+            }
+        }
         return tasks;
     }
 
-    public Optional<BotTask> loadBotTaskById(long taskId) {
-        String sql = """
-            SELECT id, objective, status, requested_by, created_at, updated_at
-            FROM bot_tasks
-            WHERE id = ?
-            LIMIT 1
-            """;
-
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, taskId);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return Optional.of(new BotTask(
-                        resultSet.getLong("id"),
-                        resultSet.getString("objective"),
-                        resultSet.getString("status"),
-                        resultSet.getString("requested_by"),
-                        resultSet.getString("created_at"),
-                        resultSet.getString("updated_at")
-                    ));
-                }
-            }
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to load bot task by id={}", taskId, exception);
+    public List<BotTask> loadBotTasksByStatus(String status, int limit) {
+        int safeLimit = Math.max(1, Math.min(100, limit));
+        if (BotTaskQueue.isOpen(status)) {
+            return taskQueue.openByStatus(status, safeLimit);
         }
-
-        return Optional.empty();
+        Optional<RecordStatus> code = RecordStatus.parse(status);
+        if (code.isEmpty()) {
+            return List.of();
+        }
+        awaitTaskWrites();
+        return queryBotTasks(SQL_LOAD_TASK_HISTORY_BY_STATUS, code.get().code(), safeLimit);
     }
-    public Optional<BotTask> loadCurrentBotTask() {
-        String sql = """
-            SELECT id, objective, status, requested_by, created_at, updated_at
-            FROM bot_tasks
-            WHERE status IN ('PENDING','ACTIVE')
-            ORDER BY CASE status WHEN 'ACTIVE' THEN 0 ELSE 1 END, id ASC
-            LIMIT 1
-            """;
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            if (resultSet.next()) {
-                return Optional.of(new BotTask(
-                    resultSet.getLong("id"),
-                    resultSet.getString("objective"),
-                    resultSet.getString("status"),
-                    resultSet.getString("requested_by"),
-                    resultSet.getString("created_at"),
-                    resultSet.getString("updated_at")
-                ));
-            }
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to load current bot task", exception);
+    public Optional<BotTask> loadBotTaskById(long taskId) {
+        Optional<BotTask> open = taskQueue.byId(taskId);
+        if (open.isPresent()) {
+            return open;
         }
+        awaitTaskWrites();
+        List<BotTask> found = queryBotTasks(SQL_LOAD_TASK_BY_ID, taskId);
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
 
-        return Optional.empty();
+    public Optional<BotTask> loadCurrentBotTask() {
+        return taskQueue.current();
     }
 
     public int countOpenBotTasks() {
-        String sql = "SELECT COUNT(*) AS count FROM bot_tasks WHERE status IN ('PENDING','ACTIVE')";
-
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            if (resultSet.next()) {
-                return resultSet.getInt("count");
-            }
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to count open bot tasks", exception);
-        }
-
-        return 0;
+        return taskQueue.countOpen();
     }
 
-    
     public int countBotTasks() {
-        String sql = "SELECT COUNT(*) AS count FROM bot_tasks";
-
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            if (resultSet.next()) {
-                return resultSet.getInt("count");
-            }
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to count bot tasks", exception);
-        }
-
-        return 0;
+        int open = taskQueue.countOpen();
+        awaitTaskWrites();
+        return open + (int) countBotTaskRows(SQL_COUNT_CLOSED_TASKS);
     }
 
     public int countBotTasksByStatus(String status) {
-        String sql = "SELECT COUNT(*) AS count FROM bot_tasks WHERE status = ?";
-
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, status);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt("count");
-                }
-            }
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to count bot tasks by status={}", status, exception);
+        if (BotTaskQueue.isOpen(status)) {
+            return taskQueue.countByStatus(status);
         }
-
-        return 0;
+        Optional<RecordStatus> code = RecordStatus.parse(status);
+        if (code.isEmpty()) {
+            return 0;
+        }
+        awaitTaskWrites();
+        return (int) countBotTaskRows(SQL_COUNT_TASKS_BY_STATUS, code.get().code());
     }
 
-
+    // Deletes only run once every queued task write is stored, so a reopen still in the journal
+    // cannot lose its row; otherwise nothing is deleted and the command can be retried.
     public boolean deleteBotTask(long taskId) {
-        String sql = "DELETE FROM bot_tasks WHERE id = ? AND status IN ('DONE','CANCELED')";
-
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, taskId);
-            return statement.executeUpdate() > 0;
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to delete bot task id={}", taskId, exception);
+        if (taskQueue.byId(taskId).isPresent() || !awaitTaskWrites()) {
+            return false;
         }
-
-        return false;
+        return deleteBotTaskRows(SQL_DELETE_CLOSED_TASK, taskId) > 0;
     }
+
     public int deleteClosedBotTasks(int limit) {
         int safeLimit = Math.max(1, Math.min(1000, limit));
-        String sql = """
-            DELETE FROM bot_tasks
-            WHERE id IN (
-                SELECT id
-                FROM bot_tasks
-                WHERE status IN ('DONE','CANCELED')
-                ORDER BY id ASC
-                LIMIT ?
-            )
-            """;
-
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, safeLimit);
-            return statement.executeUpdate();
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to delete closed bot tasks limit={}", safeLimit, exception);
+        if (!awaitTaskWrites()) {
+            return 0;
         }
-
-        return 0;
+        return deleteBotTaskRows(SQL_DELETE_OLDEST_CLOSED_TASKS, safeLimit);
     }
 
     public boolean updateBotTaskObjective(long taskId, String objective) {
-        String sql = """
-            UPDATE bot_tasks
-            SET objective = ?, updated_at = ?
-            WHERE id = ?
-            """;
-
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, objective);
-            statement.setString(2, Instant.now().toString());
-            statement.setLong(3, taskId);
-            return statement.executeUpdate() > 0;
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to update bot task objective id={}", taskId, exception);
+        Instant now = Instant.now();
+        Optional<BotTask> updated = taskQueue.updateObjective(taskId, objective, now.toString());
+        if (updated.isEmpty()) {
+            updated = loadBotTaskById(taskId)
+                .map(task -> new BotTask(task.id(), objective, task.status(), task.requestedBy(), task.createdAt(), now.toString()));
         }
-
-        return false;
+        updated.ifPresent(task -> journal.submitRequired(
+            "UPDATE bot_tasks SET objective = ?, updated_at = ? WHERE id = ?",
+            task.objective(),
+            now.toEpochMilli(),
+            task.id()
+        ));
+        return updated.isPresent();
     }
-    public boolean updateBotTaskStatus(long taskId, String status) {
-        String sql = """
-            UPDATE bot_tasks
-            SET status = ?, updated_at = ?
-            WHERE id = ?
-            """;
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, status);
-            statement.setString(2, Instant.now().toString());
-            statement.setLong(3, taskId);
-            return statement.executeUpdate() > 0;
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to update bot task id={} status={}", taskId, status, exception);
+    public boolean updateBotTaskStatus(long taskId, String status) {
+        Optional<RecordStatus> code = RecordStatus.parse(status);
+        if (code.isEmpty()) {
+            LOGGER.warn("Rejected unknown bot task status={} id={}", status, taskId);
+            return false;
         }
-
-        return false;
+        Instant now = Instant.now();
+        Optional<BotTask> updated = taskQueue.updateStatus(taskId, code.get().name(), now.toString());
+        if (updated.isEmpty()) {
+            // A closed task: reopened tasks go back into the in-memory queue.
+            updated = loadBotTaskById(taskId)
+                .map(task -> new BotTask(task.id(), task.objective(), code.get().name(), task.requestedBy(), task.createdAt(), now.toString()));
+            updated.ifPresent(taskQueue::reopen);
+        }
+        updated.ifPresent(task -> journal.submitRequired(
+            "UPDATE bot_tasks SET status = ?, updated_at = ? WHERE id = ?",
+            code.get().code(),
+            now.toEpochMilli(),
+            task.id()
+        ));
+        return updated.isPresent();
     }
-    public long recordInteraction(String playerId, String question, String response) {
-        String sql = "INSERT INTO interactions(player_id, question, response, created_at) VALUES (?, ?, ?, ?)";
-
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, playerId);
-            statement.setString(2, question);
-            statement.setString(3, response);
-            statement.setString(4, Instant.now().toString());
-            statement.executeUpdate();
 
-            try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (keys.next()) {
-                    return keys.getLong(1);
-                }
-            }
-        } catch (SQLException exception) {
-            LOGGER.warn("Failed to record interaction player={}", playerId, exception);
-        }
-
-        return -1L;
+    public long recordInteraction(String playerId, String question, String response) {
+        long id = nextInteractionId.incrementAndGet();
+        boolean queued = journal.submit(
+            "INSERT INTO interactions(id, player_id, question, response, created_at) VALUES (?, ?, ?, ?, ?)",
+            id,
+            playerId,
+            question,
+            response,
+            System.currentTimeMillis()
+        );
+        if (!queued) {
+            LOGGER.warn("Interaction dropped by write journal player={}", playerId);
+            return -1L;
+        }
+        return id;
     }
 
     public List<InteractionRecord> loadRecentInteractions(int limit) {
@@ -790,8 +864,8 @@ public final class BotMemoryRepository {
             """;
 
         List<InteractionRecord> records = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setInt(1, safeLimit);
 
             try (ResultSet resultSet = statement.executeQuery()) {
@@ -801,7 +875,7 @@ public final class BotMemoryRepository {
                         resultSet.getString("player_id"),
                         resultSet.getString("question"),
                         resultSet.getString("response"),
-                        resultSet.getString("created_at")
+                        isoMillis(resultSet.getLong("created_at"))
                     ));
                 }
             }
@@ -814,16 +888,16 @@ public final class BotMemoryRepository {
 
     public long enqueueAe2CraftRequest(String itemId, int quantity, String requestedBy) {
         String sql = "INSERT INTO ae2_craft_requests(item_id, quantity, status, requested_by, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
-        String now = Instant.now().toString();
+        long now = System.currentTimeMillis();
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepareReturningKeys(sql);
             statement.setString(1, itemId);
             statement.setInt(2, quantity);
-            statement.setString(3, "PENDING");
+            statement.setInt(3, RecordStatus.PENDING.code());
             statement.setString(4, requestedBy);
-            statement.setString(5, now);
-            statement.setString(6, now);
+            statement.setLong(5, now);
+            statement.setLong(6, now);
             statement.executeUpdate();
 
             try (ResultSet keys = statement.getGeneratedKeys()) {
@@ -840,31 +914,16 @@ public final class BotMemoryRepository {
 
     public List<AE2CraftRequest> loadPendingAe2CraftRequests(int limit) {
         int safeLimit = Math.max(1, Math.min(100, limit));
-        String sql = """
-            SELECT id, item_id, quantity, status, requested_by, created_at, updated_at, result_message
-            FROM ae2_craft_requests
-            WHERE status = 'PENDING'
-            ORDER BY id ASC
-            LIMIT ?
-            """;
+        String sql = SQL_LOAD_PENDING_AE2;
 
         List<AE2CraftRequest> requests = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setInt(1, safeLimit);
 
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    requests.add(new AE2CraftRequest(
-                        resultSet.getLong("id"),
-                        resultSet.getString("item_id"),
-                        resultSet.getInt("quantity"),
-                        resultSet.getString("status"),
-                        resultSet.getString("requested_by"),
-                        resultSet.getString("created_at"),
-                        resultSet.getString("updated_at"),
-                        resultSet.getString("result_message")
-                    ));
+                    requests.add(readAe2CraftRequest(resultSet));
                 }
             }
         } catch (SQLException exception) {
@@ -884,22 +943,13 @@ public final class BotMemoryRepository {
             """;
 
         List<AE2CraftRequest> requests = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setInt(1, safeLimit);
 
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    requests.add(new AE2CraftRequest(
-                        resultSet.getLong("id"),
-                        resultSet.getString("item_id"),
-                        resultSet.getInt("quantity"),
-                        resultSet.getString("status"),
-                        resultSet.getString("requested_by"),
-                        resultSet.getString("created_at"),
-                        resultSet.getString("updated_at"),
-                        resultSet.getString("result_message")
-                    ));
+                    requests.add(readAe2CraftRequest(resultSet));
                 }
             }
         } catch (SQLException exception) {
@@ -911,32 +961,21 @@ public final class BotMemoryRepository {
 
     public List<AE2CraftRequest> loadAe2CraftRequestHistoryByStatus(String status, int limit) {
         int safeLimit = Math.max(1, Math.min(200, limit));
-        String sql = """
-            SELECT id, item_id, quantity, status, requested_by, created_at, updated_at, result_message
-            FROM ae2_craft_requests
-            WHERE UPPER(status) = ?
-            ORDER BY id DESC
-            LIMIT ?
-            """;
+        String sql = SQL_LOAD_AE2_HISTORY_BY_STATUS;
 
         List<AE2CraftRequest> requests = new ArrayList<>();
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, status.toUpperCase());
+        Optional<RecordStatus> code = RecordStatus.parse(status);
+        if (code.isEmpty()) {
+            return requests;
+        }
+        try (SqliteConnectionPool.Lease lease = connectionPool.read()) {
+            PreparedStatement statement = lease.prepare(sql);
+            statement.setInt(1, code.get().code());
             statement.setInt(2, safeLimit);
 
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    requests.add(new AE2CraftRequest(
-                        resultSet.getLong("id"),
-                        resultSet.getString("item_id"),
-                        resultSet.getInt("quantity"),
-                        resultSet.getString("status"),
-                        resultSet.getString("requested_by"),
-                        resultSet.getString("created_at"),
-                        resultSet.getString("updated_at"),
-                        resultSet.getString("result_message")
-                    ));
+                    requests.add(readAe2CraftRequest(resultSet));
                 }
             }
         } catch (SQLException exception) {
@@ -947,11 +986,15 @@ public final class BotMemoryRepository {
     }
 
     public int countAe2CraftRequestsByStatus(String status) {
-        String sql = "SELECT COUNT(*) AS count FROM ae2_craft_requests WHERE UPPER(status) = ?";
+        String sql = SQL_COUNT_AE2_BY_STATUS;
+        Optional<RecordStatus> code = RecordStatus.parse(status);
+        if (code.isEmpty()) {
+            return 0;
+        }
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, status.toUpperCase());
+        try (SqliteConnectionPool.Lease lease = connectionPool.read()) {
+            PreparedStatement statement = lease.prepare(sql);
+            statement.setInt(1, code.get().code());
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
                     return resultSet.getInt("count");
@@ -965,11 +1008,10 @@ public final class BotMemoryRepository {
     }
 
     public int countPendingAe2CraftRequests() {
-        String sql = "SELECT COUNT(*) AS count FROM ae2_craft_requests WHERE status = 'PENDING'";
+        String sql = SQL_COUNT_PENDING_AE2;
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
             if (resultSet.next()) {
                 return resultSet.getInt("count");
             }
@@ -987,14 +1029,14 @@ public final class BotMemoryRepository {
             WHERE id IN (
                 SELECT id
                 FROM ae2_craft_requests
-                WHERE status IN ('DONE','FAILED','CANCELED')
+                WHERE status IN (%d, %d, %d)
                 ORDER BY id ASC
                 LIMIT ?
             )
-            """;
+            """.formatted(RecordStatus.DONE.code(), RecordStatus.FAILED.code(), RecordStatus.CANCELED.code());
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setInt(1, safeLimit);
             return statement.executeUpdate();
         } catch (SQLException exception) {
@@ -1011,14 +1053,14 @@ public final class BotMemoryRepository {
             WHERE id IN (
                 SELECT id
                 FROM ae2_craft_requests
-                WHERE status <> 'PENDING'
+                WHERE status <> %d
                 ORDER BY id ASC
                 LIMIT ?
             )
-            """;
+            """.formatted(RecordStatus.PENDING.code());
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setInt(1, safeLimit);
             return statement.executeUpdate();
         } catch (SQLException exception) {
@@ -1029,10 +1071,10 @@ public final class BotMemoryRepository {
     }
 
     public boolean deleteAe2CraftRequest(long requestId) {
-        String sql = "DELETE FROM ae2_craft_requests WHERE id = ? AND status <> 'PENDING'";
+        String sql = "DELETE FROM ae2_craft_requests WHERE id = ? AND status <> " + RecordStatus.PENDING.code();
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setLong(1, requestId);
             return statement.executeUpdate() > 0;
         } catch (SQLException exception) {
@@ -1043,24 +1085,28 @@ public final class BotMemoryRepository {
     }
     public int replayAe2CraftRequestsByStatus(String status, int limit) {
         int safeLimit = Math.max(1, Math.min(200, limit));
-        String safeStatus = status.toUpperCase();
+        String safeStatus = status.toUpperCase(Locale.ROOT);
+        Optional<RecordStatus> code = RecordStatus.parse(safeStatus);
+        if (code.isEmpty()) {
+            return 0;
+        }
         String sql = """
             UPDATE ae2_craft_requests
-            SET status = 'PENDING', result_message = ?, updated_at = ?
+            SET status = %1$d, result_message = ?, updated_at = ?
             WHERE id IN (
                 SELECT id
                 FROM ae2_craft_requests
-                WHERE UPPER(status) = ? AND status <> 'PENDING'
+                WHERE status = ? AND status <> %1$d
                 ORDER BY id ASC
                 LIMIT ?
             )
-            """;
+            """.formatted(RecordStatus.PENDING.code());
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setString(1, "Replay requested from " + safeStatus);
-            statement.setString(2, Instant.now().toString());
-            statement.setString(3, safeStatus);
+            statement.setLong(2, System.currentTimeMillis());
+            statement.setInt(3, code.get().code());
             statement.setInt(4, safeLimit);
             return statement.executeUpdate();
         } catch (SQLException exception) {
@@ -1072,14 +1118,14 @@ public final class BotMemoryRepository {
     public boolean retryAe2CraftRequest(long requestId) {
         String sql = """
             UPDATE ae2_craft_requests
-            SET status = 'PENDING', result_message = ?, updated_at = ?
-            WHERE id = ? AND status <> 'PENDING'
-            """;
+            SET status = %1$d, result_message = ?, updated_at = ?
+            WHERE id = ? AND status <> %1$d
+            """.formatted(RecordStatus.PENDING.code());
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setString(1, "Retry requested");
-            statement.setString(2, Instant.now().toString());
+            statement.setLong(2, System.currentTimeMillis());
             statement.setLong(3, requestId);
             return statement.executeUpdate() > 0;
         } catch (SQLException exception) {
@@ -1091,14 +1137,19 @@ public final class BotMemoryRepository {
     public boolean cancelAe2CraftRequest(long requestId, String reason) {
         String sql = """
             UPDATE ae2_craft_requests
-            SET status = 'CANCELED', result_message = ?, updated_at = ?
-            WHERE id = ? AND status IN ('PENDING', 'DISPATCHED', 'FAILED')
-            """;
+            SET status = %d, result_message = ?, updated_at = ?
+            WHERE id = ? AND status IN (%d, %d, %d)
+            """.formatted(
+                RecordStatus.CANCELED.code(),
+                RecordStatus.PENDING.code(),
+                RecordStatus.DISPATCHED.code(),
+                RecordStatus.FAILED.code()
+            );
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
             statement.setString(1, reason);
-            statement.setString(2, Instant.now().toString());
+            statement.setLong(2, System.currentTimeMillis());
             statement.setLong(3, requestId);
             return statement.executeUpdate() > 0;
         } catch (SQLException exception) {
@@ -1113,12 +1164,17 @@ public final class BotMemoryRepository {
             SET status = ?, result_message = ?, updated_at = ?
             WHERE id = ?
             """;
+        Optional<RecordStatus> code = RecordStatus.parse(status);
+        if (code.isEmpty()) {
+            LOGGER.warn("Rejected unknown AE2 craft request status={} id={}", status, requestId);
+            return false;
+        }
 
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, status);
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
+            statement.setInt(1, code.get().code());
             statement.setString(2, resultMessage);
-            statement.setString(3, Instant.now().toString());
+            statement.setLong(3, System.currentTimeMillis());
             statement.setLong(4, requestId);
             return statement.executeUpdate() > 0;
         } catch (SQLException exception) {
@@ -1129,168 +1185,142 @@ public final class BotMemoryRepository {
     }
 
     private void createSchema() throws SQLException {
-        try (Connection connection = openConnection();
-             Statement statement = connection.createStatement()) {
-
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS bot_state (" +
-                    "id INTEGER PRIMARY KEY CHECK (id = 1)," +
-                    "phase TEXT NOT NULL," +
-                    "updated_at TEXT NOT NULL" +
-                    ")"
-            );
-
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS bot_config (" +
-                    "config_key TEXT PRIMARY KEY," +
-                    "config_value TEXT NOT NULL," +
-                    "updated_at TEXT NOT NULL" +
-                    ")"
-            );
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS bot_actions (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "action TEXT NOT NULL," +
-                    "result TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL" +
-                    ")"
-            );
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            int before = SchemaMigrations.currentVersion(lease.connection());
+            schemaVersion = SchemaMigrations.migrate(lease.connection());
+            if (before != schemaVersion) {
+                LOGGER.info("bot-memory schema migrated v{} -> v{}", before, schemaVersion);
+            }
+        }
+    }
 
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS bot_tasks (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "objective TEXT NOT NULL," +
-                    "status TEXT NOT NULL," +
-                    "requested_by TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL," +
-                    "updated_at TEXT NOT NULL" +
-                    ")"
-            );
+    private boolean awaitTaskWrites() {
+        if (journal.awaitRequired(TASK_WRITE_WAIT_MILLIS)) {
+            return true;
+        }
+        LOGGER.debug("Bot task writes still queued after {}ms, reading closed tasks as stored", TASK_WRITE_WAIT_MILLIS);
+        return false;
+    }
 
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS interactions (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "player_id TEXT NOT NULL," +
-                    "question TEXT NOT NULL," +
-                    "response TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL" +
-                    ")"
-            );
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS ae2_craft_requests (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "item_id TEXT NOT NULL," +
-                    "quantity INTEGER NOT NULL CHECK (quantity > 0)," +
-                    "status TEXT NOT NULL," +
-                    "requested_by TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL," +
-                    "updated_at TEXT NOT NULL," +
-                    "result_message TEXT" +
-                    ")"
-            );
+    private List<BotTask> loadOpenBotTasksFromDisk() {
+        return queryBotTasks(SQL_LOAD_OPEN_TASKS);
+    }
 
+    private List<BotTask> queryBotTasks(String sql, Object... args) {
+        List<BotTask> tasks = new ArrayList<>();
+        try (SqliteConnectionPool.Lease lease = connectionPool.read()) {
+            PreparedStatement statement = lease.prepare(sql);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tasks.add(new BotTask(
+                        resultSet.getLong("id"),
+                        resultSet.getString("objective"),
+                        RecordStatus.nameOf(resultSet.getInt("status")),
+                        resultSet.getString("requested_by"),
+                        isoMillis(resultSet.getLong("created_at")),
+                        isoMillis(resultSet.getLong("updated_at"))
+                    ));
+                }
+            }
+        } catch (SQLException exception) {
+            LOGGER.warn("Failed to load bot tasks", exception);
+        }
+        return tasks;
+    }
 
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS bot_goals (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "goal TEXT NOT NULL," +
-                    "description TEXT," +
-                    "status TEXT NOT NULL," +
-                    "source TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL," +
-                    "updated_at TEXT NOT NULL" +
-                    ")"
-            );
+    private long countBotTaskRows(String sql, Object... args) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.read()) {
+            PreparedStatement statement = lease.prepare(sql);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getLong("count");
+                }
+            }
+        } catch (SQLException exception) {
+            LOGGER.warn("Failed to count bot tasks", exception);
+        }
+        return 0L;
+    }
 
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS bot_action_history (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "goal TEXT NOT NULL," +
-                    "step_index INTEGER NOT NULL," +
-                    "action_type TEXT NOT NULL," +
-                    "target TEXT," +
-                    "item_id TEXT," +
-                    "count INTEGER NOT NULL," +
-                    "success INTEGER NOT NULL," +
-                    "message TEXT," +
-                    "created_at TEXT NOT NULL" +
-                    ")"
-            );
+    private int deleteBotTaskRows(String sql, Object arg) {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+            PreparedStatement statement = lease.prepare(sql);
+            statement.setObject(1, arg);
+            return statement.executeUpdate();
+        } catch (SQLException exception) {
+            LOGGER.warn("Failed to delete bot tasks", exception);
+        }
+        return 0;
+    }
 
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS bot_inventory_snapshots (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "summary TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL" +
-                    ")"
-            );
+    private static BotGoalRecord readGoal(ResultSet resultSet) throws SQLException {
+        return new BotGoalRecord(
+            resultSet.getLong("id"),
+            resultSet.getString("goal"),
+            resultSet.getString("description"),
+            RecordStatus.nameOf(resultSet.getInt("status")),
+            resultSet.getString("source"),
+            Instant.ofEpochMilli(resultSet.getLong("created_at"))
+        );
+    }
 
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS bot_known_locations (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "label TEXT NOT NULL," +
-                    "x INTEGER NOT NULL," +
-                    "y INTEGER NOT NULL," +
-                    "z INTEGER NOT NULL," +
-                    "dimension TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL" +
-                    ")"
-            );
-        }
+    private static AE2CraftRequest readAe2CraftRequest(ResultSet resultSet) throws SQLException {
+        return new AE2CraftRequest(
+            resultSet.getLong("id"),
+            resultSet.getString("item_id"),
+            resultSet.getInt("quantity"),
+            RecordStatus.nameOf(resultSet.getInt("status")),
+            resultSet.getString("requested_by"),
+            isoMillis(resultSet.getLong("created_at")),
+            isoMillis(resultSet.getLong("updated_at")),
+            resultSet.getString("result_message")
+        );
     }
 
-    private boolean shouldFlushActions(Instant now) {
-        if (actionBuffer.size() >= actionBatchSize) {
-            return true;
-        }
-        if (lastActionFlushAt == null) {
-            return true;
-        }
-        return Duration.between(lastActionFlushAt, now).compareTo(actionFlushInterval) >= 0;
+    // Public records keep their ISO-8601 string fields; storage is epoch millis.
+    private static String isoMillis(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).toString();
     }
 
-    private void flushActionBuffer(Instant now, boolean force) {
-        if (actionBuffer.isEmpty()) {
-            lastActionFlushAt = now;
-            return;
-        }
-        if (!force && !shouldFlushActions(now)) {
-            return;
-        }
-        String sql = "INSERT INTO bot_actions(action, result, created_at) VALUES (?, ?, ?)";
-        try (Connection connection = openConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            for (ActionRecord record : actionBuffer) {
-                statement.setString(1, record.action());
-                statement.setString(2, record.result());
-                statement.setString(3, record.createdAt());
-                statement.addBatch();
+    private List<KnownLocationRecord> loadAllKnownLocations() {
+        String sql = "SELECT id, label, x, y, z, dimension, created_at FROM bot_known_locations";
+        List<KnownLocationRecord> locations = new ArrayList<>();
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
+            while (resultSet.next()) {
+                locations.add(new KnownLocationRecord(
+                    resultSet.getLong("id"),
+                    resultSet.getString("label"),
+                    resultSet.getInt("x"),
+                    resultSet.getInt("y"),
+                    resultSet.getInt("z"),
+                    resultSet.getString("dimension"),
+                    Instant.ofEpochMilli(resultSet.getLong("created_at"))
+                ));
             }
-            statement.executeBatch();
-            actionBuffer.clear();
-            lastActionFlushAt = now;
         } catch (SQLException exception) {
-            int bufferSize = actionBuffer.size();
-            LOGGER.warn("Failed to flush {} bot actions", bufferSize, exception);
-            if (bufferSize > actionBufferWarnThreshold) {
-                actionBuffer.clear();
-                lastActionFlushAt = now;
-                LOGGER.warn("Action buffer cleared to avoid memory pressure (size={})", bufferSize);
-            }
+            LOGGER.warn("Failed to load known locations into memory", exception);
         }
+        return locations;
     }
 
-    private Connection openConnection() throws SQLException {
-        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + this.databasePath.toAbsolutePath());
-        try (Statement statement = connection.createStatement()) {
-            statement.execute("PRAGMA journal_mode=WAL");
-            statement.execute("PRAGMA synchronous=NORMAL");
-            statement.execute("PRAGMA temp_store=MEMORY");
-            statement.execute("PRAGMA busy_timeout=3000");
+    private long loadMaxId(String table) {
+        String sql = "SELECT COALESCE(MAX(id), 0) AS max_id FROM " + table;
+        try (SqliteConnectionPool.Lease lease = connectionPool.read();
+             ResultSet resultSet = lease.prepare(sql).executeQuery()) {
+            if (resultSet.next()) {
+                return resultSet.getLong("max_id");
+            }
         } catch (SQLException exception) {
-            LOGGER.warn("Failed to apply SQLite pragmas", exception);
+            LOGGER.warn("Failed to load max id table={}", table, exception);
         }
-        return connection;
+        return 0L;
     }
 
     private void ensureParentDirectory() {
@@ -1304,22 +1334,146 @@ public final class BotMemoryRepository {
         }
     }
 
-    private Duration resolveActionFlushInterval() {
-        String env = System.getenv("AIPLAYER_ACTION_FLUSH_SECONDS");
-        long seconds = 30;
+    private List<RetentionEngine.Policy> buildRetentionPolicies() {
+        Duration maxAge = Duration.ofDays(resolveRetentionDays());
+        long maxRows = resolveRetentionMaxRows();
+        return List.of(
+            new RetentionEngine.Policy("bot_actions", maxAge, maxRows, """
+                INSERT INTO bot_telemetry_rollups(source_table, hour_start, category, total, successes)
+                SELECT 'bot_actions', (created_at / 3600000) * 3600000, action, COUNT(*), NULL
+                FROM bot_actions
+                WHERE id BETWEEN ? AND ?
+                GROUP BY 2, 3
+                ON CONFLICT(source_table, hour_start, category)
+                DO UPDATE SET total = total + excluded.total
+                """),
+            new RetentionEngine.Policy("bot_action_history", maxAge, maxRows, """
+                INSERT INTO bot_telemetry_rollups(source_table, hour_start, category, total, successes)
+                SELECT 'bot_action_history', (created_at / 3600000) * 3600000, action_type, COUNT(*), SUM(success)
+                FROM bot_action_history
+                WHERE id BETWEEN ? AND ?
+                GROUP BY 2, 3
+                ON CONFLICT(source_table, hour_start, category)
+                DO UPDATE SET total = total + excluded.total, successes = successes + excluded.successes
+                """),
+            new RetentionEngine.Policy("bot_inventory_snapshots", maxAge, Math.max(1000L, maxRows / 10), null)
+        );
+    }
+
+    private int resolveRetentionDays() {
+        String env = System.getenv("AIPLAYER_DB_RETENTION_DAYS");
+        int days = 7;
         if (env != null && !env.isBlank()) {
             try {
-                seconds = Long.parseLong(env.trim());
+                days = Integer.parseInt(env.trim());
             } catch (NumberFormatException ignored) {
             }
         }
-        if (seconds < 10) {
-            seconds = 10;
+        if (days < 1) {
+            days = 1;
         }
-        if (seconds > 300) {
-            seconds = 300;
+        if (days > 365) {
+            days = 365;
         }
-        return Duration.ofSeconds(seconds);
+        return days;
+    }
+
+    private long resolveRetentionMaxRows() {
+        String env = System.getenv("AIPLAYER_DB_RETENTION_MAX_ROWS");
+        long rows = 100000;
+        if (env != null && !env.isBlank()) {
+            try {
+                rows = Long.parseLong(env.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (rows < 1000) {
+            rows = 1000;
+        }
+        if (rows > 5000000) {
+            rows = 5000000;
+        }
+        return rows;
+    }
+
+    private long resolveRetentionIntervalMinutes() {
+        String env = System.getenv("AIPLAYER_DB_RETENTION_INTERVAL_MINUTES");
+        long minutes = 15;
+        if (env != null && !env.isBlank()) {
+            try {
+                minutes = Long.parseLong(env.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (minutes < 1) {
+            minutes = 1;
+        }
+        if (minutes > 1440) {
+            minutes = 1440;
+        }
+        return minutes;
+    }
+
+    private long resolveJournalFlushMillis() {
+        String env = System.getenv("AIPLAYER_DB_JOURNAL_FLUSH_MILLIS");
+        long millis = 500;
+        if (env != null && !env.isBlank()) {
+            try {
+                millis = Long.parseLong(env.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (millis < 50) {
+            millis = 50;
+        }
+        if (millis > 10000) {
+            millis = 10000;
+        }
+        return millis;
+    }
+
+    private int resolveJournalCapacity() {
+        String env = System.getenv("AIPLAYER_DB_JOURNAL_CAPACITY");
+        int size = 4096;
+        if (env != null && !env.isBlank()) {
+            try {
+                size = Integer.parseInt(env.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (size < 256) {
+            size = 256;
+        }
+        if (size > 65536) {
+            size = 65536;
+        }
+        return size;
+    }
+
+    private WriteBehindJournal.OverflowPolicy resolveJournalOverflowPolicy() {
+        String env = System.getenv("AIPLAYER_DB_JOURNAL_POLICY");
+        if (env != null && env.trim().equalsIgnoreCase("block")) {
+            return WriteBehindJournal.OverflowPolicy.BLOCK;
+        }
+        return WriteBehindJournal.OverflowPolicy.DROP;
+    }
+
+    private long resolveJournalBlockMillis() {
+        String env = System.getenv("AIPLAYER_DB_JOURNAL_BLOCK_MILLIS");
+        long millis = 50;
+        if (env != null && !env.isBlank()) {
+            try {
+                millis = Long.parseLong(env.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (millis < 1) {
+            millis = 1;
+        }
+        if (millis > 1000) {
+            millis = 1000;
+        }
+        return millis;
     }
 
     private int resolveActionBatchSize() {
@@ -1340,6 +1494,24 @@ public final class BotMemoryRepository {
         return size;
     }
 
+    private int resolveReadPoolSize() {
+        String env = System.getenv("AIPLAYER_DB_READ_POOL_SIZE");
+        int size = 3;
+        if (env != null && !env.isBlank()) {
+            try {
+                size = Integer.parseInt(env.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (size < 1) {
+            size = 1;
+        }
+        if (size > 8) {
+            size = 8;
+        }
+        return size;
+    }
+
     private int resolveActionBufferWarnThreshold() {
         String env = System.getenv("AIPLAYER_ACTION_BUFFER_WARN");
         int size = 300;
@@ -1358,6 +1530,9 @@ public final class BotMemoryRepository {
         return size;
     }
 
+    public record TrackedBotRecord(UUID entityId, String name) {
+    }
+
     public record BotGoalRecord(
         long id,
         String goal,
@@ -1400,7 +1575,71 @@ public final class BotMemoryRepository {
     ) {
     }
 
-    public record ActionRecord(String action, String result, String createdAt) {
+    public record RetentionStats(
+        boolean running,
+        long intervalMinutes,
+        long passes,
+        String lastPassAt,
+        double lastPassMillis,
+        long lastPassDeleted,
+        long rollupUpserts,
+        long checkpoints,
+        long vacuumedPages,
+        List<RetentionTableStats> tables
+    ) {
+    }
+
+    public record RetentionTableStats(String table, long rows, long maxRows, long maxAgeHours, long deleted) {
+    }
+
+    public record QueryPlanResult(String name, boolean indexed, String plan) {
+    }
+
+    record HotQuery(String name, String sql, List<Object> sampleArgs) {
+    }
+
+    public record VacuumResult(long pagesBefore, long pagesAfter, double millis, boolean incremental) {
+    }
+
+    public record JournalStats(
+        int depth,
+        int capacity,
+        String overflowPolicy,
+        long enqueued,
+        long written,
+        long dropped,
+        long failed,
+        long blockedWaits,
+        double avgBlockedMicros,
+        int maxDepth,
+        long flushes,
+        double lastFlushMillis,
+        int lastFlushSize,
+        int requiredRetrying
+    ) {
+    }
+
+    public record ConnectionPoolStats(
+        int readPoolSize,
+        int openReaders,
+        int idleReaders,
+        long connectionsOpened,
+        long readLeases,
+        long writeLeases,
+        long statementCacheHits,
+        long statementCacheMisses,
+        double avgReadWaitMicros,
+        double avgWriteWaitMicros
+    ) {
+    }
+
+    public record ConnectionBenchmarkResult(
+        int iterations,
+        double openReadMicros,
+        double pooledReadMicros,
+        double openWriteMicros,
+        double pooledWriteMicros
+    ) {
     }
 
     public record BotTask(
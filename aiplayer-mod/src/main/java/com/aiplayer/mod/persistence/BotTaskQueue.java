@@ -0,0 +1,143 @@
+package com.aiplayer.mod.persistence;
+
+import com.aiplayer.mod.persistence.BotMemoryRepository.BotTask;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Authoritative copy of the open (PENDING/ACTIVE) bot_tasks rows plus the id counter. Loaded once
+// at startup; the repository mirrors every mutation to SQLite through the write-behind journal.
+// A task leaves the queue when it closes; closed history is read back from SQLite.
+final class BotTaskQueue {
+    private static final Comparator<BotTask> OPEN_ORDER = Comparator
+        .comparingInt((BotTask task) -> "ACTIVE".equals(task.status()) ? 0 : 1)
+        .thenComparingLong(BotTask::id);
+
+    private final TreeMap<Long, BotTask> tasks = new TreeMap<>();
+    private final TreeSet<BotTask> openByStatus = new TreeSet<>(OPEN_ORDER);
+    private long lastId;
+
+    synchronized void load(List<BotTask> openTasks, long maxId) {
+        tasks.clear();
+        openByStatus.clear();
+        lastId = maxId;
+        for (BotTask task : openTasks) {
+            index(task);
+            lastId = Math.max(lastId, task.id());
+        }
+    }
+
+    synchronized BotTask add(String objective, String requestedBy, String now) {
+        BotTask task = new BotTask(++lastId, objective, "PENDING", requestedBy, now, now);
+        index(task);
+        return task;
+    }
+
+    // A closed task read from SQLite that is opened again.
+    synchronized void reopen(BotTask task) {
+        if (isOpen(task.status())) {
+            index(task);
+        }
+    }
+
+    synchronized Optional<BotTask> current() {
+        return openByStatus.isEmpty() ? Optional.empty() : Optional.of(openByStatus.first());
+    }
+
+    synchronized Optional<BotTask> byId(long taskId) {
+        return Optional.ofNullable(tasks.get(taskId));
+    }
+
+    synchronized List<BotTask> open(int limit) {
+        List<BotTask> result = new ArrayList<>();
+        for (BotTask task : tasks.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    // Newest first, the order of the task history.
+    synchronized List<BotTask> newest(int limit) {
+        List<BotTask> result = new ArrayList<>();
+        for (BotTask task : tasks.descendingMap().values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    synchronized List<BotTask> openByStatus(String status, int limit) {
+        List<BotTask> result = new ArrayList<>();
+        for (BotTask task : tasks.descendingMap().values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (task.status().equals(status)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    synchronized int countOpen() {
+        return tasks.size();
+    }
+
+    synchronized int countByStatus(String status) {
+        int count = 0;
+        for (BotTask task : tasks.values()) {
+            if (task.status().equals(status)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Empty when the task is not open; a task moved to a closed status leaves the queue.
+    synchronized Optional<BotTask> updateStatus(long taskId, String status, String now) {
+        BotTask task = tasks.get(taskId);
+        if (task == null) {
+            return Optional.empty();
+        }
+        BotTask updated = new BotTask(task.id(), task.objective(), status, task.requestedBy(), task.createdAt(), now);
+        unindex(task);
+        if (isOpen(status)) {
+            index(updated);
+        }
+        return Optional.of(updated);
+    }
+
+    synchronized Optional<BotTask> updateObjective(long taskId, String objective, String now) {
+        BotTask task = tasks.get(taskId);
+        if (task == null) {
+            return Optional.empty();
+        }
+        BotTask updated = new BotTask(task.id(), objective, task.status(), task.requestedBy(), task.createdAt(), now);
+        unindex(task);
+        index(updated);
+        return Optional.of(updated);
+    }
+
+    static boolean isOpen(String status) {
+        return "PENDING".equals(status) || "ACTIVE".equals(status);
+    }
+
+    private void index(BotTask task) {
+        tasks.put(task.id(), task);
+        openByStatus.add(task);
+    }
+
+    private void unindex(BotTask task) {
+        tasks.remove(task.id());
+        openByStatus.remove(task);
+    }
+}
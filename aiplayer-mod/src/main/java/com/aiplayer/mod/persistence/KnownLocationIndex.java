@@ -0,0 +1,161 @@
+package com.aiplayer.mod.persistence;
+
+import com.aiplayer.mod.persistence.BotMemoryRepository.KnownLocationRecord;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// In-memory copy of bot_known_locations bucketed by dimension and 16x16 chunk column, one entry per
+// block position. Nearest-N walks chunk rings outward from the query point and stops once the ring
+// is farther than the worst candidate kept so far.
+final class KnownLocationIndex {
+    private static final int MAX_RING = 32;
+
+    enum Change {
+        UNCHANGED,
+        ADDED,
+        RELABELED
+    }
+
+    private final Map<String, Map<Long, Map<Long, KnownLocationRecord>>> byDimension = new HashMap<>();
+    private int size;
+
+    synchronized void load(List<KnownLocationRecord> loaded) {
+        byDimension.clear();
+        size = 0;
+        for (KnownLocationRecord location : loaded) {
+            put(location);
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized Change upsert(KnownLocationRecord location) {
+        Map<Long, KnownLocationRecord> chunk = byDimension
+            .computeIfAbsent(location.dimension(), ignored -> new HashMap<>())
+            .computeIfAbsent(chunkKey(location.x(), location.z()), ignored -> new HashMap<>());
+        KnownLocationRecord existing = chunk.get(blockKey(location.x(), location.y(), location.z()));
+        if (existing != null && existing.label().equals(location.label())) {
+            return Change.UNCHANGED;
+        }
+        chunk.put(blockKey(location.x(), location.y(), location.z()), location);
+        if (existing == null) {
+            size++;
+            return Change.ADDED;
+        }
+        return Change.RELABELED;
+    }
+
+    synchronized KnownLocationRecord get(String dimension, int x, int y, int z) {
+        Map<Long, Map<Long, KnownLocationRecord>> chunks = byDimension.get(dimension);
+        if (chunks == null) {
+            return null;
+        }
+        Map<Long, KnownLocationRecord> chunk = chunks.get(chunkKey(x, z));
+        return chunk == null ? null : chunk.get(blockKey(x, y, z));
+    }
+
+    synchronized boolean remove(String dimension, int x, int y, int z) {
+        Map<Long, Map<Long, KnownLocationRecord>> chunks = byDimension.get(dimension);
+        if (chunks == null) {
+            return false;
+        }
+        long chunkKey = chunkKey(x, z);
+        Map<Long, KnownLocationRecord> chunk = chunks.get(chunkKey);
+        if (chunk == null || chunk.remove(blockKey(x, y, z)) == null) {
+            return false;
+        }
+        if (chunk.isEmpty()) {
+            chunks.remove(chunkKey);
+        }
+        size--;
+        return true;
+    }
+
+    // labels == null matches every label.
+    synchronized List<KnownLocationRecord> nearest(String dimension, int x, int y, int z, Set<String> labels, int limit) {
+        List<KnownLocationRecord> result = new ArrayList<>();
+        Map<Long, Map<Long, KnownLocationRecord>> chunks = byDimension.get(dimension);
+        if (chunks == null || chunks.isEmpty() || limit <= 0) {
+            return result;
+        }
+
+        Comparator<KnownLocationRecord> byDistance = Comparator.comparingLong(location -> distanceSquared(location, x, y, z));
+        int centerX = x >> 4;
+        int centerZ = z >> 4;
+        int side = 2 * MAX_RING + 1;
+        if (chunks.size() <= side * side / 4) {
+            // Sparse dimension: a full pass over the buckets is cheaper than walking empty rings.
+            for (Map<Long, KnownLocationRecord> chunk : chunks.values()) {
+                collect(chunk.values(), labels, result);
+            }
+            result.sort(byDistance);
+            return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+        }
+
+        for (int ring = 0; ring <= MAX_RING; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.abs(dx) != ring && Math.abs(dz) != ring) {
+                        continue;
+                    }
+                    Map<Long, KnownLocationRecord> chunk = chunks.get(chunkKey((centerX + dx) << 4, (centerZ + dz) << 4));
+                    if (chunk != null) {
+                        collect(chunk.values(), labels, result);
+                    }
+                }
+            }
+            if (result.size() >= limit) {
+                result.sort(byDistance);
+                // Anything in the next ring is at least ring * 16 blocks away horizontally.
+                long reach = (long) ring * 16L;
+                if (distanceSquared(result.get(limit - 1), x, y, z) <= reach * reach) {
+                    break;
+                }
+            }
+        }
+        result.sort(byDistance);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private void put(KnownLocationRecord location) {
+        KnownLocationRecord previous = byDimension
+            .computeIfAbsent(location.dimension(), ignored -> new HashMap<>())
+            .computeIfAbsent(chunkKey(location.x(), location.z()), ignored -> new HashMap<>())
+            .put(blockKey(location.x(), location.y(), location.z()), location);
+        if (previous == null) {
+            size++;
+        }
+    }
+
+    private static void collect(Collection<KnownLocationRecord> locations, Set<String> labels, List<KnownLocationRecord> result) {
+        for (KnownLocationRecord location : locations) {
+            if (labels == null || labels.contains(location.label())) {
+                result.add(location);
+            }
+        }
+    }
+
+    private static long distanceSquared(KnownLocationRecord location, int x, int y, int z) {
+        long dx = location.x() - x;
+        long dy = location.y() - y;
+        long dz = location.z() - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static long chunkKey(int x, int z) {
+        return ((long) (x >> 4) << 32) | ((z >> 4) & 0xFFFFFFFFL);
+    }
+
+    // Same packing as BlockPos.asLong: 26 bits x, 26 bits z, 12 bits y.
+    private static long blockKey(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | ((long) y & 0xFFFL);
+    }
+}
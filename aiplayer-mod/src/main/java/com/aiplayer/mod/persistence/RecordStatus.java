@@ -0,0 +1,46 @@
+package com.aiplayer.mod.persistence;
+
+import java.util.Locale;
+import java.util.Optional;
+
+// Status columns (bot_tasks, bot_goals, ae2_craft_requests) store the ordinal. ACTIVE sorts before
+// PENDING so "ORDER BY status, id" yields the current task first. Append new values at the end only.
+enum RecordStatus {
+    ACTIVE,
+    PENDING,
+    DISPATCHED,
+    PAUSED,
+    DONE,
+    FAILED,
+    CANCELED;
+
+    private static final RecordStatus[] VALUES = values();
+
+    int code() {
+        return ordinal();
+    }
+
+    static Optional<RecordStatus> parse(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException exception) {
+            return Optional.empty();
+        }
+    }
+
+    static String nameOf(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code].name() : "UNKNOWN";
+    }
+
+    // CASE expression used by the text-to-code migration; unknown legacy values become CANCELED.
+    static String sqlFromText(String column) {
+        StringBuilder builder = new StringBuilder("CASE UPPER(").append(column).append(")");
+        for (RecordStatus status : VALUES) {
+            builder.append(" WHEN '").append(status.name()).append("' THEN ").append(status.code());
+        }
+        return builder.append(" ELSE ").append(CANCELED.code()).append(" END").toString();
+    }
+}
@@ -0,0 +1,278 @@
+package com.aiplayer.mod.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Trims the append-only telemetry tables in small id-ordered batches on the writer connection,
+// folding rows into hourly rollups before they go. Rows are only ever removed from the oldest
+// end, so MAX(id) - MIN(id) + 1 stays an exact row count without a COUNT(*) scan.
+final class RetentionEngine implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetentionEngine.class);
+    private static final int DELETE_BATCH_SIZE = 500;
+    private static final int MAX_BATCHES_PER_PASS = 200;
+    private static final int VACUUM_PAGES_PER_PASS = 2000;
+    private static final long STOP_WAIT_MILLIS = 5000L;
+
+    record Policy(String table, Duration maxAge, long maxRows, String rollupSql) {
+    }
+
+    private final SqliteConnectionPool connectionPool;
+    private final List<Policy> policies;
+    private final long intervalMinutes;
+    private final Object passLock = new Object();
+    private ScheduledExecutorService executor;
+    private volatile boolean stopping;
+
+    private volatile boolean running;
+    private final AtomicLong passes = new AtomicLong();
+    private final AtomicLong rollupUpserts = new AtomicLong();
+    private final AtomicLong checkpoints = new AtomicLong();
+    private final AtomicLong vacuumedPages = new AtomicLong();
+    private final Map<String, AtomicLong> deletedByTable = new ConcurrentHashMap<>();
+    private final Map<String, Long> rowsByTable = new ConcurrentHashMap<>();
+    private volatile String lastPassAt = "";
+    private volatile long lastPassNanos;
+    private volatile long lastPassDeleted;
+
+    RetentionEngine(SqliteConnectionPool connectionPool, List<Policy> policies, long intervalMinutes) {
+        this.connectionPool = connectionPool;
+        this.policies = List.copyOf(policies);
+        this.intervalMinutes = intervalMinutes;
+        for (Policy policy : this.policies) {
+            deletedByTable.put(policy.table(), new AtomicLong());
+        }
+    }
+
+    synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        stopping = false;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aiplayer-db-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runPassSafely, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    synchronized boolean requestPass() {
+        if (executor == null || running) {
+            return false;
+        }
+        try {
+            executor.execute(this::runPassSafely);
+            return true;
+        } catch (RejectedExecutionException exception) {
+            return false;
+        }
+    }
+
+    BotMemoryRepository.RetentionStats stats() {
+        List<BotMemoryRepository.RetentionTableStats> tables = new ArrayList<>();
+        for (Policy policy : policies) {
+            tables.add(new BotMemoryRepository.RetentionTableStats(
+                policy.table(),
+                rowsByTable.getOrDefault(policy.table(), -1L),
+                policy.maxRows(),
+                policy.maxAge().toHours(),
+                deletedByTable.get(policy.table()).get()
+            ));
+        }
+        return new BotMemoryRepository.RetentionStats(
+            running,
+            intervalMinutes,
+            passes.get(),
+            lastPassAt,
+            lastPassNanos / 1_000_000.0D,
+            lastPassDeleted,
+            rollupUpserts.get(),
+            checkpoints.get(),
+            vacuumedPages.get(),
+            tables
+        );
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = executor;
+            executor = null;
+            stopping = true;
+        }
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(STOP_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Retention pass did not stop within {}ms", STOP_WAIT_MILLIS);
+                current.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runPassSafely() {
+        try {
+            runPass();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Retention pass failed", exception);
+        }
+    }
+
+    private void runPass() {
+        synchronized (passLock) {
+            running = true;
+            long startedAt = System.nanoTime();
+            long deleted = 0L;
+            try {
+                for (Policy policy : policies) {
+                    if (stopping) {
+                        break;
+                    }
+                    deleted += prune(policy);
+                }
+                if (deleted > 0 && !stopping) {
+                    compact();
+                }
+            } finally {
+                lastPassNanos = System.nanoTime() - startedAt;
+                lastPassDeleted = deleted;
+                lastPassAt = Instant.now().toString();
+                passes.incrementAndGet();
+                running = false;
+            }
+            if (deleted > 0) {
+                LOGGER.info("Retention pass removed {} telemetry rows in {}ms", deleted, lastPassNanos / 1_000_000L);
+            }
+        }
+    }
+
+    private long prune(Policy policy) {
+        long ageCutoff = System.currentTimeMillis() - policy.maxAge().toMillis();
+        String boundsSql = "SELECT COALESCE(MIN(id), 0) AS min_id, COALESCE(MAX(id), 0) AS max_id FROM " + policy.table();
+        String headSql = "SELECT id, created_at FROM " + policy.table() + " ORDER BY id ASC LIMIT ?";
+        String deleteSql = "DELETE FROM " + policy.table() + " WHERE id BETWEEN ? AND ?";
+        long deleted = 0L;
+
+        for (int batch = 0; batch < MAX_BATCHES_PER_PASS && !stopping; batch++) {
+            try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+                long minId;
+                long maxId;
+                try (ResultSet resultSet = lease.prepare(boundsSql).executeQuery()) {
+                    resultSet.next();
+                    minId = resultSet.getLong("min_id");
+                    maxId = resultSet.getLong("max_id");
+                }
+                rowsByTable.put(policy.table(), maxId == 0L ? 0L : maxId - minId + 1);
+                if (maxId == 0L) {
+                    break;
+                }
+
+                // Everything at or below rowCutoff is over the row cap; past that, rows go only once
+                // they are older than the age cutoff. Stop at the first row that satisfies neither.
+                long rowCutoff = maxId - policy.maxRows();
+                long batchEnd = -1L;
+                PreparedStatement head = lease.prepare(headSql);
+                head.setInt(1, DELETE_BATCH_SIZE);
+                try (ResultSet resultSet = head.executeQuery()) {
+                    while (resultSet.next()) {
+                        long id = resultSet.getLong("id");
+                        if (id > rowCutoff && resultSet.getLong("created_at") >= ageCutoff) {
+                            break;
+                        }
+                        batchEnd = id;
+                    }
+                }
+                if (batchEnd < 0L) {
+                    break;
+                }
+
+                int removed = deleteBatch(lease, policy, deleteSql, minId, batchEnd);
+                deleted += removed;
+                deletedByTable.get(policy.table()).addAndGet(removed);
+                rowsByTable.put(policy.table(), Math.max(0L, maxId - batchEnd));
+            } catch (SQLException exception) {
+                LOGGER.warn("Retention batch failed table={}", policy.table(), exception);
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private int deleteBatch(SqliteConnectionPool.Lease lease, Policy policy, String deleteSql, long fromId, long toId) throws SQLException {
+        Connection connection = lease.connection();
+        connection.setAutoCommit(false);
+        try {
+            if (policy.rollupSql() != null) {
+                PreparedStatement rollup = lease.prepare(policy.rollupSql());
+                rollup.setLong(1, fromId);
+                rollup.setLong(2, toId);
+                rollupUpserts.addAndGet(rollup.executeUpdate());
+            }
+            PreparedStatement delete = lease.prepare(deleteSql);
+            delete.setLong(1, fromId);
+            delete.setLong(2, toId);
+            int removed = delete.executeUpdate();
+            connection.commit();
+            return removed;
+        } catch (SQLException exception) {
+            connection.rollback();
+            throw exception;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // Gives freed pages back to the filesystem and truncates the WAL the deletes just grew.
+    private void compact() {
+        try (SqliteConnectionPool.Lease lease = connectionPool.write();
+             Statement statement = lease.connection().createStatement()) {
+            long before = freelistCount(statement);
+            if (statement.execute("PRAGMA incremental_vacuum(" + VACUUM_PAGES_PER_PASS + ")")) {
+                try (ResultSet resultSet = statement.getResultSet()) {
+                    while (resultSet.next()) {
+                        // each step frees one page
+                    }
+                }
+            }
+            vacuumedPages.addAndGet(Math.max(0L, before - freelistCount(statement)));
+
+            try (ResultSet resultSet = statement.executeQuery("PRAGMA wal_checkpoint(TRUNCATE)")) {
+                if (resultSet.next() && resultSet.getInt(1) != 0) {
+                    LOGGER.debug("WAL checkpoint could not complete (readers still active)");
+                }
+            }
+            checkpoints.incrementAndGet();
+        } catch (SQLException exception) {
+            LOGGER.warn("Retention compaction failed", exception);
+        }
+    }
+
+    private static long freelistCount(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("PRAGMA freelist_count")) {
+            return resultSet.next() ? resultSet.getLong(1) : 0L;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.aiplayer.mod.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Ordered schema migrations keyed on PRAGMA user_version. Databases created before versioning
+// report user_version=0 and replay the baseline, which is idempotent.
+final class SchemaMigrations {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    record Migration(int version, String description, boolean transactional, List<String> statements) {
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "baseline tables", true, List.of(
+            "CREATE TABLE IF NOT EXISTS bot_state (" +
+                "id INTEGER PRIMARY KEY CHECK (id = 1)," +
+                "phase TEXT NOT NULL," +
+                "updated_at TEXT NOT NULL" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS bot_config (" +
+                "config_key TEXT PRIMARY KEY," +
+                "config_value TEXT NOT NULL," +
+                "updated_at TEXT NOT NULL" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS bot_actions (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "action TEXT NOT NULL," +
+                "result TEXT NOT NULL," +
+                "created_at TEXT NOT NULL" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS bot_tasks (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "objective TEXT NOT NULL," +
+                "status TEXT NOT NULL," +
+                "requested_by TEXT NOT NULL," +
+                "created_at TEXT NOT NULL," +
+                "updated_at TEXT NOT NULL" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS interactions (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "player_id TEXT NOT NULL," +
+                "question TEXT NOT NULL," +
+                "response TEXT NOT NULL," +
+                "created_at TEXT NOT NULL" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS ae2_craft_requests (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "item_id TEXT NOT NULL," +
+                "quantity INTEGER NOT NULL CHECK (quantity > 0)," +
+                "status TEXT NOT NULL," +
+                "requested_by TEXT NOT NULL," +
+                "created_at TEXT NOT NULL," +
+                "updated_at TEXT NOT NULL," +
+                "result_message TEXT" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS bot_goals (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "goal TEXT NOT NULL," +
+                "description TEXT," +
+                "status TEXT NOT NULL," +
+                "source TEXT NOT NULL," +
+                "created_at TEXT NOT NULL," +
+                "updated_at TEXT NOT NULL" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS bot_action_history (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "goal TEXT NOT NULL," +
+                "step_index INTEGER NOT NULL," +
+                "action_type TEXT NOT NULL," +
+                "target TEXT," +
+                "item_id TEXT," +
+                "count INTEGER NOT NULL," +
+                "success INTEGER NOT NULL," +
+                "message TEXT," +
+                "created_at TEXT NOT NULL" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS bot_inventory_snapshots (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "summary TEXT NOT NULL," +
+                "created_at TEXT NOT NULL" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS bot_known_locations (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "label TEXT NOT NULL," +
+                "x INTEGER NOT NULL," +
+                "y INTEGER NOT NULL," +
+                "z INTEGER NOT NULL," +
+                "dimension TEXT NOT NULL," +
+                "created_at TEXT NOT NULL" +
+                ")"
+        )),
+        // bot_action_history(id) is the rowid alias and needs no extra index.
+        new Migration(2, "status and lookup indexes", true, List.of(
+            "UPDATE ae2_craft_requests SET status = UPPER(status) WHERE status <> UPPER(status)",
+            "CREATE INDEX IF NOT EXISTS idx_bot_tasks_status_id ON bot_tasks(status, id)",
+            "CREATE INDEX IF NOT EXISTS idx_ae2_craft_requests_status_id ON ae2_craft_requests(status, id)",
+            "CREATE INDEX IF NOT EXISTS idx_bot_known_locations_label_dimension ON bot_known_locations(label, dimension, id)",
+            "CREATE INDEX IF NOT EXISTS idx_bot_goals_status_id ON bot_goals(status, id)"
+        )),
+        new Migration(3, "telemetry rollups", true, List.of(
+            "CREATE TABLE IF NOT EXISTS bot_telemetry_rollups (" +
+                "source_table TEXT NOT NULL," +
+                "hour_start TEXT NOT NULL," +
+                "category TEXT NOT NULL," +
+                "total INTEGER NOT NULL," +
+                "successes INTEGER NOT NULL," +
+                "PRIMARY KEY (source_table, hour_start, category)" +
+                ")"
+        )),
+        // auto_vacuum only changes on an existing file after a full VACUUM, which can take minutes
+        // on a large database: it is left to /aiplayer db vacuum. New files get it in migrate().
+        new Migration(4, "incremental auto-vacuum", false, List.of(
+            "PRAGMA auto_vacuum = INCREMENTAL"
+        )),
+        // Collapses the per-decision duplicates to the latest row per block and makes the position
+        // unique so later writes can upsert.
+        new Migration(5, "deduplicated known locations", true, List.of(
+            "CREATE TABLE bot_known_locations_v5 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "label TEXT NOT NULL," +
+                "x INTEGER NOT NULL," +
+                "y INTEGER NOT NULL," +
+                "z INTEGER NOT NULL," +
+                "dimension TEXT NOT NULL," +
+                "created_at TEXT NOT NULL," +
+                "UNIQUE (dimension, x, y, z)" +
+                ")",
+            "INSERT INTO bot_known_locations_v5(id, label, x, y, z, dimension, created_at) " +
+                "SELECT id, label, x, y, z, dimension, created_at FROM bot_known_locations " +
+                "WHERE id IN (SELECT MAX(id) FROM bot_known_locations GROUP BY dimension, x, y, z)",
+            "DROP TABLE bot_known_locations",
+            "ALTER TABLE bot_known_locations_v5 RENAME TO bot_known_locations"
+        )),
+        // Timestamps move from ISO-8601 TEXT to INTEGER epoch millis and status columns to
+        // RecordStatus codes. SQLite cannot retype a column, so every table is rebuilt in place.
+        new Migration(6, "epoch millis timestamps and status codes", true, List.of(
+            "CREATE TABLE bot_state_v6 (" +
+                "id INTEGER PRIMARY KEY CHECK (id = 1)," +
+                "phase TEXT NOT NULL," +
+                "updated_at INTEGER NOT NULL" +
+                ")",
+            "INSERT INTO bot_state_v6(id, phase, updated_at) SELECT id, phase, " + epochMillis("updated_at") + " FROM bot_state",
+            "DROP TABLE bot_state",
+            "ALTER TABLE bot_state_v6 RENAME TO bot_state",
+
+            "CREATE TABLE bot_config_v6 (" +
+                "config_key TEXT PRIMARY KEY," +
+                "config_value TEXT NOT NULL," +
+                "updated_at INTEGER NOT NULL" +
+                ")",
+            "INSERT INTO bot_config_v6(config_key, config_value, updated_at) SELECT config_key, config_value, " + epochMillis("updated_at") + " FROM bot_config",
+            "DROP TABLE bot_config",
+            "ALTER TABLE bot_config_v6 RENAME TO bot_config",
+
+            "CREATE TABLE bot_actions_v6 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "action TEXT NOT NULL," +
+                "result TEXT NOT NULL," +
+                "created_at INTEGER NOT NULL" +
+                ")",
+            "INSERT INTO bot_actions_v6(id, action, result, created_at) SELECT id, action, result, " + epochMillis("created_at") + " FROM bot_actions",
+            "DROP TABLE bot_actions",
+            "ALTER TABLE bot_actions_v6 RENAME TO bot_actions",
+
+            "CREATE TABLE bot_tasks_v6 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "objective TEXT NOT NULL," +
+                "status INTEGER NOT NULL," +
+                "requested_by TEXT NOT NULL," +
+                "created_at INTEGER NOT NULL," +
+                "updated_at INTEGER NOT NULL" +
+                ")",
+            "INSERT INTO bot_tasks_v6(id, objective, status, requested_by, created_at, updated_at) SELECT id, objective, " +
+                RecordStatus.sqlFromText("status") + ", requested_by, " + epochMillis("created_at") + ", " + epochMillis("updated_at") + " FROM bot_tasks",
+            "DROP TABLE bot_tasks",
+            "ALTER TABLE bot_tasks_v6 RENAME TO bot_tasks",
+            "CREATE INDEX idx_bot_tasks_status_id ON bot_tasks(status, id)",
+
+            "CREATE TABLE interactions_v6 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "player_id TEXT NOT NULL," +
+                "question TEXT NOT NULL," +
+                "response TEXT NOT NULL," +
+                "created_at INTEGER NOT NULL" +
+                ")",
+            "INSERT INTO interactions_v6(id, player_id, question, response, created_at) SELECT id, player_id, question, response, " + epochMillis("created_at") + " FROM interactions",
+            "DROP TABLE interactions",
+            "ALTER TABLE interactions_v6 RENAME TO interactions",
+
+            "CREATE TABLE ae2_craft_requests_v6 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "item_id TEXT NOT NULL," +
+                "quantity INTEGER NOT NULL CHECK (quantity > 0)," +
+                "status INTEGER NOT NULL," +
+                "requested_by TEXT NOT NULL," +
+                "created_at INTEGER NOT NULL," +
+                "updated_at INTEGER NOT NULL," +
+                "result_message TEXT" +
+                ")",
+            "INSERT INTO ae2_craft_requests_v6(id, item_id, quantity, status, requested_by, created_at, updated_at, result_message) SELECT id, item_id, quantity, " +
+                RecordStatus.sqlFromText("status") + ", requested_by, " + epochMillis("created_at") + ", " + epochMillis("updated_at") + ", result_message FROM ae2_craft_requests",
+            "DROP TABLE ae2_craft_requests",
+            "ALTER TABLE ae2_craft_requests_v6 RENAME TO ae2_craft_requests",
+            "CREATE INDEX idx_ae2_craft_requests_status_id ON ae2_craft_requests(status, id)",
+
+            "CREATE TABLE bot_goals_v6 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "goal TEXT NOT NULL," +
+                "description TEXT," +
+                "status INTEGER NOT NULL," +
+                "source TEXT NOT NULL," +
+                "created_at INTEGER NOT NULL," +
+                "updated_at INTEGER NOT NULL" +
+                ")",
+            "INSERT INTO bot_goals_v6(id, goal, description, status, source, created_at, updated_at) SELECT id, goal, description, " +
+                RecordStatus.sqlFromText("status") + ", source, " + epochMillis("created_at") + ", " + epochMillis("updated_at") + " FROM bot_goals",
+            "DROP TABLE bot_goals",
+            "ALTER TABLE bot_goals_v6 RENAME TO bot_goals",
+            "CREATE INDEX idx_bot_goals_status_id ON bot_goals(status, id)",
+
+            "CREATE TABLE bot_action_history_v6 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "goal TEXT NOT NULL," +
+                "step_index INTEGER NOT NULL," +
+                "action_type TEXT NOT NULL," +
+                "target TEXT," +
+                "item_id TEXT," +
+                "count INTEGER NOT NULL," +
+                "success INTEGER NOT NULL," +
+                "message TEXT," +
+                "created_at INTEGER NOT NULL" +
+                ")",
+            "INSERT INTO bot_action_history_v6(id, goal, step_index, action_type, target, item_id, count, success, message, created_at) " +
+                "SELECT id, goal, step_index, action_type, target, item_id, count, success, message, " + epochMillis("created_at") + " FROM bot_action_history",
+            "DROP TABLE bot_action_history",
+            "ALTER TABLE bot_action_history_v6 RENAME TO bot_action_history",
+
+            "CREATE TABLE bot_inventory_snapshots_v6 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "summary TEXT NOT NULL," +
+                "created_at INTEGER NOT NULL" +
+                ")",
+            "INSERT INTO bot_inventory_snapshots_v6(id, summary, created_at) SELECT id, summary, " + epochMillis("created_at") + " FROM bot_inventory_snapshots",
+            "DROP TABLE bot_inventory_snapshots",
+            "ALTER TABLE bot_inventory_snapshots_v6 RENAME TO bot_inventory_snapshots",
+
+            "CREATE TABLE bot_known_locations_v6 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "label TEXT NOT NULL," +
+                "x INTEGER NOT NULL," +
+                "y INTEGER NOT NULL," +
+                "z INTEGER NOT NULL," +
+                "dimension TEXT NOT NULL," +
+                "created_at INTEGER NOT NULL," +
+                "UNIQUE (dimension, x, y, z)" +
+                ")",
+            "INSERT INTO bot_known_locations_v6(id, label, x, y, z, dimension, created_at) SELECT id, label, x, y, z, dimension, " + epochMillis("created_at") + " FROM bot_known_locations",
+            "DROP TABLE bot_known_locations",
+            "ALTER TABLE bot_known_locations_v6 RENAME TO bot_known_locations",
+
+            "CREATE TABLE bot_telemetry_rollups_v6 (" +
+                "source_table TEXT NOT NULL," +
+                "hour_start INTEGER NOT NULL," +
+                "category TEXT NOT NULL," +
+                "total INTEGER NOT NULL," +
+                "successes INTEGER NOT NULL," +
+                "PRIMARY KEY (source_table, hour_start, category)" +
+                ")",
+            "INSERT INTO bot_telemetry_rollups_v6(source_table, hour_start, category, total, successes) " +
+                "SELECT source_table, " + epochMillis("hour_start") + ", category, total, successes FROM bot_telemetry_rollups",
+            "DROP TABLE bot_telemetry_rollups",
+            "ALTER TABLE bot_telemetry_rollups_v6 RENAME TO bot_telemetry_rollups"
+        )),
+        // bot_actions rows carry no outcome, only free-form detail text: their rollups keep the
+        // count and leave successes NULL instead of guessing from the action name.
+        new Migration(7, "rollup successes only for rows with an outcome", true, List.of(
+            "CREATE TABLE bot_telemetry_rollups_v7 (" +
+                "source_table TEXT NOT NULL," +
+                "hour_start INTEGER NOT NULL," +
+                "category TEXT NOT NULL," +
+                "total INTEGER NOT NULL," +
+                "successes INTEGER," +
+                "PRIMARY KEY (source_table, hour_start, category)" +
+                ")",
+            "INSERT INTO bot_telemetry_rollups_v7(source_table, hour_start, category, total, successes) " +
+                "SELECT source_table, hour_start, category, total, " +
+                "CASE WHEN source_table = 'bot_actions' THEN NULL ELSE successes END FROM bot_telemetry_rollups",
+            "DROP TABLE bot_telemetry_rollups",
+            "ALTER TABLE bot_telemetry_rollups_v7 RENAME TO bot_telemetry_rollups"
+        )),
+        // v5 and v6 rebuild bot_known_locations and drop the label index from v2 with it; every
+        // file, fresh or upgraded, gets it back here.
+        new Migration(8, "restore known location label index", true, List.of(
+            "CREATE INDEX IF NOT EXISTS idx_bot_known_locations_label_dimension ON bot_known_locations(label, dimension, id)"
+        ))
+    );
+
+    private SchemaMigrations() {
+    }
+
+    // ISO-8601 text (as written by Instant.toString) to epoch millis; unparseable values become 0.
+    private static String epochMillis(String column) {
+        return "COALESCE(CAST(strftime('%s', " + column + ") AS INTEGER) * 1000"
+            + " + CAST(substr(strftime('%f', " + column + "), 4, 3) AS INTEGER), 0)";
+    }
+
+    static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    static int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    static int migrate(Connection connection) throws SQLException {
+        int version = currentVersion(connection);
+        if (version == 0 && isEmpty(connection)) {
+            // Takes effect without a VACUUM while the file has no tables yet.
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            }
+        }
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() <= version) {
+                continue;
+            }
+            apply(connection, migration);
+            version = migration.version();
+            LOGGER.info("Applied bot-memory migration v{} ({})", version, migration.description());
+        }
+        return version;
+    }
+
+    private static boolean isEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM sqlite_master")) {
+            return resultSet.next() && resultSet.getInt(1) == 0;
+        }
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        if (!migration.transactional()) {
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : migration.statements()) {
+                    statement.execute(sql);
+                }
+                statement.execute("PRAGMA user_version = " + migration.version());
+            }
+            return;
+        }
+
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements()) {
+                statement.execute(sql);
+            }
+            statement.execute("PRAGMA user_version = " + migration.version());
+            connection.commit();
+        } catch (SQLException exception) {
+            connection.rollback();
+            throw new SQLException("Migration v" + migration.version() + " failed: " + migration.description(), exception);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.aiplayer.mod.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Replays the two hottest tick-path calls (current task lookup, action history insert) against a
+// scratch database, once with a fresh connection per call and once through the pool.
+final class SqliteConnectionBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqliteConnectionBenchmark.class);
+
+    private static final String READ_SQL = """
+        SELECT id, objective, status, requested_by, created_at, updated_at
+        FROM bot_tasks
+        WHERE status IN (%d, %d)
+        ORDER BY status, id ASC
+        LIMIT 1
+        """.formatted(RecordStatus.ACTIVE.code(), RecordStatus.PENDING.code());
+    private static final String WRITE_SQL = "INSERT INTO bot_action_history(goal, step_index, action_type, target, item_id, count, success, message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private SqliteConnectionBenchmark() {
+    }
+
+    static BotMemoryRepository.ConnectionBenchmarkResult run(Path scratchPath, int iterations) throws SQLException {
+        deleteScratch(scratchPath);
+        String url = "jdbc:sqlite:" + scratchPath.toAbsolutePath();
+        try {
+            prepareScratch(url);
+
+            long openRead = 0L;
+            long openWrite = 0L;
+            for (int i = 0; i < iterations; i++) {
+                long startedAt = System.nanoTime();
+                try (Connection connection = SqliteConnectionPool.openConnection(url, false);
+                     PreparedStatement statement = connection.prepareStatement(READ_SQL);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                }
+                openRead += System.nanoTime() - startedAt;
+
+                startedAt = System.nanoTime();
+                try (Connection connection = SqliteConnectionPool.openConnection(url, false);
+                     PreparedStatement statement = connection.prepareStatement(WRITE_SQL)) {
+                    bindHistory(statement, i);
+                    statement.executeUpdate();
+                }
+                openWrite += System.nanoTime() - startedAt;
+            }
+
+            long pooledRead = 0L;
+            long pooledWrite = 0L;
+            try (SqliteConnectionPool pool = new SqliteConnectionPool(scratchPath, 1)) {
+                for (int i = 0; i < iterations; i++) {
+                    long startedAt = System.nanoTime();
+                    try (SqliteConnectionPool.Lease lease = pool.read();
+                         ResultSet resultSet = lease.prepare(READ_SQL).executeQuery()) {
+                        resultSet.next();
+                    }
+                    pooledRead += System.nanoTime() - startedAt;
+
+                    startedAt = System.nanoTime();
+                    try (SqliteConnectionPool.Lease lease = pool.write()) {
+                        PreparedStatement statement = lease.prepare(WRITE_SQL);
+                        bindHistory(statement, i);
+                        statement.executeUpdate();
+                    }
+                    pooledWrite += System.nanoTime() - startedAt;
+                }
+            }
+
+            return new BotMemoryRepository.ConnectionBenchmarkResult(
+                iterations,
+                openRead / 1000.0D / iterations,
+                pooledRead / 1000.0D / iterations,
+                openWrite / 1000.0D / iterations,
+                pooledWrite / 1000.0D / iterations
+            );
+        } finally {
+            deleteScratch(scratchPath);
+        }
+    }
+
+    private static void prepareScratch(String url) throws SQLException {
+        try (Connection connection = SqliteConnectionPool.openConnection(url, false);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE bot_tasks (id INTEGER PRIMARY KEY AUTOINCREMENT, objective TEXT NOT NULL, status INTEGER NOT NULL, requested_by TEXT NOT NULL, created_at INTEGER NOT NULL, updated_at INTEGER NOT NULL)");
+            statement.execute("CREATE INDEX idx_bot_tasks_status_id ON bot_tasks(status, id)");
+            statement.execute("CREATE TABLE bot_action_history (id INTEGER PRIMARY KEY AUTOINCREMENT, goal TEXT NOT NULL, step_index INTEGER NOT NULL, action_type TEXT NOT NULL, target TEXT, item_id TEXT, count INTEGER NOT NULL, success INTEGER NOT NULL, message TEXT, created_at INTEGER NOT NULL)");
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < 32; i++) {
+                int status = i % 8 == 0 ? RecordStatus.PENDING.code() : RecordStatus.DONE.code();
+                statement.execute("INSERT INTO bot_tasks(objective, status, requested_by, created_at, updated_at) VALUES ('bench-" + i + "', " + status + ", 'bench', " + now + ", " + now + ")");
+            }
+        }
+    }
+
+    private static void bindHistory(PreparedStatement statement, int index) throws SQLException {
+        statement.setString(1, "bench");
+        statement.setInt(2, index);
+        statement.setString(3, "MOVE");
+        statement.setString(4, "0,64,0");
+        statement.setString(5, "");
+        statement.setInt(6, 1);
+        statement.setInt(7, 1);
+        statement.setString(8, "ok");
+        statement.setLong(9, System.currentTimeMillis());
+    }
+
+    private static void deleteScratch(Path scratchPath) {
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            Path file = scratchPath.resolveSibling(scratchPath.getFileName() + suffix);
+            try {
+                Files.deleteIfExists(file);
+            } catch (Exception exception) {
+                LOGGER.warn("Failed to delete benchmark scratch file {}", file, exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.aiplayer.mod.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// One long-lived writer connection (SQLite only allows a single writer anyway) and a small
+// pool of query_only readers; WAL lets readers run while the writer is busy. close() drops every
+// connection but the pool reopens lazily, so an integrated server can start a new world.
+final class SqliteConnectionPool implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqliteConnectionPool.class);
+    private static final int STATEMENT_CACHE_SIZE = 48;
+    private static final long READ_WAIT_MILLIS = 3000L;
+
+    private final String url;
+    private final int readPoolSize;
+    private final BlockingQueue<PooledConnection> idleReaders;
+    private final List<PooledConnection> openReaders = new ArrayList<>();
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private PooledConnection writer;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong readLeases = new AtomicLong();
+    private final AtomicLong writeLeases = new AtomicLong();
+    private final AtomicLong readWaitNanos = new AtomicLong();
+    private final AtomicLong writeWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    SqliteConnectionPool(Path databasePath, int readPoolSize) {
+        this.url = "jdbc:sqlite:" + databasePath.toAbsolutePath();
+        this.readPoolSize = Math.max(1, readPoolSize);
+        this.idleReaders = new ArrayBlockingQueue<>(this.readPoolSize);
+    }
+
+    Lease read() throws SQLException {
+        long startedAt = System.nanoTime();
+        PooledConnection connection = idleReaders.poll();
+        if (connection == null) {
+            connection = openReaderIfAllowed();
+        }
+        if (connection == null) {
+            try {
+                connection = idleReaders.poll(READ_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a read connection", exception);
+            }
+            if (connection == null) {
+                throw new SQLException("Timed out waiting for a read connection (pool=" + readPoolSize + ")");
+            }
+        }
+        readWaitNanos.addAndGet(System.nanoTime() - startedAt);
+        readLeases.incrementAndGet();
+        return new Lease(connection, false);
+    }
+
+    Lease write() throws SQLException {
+        long startedAt = System.nanoTime();
+        writerLock.lock();
+        try {
+            if (writer == null || writer.connection.isClosed()) {
+                writer = new PooledConnection(openConnection(url, false), generation.get());
+                connectionsOpened.incrementAndGet();
+            }
+        } catch (SQLException exception) {
+            writerLock.unlock();
+            throw exception;
+        }
+        writeWaitNanos.addAndGet(System.nanoTime() - startedAt);
+        writeLeases.incrementAndGet();
+        return new Lease(writer, true);
+    }
+
+    BotMemoryRepository.ConnectionPoolStats stats() {
+        int opened;
+        synchronized (openReaders) {
+            opened = openReaders.size();
+        }
+        long reads = readLeases.get();
+        long writes = writeLeases.get();
+        return new BotMemoryRepository.ConnectionPoolStats(
+            readPoolSize,
+            opened,
+            idleReaders.size(),
+            connectionsOpened.get(),
+            reads,
+            writes,
+            statementHits.get(),
+            statementMisses.get(),
+            reads == 0 ? 0.0D : readWaitNanos.get() / 1000.0D / reads,
+            writes == 0 ? 0.0D : writeWaitNanos.get() / 1000.0D / writes
+        );
+    }
+
+    @Override
+    public void close() {
+        generation.incrementAndGet();
+        writerLock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+
+        PooledConnection idle;
+        while ((idle = idleReaders.poll()) != null) {
+            discardReader(idle);
+        }
+        LOGGER.info("SQLite connection pool closed (opened={} reads={} writes={})",
+            connectionsOpened.get(), readLeases.get(), writeLeases.get());
+    }
+
+    static Connection openConnection(String url, boolean queryOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("PRAGMA temp_store=MEMORY");
+            statement.execute("PRAGMA busy_timeout=3000");
+            if (queryOnly) {
+                statement.execute("PRAGMA query_only=ON");
+            }
+        } catch (SQLException exception) {
+            LOGGER.warn("Failed to apply SQLite pragmas", exception);
+        }
+        return connection;
+    }
+
+    private PooledConnection openReaderIfAllowed() throws SQLException {
+        synchronized (openReaders) {
+            if (openReaders.size() >= readPoolSize) {
+                return null;
+            }
+            PooledConnection connection = new PooledConnection(openConnection(url, true), generation.get());
+            connectionsOpened.incrementAndGet();
+            openReaders.add(connection);
+            return connection;
+        }
+    }
+
+    private void release(Lease lease) {
+        if (lease.writer) {
+            writerLock.unlock();
+            return;
+        }
+
+        PooledConnection connection = lease.pooled;
+        boolean broken;
+        try {
+            broken = connection.connection.isClosed();
+        } catch (SQLException exception) {
+            broken = true;
+        }
+        if (broken || connection.generation != generation.get() || !idleReaders.offer(connection)) {
+            discardReader(connection);
+        }
+    }
+
+    private void discardReader(PooledConnection connection) {
+        synchronized (openReaders) {
+            openReaders.remove(connection);
+        }
+        connection.close();
+    }
+
+    final class Lease implements AutoCloseable {
+        private final PooledConnection pooled;
+        private final boolean writer;
+        private boolean released;
+
+        private Lease(PooledConnection pooled, boolean writer) {
+            this.pooled = pooled;
+            this.writer = writer;
+        }
+
+        Connection connection() {
+            return pooled.connection;
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            return pooled.statement(sql, false);
+        }
+
+        PreparedStatement prepareReturningKeys(String sql) throws SQLException {
+            return pooled.statement(sql, true);
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            release(this);
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection connection;
+        private final long generation;
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= STATEMENT_CACHE_SIZE) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+
+        private PooledConnection(Connection connection, long generation) {
+            this.connection = connection;
+            this.generation = generation;
+        }
+
+        // Cached statements stay open for the life of the connection: callers close their
+        // ResultSets but never the statement itself.
+        private PreparedStatement statement(String sql, boolean generatedKeys) throws SQLException {
+            String key = generatedKeys ? "keys:" + sql : sql;
+            PreparedStatement statement = statements.get(key);
+            if (statement != null && !statement.isClosed()) {
+                statementHits.incrementAndGet();
+                statement.clearParameters();
+                statement.clearBatch();
+                return statement;
+            }
+
+            statementMisses.incrementAndGet();
+            statement = generatedKeys
+                ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql);
+            statements.put(key, statement);
+            return statement;
+        }
+
+        private void close() {
+            statements.values().forEach(SqliteConnectionPool::closeQuietly);
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException exception) {
+                LOGGER.warn("Failed to close SQLite connection", exception);
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.aiplayer.mod.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Write-behind pipeline for telemetry: callers enqueue parameterised statements, a single
+// writer thread drains them into one transaction per flush on the pool's writer connection.
+// When a transaction fails it is rolled back and replayed one row at a time, so only the rows
+// that fail on their own are lost, except required writes, which wait and are retried.
+final class WriteBehindJournal implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindJournal.class);
+    private static final int MAX_WRITES_PER_TRANSACTION = 1000;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long STOP_JOIN_MILLIS = 5000L;
+    private static final long RETRY_BASE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final long RETRY_MAX_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    // Sequence numbers required writes in submission order; 0 for the others.
+    private record PendingWrite(String sql, Object[] args, boolean required, long sequence) {
+    }
+
+    private final SqliteConnectionPool connectionPool;
+    private final int capacity;
+    private final int wakeThreshold;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final ConcurrentLinkedQueue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Object flushLock = new Object();
+    private final Object requiredLock = new Object();
+    // Required writes rejected by SQLite, and the required writes queued after them; guarded by flushLock.
+    private final ArrayDeque<PendingWrite> retryQueue = new ArrayDeque<>();
+    private long retryAtNanos;
+    private int retryAttempts;
+    private volatile int retryDepth;
+    private volatile Thread writerThread;
+    private volatile boolean stopping;
+
+    // Required writes stay in order, so every sequence up to requiredStored is in SQLite.
+    private final AtomicLong requiredSubmitted = new AtomicLong();
+    private final AtomicLong requiredStored = new AtomicLong();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong blockedWaits = new AtomicLong();
+    private final AtomicLong blockedNanos = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private volatile long lastFlushNanos;
+    private volatile int lastFlushSize;
+
+    WriteBehindJournal(
+        SqliteConnectionPool connectionPool,
+        int capacity,
+        int wakeThreshold,
+        long flushIntervalMillis,
+        OverflowPolicy overflowPolicy,
+        long blockTimeoutMillis
+    ) {
+        this.connectionPool = connectionPool;
+        this.capacity = capacity;
+        this.wakeThreshold = Math.min(wakeThreshold, capacity);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+    }
+
+    boolean submit(String sql, Object... args) {
+        if (!reserveSlot()) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        queue.offer(new PendingWrite(sql, args, false, 0L));
+        enqueued.incrementAndGet();
+        int current = depth.get();
+        maxDepth.accumulateAndGet(current, Math::max);
+
+        Thread writer = ensureWriter();
+        if (current >= wakeThreshold && writer != null) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    // For rows that are the only durable copy of in-memory state (tasks): never dropped for
+    // capacity, may briefly push the queue past it. A required write SQLite rejects is kept,
+    // together with every required write after it so they stay in order, and retried with
+    // backoff; close() makes a last attempt and logs what could not be stored.
+    void submitRequired(String sql, Object... args) {
+        depth.incrementAndGet();
+        synchronized (requiredLock) {
+            queue.offer(new PendingWrite(sql, args, true, requiredSubmitted.incrementAndGet()));
+        }
+        enqueued.incrementAndGet();
+        maxDepth.accumulateAndGet(depth.get(), Math::max);
+        Thread writer = ensureWriter();
+        if (writer != null) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    int depth() {
+        return depth.get();
+    }
+
+    // Blocks the caller until everything enqueued so far has been handed to SQLite.
+    void drain() {
+        while (!queue.isEmpty()) {
+            if (flushOnce(true) == 0 && !queue.isEmpty()) {
+                break;
+            }
+        }
+        if (retryDepth > 0) {
+            flushOnce(true);
+        }
+    }
+
+    // Waits at most timeoutMillis for the required writes submitted so far to reach SQLite, waking
+    // the writer instead of flushing on the caller thread. False when they are still queued.
+    boolean awaitRequired(long timeoutMillis) {
+        long target = requiredSubmitted.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (requiredStored.get() < target) {
+            Thread writer = writerThread;
+            if (writer == null || System.nanoTime() - deadline >= 0L) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        return true;
+    }
+
+    BotMemoryRepository.JournalStats stats() {
+        long waits = blockedWaits.get();
+        return new BotMemoryRepository.JournalStats(
+            depth.get(),
+            capacity,
+            overflowPolicy.name().toLowerCase(Locale.ROOT),
+            enqueued.get(),
+            written.get(),
+            dropped.get(),
+            failed.get(),
+            waits,
+            waits == 0 ? 0.0D : blockedNanos.get() / 1000.0D / waits,
+            maxDepth.get(),
+            flushes.get(),
+            lastFlushNanos / 1_000_000.0D,
+            lastFlushSize,
+            retryDepth
+        );
+    }
+
+    @Override
+    public void close() {
+        stopping = true;
+        Thread writer = writerThread;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(STOP_JOIN_MILLIS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            if (writer.isAlive()) {
+                LOGGER.warn("Journal writer did not stop within {}ms, draining on caller thread", STOP_JOIN_MILLIS);
+            }
+        }
+        drain();
+        if (retryDepth > 0) {
+            LOGGER.error("{} required journaled writes (bot tasks) could not be stored and are lost", retryDepth);
+        }
+        synchronized (this) {
+            writerThread = null;
+            stopping = false;
+        }
+        LOGGER.info("Write-behind journal drained (written={} dropped={} failed={})", written.get(), dropped.get(), failed.get());
+    }
+
+    private boolean reserveSlot() {
+        long blockedSince = 0L;
+        while (true) {
+            int current = depth.get();
+            if (current < capacity) {
+                if (depth.compareAndSet(current, current + 1)) {
+                    if (blockedSince != 0L) {
+                        blockedNanos.addAndGet(System.nanoTime() - blockedSince);
+                    }
+                    return true;
+                }
+                continue;
+            }
+
+            Thread writer = writerThread;
+            if (overflowPolicy == OverflowPolicy.DROP || writer == null || Thread.currentThread() == writer) {
+                return false;
+            }
+            long now = System.nanoTime();
+            if (blockedSince == 0L) {
+                blockedSince = now;
+                blockedWaits.incrementAndGet();
+            } else if (now - blockedSince >= blockTimeoutNanos) {
+                blockedNanos.addAndGet(now - blockedSince);
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+    }
+
+    private Thread ensureWriter() {
+        Thread writer = writerThread;
+        if (writer != null || stopping) {
+            return writer;
+        }
+        synchronized (this) {
+            if (writerThread == null && !stopping) {
+                Thread thread = new Thread(this::runWriter, "aiplayer-db-writer");
+                thread.setDaemon(true);
+                writerThread = thread;
+                thread.start();
+            }
+            return writerThread;
+        }
+    }
+
+    private void runWriter() {
+        while (!stopping) {
+            LockSupport.parkNanos(flushIntervalNanos);
+            try {
+                while (!stopping && flushOnce(false) >= MAX_WRITES_PER_TRANSACTION) {
+                    Thread.onSpinWait();
+                }
+            } catch (RuntimeException exception) {
+                LOGGER.warn("Journal writer flush failed", exception);
+            }
+        }
+    }
+
+    // Returns how many writes were taken from the queue. Rejected required writes are retried
+    // once their backoff is over, or right away when retryNow is set.
+    private int flushOnce(boolean retryNow) {
+        synchronized (flushLock) {
+            List<PendingWrite> batch = new ArrayList<>();
+            boolean retrying = !retryQueue.isEmpty() && (retryNow || System.nanoTime() - retryAtNanos >= 0L);
+            if (retrying) {
+                batch.addAll(retryQueue);
+                retryQueue.clear();
+            }
+            int polled = 0;
+            PendingWrite next;
+            while (polled < MAX_WRITES_PER_TRANSACTION && (next = queue.poll()) != null) {
+                polled++;
+                if (next.required() && !retryQueue.isEmpty()) {
+                    retryQueue.addLast(next);
+                } else {
+                    batch.add(next);
+                }
+            }
+            depth.addAndGet(-polled);
+            if (batch.isEmpty()) {
+                retryDepth = retryQueue.size();
+                return polled;
+            }
+
+            long startedAt = System.nanoTime();
+            List<PendingWrite> rejected;
+            try (SqliteConnectionPool.Lease lease = connectionPool.write()) {
+                try {
+                    writeBatch(lease, batch);
+                    written.addAndGet(batch.size());
+                    batch.forEach(this::markStored);
+                    rejected = List.of();
+                } catch (SQLException exception) {
+                    LOGGER.warn("Journal transaction of {} writes failed, replaying them one at a time", batch.size(), exception);
+                    rejected = writeRows(lease, batch);
+                }
+            } catch (SQLException exception) {
+                LOGGER.warn("Failed to flush {} journaled writes", batch.size(), exception);
+                rejected = new ArrayList<>();
+                for (PendingWrite write : batch) {
+                    if (write.required()) {
+                        rejected.add(write);
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                }
+            }
+            if (!rejected.isEmpty()) {
+                for (int i = rejected.size() - 1; i >= 0; i--) {
+                    retryQueue.addFirst(rejected.get(i));
+                }
+                long delay = Math.min(RETRY_MAX_NANOS, RETRY_BASE_NANOS << Math.min(retryAttempts, 7));
+                retryAttempts++;
+                retryAtNanos = System.nanoTime() + delay;
+                LOGGER.warn("{} required journaled writes kept for retry in {}ms (attempt {})",
+                    retryQueue.size(), TimeUnit.NANOSECONDS.toMillis(delay), retryAttempts);
+            } else if (retrying) {
+                retryAttempts = 0;
+            }
+            retryDepth = retryQueue.size();
+            lastFlushNanos = System.nanoTime() - startedAt;
+            lastFlushSize = batch.size();
+            flushes.incrementAndGet();
+            return polled;
+        }
+    }
+
+    private void markStored(PendingWrite write) {
+        if (write.required()) {
+            requiredStored.accumulateAndGet(write.sequence(), Math::max);
+        }
+    }
+
+    private static void writeBatch(SqliteConnectionPool.Lease lease, List<PendingWrite> batch) throws SQLException {
+        Connection connection = lease.connection();
+        connection.setAutoCommit(false);
+        try {
+            String currentSql = null;
+            PreparedStatement statement = null;
+            for (PendingWrite write : batch) {
+                if (!write.sql().equals(currentSql)) {
+                    if (statement != null) {
+                        statement.executeBatch();
+                    }
+                    statement = lease.prepare(write.sql());
+                    currentSql = write.sql();
+                }
+                Object[] args = write.args();
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+                statement.addBatch();
+            }
+            if (statement != null) {
+                statement.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException exception) {
+            connection.rollback();
+            throw exception;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // Returns the required writes to retry: the first one SQLite rejects and every required
+    // write after it, which is not attempted so a later update cannot overtake an earlier insert.
+    private List<PendingWrite> writeRows(SqliteConnectionPool.Lease lease, List<PendingWrite> batch) {
+        List<PendingWrite> rejected = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            if (write.required() && !rejected.isEmpty()) {
+                rejected.add(write);
+                continue;
+            }
+            try {
+                PreparedStatement statement = lease.prepare(write.sql());
+                statement.clearBatch();
+                Object[] args = write.args();
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+                statement.executeUpdate();
+                written.incrementAndGet();
+                markStored(write);
+            } catch (SQLException exception) {
+                if (write.required()) {
+                    rejected.add(write);
+                    LOGGER.warn("Required journaled write failed, will retry sql={} args={}", write.sql(), Arrays.toString(write.args()), exception);
+                } else {
+                    failed.incrementAndGet();
+                    LOGGER.warn("Dropped journaled write sql={} args={}", write.sql(), Arrays.toString(write.args()), exception);
+                }
+            }
+        }
+        return rejected;
+    }
+}
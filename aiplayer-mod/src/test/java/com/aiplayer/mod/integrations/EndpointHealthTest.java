@@ -0,0 +1,111 @@
+package com.aiplayer.mod.integrations;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Breaker transitions on an explicit clock: 3 failures open, 5s base cooldown, one half-open trial.
+class EndpointHealthTest {
+    private static final long T0 = 1_000_000L;
+
+    @Test
+    void opensAfterThreeConsecutiveFailures() {
+        EndpointHealth health = new EndpointHealth("http://a");
+        health.recordFailure("http 500", T0);
+        health.recordFailure("http 500", T0);
+        assertTrue(health.isRoutable(T0));
+
+        health.recordFailure("http 500", T0);
+        assertFalse(health.isRoutable(T0));
+        assertFalse(health.tryAcquire(T0 + 4_999L));
+        assertEquals("OPEN", health.stats(T0).state());
+        assertEquals(3, health.stats(T0).consecutiveFailures());
+    }
+
+    @Test
+    void successBetweenFailuresKeepsTheBreakerClosed() {
+        EndpointHealth health = new EndpointHealth("http://a");
+        health.recordFailure("http 500", T0);
+        health.recordFailure("http 500", T0);
+        health.recordSuccess(40.0D, T0);
+        health.recordFailure("http 500", T0);
+        health.recordFailure("http 500", T0);
+
+        assertEquals("CLOSED", health.stats(T0).state());
+        assertTrue(health.isRoutable(T0));
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndSuccessCloses() {
+        EndpointHealth health = open();
+        long cooled = T0 + 5_000L;
+
+        assertEquals("HALF_OPEN", health.stats(cooled).state());
+        assertTrue(health.isRoutable(cooled));
+        assertTrue(health.tryAcquire(cooled));
+        assertFalse(health.tryAcquire(cooled));
+        assertFalse(health.isRoutable(cooled));
+
+        health.recordSuccess(25.0D, cooled);
+        assertEquals("CLOSED", health.stats(cooled).state());
+        assertEquals(0, health.stats(cooled).consecutiveFailures());
+        assertTrue(health.tryAcquire(cooled));
+        assertTrue(health.tryAcquire(cooled));
+    }
+
+    @Test
+    void failedTrialReopensWithDoubledCooldown() {
+        EndpointHealth health = open();
+        long cooled = T0 + 5_000L;
+        assertTrue(health.tryAcquire(cooled));
+        health.recordFailure("connect timeout", cooled);
+
+        assertEquals("OPEN", health.stats(cooled + 9_999L).state());
+        assertEquals("HALF_OPEN", health.stats(cooled + 10_000L).state());
+    }
+
+    @Test
+    void releasedTrialFreesTheHalfOpenSlot() {
+        EndpointHealth health = open();
+        long cooled = T0 + 5_000L;
+        assertTrue(health.tryAcquire(cooled));
+        health.release();
+
+        assertEquals("HALF_OPEN", health.stats(cooled).state());
+        assertTrue(health.tryAcquire(cooled));
+    }
+
+    @Test
+    void healthyProbeClosesAnOpenBreaker() {
+        EndpointHealth health = open();
+        assertTrue(health.needsProbe(T0, 30_000L));
+
+        health.recordProbe(true, 3.0D, "", T0 + 1_000L);
+        assertEquals("CLOSED", health.stats(T0 + 1_000L).state());
+        assertTrue(health.isRoutable(T0 + 1_000L));
+        assertFalse(health.needsProbe(T0 + 1_000L, 30_000L));
+    }
+
+    @Test
+    void fasterEndpointRoutesFirst() {
+        EndpointHealth slow = new EndpointHealth("http://slow");
+        EndpointHealth fast = new EndpointHealth("http://fast");
+        EndpointHealth unmeasured = new EndpointHealth("http://new");
+        slow.recordSuccess(900.0D, T0);
+        fast.recordSuccess(50.0D, T0);
+
+        assertTrue(fast.routingScore() < slow.routingScore());
+        assertTrue(slow.routingScore() < unmeasured.routingScore());
+        assertTrue(unmeasured.routingScore() < open().routingScore());
+    }
+
+    private static EndpointHealth open() {
+        EndpointHealth health = new EndpointHealth("http://a");
+        for (int i = 0; i < 3; i++) {
+            health.recordFailure("http 500", T0);
+        }
+        return health;
+    }
+}
@@ -0,0 +1,204 @@
+package com.aiplayer.mod.integrations;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// OllamaClient against local stub servers standing in for flaky, slow and dead Ollama backends.
+class OllamaClientFailoverTest {
+    private final List<StubOllama> stubs = new ArrayList<>();
+    private OllamaClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        stubs.forEach(StubOllama::stop);
+        System.clearProperty("aiplayer.ollama.hedgeMillis");
+        System.clearProperty("aiplayer.ollama.probeSeconds");
+    }
+
+    @Test
+    void failsOverWhenTheFirstEndpointErrors() throws IOException {
+        StubOllama flaky = stub("flaky", Mode.ERROR);
+        StubOllama healthy = stub("healthy", Mode.OK);
+        client = new OllamaClient(List.of(flaky.url(), healthy.url()), "test");
+
+        assertEquals(Optional.of("healthy"), ask("q1"));
+        assertEquals(1, flaky.chats());
+        assertEquals(1, healthy.chats());
+    }
+
+    @Test
+    void failsOverWhenTheFirstEndpointIsDown() throws IOException {
+        StubOllama dead = stub("dead", Mode.OK);
+        dead.stop();
+        StubOllama healthy = stub("healthy", Mode.OK);
+        client = new OllamaClient(List.of(dead.url(), healthy.url()), "test");
+
+        assertEquals(Optional.of("healthy"), ask("q1"));
+        assertEquals("http://127.0.0.1:" + dead.port(), client.getEndpointStats().get(0).endpoint());
+        assertEquals(1, client.getEndpointStats().get(0).failures());
+    }
+
+    @Test
+    void routesAroundAFailedEndpointOnceAnotherHasAnswered() throws IOException {
+        StubOllama flaky = stub("flaky", Mode.ERROR);
+        StubOllama healthy = stub("healthy", Mode.OK);
+        client = new OllamaClient(List.of(flaky.url(), healthy.url()), "test");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Optional.of("healthy"), ask("q" + i));
+        }
+        assertEquals(1, flaky.chats());
+        assertEquals(3, healthy.chats());
+    }
+
+    @Test
+    void openBreakerStopsTrafficToTheEndpoint() throws IOException {
+        StubOllama flaky = stub("flaky", Mode.ERROR);
+        client = new OllamaClient(List.of(flaky.url()), "test");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Optional.empty(), ask("q" + i));
+        }
+        assertEquals("OPEN", client.getEndpointStats().get(0).state());
+
+        assertEquals(Optional.empty(), ask("q3"));
+        assertEquals(3, flaky.chats());
+    }
+
+    @Test
+    void probeClosesTheBreakerOnceTheBackendRecovers() throws Exception {
+        System.setProperty("aiplayer.ollama.probeSeconds", "5");
+        StubOllama flaky = stub("flaky", Mode.ERROR);
+        client = new OllamaClient(List.of(flaky.url()), "test");
+        for (int i = 0; i < 3; i++) {
+            ask("q" + i);
+        }
+        assertEquals("OPEN", client.getEndpointStats().get(0).state());
+
+        flaky.mode = Mode.OK;
+        // The probe starts 1s after the first request and then runs every 5s.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!"CLOSED".equals(client.getEndpointStats().get(0).state()) && System.nanoTime() < deadline) {
+            Thread.sleep(50L);
+        }
+        assertEquals("CLOSED", client.getEndpointStats().get(0).state());
+        assertEquals(Optional.of("flaky"), ask("q3"));
+        assertEquals(4, flaky.chats());
+    }
+
+    @Test
+    void hedgesPastASlowEndpoint() throws IOException {
+        System.setProperty("aiplayer.ollama.hedgeMillis", "100");
+        StubOllama slow = stub("slow", Mode.SLOW);
+        StubOllama fast = stub("fast", Mode.OK);
+        client = new OllamaClient(List.of(slow.url(), fast.url()), "test");
+
+        long startedAt = System.nanoTime();
+        assertEquals(Optional.of("fast"), ask("q1"));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        assertTrue(millis < StubOllama.SLOW_MILLIS, "answered after " + millis + "ms");
+        assertEquals(1, slow.chats());
+    }
+
+    private Optional<String> ask(String question) {
+        return client.askAsync(question, "test").orTimeout(30, TimeUnit.SECONDS).join();
+    }
+
+    private StubOllama stub(String answer, Mode mode) throws IOException {
+        StubOllama stub = new StubOllama(answer, mode);
+        stubs.add(stub);
+        return stub;
+    }
+
+    private enum Mode {
+        OK,
+        ERROR,
+        SLOW
+    }
+
+    // /api/chat answers a non-streamed chat reply (or 500, or a late reply); /api/tags follows the
+    // same mode so the background probe sees what requests see.
+    private static final class StubOllama {
+        private static final long SLOW_MILLIS = 3_000L;
+
+        private final String answer;
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger chats = new AtomicInteger();
+        private volatile Mode mode;
+        private boolean stopped;
+
+        private StubOllama(String answer, Mode mode) throws IOException {
+            this.answer = answer;
+            this.mode = mode;
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/api/chat", exchange -> {
+                chats.incrementAndGet();
+                handle(exchange, "{\"message\":{\"role\":\"assistant\",\"content\":\"" + answer + "\"},\"done\":true}");
+            });
+            server.createContext("/api/tags", exchange -> handle(exchange, "{\"models\":[]}"));
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        private void handle(HttpExchange exchange, String body) throws IOException {
+            exchange.getRequestBody().readAllBytes();
+            Mode current = mode;
+            if (current == Mode.SLOW) {
+                try {
+                    Thread.sleep(SLOW_MILLIS);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int status = current == Mode.ERROR ? 500 : 200;
+            byte[] bytes = (current == Mode.ERROR ? "{\"error\":\"stub failure\"}" : body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        private int port() {
+            return server.getAddress().getPort();
+        }
+
+        private String url() {
+            return "http://127.0.0.1:" + port();
+        }
+
+        private int chats() {
+            return chats.get();
+        }
+
+        private synchronized void stop() {
+            if (!stopped) {
+                stopped = true;
+                server.stop(0);
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.aiplayer.mod.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Task commands read open tasks from the in-memory queue and closed ones from SQLite, without
+// draining the journal on the caller thread.
+class BotTaskHistoryTest {
+    @TempDir
+    Path directory;
+
+    private BotMemoryRepository repository;
+
+    @BeforeEach
+    void open() {
+        repository = new BotMemoryRepository(directory.resolve("bot-memory.db"));
+        repository.initializeSchema();
+    }
+
+    @AfterEach
+    void close() {
+        repository.close();
+    }
+
+    @Test
+    void historyMergesOpenAndClosedTasksNewestFirst() {
+        long first = repository.enqueueBotTask("mine", "tester");
+        long second = repository.enqueueBotTask("farm", "tester");
+        long third = repository.enqueueBotTask("build", "tester");
+        assertTrue(repository.updateBotTaskStatus(second, "DONE"));
+
+        List<BotMemoryRepository.BotTask> tasks = repository.loadBotTasks(10);
+        assertEquals(List.of(third, second, first), tasks.stream().map(BotMemoryRepository.BotTask::id).toList());
+        assertEquals("DONE", tasks.get(1).status());
+        assertEquals(3, repository.countBotTasks());
+        assertEquals(1, repository.countBotTasksByStatus("DONE"));
+        assertEquals(2, repository.countOpenBotTasks());
+
+        assertEquals(List.of(third, second), repository.loadBotTasks(2).stream().map(BotMemoryRepository.BotTask::id).toList());
+    }
+
+    @Test
+    void reopenedTaskIsListedOnce() {
+        long id = repository.enqueueBotTask("mine", "tester");
+        assertTrue(repository.updateBotTaskStatus(id, "DONE"));
+        assertEquals("DONE", repository.loadBotTaskById(id).orElseThrow().status());
+
+        assertTrue(repository.updateBotTaskStatus(id, "PENDING"));
+        List<BotMemoryRepository.BotTask> tasks = repository.loadBotTasks(10);
+        assertEquals(1, tasks.size());
+        assertEquals("PENDING", tasks.get(0).status());
+        assertEquals(1, repository.countBotTasks());
+    }
+
+    @Test
+    void onlyClosedTasksAreDeleted() {
+        long open = repository.enqueueBotTask("mine", "tester");
+        long closed = repository.enqueueBotTask("farm", "tester");
+        assertTrue(repository.updateBotTaskStatus(closed, "CANCELED"));
+
+        assertFalse(repository.deleteBotTask(open));
+        assertTrue(repository.deleteBotTask(closed));
+        assertEquals(1, repository.countBotTasks());
+        assertTrue(repository.loadBotTaskById(closed).isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+package com.aiplayer.mod.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs every migration on an empty file and fails as soon as a hot query plans a full table scan,
+// instead of the startup warning an operator may never read.
+class HotQueryPlanTest {
+    @TempDir
+    Path directory;
+
+    private BotMemoryRepository repository;
+
+    @BeforeEach
+    void migrate() {
+        repository = new BotMemoryRepository(directory.resolve("bot-memory.db"));
+        repository.initializeSchema();
+    }
+
+    @AfterEach
+    void close() {
+        repository.close();
+    }
+
+    @Test
+    void migratesToLatestVersion() {
+        assertEquals(SchemaMigrations.latestVersion(), repository.getSchemaVersion());
+    }
+
+    @Test
+    void everyHotQueryUsesAnIndex() {
+        List<BotMemoryRepository.QueryPlanResult> results = repository.checkQueryPlans();
+
+        // checkQueryPlans stops at the first SQL error: a missing result is a broken query.
+        assertFalse(BotMemoryRepository.HOT_QUERIES.isEmpty());
+        assertEquals(BotMemoryRepository.HOT_QUERIES.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BotMemoryRepository.QueryPlanResult result = results.get(i);
+            assertEquals(BotMemoryRepository.HOT_QUERIES.get(i).name(), result.name());
+            assertTrue(result.indexed(), () -> result.name() + " scans a table: " + result.plan());
+            assertTrue(result.plan().contains(" USING "), () -> result.name() + " has no index in its plan: " + result.plan());
+        }
+    }
+}